@@ -0,0 +1,61 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.BatchMode;
+import Service.CirculationStatus;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks out and returns a stack of books as one batch, against one {@code tryCheckout} and
+ * {@code tryReturn} per book, in a concurrent library.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchCheckoutBenchmark {
+    @Param({"20"})
+    public int stackSize;
+
+    private Library library;
+    private User user;
+    private List<Book> stack;
+
+    @Setup
+    public void setUp() {
+        library = Library.concurrent("Benchmark Library");
+        user = new User("Mike", "Myers", "mm@gmail.com");
+        library.addMember(user);
+        Book[] books = new Book[stackSize];
+        for (int i = 0; i < stackSize; i++) {
+            books[i] = new Book(CatalogState.isbn(i), "Title", "Author", 2000);
+        }
+        stack = Arrays.asList(books);
+        library.addBooks(stack);
+    }
+
+    @Benchmark
+    public CirculationStatus[] checkoutAllReturnAll() {
+        library.checkoutAll(user, stack, BatchMode.ALL_OR_NOTHING);
+        return library.returnAll(user, stack, BatchMode.ALL_OR_NOTHING);
+    }
+
+    @Benchmark
+    public void checkoutEachReturnEach(Blackhole bh) {
+        for (Book book : stack) {
+            bh.consume(library.tryCheckout(book, user));
+        }
+        for (Book book : stack) {
+            bh.consume(library.tryReturn(book, user));
+        }
+    }
+}
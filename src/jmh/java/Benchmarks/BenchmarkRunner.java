@@ -0,0 +1,48 @@
+package Benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point for the {@code benchmark} Maven profile.
+ *
+ * <p>Accepts the regular JMH command line. Results are written as JSON to
+ * {@code <jmh.resultDir>/results-t<threads>.json}, once per thread count listed in the
+ * {@code jmh.threads} system property (e.g. {@code 1,2,4,8}), so runs can be diffed for regressions.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        Path resultDir = Path.of(System.getProperty("jmh.resultDir", "target/jmh"));
+        Files.createDirectories(resultDir);
+
+        String threads = System.getProperty("jmh.threads", "").trim();
+        if (threads.isEmpty()) {
+            run(cli, resultDir.resolve("results.json"), 0);
+            return;
+        }
+        for (String count : threads.split(",")) {
+            int t = Integer.parseInt(count.trim());
+            run(cli, resultDir.resolve("results-t" + t + ".json"), t);
+        }
+    }
+
+    private static void run(CommandLineOptions cli, Path result, int threads) throws Exception {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cli);
+        builder.resultFormat(ResultFormatType.JSON);
+        builder.result(result.toString());
+        if (threads > 0) {
+            builder.threads(threads);
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
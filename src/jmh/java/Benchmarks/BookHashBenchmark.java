@@ -0,0 +1,37 @@
+package Benchmarks;
+
+import Model.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Book#hashCode()} against the ISBN string hash it is derived from.
+ * The String caches its hash, so the difference is the cost of the Book wrapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookHashBenchmark {
+    private Book book;
+    private String isbn;
+
+    @Setup
+    public void setUp() {
+        isbn = "978-0-06-112008-4";
+        book = new Book(isbn, "To Kill a Mockingbird", "Harper Lee", 1960);
+    }
+
+    @Benchmark
+    public int bookHashCode() {
+        return book.hashCode();
+    }
+
+    @Benchmark
+    public int isbnHashCode() {
+        return isbn.hashCode();
+    }
+}
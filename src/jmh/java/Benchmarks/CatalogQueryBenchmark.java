@@ -0,0 +1,70 @@
+package Benchmarks;
+
+import Model.Book;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A one-decade publication year query and an author query through the secondary indexes,
+ * against filtering a scan of the available books.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogQueryBenchmark {
+    @Param({"1000000"})
+    public int catalogSize;
+
+    Library library;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        library = new Library("Benchmark Library");
+        Random random = new Random(42);
+        List<Book> batch = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(new Book(CatalogState.isbn(i), "Title", "Author " + random.nextInt(50_000), 1500 + random.nextInt(525)));
+        }
+        library.addBooks(batch);
+    }
+
+    @Benchmark
+    public List<Book> yearIndex() {
+        return library.findBooksByYear(1950, 1959, true);
+    }
+
+    @Benchmark
+    public List<Book> yearScan() {
+        List<Book> matches = new ArrayList<>();
+        for (Book book : library.getBooks()) {
+            if (book.getPublishYear() >= 1950 && book.getPublishYear() <= 1959) {
+                matches.add(book);
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<Book> authorIndex() {
+        return library.findBooksByAuthor("Author 12345", true);
+    }
+
+    @Benchmark
+    public List<Book> authorScan() {
+        List<Book> matches = new ArrayList<>();
+        for (Book book : library.getBooks()) {
+            if ("Author 12345".equals(book.getAuthor())) {
+                matches.add(book);
+            }
+        }
+        return matches;
+    }
+}
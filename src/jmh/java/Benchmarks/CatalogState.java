@@ -0,0 +1,65 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Shared library fixture for the circulation benchmarks.
+ * Half of the catalog is lent to a pool of borrowers, the other half stays available.
+ * The library is built in concurrent mode whenever the benchmark runs with more than one thread.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+    static final int BORROWERS = 1_000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogSize;
+
+    Library library;
+    Book[] catalog;
+    Book[] available;
+    User[] borrowers;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        library = params.getThreads() > 1 ? Library.concurrent("Benchmark Library") : new Library("Benchmark Library");
+        catalog = new Book[catalogSize];
+        available = new Book[catalogSize - catalogSize / 2];
+        borrowers = new User[BORROWERS];
+
+        for (int i = 0; i < BORROWERS; i++) {
+            borrowers[i] = new User("Borrower", Integer.toString(i), "borrower" + i + "@library.org");
+            library.addMember(borrowers[i]);
+        }
+
+        // Titles and authors are shared so the heap is dominated by the library's own structures
+        for (int i = 0; i < catalogSize; i++) {
+            catalog[i] = new Book(isbn(i), "Title", "Author", 2000);
+            library.addBook(catalog[i]);
+        }
+
+        int next = 0;
+        for (int i = 0; i < catalogSize; i++) {
+            if ((i & 1) == 1) {
+                library.tryCheckout(catalog[i], borrowers[i % BORROWERS]);
+            } else {
+                available[next++] = catalog[i];
+            }
+        }
+    }
+
+    /**
+     * Returns a synthetic ISBN-13 with a valid check digit for the given index.
+     */
+    static String isbn(long index) {
+        String body = "978" + String.format("%09d", index % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            sum += (body.charAt(i) - '0') * ((i & 1) == 0 ? 1 : 3);
+        }
+        return body + ((10 - sum % 10) % 10);
+    }
+}
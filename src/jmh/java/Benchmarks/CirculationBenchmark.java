@@ -0,0 +1,55 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link Library}: a checkout/return round trip, borrower lookup and the active
+ * borrower view, across catalog sizes. Run with {@code -Djmh.threads=1,2,4,8} to sweep threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CirculationBenchmark {
+
+    @State(Scope.Thread)
+    public static class Patron {
+        User user;
+
+        @Setup(Level.Trial)
+        public void setUp(CatalogState state) {
+            user = new User("Bench", "Patron", "patron@library.org");
+            state.library.addMember(user);
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip(CatalogState state, Patron patron) {
+        Book book = state.available[ThreadLocalRandom.current().nextInt(state.available.length)];
+        CirculationStatus status = state.library.tryCheckout(book, patron.user);
+        if (status.isSuccess()) {
+            state.library.tryReturn(book, patron.user);
+        }
+        return status;
+    }
+
+    @Benchmark
+    public Optional<User> getCurrentBorrower(CatalogState state) {
+        return state.library.getCurrentBorrower(state.catalog[ThreadLocalRandom.current().nextInt(state.catalog.length)]);
+    }
+
+    @Benchmark
+    public Set<User> getActiveBorrowers(CatalogState state) {
+        return state.library.getActiveBorrowers();
+    }
+}
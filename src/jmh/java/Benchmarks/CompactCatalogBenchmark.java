@@ -0,0 +1,62 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.Isbn;
+import Model.User;
+import Service.CirculationStatus;
+import Service.CompactCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link CirculationBenchmark} round trip and borrower lookup against {@link CompactCatalog}.
+ * Add {@code -prof gc} to confirm both paths allocate nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class CompactCatalogBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogSize;
+
+    private CompactCatalog catalog;
+    private long[] keys;
+    private User patron;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = new CompactCatalog("Benchmark Catalog", catalogSize);
+        keys = new long[catalogSize];
+        patron = new User("Bench", "Patron", "patron@library.org");
+        catalog.addMember(patron);
+
+        User borrower = new User("Bench", "Borrower", "borrower@library.org");
+        for (int i = 0; i < catalogSize; i++) {
+            Book book = new Book(CatalogState.isbn(i), "Title", "Author", 2000);
+            keys[i] = Isbn.parse(book.getIsbn());
+            catalog.addBook(book);
+            if ((i & 1) == 1) {
+                catalog.checkout(keys[i], borrower);
+            }
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip() {
+        // even indexes are available
+        long key = keys[ThreadLocalRandom.current().nextInt(catalogSize) & ~1];
+        CirculationStatus status = catalog.checkout(key, patron);
+        catalog.returnBook(key, patron);
+        return status;
+    }
+
+    @Benchmark
+    public User getCurrentBorrower() {
+        return catalog.getCurrentBorrower(keys[ThreadLocalRandom.current().nextInt(catalogSize)]);
+    }
+}
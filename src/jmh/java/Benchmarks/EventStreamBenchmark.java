@@ -0,0 +1,61 @@
+package Benchmarks;
+
+import Events.BackpressurePolicy;
+import Events.EventStream;
+import Events.WaitStrategy;
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of publishing every change to an {@link EventStream} on a checkout/return round trip,
+ * without a stream and with one consuming handler per wait strategy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventStreamBenchmark {
+    @Param({"NONE", "SLEEPING", "BLOCKING"})
+    public String waitStrategy;
+
+    private Library library;
+    private EventStream stream;
+    private Book book;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        library = Library.concurrent("Benchmark Library");
+        book = new Book(CatalogState.isbn(0), "Title", "Author", 2000);
+        user = new User("Mike", "Myers", "mm@gmail.com");
+        library.addBook(book);
+        if (!waitStrategy.equals("NONE")) {
+            stream = new EventStream(EventStream.DEFAULT_BUFFER_SIZE, WaitStrategy.valueOf(waitStrategy), BackpressurePolicy.DROP);
+            stream.addHandler((event, sequence, endOfBatch) -> Blackhole.consumeCPU(1));
+            stream.start();
+            library.addListener(stream);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (stream != null) {
+            library.removeListener(stream);
+            stream.close();
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip() {
+        library.tryCheckout(book, user);
+        return library.tryReturn(book, user);
+    }
+}
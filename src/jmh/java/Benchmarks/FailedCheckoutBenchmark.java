@@ -0,0 +1,52 @@
+package Benchmarks;
+
+import Exceptions.BookNotAvailableException;
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a checkout that fails because the book is already lent,
+ * comparing the exception-based API with the status-returning API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FailedCheckoutBenchmark {
+    private Library library;
+    private Book book;
+    private User waiting;
+
+    @Setup
+    public void setUp() throws BookNotAvailableException {
+        library = new Library("Benchmark Library");
+        book = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        User borrower = new User("Mike", "Myers", "mm@gmail.com");
+        waiting = new User("John", "Cena", "ucantcme@gmail.com");
+
+        library.addBook(book);
+        library.checkout(book, borrower);
+    }
+
+    @Benchmark
+    public void checkoutThrowing(Blackhole bh) {
+        try {
+            library.checkout(book, waiting);
+        } catch (BookNotAvailableException ex) {
+            bh.consume(ex);
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus tryCheckout() {
+        return library.tryCheckout(book, waiting);
+    }
+}
@@ -0,0 +1,29 @@
+package Benchmarks;
+
+import Util.Ids;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member id generation with {@link UUID#randomUUID()} against {@link Ids#randomId()}.
+ * Run with {@code -Djmh.threads=1,2,4,8} to see how each scales.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdBenchmark {
+
+    @Benchmark
+    public String uuidRandomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String idsRandomId() {
+        return Ids.randomId();
+    }
+}
@@ -0,0 +1,58 @@
+package Benchmarks;
+
+import Import.BulkImporter;
+import Import.ImportReport;
+import Import.RecordFormat;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-file import of a synthetic CSV catalog with 1% invalid ISBNs: parsing and validation only
+ * (a counting sink), and parsing plus batched insertion into a concurrent Library.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+    @Param({"10000000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("catalog", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("isbn,title,author,publishYear\n");
+            for (int i = 0; i < rows; i++) {
+                out.write(i % 100 == 0 ? "not-an-isbn" : CatalogState.isbn(i));
+                out.write(",\"Title " + (i % 50_000) + ", Volume " + (i % 7) + "\",Author " + (i % 20_000) + "," + (1900 + i % 120) + "\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ImportReport parseOnly() throws IOException {
+        return new BulkImporter().importBooks(file, RecordFormat.CSV, batch -> batch.size());
+    }
+
+    @Benchmark
+    public ImportReport intoConcurrentLibrary() throws IOException {
+        return new BulkImporter().importBooks(file, RecordFormat.CSV, Library.concurrent("Benchmark Library"));
+    }
+}
@@ -0,0 +1,78 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Persistence.LibraryJournal;
+import Persistence.SyncMode;
+import Service.CirculationStatus;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checkout/return throughput of a journaled concurrent library under each {@link SyncMode}.
+ * Run with several threads ({@code -t 8}) to see group commit share each fsync.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+    private static final int BOOKS = 100_000;
+
+    @Param({"GROUP", "ASYNC", "NONE"})
+    public SyncMode syncMode;
+
+    private Path directory;
+    private Library library;
+    private LibraryJournal journal;
+    private Book[] catalog;
+
+    @State(Scope.Thread)
+    public static class Patron {
+        User user = new User("Bench", "Patron", "patron@library.org");
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        library = Library.concurrent("Benchmark Library");
+        journal = LibraryJournal.open(directory, library, syncMode, Duration.ofMillis(5));
+        catalog = new Book[BOOKS];
+        for (int i = 0; i < BOOKS; i++) {
+            catalog[i] = new Book(CatalogState.isbn(i), "Title", "Author", 2000);
+            library.addBook(catalog[i]);
+        }
+        journal.checkpoint();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip(Patron patron) {
+        Book book = catalog[ThreadLocalRandom.current().nextInt(BOOKS)];
+        CirculationStatus status = library.tryCheckout(book, patron.user);
+        if (status.isSuccess()) {
+            library.tryReturn(book, patron.user);
+        }
+        return status;
+    }
+}
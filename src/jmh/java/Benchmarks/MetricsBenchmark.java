@@ -0,0 +1,43 @@
+package Benchmarks;
+
+import Metrics.LibraryMetrics;
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of instrumentation on a checkout/return round trip, with metrics disabled and enabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private Library library;
+    private Book book;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        library = Library.concurrent("Benchmark Library");
+        book = new Book(CatalogState.isbn(0), "Title", "Author", 2000);
+        user = new User("Mike", "Myers", "mm@gmail.com");
+        library.addBook(book);
+        library.setMetrics(enabled ? new LibraryMetrics() : null);
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip() {
+        library.tryCheckout(book, user);
+        return library.tryReturn(book, user);
+    }
+}
@@ -0,0 +1,52 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.MultiCopyInventory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checkout and return of one heavily borrowed title with many copies, from every benchmark thread.
+ * Run with {@code -Djmh.threads=1,2,4,8} to see how it scales.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiCopyBenchmark {
+    @Param({"64"})
+    public int copies;
+
+    MultiCopyInventory inventory;
+    Book bestseller;
+    final AtomicInteger nextUser = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventory = new MultiCopyInventory("Benchmark Library");
+        bestseller = new Book(CatalogState.isbn(0), "Title", "Author", 2000);
+        inventory.addTitle(bestseller, copies);
+    }
+
+    @State(Scope.Thread)
+    public static class Borrower {
+        User user;
+
+        @Setup(Level.Trial)
+        public void setUp(MultiCopyBenchmark benchmark) {
+            user = new User("Borrower", Integer.toString(benchmark.nextUser.getAndIncrement()), null);
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturn(Borrower borrower) {
+        inventory.tryCheckout(bestseller, borrower.user);
+        return inventory.tryReturn(bestseller, borrower.user);
+    }
+}
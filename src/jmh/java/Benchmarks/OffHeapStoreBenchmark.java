@@ -0,0 +1,80 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import Storage.InMemoryStore;
+import Storage.LibraryStore;
+import Storage.OffHeapStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups on a library whose catalog is on the heap against one whose catalog is in an
+ * {@link OffHeapStore}: an availability check, a borrower lookup and reading a title through
+ * {@code findBook}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OffHeapStoreBenchmark {
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    LibraryStore libraryStore;
+    Library library;
+    Book[] lookups;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        libraryStore = store.equals("offheap") ? new OffHeapStore() : new InMemoryStore(true);
+        library = new Library("Benchmark Library", libraryStore);
+        User user = new User("Mike", "Myers", "mm@gmail.com");
+        library.addMember(user);
+        for (int i = 0; i < catalogSize; i++) {
+            Book book = new Book(CatalogState.isbn(i), "Title " + i, "Author " + i % 1000, 1900 + i % 100);
+            library.addBook(book);
+            if ((i & 1) == 1) {
+                library.tryCheckout(book, user);
+            }
+        }
+        Random random = new Random(42);
+        lookups = new Book[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = new Book(CatalogState.isbn(random.nextInt(catalogSize)), null, null, 0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        libraryStore.close();
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return library.getBooks().contains(lookups[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<User> currentBorrower() {
+        return library.getCurrentBorrower(lookups[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public String findTitle() {
+        return library.findBook(lookups[next++ & (LOOKUPS - 1)].getIsbn()).orElseThrow().getTitle();
+    }
+}
@@ -0,0 +1,76 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.OverdueScheduler;
+import Util.ManualClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of tracking due dates with {@link OverdueScheduler} while many loans are active, against
+ * the nightly job it replaces: a scan of every loan for due dates in the past.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OverdueBenchmark {
+    @Param({"100000", "1000000"})
+    public int activeLoans;
+
+    OverdueScheduler scheduler;
+    Map<Book, Long> dueDates;
+    ManualClock clock;
+    Book book;
+    User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clock = new ManualClock(Instant.parse("2024-09-01T00:00:00Z"));
+        scheduler = new OverdueScheduler(Duration.ofDays(21), clock, OverdueScheduler.DEFAULT_TICK);
+        dueDates = new HashMap<>();
+        user = new User("Bench", "Mark", null);
+        for (int i = 0; i < activeLoans; i++) {
+            Book loaned = new Book(CatalogState.isbn(i), "Title " + i, "Author", 2000);
+            scheduler.onCheckout(loaned, user);
+            dueDates.put(loaned, clock.millis() + Duration.ofDays(21).toMillis());
+            if (i % 1000 == 999) {
+                clock.advance(Duration.ofSeconds(1));
+            }
+        }
+        book = new Book(CatalogState.isbn(activeLoans), "Title", "Author", 2000);
+    }
+
+    @Benchmark
+    public boolean checkoutReturn() {
+        scheduler.onCheckout(book, user);
+        scheduler.onReturn(book, user);
+        return scheduler.isOverdue(book);
+    }
+
+    @Benchmark
+    public int advanceNoneDue() {
+        return scheduler.advance();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int scanAllLoans() {
+        long now = clock.millis();
+        int overdue = 0;
+        for (long due : dueDates.values()) {
+            if (due <= now) {
+                overdue++;
+            }
+        }
+        return overdue;
+    }
+}
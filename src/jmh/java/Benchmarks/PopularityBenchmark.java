@@ -0,0 +1,66 @@
+package Benchmarks;
+
+import Analytics.PopularItem;
+import Analytics.PopularityTracker;
+import Model.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of counting a checkout in a {@link PopularityTracker}, from one thread and from four at
+ * once, and of reading the top ten books, with checkouts skewed towards a small part of the
+ * catalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PopularityBenchmark {
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    PopularityTracker tracker;
+    Book[] samples;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tracker = new PopularityTracker(Duration.ofDays(7));
+        Random random = new Random(42);
+        samples = new Book[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Cubing a uniform draw favours low indexes
+            double u = random.nextDouble();
+            int index = (int) (u * u * u * catalogSize);
+            samples[i] = new Book(CatalogState.isbn(index), "Title " + index, "Author " + index % 1000, 2000);
+        }
+        for (Book book : samples) {
+            tracker.record(book);
+        }
+    }
+
+    @Benchmark
+    public void recordCheckout() {
+        tracker.record(samples[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordCheckoutFromFourThreads() {
+        tracker.record(samples[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+
+    @Benchmark
+    public List<PopularItem<Book>> topTenBooks() {
+        return tracker.topBooks(10);
+    }
+}
@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Report.ExportReport;
+import Report.ReportExporter;
+import Report.ReportFormat;
+import Service.Library;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A month-end patron report over 2M members, a quarter of them with a loan: the old way of
+ * joining every {@code User.toString()} into one string and writing it at the end, against
+ * {@link ReportExporter} streaming CSV and JSON lines from the common pool.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+    @Param({"2000000"})
+    public int memberCount;
+
+    private Library library;
+    private Path file;
+    private final ReportExporter exporter = new ReportExporter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        library = Library.concurrent("Benchmark Library");
+        for (int i = 0; i < memberCount; i++) {
+            User user = new User("First" + i, "Last" + i, "member" + i + "@example.com");
+            library.addMember(user);
+            if ((i & 3) == 0) {
+                Book book = new Book(CatalogState.isbn(i), "Title " + i, "Author " + i % 20_000, 1900 + i % 120);
+                library.addBook(book);
+                library.tryCheckout(book, user);
+            }
+        }
+        file = Files.createTempFile("members", ".report");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bufferedToString() throws IOException {
+        StringBuilder report = new StringBuilder();
+        for (User user : library.getMembers()) {
+            report.append(user).append("\n\n");
+        }
+        Files.writeString(file, report);
+        return report.length();
+    }
+
+    @Benchmark
+    public ExportReport streamingCsv() throws IOException {
+        return exporter.exportMembers(library, file, ReportFormat.CSV);
+    }
+
+    @Benchmark
+    public ExportReport streamingJsonLines() throws IOException {
+        return exporter.exportMembers(library, file, ReportFormat.JSON_LINES);
+    }
+}
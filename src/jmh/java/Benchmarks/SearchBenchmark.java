@@ -0,0 +1,88 @@
+package Benchmarks;
+
+import Model.Book;
+import Search.SearchHit;
+import Search.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked query latency of {@link SearchIndex} over a synthetic catalog, including two-letter
+ * type-ahead prefixes that expand to many terms.
+ * Titles are three words and authors two words drawn from a vocabulary with a skewed distribution,
+ * so some terms are very common and others rare, as in a real catalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final int VOCABULARY = 50_000;
+
+    @Param({"1000000", "5000000"})
+    public int catalogSize;
+
+    private SearchIndex index;
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = syntheticWord(random);
+        }
+
+        index = new SearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            String title = word(random) + " " + word(random) + " " + word(random);
+            String author = word(random) + " " + word(random);
+            index.add(new Book(CatalogState.isbn(i), title, author, 1900 + i % 120));
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> twoWordQuery() {
+        return index.search(words[10] + " " + words[500] + " ", 10, book -> true);
+    }
+
+    @Benchmark
+    public List<SearchHit> typeAheadPrefix() {
+        return index.search(words[1_000] + " " + words[20_000].substring(0, 3), 10, book -> true);
+    }
+
+    @Benchmark
+    public List<SearchHit> shortPrefix() {
+        return index.search(words[1_000] + " " + words[20_000].substring(0, 2), 10, book -> true);
+    }
+
+    @Benchmark
+    public List<SearchHit> shortPrefixAlone() {
+        return index.search(words[0].substring(0, 2), 10, book -> true);
+    }
+
+    @Benchmark
+    public List<SearchHit> rareWord() {
+        return index.search(words[40_000] + " ", 10, book -> true);
+    }
+
+    // Squaring a uniform draw skews picks towards the start of the vocabulary
+    private String word(Random random) {
+        double u = random.nextDouble();
+        return words[(int) (u * u * VOCABULARY)];
+    }
+
+    private static String syntheticWord(Random random) {
+        int length = 4 + random.nextInt(6);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.ShardedLibrary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout/return throughput of a {@link ShardedLibrary} as shards are added. Run with
+ * {@code -Djmh.threads=8} (or the number of cores) to see throughput grow with the shard count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ShardedLibraryBenchmark {
+    @Param({"1", "2", "4", "8", "16"})
+    public int shards;
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    ShardedLibrary library;
+    Book[] catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        library = new ShardedLibrary("Benchmark Library", shards);
+        catalog = new Book[catalogSize];
+        List<Book> batch = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            catalog[i] = new Book(CatalogState.isbn(i), "Title", "Author", 2000);
+            batch.add(catalog[i]);
+        }
+        library.addBooks(batch);
+    }
+
+    @State(Scope.Thread)
+    public static class Patron {
+        User user;
+
+        @Setup(Level.Trial)
+        public void setUp(ShardedLibraryBenchmark benchmark) {
+            user = new User("Bench", "Patron", "patron@library.org");
+            benchmark.library.addMember(user);
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip(Patron patron) {
+        Book book = catalog[ThreadLocalRandom.current().nextInt(catalog.length)];
+        CirculationStatus status = library.tryCheckout(book, patron.user);
+        if (status.isSuccess()) {
+            library.tryReturn(book, patron.user);
+        }
+        return status;
+    }
+}
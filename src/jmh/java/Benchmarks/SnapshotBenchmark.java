@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Persistence.CatalogSnapshot;
+import Service.Library;
+import Storage.SnapshotStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start cost: mapping a {@link CatalogSnapshot} and reading one book, starting a library on a
+ * {@link SnapshotStore} and checking out one book, against rebuilding the same catalog with
+ * {@code new Book(...)} and {@link Library#addBook} per title.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    @Param({"1000000"})
+    public int catalogSize;
+
+    private Path file;
+    private String[] isbns;
+    private final User reader = new User("Bench", "Reader", "reader@example.com");
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Library library = new Library("Benchmark Library");
+        isbns = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            isbns[i] = CatalogState.isbn(i);
+            library.addBook(new Book(isbns[i], "Title " + (i % 50_000), "Author " + (i % 20_000), 1900 + i % 120));
+        }
+        file = Files.createTempFile("catalog", ".snap");
+        CatalogSnapshot.write(library, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Book openSnapshotAndLookup() throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        return snapshot.findBook(isbns[ThreadLocalRandom.current().nextInt(catalogSize)]);
+    }
+
+    @Benchmark
+    public Library openLibraryOnSnapshotStore() throws IOException {
+        Library library = new Library("Benchmark Library", SnapshotStore.open(file));
+        Book book = library.findBook(isbns[ThreadLocalRandom.current().nextInt(catalogSize)]).orElseThrow();
+        library.tryCheckout(book, reader);
+        return library;
+    }
+
+    @Benchmark
+    public Library rebuildWithAddBook() {
+        Library library = new Library("Benchmark Library");
+        for (int i = 0; i < catalogSize; i++) {
+            library.addBook(new Book(isbns[i], "Title " + (i % 50_000), "Author " + (i % 20_000), 1900 + i % 120));
+        }
+        return library;
+    }
+}
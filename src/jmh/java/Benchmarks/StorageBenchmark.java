@@ -0,0 +1,83 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import Storage.DiskStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Borrower and availability lookups on a library backed by a {@link DiskStore}, with and without
+ * its read cache. Lookups are skewed: nine in ten go to one percent of the catalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"200000"})
+    public int catalogSize;
+
+    @Param({"0", "10000"})
+    public int cacheEntries;
+
+    Path directory;
+    DiskStore store;
+    Library library;
+    Book[] lookups;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("storage-benchmark");
+        store = DiskStore.open(directory, cacheEntries, 4096);
+        library = new Library("Benchmark Library", store);
+        User user = new User("Mike", "Myers", "mm@gmail.com");
+        library.addMember(user);
+        Book[] catalog = new Book[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            catalog[i] = new Book(CatalogState.isbn(i), "Title", "Author", 2000);
+            library.addBook(catalog[i]);
+            if ((i & 1) == 1) {
+                library.tryCheckout(catalog[i], user);
+            }
+        }
+        Random random = new Random(42);
+        int hot = catalogSize / 100;
+        lookups = new Book[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = catalog[random.nextInt(10) == 0 ? random.nextInt(catalogSize) : random.nextInt(hot)];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Optional<User> currentBorrower() {
+        return library.getCurrentBorrower(lookups[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return library.getBooks().contains(lookups[next++ & (LOOKUPS - 1)]);
+    }
+}
@@ -0,0 +1,64 @@
+package Benchmarks;
+
+import Model.Book;
+import Util.StringDictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained by a million books whose authors are fresh strings per row against books that
+ * intern their authors in a {@link StringDictionary}; titles are fresh strings in both. Rows are
+ * built as a parser would, over 250K titles and 20K authors; the {@code retainedMegabytes}
+ * counter is the heap still in use after a full collection, the dictionary included. Each
+ * iteration uses a new dictionary, as a new library would. JMH sums event counters over the
+ * measured iterations, so divide the counter by their number for the megabytes per million books.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class StringDictionaryBenchmark {
+    private static final int BOOKS = 1_000_000;
+
+    @Param({"plain", "dictionary"})
+    public String strings;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double retainedMegabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedMegabytes = 0;
+        }
+    }
+
+    @Benchmark
+    public Book[] loadCatalog(Footprint footprint) {
+        long before = usedHeap();
+        Book[] books = new Book[BOOKS];
+        StringDictionary authors = strings.equals("dictionary") ? new StringDictionary() : null;
+        for (int i = 0; i < BOOKS; i++) {
+            String isbn = CatalogState.isbn(i);
+            String title = "Title " + (i % 250_000);
+            String author = "Author " + (i % 20_000);
+            books[i] = authors != null ? new Book(isbn, title, author, 1900 + i % 120, authors) : new Book(isbn, title, author, 1900 + i % 120);
+        }
+        footprint.retainedMegabytes = (usedHeap() - before) / (1024.0 * 1024.0);
+        Reference.reachabilityFence(authors);
+        return books;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,73 @@
+package Benchmarks;
+
+import Model.Book;
+import Model.User;
+import Service.CatalogVersion;
+import Service.CirculationStatus;
+import Service.Library;
+import Service.VersionedCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping a {@link VersionedCatalog} on a checkout/return round trip, and of taking a
+ * snapshot against copying the live loan map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionedCatalogBenchmark {
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"false", "true"})
+    public boolean versioned;
+
+    Library library;
+    VersionedCatalog catalog;
+    Book book;
+    User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        library = Library.concurrent("Benchmark Library");
+        user = new User("Mike", "Myers", "mm@gmail.com");
+        for (int i = 0; i < catalogSize; i++) {
+            Book added = new Book(CatalogState.isbn(i), "Title", "Author", 2000);
+            library.addBook(added);
+            if ((i & 1) == 1) {
+                library.tryCheckout(added, user);
+            }
+        }
+        book = new Book(CatalogState.isbn(catalogSize), "Title", "Author", 2000);
+        library.addBook(book);
+        if (versioned) {
+            catalog = VersionedCatalog.attach(library);
+        }
+    }
+
+    @Benchmark
+    public CirculationStatus checkoutReturnRoundTrip() {
+        library.tryCheckout(book, user);
+        return library.tryReturn(book, user);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @SuppressWarnings("unchecked")
+    public int consistentLoanView() {
+        if (versioned) {
+            CatalogVersion version = catalog.snapshot();
+            return version.getCheckedOutBooks().size();
+        }
+        Map<Book, User>[] copy = new Map[1];
+        library.runExclusive(() -> copy[0] = new HashMap<>(library.getCheckedOutBooks()));
+        return copy[0].size();
+    }
+}
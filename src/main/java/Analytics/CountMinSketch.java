@@ -0,0 +1,95 @@
+package Analytics;
+
+import java.util.Arrays;
+
+/**
+ * Approximate counts of keys in a fixed table of integer counters.
+ *
+ * <p>Each key increments one counter in each of four rows, and its estimate is the smallest of
+ * those counters. Collisions can only add to a counter, so estimates are never too low, and with
+ * {@code width} counters per row they overshoot by more than {@code e / width} of the total with
+ * probability below 2%. Two sketches of the same width can be subtracted, which is how expired
+ * parts of a window are removed. Not thread-safe.
+ */
+final class CountMinSketch {
+    static final int DEPTH = 4;
+
+    private final int[] counters; // DEPTH rows of width counters
+    private final int width;
+    private final int mask;
+
+    /**
+     * Constructs an empty sketch.
+     *
+     * @param width - counters per row, a power of two.
+     */
+    CountMinSketch(int width) {
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two");
+        }
+        this.counters = new int[DEPTH * width];
+        this.width = width;
+        this.mask = width - 1;
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param hash - the key's hash code.
+     * @return - the key's estimated count afterwards.
+     */
+    int add(int hash) {
+        long h = spread(hash);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * this.width + index(h, row);
+            min = Math.min(min, ++this.counters[index]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the estimated count of a key.
+     *
+     * @param hash - the key's hash code.
+     */
+    int estimate(int hash) {
+        long h = spread(hash);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, this.counters[row * this.width + index(h, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every count recorded in another sketch of the same width.
+     *
+     * @param other - a sketch whose counts were also added to this one.
+     */
+    void subtract(CountMinSketch other) {
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] -= other.counters[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(this.counters, 0);
+    }
+
+    int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Picks the key's counter in a row from two independent halves of a 64-bit hash.
+     */
+    private int index(long h, int row) {
+        return (int) ((h >>> 32) + row * (h | 1)) & this.mask;
+    }
+
+    private static long spread(int hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
+    }
+}
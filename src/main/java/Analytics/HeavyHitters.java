@@ -0,0 +1,182 @@
+package Analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The most frequent keys over a sliding window of buckets, in constant memory.
+ *
+ * <p>Every bucket counts its keys in its own {@link CountMinSketch}, and a window sketch holds
+ * the sum of all buckets so an estimate is one lookup. When the window slides, the oldest
+ * bucket is subtracted from the window sketch and reused. The keys with the highest estimates
+ * are kept as candidates in a min-heap: a new key replaces the weakest candidate as soon as its
+ * estimate is higher. Not thread-safe.
+ *
+ * @param <K> - the type of keys.
+ */
+final class HeavyHitters<K> {
+    private final CountMinSketch window;
+    private final CountMinSketch[] buckets;
+    private int current;
+    private final Map<K, Candidate<K>> candidates;
+    private final Candidate<K>[] heap; // min-heap on count
+    private int size;
+
+    /**
+     * Constructs an empty tracker.
+     *
+     * @param bucketCount - number of buckets in the window.
+     * @param capacity - number of candidate keys kept.
+     * @param width - counters per sketch row, a power of two.
+     */
+    HeavyHitters(int bucketCount, int capacity, int width) {
+        this.window = new CountMinSketch(width);
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            this.buckets[i] = new CountMinSketch(width);
+        }
+        this.candidates = new HashMap<>(capacity * 2);
+        this.heap = newHeap(capacity);
+    }
+
+    /**
+     * Counts one occurrence of a key in the current bucket.
+     */
+    void add(K key) {
+        int hash = key.hashCode();
+        this.buckets[this.current].add(hash);
+        int count = this.window.add(hash);
+        Candidate<K> candidate = this.candidates.get(key);
+        if (candidate != null) {
+            candidate.count = count;
+            siftDown(candidate.index); // counts only grow between slides
+        } else if (this.size < this.heap.length) {
+            candidate = new Candidate<>(key, count);
+            this.candidates.put(key, candidate);
+            this.heap[this.size] = candidate;
+            candidate.index = this.size++;
+            siftUp(candidate.index);
+        } else if (count > this.heap[0].count) {
+            Candidate<K> weakest = this.heap[0];
+            this.candidates.remove(weakest.key);
+            weakest.key = key;
+            weakest.count = count;
+            this.candidates.put(key, weakest);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Returns the estimated count of a key in the window.
+     */
+    int estimate(K key) {
+        return this.window.estimate(key.hashCode());
+    }
+
+    /**
+     * Drops the oldest bucket and starts counting in a fresh one. Candidates whose counts fell
+     * to zero are removed.
+     */
+    void slide() {
+        int oldest = (this.current + 1) % this.buckets.length;
+        this.window.subtract(this.buckets[oldest]);
+        this.buckets[oldest].clear();
+        this.current = oldest;
+
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            Candidate<K> candidate = this.heap[i];
+            candidate.count = this.window.estimate(candidate.key.hashCode());
+            if (candidate.count > 0) {
+                this.heap[kept++] = candidate;
+            } else {
+                this.candidates.remove(candidate.key);
+            }
+        }
+        Arrays.fill(this.heap, kept, this.size, null);
+        this.size = kept;
+        for (int i = 0; i < kept; i++) {
+            this.heap[i].index = i;
+        }
+        for (int i = kept / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Returns the candidates with the highest counts, highest first. Counts are read afresh from
+     * the window sketch, since a candidate's stored count is only updated when it is seen.
+     *
+     * @param k - maximum number of keys to return.
+     */
+    List<PopularItem<K>> top(int k) {
+        List<PopularItem<K>> all = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            K key = this.heap[i].key;
+            all.add(new PopularItem<>(key, this.window.estimate(key.hashCode())));
+        }
+        all.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return all.size() > k ? new ArrayList<>(all.subList(0, k)) : all;
+    }
+
+    int getCapacity() {
+        return this.heap.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Candidate<K>[] newHeap(int capacity) {
+        return (Candidate<K>[]) new Candidate<?>[capacity];
+    }
+
+    private void siftUp(int index) {
+        Candidate<K> moving = this.heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (this.heap[parent].count <= moving.count) {
+                break;
+            }
+            place(this.heap[parent], index);
+            index = parent;
+        }
+        place(moving, index);
+    }
+
+    private void siftDown(int index) {
+        Candidate<K> moving = this.heap[index];
+        int half = this.size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < this.size && this.heap[child + 1].count < this.heap[child].count) {
+                child++;
+            }
+            if (moving.count <= this.heap[child].count) {
+                break;
+            }
+            place(this.heap[child], index);
+            index = child;
+        }
+        place(moving, index);
+    }
+
+    private void place(Candidate<K> candidate, int index) {
+        this.heap[index] = candidate;
+        candidate.index = index;
+    }
+
+    /**
+     * A tracked key, its latest estimate and its position in the heap.
+     */
+    private static final class Candidate<K> {
+        K key;
+        int count;
+        int index;
+
+        Candidate(K key, int count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
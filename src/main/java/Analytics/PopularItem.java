@@ -0,0 +1,45 @@
+package Analytics;
+
+/**
+ * An item and its estimated number of checkouts in the current window.
+ *
+ * @param <T> - the type of item, a book or an author.
+ */
+public class PopularItem<T> {
+    private final T item;
+    private final long count;
+
+    /**
+     * Constructs a popular item.
+     *
+     * @param item - the book or author.
+     * @param count - estimated checkouts in the window.
+     */
+    public PopularItem(T item, long count) {
+        this.item = item;
+        this.count = count;
+    }
+
+    /**
+     * Returns a string representation of the item.
+     */
+    @Override
+    public String toString() {
+        return this.item + " (" + this.count + " checkouts)";
+    }
+
+    // Getters
+    /**
+     * Returns the book or author.
+     */
+    public T getItem() {
+        return this.item;
+    }
+
+    /**
+     * Returns the estimated number of checkouts in the window. Never less than the true count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+}
@@ -0,0 +1,275 @@
+package Analytics;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the most borrowed books and authors of a library over a sliding time window, such as
+ * "most borrowed this week" for a branch.
+ *
+ * <p>Registered as a {@link CirculationListener}, the tracker counts every checkout in
+ * Count-Min sketches and keeps the most frequent books and authors as heavy-hitter candidates,
+ * so memory stays fixed however many checkouts it sees and no event is stored. The window is
+ * split into buckets; when the clock passes the end of a bucket the oldest one expires. Counts
+ * are estimates that may overshoot slightly but are never too low.
+ *
+ * <p>Thread-safe. A library calls {@link #record(Book)} under the book's stripe lock, so the
+ * tracker must not add a lock every checkout waits on. Checkouts are instead appended to one of
+ * several small ring buffers, picked by thread, and counted in batches by whichever thread gets
+ * the tracker's lock first; a checkout that finds the lock taken leaves its book in the buffer
+ * and returns. Only a thread that finds its buffer full, or records the first checkout after a
+ * bucket ends, waits for the lock. Queries count every buffered checkout first, so their
+ * results include every checkout recorded before them.
+ */
+public class PopularityTracker implements CirculationListener {
+    public static final int DEFAULT_BUCKETS = 7;
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private static final int SKETCH_WIDTH = 1 << 13;
+    private static final int BUFFER_SIZE = 128; // checkouts held per buffer, a power of two
+    private static final int DRAIN_THRESHOLD = BUFFER_SIZE / 4;
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private volatile long bucketEnd; // read without the lock by record
+    private long windowCheckouts;
+    private final long[] bucketCheckouts;
+    private int currentBucket;
+    private final HeavyHitters<Book> books;
+    private final HeavyHitters<String> authors;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Buffer[] buffers;
+
+    /**
+     * Constructs a tracker over a window of seven buckets that keeps the top 100 books and
+     * authors, on the system clock.
+     *
+     * @param window - how far back checkouts count, e.g. seven days.
+     */
+    public PopularityTracker(Duration window) {
+        this(window, DEFAULT_BUCKETS, DEFAULT_CAPACITY, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a tracker.
+     *
+     * @param window - how far back checkouts count.
+     * @param buckets - number of steps the window slides in; more buckets expire old checkouts
+     *                  more smoothly at the cost of one sketch each.
+     * @param capacity - number of books and of authors tracked, the largest useful k.
+     * @param clock - source of the current time.
+     */
+    public PopularityTracker(Duration window, int buckets, int capacity, Clock clock) {
+        if (buckets <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Buckets and capacity must be positive");
+        }
+        if (window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window must be at least one millisecond per bucket");
+        }
+        this.clock = clock;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.bucketEnd = clock.millis() + this.bucketMillis;
+        this.buffers = new Buffer[Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1)];
+        for (int i = 0; i < this.buffers.length; i++) {
+            this.buffers[i] = new Buffer();
+        }
+        this.bucketCheckouts = new long[buckets];
+        this.books = new HeavyHitters<>(buckets, capacity, SKETCH_WIDTH);
+        this.authors = new HeavyHitters<>(buckets, capacity, SKETCH_WIDTH);
+    }
+
+    /**
+     * Counts a checkout. Usually only buffers it; see the class documentation.
+     *
+     * @param book - the book checked out.
+     */
+    public void record(Book book) {
+        Buffer buffer = this.buffers[stripe()];
+        // The first checkout past the end of a bucket counts the buffered ones in that bucket
+        if (this.clock.millis() >= this.bucketEnd || !buffer.offer(book)) {
+            this.lock.lock();
+            try {
+                advance();
+                count(book);
+            } finally {
+                this.lock.unlock();
+            }
+        } else if (buffer.pending() >= DRAIN_THRESHOLD && this.lock.tryLock()) {
+            try {
+                advance();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onCheckout(Book book, User user) {
+        record(book);
+    }
+
+    /**
+     * Returns the most borrowed books in the window, most borrowed first.
+     *
+     * @param k - maximum number of books, at most the tracker's capacity.
+     * @return - the books and their estimated checkouts.
+     */
+    public List<PopularItem<Book>> topBooks(int k) {
+        this.lock.lock();
+        try {
+            advance();
+            return this.books.top(k);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the most borrowed authors in the window, most borrowed first.
+     *
+     * @param k - maximum number of authors, at most the tracker's capacity.
+     * @return - the authors and their estimated checkouts.
+     */
+    public List<PopularItem<String>> topAuthors(int k) {
+        this.lock.lock();
+        try {
+            advance();
+            return this.authors.top(k);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated number of times a book was checked out in the window.
+     *
+     * @param book - the book.
+     */
+    public long estimateCheckouts(Book book) {
+        this.lock.lock();
+        try {
+            advance();
+            return this.books.estimate(book);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the exact number of checkouts in the window.
+     */
+    public long getWindowCheckouts() {
+        this.lock.lock();
+        try {
+            advance();
+            return this.windowCheckouts;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Counts the buffered checkouts and slides the window past every bucket that has ended.
+     * Called with the lock held.
+     */
+    private void advance() {
+        long now = this.clock.millis();
+        // Buffered checkouts happened before now, so they belong to the current bucket
+        for (Buffer buffer : this.buffers) {
+            buffer.drain(this);
+        }
+        if (now < this.bucketEnd) {
+            return;
+        }
+        long elapsed = (now - this.bucketEnd) / this.bucketMillis + 1;
+        long slides = Math.min(elapsed, this.bucketCheckouts.length);
+        for (long i = 0; i < slides; i++) {
+            this.currentBucket = (this.currentBucket + 1) % this.bucketCheckouts.length;
+            this.windowCheckouts -= this.bucketCheckouts[this.currentBucket];
+            this.bucketCheckouts[this.currentBucket] = 0;
+            this.books.slide();
+            this.authors.slide();
+        }
+        this.bucketEnd += elapsed * this.bucketMillis;
+    }
+
+    /**
+     * Counts one checkout in the current bucket. Called with the lock held.
+     */
+    private void count(Book book) {
+        this.books.add(book);
+        String author = book.getAuthor();
+        if (author != null) {
+            this.authors.add(author);
+        }
+        this.bucketCheckouts[this.currentBucket]++;
+        this.windowCheckouts++;
+    }
+
+    /**
+     * Returns the buffer of the calling thread.
+     */
+    private int stripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & (this.buffers.length - 1);
+    }
+
+    /**
+     * Checkouts waiting to be counted: a ring that any thread appends to and the lock holder
+     * drains.
+     */
+    private static final class Buffer {
+        final AtomicReferenceArray<Book> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        final AtomicLong tail = new AtomicLong(); // next slot to fill
+        volatile long head; // next slot to count, written only by the lock holder
+
+        /**
+         * Appends a book, failing when the buffer is full.
+         */
+        boolean offer(Book book) {
+            long slot;
+            do {
+                slot = this.tail.get();
+                if (slot - this.head >= BUFFER_SIZE) {
+                    return false;
+                }
+            } while (!this.tail.compareAndSet(slot, slot + 1));
+            this.slots.setRelease((int) slot & (BUFFER_SIZE - 1), book);
+            return true;
+        }
+
+        /**
+         * Returns about how many books are waiting.
+         */
+        long pending() {
+            return this.tail.get() - this.head;
+        }
+
+        /**
+         * Counts the books appended so far, stopping at a slot whose writer hasn't stored its
+         * book yet.
+         */
+        void drain(PopularityTracker tracker) {
+            long next = this.head;
+            while (true) {
+                int index = (int) next & (BUFFER_SIZE - 1);
+                Book book = this.slots.getAcquire(index);
+                if (book == null) {
+                    break;
+                }
+                this.slots.setPlain(index, null);
+                tracker.count(book);
+                next++;
+            }
+            this.head = next; // publishes the cleared slots to writers
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package Events;
+
+/**
+ * What a producer does when the slowest consumer has fallen a full buffer behind.
+ */
+public enum BackpressurePolicy {
+    /** Discard the event and count it, so circulation never waits on consumers. */
+    DROP,
+    /** Wait until the slowest consumer frees a slot. No event is lost, but producers can stall. */
+    BLOCK
+}
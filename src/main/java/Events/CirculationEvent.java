@@ -0,0 +1,59 @@
+package Events;
+
+import Model.Book;
+import Model.User;
+
+/**
+ * A change to a library, as published on an {@link EventStream}.
+ *
+ * <p>Events are preallocated in the stream's ring buffer and overwritten once every consumer has
+ * seen them, so publishing allocates nothing. Handlers must not keep references to an event.
+ */
+public final class CirculationEvent {
+    private EventType type;
+    private Book book;
+    private User user;
+    private long timestamp;
+
+    CirculationEvent() {
+    }
+
+    void set(EventType type, Book book, User user, long timestamp) {
+        this.type = type;
+        this.book = book;
+        this.user = user;
+        this.timestamp = timestamp;
+    }
+
+    // Getters
+
+    public EventType getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the book, or null for MEMBER_ADDED.
+     */
+    public Book getBook() {
+        return this.book;
+    }
+
+    /**
+     * Returns the user, or null for BOOK_ADDED.
+     */
+    public User getUser() {
+        return this.user;
+    }
+
+    /**
+     * Returns when the event was published, in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return this.type + " " + this.book + " " + this.user;
+    }
+}
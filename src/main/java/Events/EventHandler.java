@@ -0,0 +1,17 @@
+package Events;
+
+/**
+ * Consumes the events of an {@link EventStream} on the stream's consumer thread.
+ */
+public interface EventHandler {
+
+    /**
+     * Called for each event, in publication order.
+     * The event is recycled afterwards, so copy any fields that must outlive this call.
+     *
+     * @param event - the event.
+     * @param sequence - the event's position in the stream.
+     * @param endOfBatch - true for the last event currently available, a good point to flush.
+     */
+    void onEvent(CirculationEvent event, long sequence, boolean endOfBatch);
+}
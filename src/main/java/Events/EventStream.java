@@ -0,0 +1,315 @@
+package Events;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationListener;
+
+import java.io.Closeable;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes library changes to downstream handlers through a preallocated ring buffer.
+ *
+ * <p>Registered as a {@link CirculationListener} on a {@link Service.Library}, the stream turns
+ * every addBook, addMember, checkout and return into a {@link CirculationEvent} written into a
+ * recycled slot, so the library's threads pay one compare-and-set and a few stores per change.
+ * Each {@link EventHandler} runs on its own consumer thread and sees every event in order, in
+ * batches of whatever has accumulated since its last pass.
+ *
+ * <p>When the slowest handler falls a full buffer behind, the {@link BackpressurePolicy} decides
+ * whether producers drop the event or wait. Idle consumers wait according to the
+ * {@link WaitStrategy}. Handlers are added before {@link #start()}; {@link #close()} drains the
+ * events already published and stops the consumers.
+ */
+public class EventStream implements CirculationListener, Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 14;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long SLEEP_NANOS = 100_000;
+
+    private final RingBuffer ring;
+    private final WaitStrategy waitStrategy;
+    private final BackpressurePolicy backpressure;
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder handlerErrors = new LongAdder();
+    private final Object signal = new Object(); // BLOCKING consumers wait on this
+    private final AtomicInteger blockedConsumers = new AtomicInteger();
+    private volatile boolean running;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a stream with the default buffer size that drops events rather than stall
+     * producers and lets idle consumers sleep.
+     */
+    public EventStream() {
+        this(DEFAULT_BUFFER_SIZE, WaitStrategy.SLEEPING, BackpressurePolicy.DROP);
+    }
+
+    /**
+     * Constructs a stream.
+     *
+     * @param bufferSize - number of preallocated events, a power of two.
+     * @param waitStrategy - how idle consumers wait.
+     * @param backpressure - what producers do when the buffer is full.
+     */
+    public EventStream(int bufferSize, WaitStrategy waitStrategy, BackpressurePolicy backpressure) {
+        this.ring = new RingBuffer(bufferSize);
+        this.waitStrategy = waitStrategy;
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Adds a handler that will see every event published from now on.
+     *
+     * @param handler - the handler.
+     * @throws IllegalStateException - if the stream has already started.
+     */
+    public synchronized void addHandler(EventHandler handler) {
+        if (this.running || this.closed) {
+            throw new IllegalStateException("Handlers must be added before the stream starts");
+        }
+        this.consumers.add(new Consumer(handler, this.ring.addConsumer()));
+    }
+
+    /**
+     * Starts one consumer thread per handler.
+     */
+    public synchronized void start() {
+        if (this.running || this.closed) {
+            throw new IllegalStateException("Stream already started");
+        }
+        this.running = true;
+        for (int i = 0; i < this.consumers.size(); i++) {
+            Thread thread = new Thread(this.consumers.get(i), "library-events-" + i);
+            thread.setDaemon(true);
+            this.consumers.get(i).thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Publishes an event.
+     *
+     * @param type - the kind of change.
+     * @param book - the book, or null.
+     * @param user - the user, or null.
+     * @return - true if the event was published, false if it was dropped or the stream is closed.
+     */
+    public boolean publish(EventType type, Book book, User user) {
+        if (this.closed) {
+            return false;
+        }
+        long sequence = this.ring.tryClaim();
+        if (sequence < 0) {
+            if (this.backpressure == BackpressurePolicy.DROP) {
+                this.dropped.increment();
+                return false;
+            }
+            sequence = claimWaiting();
+            if (sequence < 0) {
+                return false;
+            }
+        }
+        this.ring.get(sequence).set(type, book, user, System.currentTimeMillis());
+        this.ring.publish(sequence);
+        if (this.waitStrategy == WaitStrategy.BLOCKING) {
+            VarHandle.fullFence(); // the publish must be visible before checking for sleeping consumers
+            if (this.blockedConsumers.get() > 0) {
+                wakeConsumers();
+            }
+        }
+        return true;
+    }
+
+    private long claimWaiting() {
+        for (int tries = 0; !this.closed; tries++) {
+            long sequence = this.ring.tryClaim();
+            if (sequence >= 0) {
+                return sequence;
+            }
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (tries < YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(SLEEP_NANOS / 10);
+            }
+        }
+        return -1;
+    }
+
+    private void wakeConsumers() {
+        synchronized (this.signal) {
+            this.signal.notifyAll();
+        }
+    }
+
+    /**
+     * Stops accepting events, lets every consumer finish the events already published and waits
+     * for the consumer threads to exit. Producers should be stopped first.
+     */
+    @Override
+    public void close() {
+        List<Consumer> stopping;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.running = false;
+            stopping = List.copyOf(this.consumers);
+        }
+        wakeConsumers();
+        for (Consumer consumer : stopping) {
+            if (consumer.thread == null) {
+                continue;
+            }
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        publish(EventType.BOOK_ADDED, book, null);
+    }
+
+    @Override
+    public void onMemberAdded(User user) {
+        publish(EventType.MEMBER_ADDED, null, user);
+    }
+
+    @Override
+    public void onCheckout(Book book, User user) {
+        publish(EventType.CHECKOUT, book, user);
+    }
+
+    @Override
+    public void onReturn(Book book, User user) {
+        publish(EventType.RETURN, book, user);
+    }
+
+    // Getters
+
+    /**
+     * Returns the number of events claimed by producers so far.
+     */
+    public long getPublishedCount() {
+        return this.ring.getCursor() + 1;
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Returns the number of events whose handler threw an exception.
+     */
+    public long getHandlerErrorCount() {
+        return this.handlerErrors.sum();
+    }
+
+    public int getBufferSize() {
+        return this.ring.size();
+    }
+
+    /**
+     * Delivers events to one handler on its own thread.
+     */
+    private final class Consumer implements Runnable {
+        private final EventHandler handler;
+        private final Sequence sequence;
+        private Thread thread;
+
+        Consumer(EventHandler handler, Sequence sequence) {
+            this.handler = handler;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            long next = this.sequence.get() + 1;
+            int idle = 0;
+            while (true) {
+                boolean stopping = !running; // read first, so nothing published before close is missed
+                long available = ring.highestPublished(next);
+                if (available < next) {
+                    if (stopping) {
+                        return; // closed and drained
+                    }
+                    idle = await(next, idle);
+                    if (idle < 0) {
+                        return; // interrupted
+                    }
+                    continue;
+                }
+                idle = 0;
+                for (long current = next; current <= available; current++) {
+                    try {
+                        this.handler.onEvent(ring.get(current), current, current == available);
+                    } catch (RuntimeException ex) {
+                        handlerErrors.increment();
+                    }
+                }
+                this.sequence.set(available); // frees the slots for producers
+                next = available + 1;
+            }
+        }
+
+        private int await(long next, int idle) {
+            switch (waitStrategy) {
+                case BUSY_SPIN -> Thread.onSpinWait();
+                case YIELDING -> {
+                    if (idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                case SLEEPING -> {
+                    if (idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else if (idle < YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(SLEEP_NANOS);
+                    }
+                }
+                case BLOCKING -> {
+                    if (idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                        break;
+                    }
+                    blockedConsumers.incrementAndGet();
+                    try {
+                        synchronized (signal) {
+                            while (running && !ring.isPublished(next)) {
+                                signal.wait();
+                            }
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return -1;
+                    } finally {
+                        blockedConsumers.decrementAndGet();
+                    }
+                }
+            }
+            return idle + 1;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package Events;
+
+/**
+ * The kind of change a {@link CirculationEvent} describes.
+ */
+public enum EventType {
+    /** A book was added to the catalog. */
+    BOOK_ADDED,
+    /** A user was registered as a member. */
+    MEMBER_ADDED,
+    /** A book was checked out. */
+    CHECKOUT,
+    /** A book was returned. */
+    RETURN
+}
@@ -0,0 +1,116 @@
+package Events;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Preallocated ring of events shared by any number of producers and consumers.
+ *
+ * <p>Producers claim sequences by compare-and-set on a shared cursor, fill the event at that
+ * slot and publish it by writing the slot's lap number into a flag array, so a consumer can tell
+ * which claimed slots have actually been written. A producer may only claim a slot that every
+ * consumer has already passed; their positions are cached so the common case reads one field.
+ */
+final class RingBuffer {
+    private static final VarHandle FLAGS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final CirculationEvent[] entries;
+    private final int[] published; // lap number of the event last published in each slot
+    private final int mask;
+    private final int lapShift;
+    private final Sequence cursor = new Sequence(-1); // highest claimed sequence
+    private volatile Sequence[] consumers = new Sequence[0];
+    private volatile long consumerCache = -1; // a lower bound on the slowest consumer
+
+    RingBuffer(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two");
+        }
+        this.entries = new CirculationEvent[size];
+        this.published = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.entries[i] = new CirculationEvent();
+            this.published[i] = -1;
+        }
+        this.mask = size - 1;
+        this.lapShift = Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Adds a consumer that producers must not overtake, starting after the current cursor.
+     */
+    synchronized Sequence addConsumer() {
+        Sequence sequence = new Sequence(this.cursor.get());
+        Sequence[] current = this.consumers;
+        Sequence[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = sequence;
+        this.consumers = updated;
+        return sequence;
+    }
+
+    /**
+     * Claims the next sequence.
+     *
+     * @return - the claimed sequence, or -1 if the buffer is full.
+     */
+    long tryClaim() {
+        long current;
+        long next;
+        do {
+            current = this.cursor.get();
+            next = current + 1;
+            long wrapPoint = next - this.entries.length;
+            if (wrapPoint > this.consumerCache) {
+                long slowest = slowestConsumer(current);
+                this.consumerCache = slowest;
+                if (wrapPoint > slowest) {
+                    return -1;
+                }
+            }
+        } while (!this.cursor.compareAndSet(current, next));
+        return next;
+    }
+
+    CirculationEvent get(long sequence) {
+        return this.entries[(int) sequence & this.mask];
+    }
+
+    void publish(long sequence) {
+        FLAGS.setRelease(this.published, (int) sequence & this.mask, (int) (sequence >>> this.lapShift));
+    }
+
+    boolean isPublished(long sequence) {
+        return (int) FLAGS.getAcquire(this.published, (int) sequence & this.mask) == (int) (sequence >>> this.lapShift);
+    }
+
+    /**
+     * Returns the highest sequence such that it and every sequence from the given one up to it
+     * have been published, or {@code from - 1} if none have.
+     */
+    long highestPublished(long from) {
+        long claimed = this.cursor.get();
+        for (long sequence = from; sequence <= claimed; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return claimed;
+    }
+
+    long getCursor() {
+        return this.cursor.get();
+    }
+
+    int size() {
+        return this.entries.length;
+    }
+
+    private long slowestConsumer(long fallback) {
+        long slowest = fallback;
+        for (Sequence consumer : this.consumers) {
+            slowest = Math.min(slowest, consumer.get());
+        }
+        return slowest;
+    }
+}
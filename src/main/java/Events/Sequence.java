@@ -0,0 +1,48 @@
+package Events;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A sequence counter padded onto its own cache line, so the producer cursor and each consumer's
+ * position do not invalidate each other's lines.
+ */
+class Sequence extends SequenceValue {
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    Sequence(long initial) {
+        this.value = initial;
+    }
+
+    long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    boolean compareAndSet(long expected, long value) {
+        return VALUE.compareAndSet(this, expected, value);
+    }
+}
+
+class SequencePadding {
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequencePadding {
+    protected volatile long value;
+}
@@ -0,0 +1,15 @@
+package Events;
+
+/**
+ * How an idle consumer waits for the next event.
+ */
+public enum WaitStrategy {
+    /** Spin on the CPU. Lowest latency, but each consumer keeps a core busy. */
+    BUSY_SPIN,
+    /** Spin briefly, then yield the CPU between checks. */
+    YIELDING,
+    /** Spin, yield, then sleep for short intervals. Little CPU use at the cost of latency. */
+    SLEEPING,
+    /** Park until a producer signals. Lowest CPU use; producers pay for a wake-up when consumers wait. */
+    BLOCKING
+}
@@ -0,0 +1,66 @@
+package Http;
+
+/**
+ * Minimal JSON writing helpers for the compact responses of {@link LibraryServer}.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Appends a JSON string literal, or {@code null}.
+     *
+     * @param out - the buffer to append to.
+     * @param value - the string to quote.
+     * @return - the buffer.
+     */
+    static StringBuilder string(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Appends {@code "name":} to an object under construction.
+     *
+     * @param out - the buffer to append to.
+     * @param name - the member name.
+     * @return - the buffer.
+     */
+    static StringBuilder field(StringBuilder out, String name) {
+        char last = out.charAt(out.length() - 1);
+        if (last != '{') {
+            out.append(',');
+        }
+        return string(out, name).append(':');
+    }
+}
@@ -0,0 +1,254 @@
+package Http;
+
+import Model.Book;
+import Model.User;
+import Search.SearchHit;
+import Service.CirculationStatus;
+import Service.Library;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP front end for a concurrent {@link Library}, built on the JDK's
+ * {@code com.sun.net.httpserver}. Each request runs on its own virtual thread, so blocking on a
+ * book's lock parks the virtual thread and not a platform thread.
+ *
+ * <p>Endpoints take their arguments from the query string and answer with compact JSON:
+ * <ul>
+ *   <li>{@code POST /checkout?isbn=..&user=..} - 200 on success, 409 if the book is not available</li>
+ *   <li>{@code POST /return?isbn=..&user=..} - 200 on success, 409 if the user doesn't have the book</li>
+ *   <li>{@code GET /borrower?isbn=..} - the book's availability and current borrower</li>
+ *   <li>{@code GET /search?q=..&limit=..} - ranked catalog search</li>
+ * </ul>
+ * Unknown books or members give 404, missing arguments 400 and the wrong method 405.
+ *
+ * <p>Launch the JVM with {@code -Dsun.net.httpserver.nodelay=true}. The JDK server writes headers
+ * and body separately, so with Nagle's algorithm on every keep-alive response waits for the
+ * client's delayed ACK, about 40 ms. The property is JVM-wide and read once, when the first
+ * server is created, so the server leaves it to the launcher; {@link LoadGenerator#main} sets it.
+ */
+public class LibraryServer implements Closeable {
+    private static final int BACKLOG = 4096;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+
+    private final Library library;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private LibraryServer(Library library, HttpServer server, ExecutorService executor) {
+        this.library = library;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving a library.
+     *
+     * @param library - a concurrent library.
+     * @param address - address to bind, port 0 for an ephemeral port.
+     * @return - the running server.
+     * @throws IOException - if the address can't be bound.
+     * @throws IllegalArgumentException - if the library is not in concurrent mode.
+     */
+    public static LibraryServer start(Library library, InetSocketAddress address) throws IOException {
+        if (!library.isConcurrent()) {
+            throw new IllegalArgumentException("The library must be constructed in concurrent mode");
+        }
+
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        LibraryServer libraryServer = new LibraryServer(library, server, executor);
+        server.createContext("/checkout", exchange -> libraryServer.handle(exchange, "POST", libraryServer::checkout));
+        server.createContext("/return", exchange -> libraryServer.handle(exchange, "POST", libraryServer::returnBook));
+        server.createContext("/borrower", exchange -> libraryServer.handle(exchange, "GET", libraryServer::borrower));
+        server.createContext("/search", exchange -> libraryServer.handle(exchange, "GET", libraryServer::search));
+        server.setExecutor(executor);
+        server.start();
+        return libraryServer;
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits for up to a second for requests in progress.
+     */
+    @Override
+    public void close() {
+        this.server.stop(1);
+        this.executor.shutdown();
+    }
+
+    private Response checkout(Map<String, String> params) {
+        Book book = requireBook(params);
+        User user = requireMember(params);
+        CirculationStatus status = this.library.tryCheckout(book, user);
+        return status(status);
+    }
+
+    private Response returnBook(Map<String, String> params) {
+        Book book = requireBook(params);
+        User user = requireMember(params);
+        CirculationStatus status = this.library.tryReturn(book, user);
+        return status(status);
+    }
+
+    private Response borrower(Map<String, String> params) {
+        Book book = requireBook(params);
+        Optional<User> borrower = this.library.getCurrentBorrower(book);
+        StringBuilder json = new StringBuilder(128).append('{');
+        Json.string(Json.field(json, "isbn"), book.getIsbn());
+        Json.string(Json.field(json, "title"), book.getTitle());
+        Json.field(json, "available").append(borrower.isEmpty());
+        Json.field(json, "borrower");
+        if (borrower.isPresent()) {
+            json.append('{');
+            Json.string(Json.field(json, "id"), borrower.get().getId());
+            Json.string(Json.field(json, "name"), borrower.get().getFullName());
+            json.append('}');
+        } else {
+            json.append("null");
+        }
+        return new Response(200, json.append('}').toString());
+    }
+
+    private Response search(Map<String, String> params) {
+        String query = require(params, "q");
+        int limit = DEFAULT_SEARCH_LIMIT;
+        if (params.containsKey("limit")) {
+            try {
+                limit = Integer.parseInt(params.get("limit"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid limit: " + params.get("limit"));
+            }
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+
+        List<SearchHit> hits = this.library.search(query, limit);
+        StringBuilder json = new StringBuilder(64 + hits.size() * 128).append("{\"hits\":[");
+        for (int i = 0; i < hits.size(); i++) {
+            SearchHit hit = hits.get(i);
+            Book book = hit.getBook();
+            json.append(i == 0 ? "{" : ",{");
+            Json.string(Json.field(json, "isbn"), book.getIsbn());
+            Json.string(Json.field(json, "title"), book.getTitle());
+            Json.string(Json.field(json, "author"), book.getAuthor());
+            Json.field(json, "year").append(book.getPublishYear());
+            Json.field(json, "available").append(hit.isAvailable());
+            Json.field(json, "score").append(hit.getScore());
+            json.append('}');
+        }
+        return new Response(200, json.append("]}").toString());
+    }
+
+    private Book requireBook(Map<String, String> params) {
+        String isbn = require(params, "isbn");
+        return this.library.findBook(isbn).orElseThrow(() -> new NotFoundException("Unknown ISBN: " + isbn));
+    }
+
+    private User requireMember(Map<String, String> params) {
+        String id = require(params, "user");
+        return this.library.findMember(id).orElseThrow(() -> new NotFoundException("Unknown member: " + id));
+    }
+
+    private static String require(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static Response status(CirculationStatus status) {
+        return new Response(status.isSuccess() ? 200 : 409, "{\"status\":\"" + status.name() + "\"}");
+    }
+
+    private static Response error(int code, String message) {
+        StringBuilder json = new StringBuilder(64).append('{');
+        Json.string(Json.field(json, "error"), message);
+        return new Response(code, json.append('}').toString());
+    }
+
+    /**
+     * Decodes an {@code application/x-www-form-urlencoded} query string.
+     */
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        Response response;
+        try {
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                response = error(405, "Use " + method);
+            } else {
+                response = endpoint.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (NotFoundException e) {
+            response = error(404, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            response = error(500, "Internal error");
+        }
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private interface Endpoint {
+        Response handle(Map<String, String> params);
+    }
+
+    private static final class Response {
+        final int code;
+        final String body;
+
+        Response(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    private static final class NotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NotFoundException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
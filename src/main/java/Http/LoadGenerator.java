@@ -0,0 +1,262 @@
+package Http;
+
+import Metrics.LatencyHistogram;
+import Model.Book;
+import Model.User;
+import Service.Library;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for {@link LibraryServer}. Every simulated connection is a virtual
+ * thread that sends one request at a time: half of the iterations check a book out and return it,
+ * the rest look up a borrower or run a search. Every connection records its request latencies
+ * into one shared {@link LatencyHistogram} (about 6% precision), and the report gives throughput
+ * and percentiles.
+ *
+ * <p>{@code main} starts an embedded server with a synthetic catalog and drives it:
+ * {@code java -cp target/classes Http.LoadGenerator [connections] [seconds] [catalogSize]}.
+ * Tens of thousands of connections need a matching open file limit ({@code ulimit -n}).
+ */
+public class LoadGenerator {
+    private final URI base;
+    private final List<String> isbns;
+    private final List<String> userIds;
+    private final HttpClient client;
+
+    /**
+     * Constructs a load generator.
+     *
+     * @param base - base URI of the server, e.g. {@code http://127.0.0.1:8080}.
+     * @param isbns - ISBNs of catalogued books to request.
+     * @param userIds - ids of registered members to act as.
+     */
+    public LoadGenerator(URI base, List<String> isbns, List<String> userIds) {
+        if (isbns.isEmpty() || userIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one ISBN and one member are required");
+        }
+
+        this.base = base;
+        this.isbns = isbns;
+        this.userIds = userIds;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Drives the server from a number of concurrent connections.
+     *
+     * @param connections - number of concurrent closed-loop clients.
+     * @param duration - how long to run.
+     * @return - throughput and latency percentiles.
+     * @throws InterruptedException - if interrupted while waiting for the clients, which then stop.
+     */
+    public Report run(int connections, Duration duration) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<?>> clients = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                String userId = this.userIds.get(i % this.userIds.size());
+                clients.add(executor.submit(() -> drive(userId, deadline, latencies, errors)));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Future<?> client : clients) {
+            try {
+                client.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Client failed", e.getCause());
+            }
+        }
+        return new Report(latencies, errors.sum(), Duration.ofNanos(elapsed));
+    }
+
+    private void drive(String userId, long deadline, LatencyHistogram latencies, LongAdder errors) {
+        String user = encode(userId);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            String isbn = encode(this.isbns.get(random.nextInt(this.isbns.size())));
+            int dice = random.nextInt(10);
+            if (dice < 5) {
+                int code = send(latencies, errors, "POST", "/checkout?isbn=" + isbn + "&user=" + user);
+                if (code == 200) {
+                    send(latencies, errors, "POST", "/return?isbn=" + isbn + "&user=" + user);
+                }
+            } else if (dice < 8) {
+                send(latencies, errors, "GET", "/borrower?isbn=" + isbn);
+            } else {
+                send(latencies, errors, "GET", "/search?limit=10&q=title+" + random.nextInt(1000));
+            }
+        }
+    }
+
+    /**
+     * Sends one request and records its latency, counting transport failures and unexpected
+     * statuses as errors. A 409 is an ordinary answer under contention.
+     */
+    private int send(LatencyHistogram latencies, LongAdder errors, String method, String pathAndQuery) {
+        HttpRequest request = HttpRequest.newBuilder(this.base.resolve(pathAndQuery))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = this.client.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies.record(System.nanoTime() - start);
+            if (response.statusCode() != 200 && response.statusCode() != 409) {
+                errors.increment();
+            }
+            return response.statusCode();
+        } catch (IOException e) {
+            errors.increment();
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts an embedded server over a synthetic catalog and prints a load report. Turns on
+     * {@code sun.net.httpserver.nodelay} unless the command line set it, see {@link LibraryServer}.
+     *
+     * @param args - [connections] [seconds] [catalogSize], defaulting to 1000, 10 and 100000.
+     */
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int catalogSize = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        Library library = Library.concurrent("Load Test Library");
+        List<String> isbns = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Book book = new Book("isbn-" + i, "Title " + (i % 1000), "Author " + (i % 500), 1900 + i % 120);
+            library.addBook(book);
+            isbns.add(book.getIsbn());
+        }
+        List<String> userIds = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            User user = new User("Patron", Integer.toString(i), "patron" + i + "@library.org");
+            library.addMember(user);
+            userIds.add(user.getId());
+        }
+
+        try (LibraryServer server = LibraryServer.start(library, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            URI base = URI.create("http://127.0.0.1:" + server.getPort());
+            Report report = new LoadGenerator(base, isbns, userIds).run(connections, Duration.ofSeconds(seconds));
+            System.out.println(connections + " connections, " + seconds + " s: " + report);
+        }
+    }
+
+    /**
+     * Throughput and latency percentiles of a run.
+     */
+    public static class Report {
+        private final long requests;
+        private final long errors;
+        private final Duration elapsed;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Report(LatencyHistogram latencies, long errors, Duration elapsed) {
+            this.requests = latencies.getCount();
+            this.errors = errors;
+            this.elapsed = elapsed;
+            this.p50 = latencies.percentile(0.50);
+            this.p99 = latencies.percentile(0.99);
+            this.p999 = latencies.percentile(0.999);
+            this.max = latencies.getMax();
+        }
+
+        /**
+         * Returns a one-line summary of the run.
+         */
+        @Override
+        public String toString() {
+            return String.format("%d requests (%.0f req/s), %d errors, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                    this.requests, getRequestsPerSecond(), this.errors,
+                    this.p50 / 1e6, this.p99 / 1e6, this.p999 / 1e6, this.max / 1e6);
+        }
+
+        // Getters
+        /**
+         * Returns the number of requests that got a response.
+         */
+        public long getRequests() {
+            return this.requests;
+        }
+
+        /**
+         * Returns the number of failed requests and unexpected statuses.
+         */
+        public long getErrors() {
+            return this.errors;
+        }
+
+        /**
+         * Returns requests per second over the whole run.
+         */
+        public double getRequestsPerSecond() {
+            return this.requests * 1e9 / Math.max(1, this.elapsed.toNanos());
+        }
+
+        /**
+         * Returns the median latency in nanoseconds.
+         */
+        public long getP50() {
+            return this.p50;
+        }
+
+        /**
+         * Returns the 99th percentile latency in nanoseconds.
+         */
+        public long getP99() {
+            return this.p99;
+        }
+
+        /**
+         * Returns the 99.9th percentile latency in nanoseconds.
+         */
+        public long getP999() {
+            return this.p999;
+        }
+
+        /**
+         * Returns the highest latency in nanoseconds.
+         */
+        public long getMax() {
+            return this.max;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package Import;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import Util.StringDictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Streams catalog and member files into a Library.
+ *
+ * <p>The calling thread reads the file a chunk of records at a time and hands each chunk to a
+ * fork-join pool, where records are parsed and ISBNs validated. Parsed chunks are inserted in
+ * file order, one batch per chunk, by the calling thread. At most {@code maxInFlight} chunks are
+ * held at once, so memory use is bounded by the chunk size and not by the file size.
+ */
+public class BulkImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+    private static final int READ_BUFFER_CHARS = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final ImportListener listener;
+
+    /**
+     * Constructs an importer on the common pool that ignores progress and rejected rows.
+     */
+    public BulkImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, new ImportListener() { });
+    }
+
+    /**
+     * Constructs an importer that keeps two chunks per pool thread in flight.
+     *
+     * @param pool - pool that parses chunks.
+     * @param chunkSize - records per chunk and per insert batch.
+     * @param listener - receives progress and rejected rows.
+     */
+    public BulkImporter(ForkJoinPool pool, int chunkSize, ImportListener listener) {
+        this(pool, chunkSize, pool.getParallelism() * 2, listener);
+    }
+
+    /**
+     * Constructs an importer.
+     *
+     * @param pool - pool that parses chunks.
+     * @param chunkSize - records per chunk and per insert batch.
+     * @param maxInFlight - maximum number of chunks read but not yet inserted.
+     * @param listener - receives progress and rejected rows.
+     */
+    public BulkImporter(ForkJoinPool pool, int chunkSize, int maxInFlight, ImportListener listener) {
+        if (chunkSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("Chunk size and chunks in flight must be positive");
+        }
+
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.listener = listener;
+    }
+
+    /**
+     * Imports books into a Library. Books already in the Library are counted as duplicates.
+     *
+     * @param file - the file to read.
+     * @param format - CSV ({@code isbn,title,author,publishYear}) or TAGGED.
+     * @param library - the Library to add books to.
+     * @return - totals of the import.
+     * @throws IOException - if the file can't be read.
+     */
+    public ImportReport importBooks(Path file, RecordFormat format, Library library) throws IOException {
+        return importBooks(file, format, library.getAuthorDictionary(), library::addBooks);
+    }
+
+    /**
+     * Imports books into any batch sink. Authors are interned in a dictionary of the import's own,
+     * so books by the same author share one string.
+     *
+     * @param file - the file to read.
+     * @param format - CSV ({@code isbn,title,author,publishYear}) or TAGGED.
+     * @param sink - inserts a batch and returns how many were new.
+     * @return - totals of the import.
+     * @throws IOException - if the file can't be read.
+     */
+    public ImportReport importBooks(Path file, RecordFormat format, ToIntFunction<List<Book>> sink) throws IOException {
+        return importBooks(file, format, new StringDictionary(), sink);
+    }
+
+    /**
+     * Imports books into any batch sink, interning authors in the given dictionary.
+     *
+     * @param file - the file to read.
+     * @param format - CSV ({@code isbn,title,author,publishYear}) or TAGGED.
+     * @param authors - dictionary of the library or store the books are for.
+     * @param sink - inserts a batch and returns how many were new.
+     * @return - totals of the import.
+     * @throws IOException - if the file can't be read.
+     */
+    public ImportReport importBooks(Path file, RecordFormat format, StringDictionary authors,
+                                    ToIntFunction<List<Book>> sink) throws IOException {
+        Function<String, Book> parser = format == RecordFormat.CSV
+                ? record -> RecordParsers.bookFromCsv(record, authors)
+                : record -> RecordParsers.bookFromTagged(record, authors);
+        return run(file, format, "isbn", parser, sink);
+    }
+
+    /**
+     * Imports members from a CSV file of {@code firstName,lastName,email[,id]}.
+     *
+     * @param file - the file to read.
+     * @param library - the Library to register members with.
+     * @return - totals of the import.
+     * @throws IOException - if the file can't be read.
+     */
+    public ImportReport importMembers(Path file, Library library) throws IOException {
+        return importMembers(file, library::addMembers);
+    }
+
+    /**
+     * Imports members from a CSV file of {@code firstName,lastName,email[,id]} into any batch sink.
+     *
+     * @param file - the file to read.
+     * @param sink - inserts a batch and returns how many were new.
+     * @return - totals of the import.
+     * @throws IOException - if the file can't be read.
+     */
+    public ImportReport importMembers(Path file, ToIntFunction<List<User>> sink) throws IOException {
+        return run(file, RecordFormat.CSV, "firstname", RecordParsers::memberFromCsv, sink);
+    }
+
+    private <T> ImportReport run(Path file, RecordFormat format, String headerPrefix, Function<String, T> parser,
+                                 ToIntFunction<List<T>> sink) throws IOException {
+        long start = System.nanoTime();
+        Totals totals = new Totals();
+        ArrayDeque<ForkJoinTask<Parsed<T>>> inFlight = new ArrayDeque<>(this.maxInFlight);
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), READ_BUFFER_CHARS);
+        try (RecordReader reader = new RecordReader(in, format, headerPrefix)) {
+            RecordReader.Chunk chunk;
+            while ((chunk = reader.next(this.chunkSize)) != null) {
+                RecordReader.Chunk records = chunk;
+                inFlight.add(this.pool.submit(() -> parse(records, parser)));
+                if (inFlight.size() >= this.maxInFlight) {
+                    insert(inFlight.poll().join(), sink, totals);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                insert(inFlight.poll().join(), sink, totals);
+            }
+        } finally {
+            for (ForkJoinTask<Parsed<T>> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        return new ImportReport(totals.records, totals.accepted, totals.duplicates, totals.rejected,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Parses a chunk on a pool thread.
+     */
+    private static <T> Parsed<T> parse(RecordReader.Chunk chunk, Function<String, T> parser) {
+        Parsed<T> parsed = new Parsed<>(chunk);
+        for (int i = 0; i < chunk.size; i++) {
+            try {
+                parsed.valid.add(parser.apply(chunk.records[i]));
+                chunk.records[i] = null; // Keep only rejected records reachable
+            } catch (IllegalArgumentException e) {
+                parsed.reasons[i] = e.getMessage();
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Reports rejections and inserts a parsed chunk on the calling thread.
+     */
+    private <T> void insert(Parsed<T> parsed, ToIntFunction<List<T>> sink, Totals totals) {
+        RecordReader.Chunk chunk = parsed.chunk;
+        for (int i = 0; i < chunk.size; i++) {
+            if (parsed.reasons[i] != null) {
+                this.listener.onRejected(chunk.lines[i], chunk.records[i], parsed.reasons[i]);
+            }
+        }
+        int added = parsed.valid.isEmpty() ? 0 : sink.applyAsInt(parsed.valid);
+        totals.records += chunk.size;
+        totals.accepted += added;
+        totals.duplicates += parsed.valid.size() - added;
+        totals.rejected += chunk.size - parsed.valid.size();
+        this.listener.onProgress(totals.records, totals.accepted, totals.rejected);
+    }
+
+    /**
+     * Parse result of one chunk: the valid records in file order and a reason per rejected record.
+     */
+    private static final class Parsed<T> {
+        final RecordReader.Chunk chunk;
+        final List<T> valid;
+        final String[] reasons;
+
+        Parsed(RecordReader.Chunk chunk) {
+            this.chunk = chunk;
+            this.valid = new ArrayList<>(chunk.size);
+            this.reasons = new String[chunk.size];
+        }
+    }
+
+    private static final class Totals {
+        long records;
+        long accepted;
+        long duplicates;
+        long rejected;
+    }
+}
@@ -0,0 +1,28 @@
+package Import;
+
+/**
+ * Receives progress and rejected rows while an import runs.
+ * Callbacks come from the thread that called the importer, in file order.
+ */
+public interface ImportListener {
+
+    /**
+     * Called when a record fails validation.
+     *
+     * @param lineNumber - line where the record starts, counting from 1.
+     * @param record - the raw record text.
+     * @param reason - why it was rejected.
+     */
+    default void onRejected(long lineNumber, String record, String reason) {
+    }
+
+    /**
+     * Called after each batch has been inserted.
+     *
+     * @param records - records read so far.
+     * @param accepted - records inserted so far.
+     * @param rejected - records rejected so far.
+     */
+    default void onProgress(long records, long accepted, long rejected) {
+    }
+}
@@ -0,0 +1,84 @@
+package Import;
+
+import java.time.Duration;
+
+/**
+ * Totals of a finished import.
+ */
+public class ImportReport {
+    private final long records;
+    private final long accepted;
+    private final long duplicates;
+    private final long rejected;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a report.
+     *
+     * @param records - records read.
+     * @param accepted - valid records inserted.
+     * @param duplicates - valid records that were already present.
+     * @param rejected - records that failed validation.
+     * @param elapsed - wall-clock time of the import.
+     */
+    public ImportReport(long records, long accepted, long duplicates, long rejected, Duration elapsed) {
+        this.records = records;
+        this.accepted = accepted;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns a one-line summary of the import.
+     */
+    @Override
+    public String toString() {
+        return this.records + " records, " + this.accepted + " accepted, " + this.duplicates + " duplicates, "
+                + this.rejected + " rejected in " + this.elapsed.toMillis() + " ms";
+    }
+
+    // Getters
+    /**
+     * Returns the number of records read.
+     */
+    public long getRecords() {
+        return this.records;
+    }
+
+    /**
+     * Returns the number of records inserted.
+     */
+    public long getAccepted() {
+        return this.accepted;
+    }
+
+    /**
+     * Returns the number of valid records that were already present.
+     */
+    public long getDuplicates() {
+        return this.duplicates;
+    }
+
+    /**
+     * Returns the number of records that failed validation.
+     */
+    public long getRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * Returns the wall-clock time of the import.
+     */
+    public Duration getElapsed() {
+        return this.elapsed;
+    }
+
+    /**
+     * Returns records read per second.
+     */
+    public double getRecordsPerSecond() {
+        long nanos = Math.max(1, this.elapsed.toNanos());
+        return this.records * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,17 @@
+package Import;
+
+/**
+ * Layout of an import file.
+ */
+public enum RecordFormat {
+    /**
+     * One record per line, comma separated, with RFC 4180 quoting. A first line starting with
+     * {@code isbn} or {@code firstName} is treated as a header and skipped.
+     */
+    CSV,
+    /**
+     * MARC-like tagged records separated by blank lines, one field per line as {@code TAG $a value}.
+     * Books use 020 (ISBN), 245 (title), 100 (author) and 260 or 264 {@code $c} (year).
+     */
+    TAGGED
+}
@@ -0,0 +1,212 @@
+package Import;
+
+import Model.Book;
+import Model.Isbn;
+import Model.User;
+import Util.StringDictionary;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns raw records into Books and Users. Every method throws IllegalArgumentException with the
+ * rejection reason when a record is invalid, and is safe to call from many threads.
+ */
+final class RecordParsers {
+    private static final int MAX_YEAR = Year.now().getValue() + 1;
+
+    private RecordParsers() {
+    }
+
+    /**
+     * Parses {@code isbn,title,author,publishYear}, interning the author in a dictionary.
+     */
+    static Book bookFromCsv(String record, StringDictionary authors) {
+        List<String> fields = csvFields(record);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("Expected 4 fields but found " + fields.size());
+        }
+        return book(fields.get(0), fields.get(1), fields.get(2), fields.get(3), authors);
+    }
+
+    /**
+     * Parses a tagged record using fields 020, 245, 100 and 260 or 264, interning the author in a
+     * dictionary.
+     */
+    static Book bookFromTagged(String record, StringDictionary authors) {
+        String isbn = null;
+        String title = null;
+        String author = null;
+        String year = null;
+        for (String line : record.split("\n")) {
+            if (line.length() < 3) {
+                continue;
+            }
+            switch (line.substring(0, 3)) {
+                case "020":
+                    if (isbn == null) {
+                        isbn = firstWord(subfield(line, 'a'));
+                    }
+                    break;
+                case "245":
+                    String main = subfield(line, 'a');
+                    String rest = subfield(line, 'b');
+                    title = main == null || rest == null ? main : trimPunctuation(main) + " " + rest;
+                    break;
+                case "100":
+                    author = subfield(line, 'a');
+                    break;
+                case "260":
+                case "264":
+                    year = firstYear(subfield(line, 'c'));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return book(isbn, trimPunctuation(title), trimPunctuation(author), year, authors);
+    }
+
+    /**
+     * Parses {@code firstName,lastName,email[,id]}. A member without an id gets a random one.
+     */
+    static User memberFromCsv(String record) {
+        List<String> fields = csvFields(record);
+        if (fields.size() != 3 && fields.size() != 4) {
+            throw new IllegalArgumentException("Expected 3 or 4 fields but found " + fields.size());
+        }
+        String first = fields.get(0);
+        String last = fields.get(1);
+        String email = fields.get(2);
+        if (first.isEmpty() || last.isEmpty()) {
+            throw new IllegalArgumentException("Missing name");
+        }
+        if (!email.isEmpty() && email.indexOf('@') <= 0) {
+            throw new IllegalArgumentException("Invalid email: " + email);
+        }
+        email = email.isEmpty() ? null : email;
+        if (fields.size() == 4 && !fields.get(3).isEmpty()) {
+            return new User(fields.get(3), first, last, email);
+        }
+        return new User(first, last, email);
+    }
+
+    private static Book book(String isbn, String title, String author, String year, StringDictionary authors) {
+        if (isbn == null || isbn.isEmpty()) {
+            throw new IllegalArgumentException("Missing ISBN");
+        }
+        if (!Isbn.isValid(isbn)) {
+            throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+        }
+        if (title == null || title.isEmpty()) {
+            throw new IllegalArgumentException("Missing title");
+        }
+        int publishYear;
+        try {
+            publishYear = Integer.parseInt(year);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid year: " + year);
+        }
+        if (publishYear < 0 || publishYear > MAX_YEAR) {
+            throw new IllegalArgumentException("Invalid year: " + year);
+        }
+        return new Book(isbn, title, author, publishYear, authors);
+    }
+
+    /**
+     * Splits one CSV record. Fields are trimmed; quoted fields keep their content verbatim,
+     * with {@code ""} unescaped to {@code "}.
+     */
+    static List<String> csvFields(String record) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == ',') {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+                wasQuoted = true;
+            } else if (!wasQuoted) {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Returns the value of subfield {@code $code} of a tagged line, or null if it is absent.
+     */
+    private static String subfield(String line, char code) {
+        int at = line.indexOf("$" + code);
+        if (at < 0) {
+            return null;
+        }
+        int end = line.indexOf(" $", at + 2);
+        String value = line.substring(at + 2, end < 0 ? line.length() : end).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String firstWord(String value) {
+        if (value == null) {
+            return null;
+        }
+        int space = value.indexOf(' ');
+        return space < 0 ? value : value.substring(0, space);
+    }
+
+    /**
+     * Returns the first run of four digits, e.g. 1954 from {@code c1954.}.
+     */
+    private static String firstYear(String value) {
+        if (value == null) {
+            return null;
+        }
+        int run = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                if (++run == 4 && (i + 1 == value.length() || !Character.isDigit(value.charAt(i + 1)))) {
+                    return value.substring(i - 3, i + 1);
+                }
+            } else {
+                run = 0;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Strips the trailing ISBD punctuation ({@code / : ; ,}) cataloguers leave on a field.
+     */
+    private static String trimPunctuation(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && " /:;,".indexOf(value.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+}
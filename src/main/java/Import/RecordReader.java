@@ -0,0 +1,144 @@
+package Import;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Splits a character stream into raw records, a chunk at a time, without reading ahead.
+ * CSV records are single lines unless a quoted field spans a line break; tagged records are
+ * blocks of lines separated by blank lines.
+ */
+class RecordReader implements Closeable {
+    private final BufferedReader reader;
+    private final RecordFormat format;
+    private final String headerPrefix;
+    private long lineNumber;
+    private boolean started;
+
+    /**
+     * Constructs a reader.
+     *
+     * @param reader - the source, closed with this reader.
+     * @param format - layout of the source.
+     * @param headerPrefix - lower-case start of an optional CSV header line.
+     */
+    RecordReader(BufferedReader reader, RecordFormat format, String headerPrefix) {
+        this.reader = reader;
+        this.format = format;
+        this.headerPrefix = headerPrefix;
+    }
+
+    /**
+     * Reads up to {@code max} records.
+     *
+     * @param max - maximum number of records in the chunk.
+     * @return - the chunk, or null at end of input.
+     */
+    Chunk next(int max) throws IOException {
+        Chunk chunk = new Chunk(max);
+        while (chunk.size < max) {
+            if (this.format == RecordFormat.CSV ? !readCsv(chunk) : !readTagged(chunk)) {
+                break;
+            }
+        }
+        return chunk.size == 0 ? null : chunk;
+    }
+
+    /**
+     * Appends the next CSV record to the chunk, joining lines while a quote is open.
+     */
+    private boolean readCsv(Chunk chunk) throws IOException {
+        String line;
+        do {
+            line = this.reader.readLine();
+            if (line == null) {
+                return false;
+            }
+            this.lineNumber++;
+        } while (line.isBlank());
+
+        long first = this.lineNumber;
+        if (!this.started) {
+            this.started = true;
+            if (line.stripLeading().toLowerCase(Locale.ROOT).startsWith(this.headerPrefix)) {
+                return readCsv(chunk);
+            }
+        }
+
+        if (quoteCount(line) % 2 != 0) {
+            StringBuilder record = new StringBuilder(line);
+            int quotes = quoteCount(line);
+            String more;
+            while (quotes % 2 != 0 && (more = this.reader.readLine()) != null) {
+                this.lineNumber++;
+                record.append('\n').append(more);
+                quotes += quoteCount(more);
+            }
+            line = record.toString();
+        }
+        chunk.add(first, line);
+        return true;
+    }
+
+    /**
+     * Appends the next blank-line separated block to the chunk.
+     */
+    private boolean readTagged(Chunk chunk) throws IOException {
+        String line;
+        do {
+            line = this.reader.readLine();
+            if (line == null) {
+                return false;
+            }
+            this.lineNumber++;
+        } while (line.isBlank());
+
+        long first = this.lineNumber;
+        StringBuilder record = new StringBuilder(line);
+        while ((line = this.reader.readLine()) != null) {
+            this.lineNumber++;
+            if (line.isBlank()) {
+                break;
+            }
+            record.append('\n').append(line);
+        }
+        chunk.add(first, record.toString());
+        return true;
+    }
+
+    private static int quoteCount(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    /**
+     * A batch of raw records and the line each one starts on.
+     */
+    static final class Chunk {
+        final String[] records;
+        final long[] lines;
+        int size;
+
+        Chunk(int capacity) {
+            this.records = new String[capacity];
+            this.lines = new long[capacity];
+        }
+
+        void add(long line, String record) {
+            this.lines[this.size] = line;
+            this.records[this.size++] = record;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package Metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram in the style of HdrHistogram.
+ *
+ * <p>Values are bucketed by power of two, and each power of two is split into 16 linear
+ * sub-buckets, so a recorded value is reported within 1/16 (about 6%) of its true value.
+ * Recording is one atomic increment on a fixed array and never allocates or locks. Values below
+ * 16 are counted exactly.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * @param nanos - latency in nanoseconds; negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(bucket(value));
+        this.total.add(value);
+        long current = this.max.get();
+        while (value > current && !this.max.compareAndSet(current, value)) {
+            current = this.max.get();
+        }
+    }
+
+    /**
+     * Returns the value at a quantile, as the lower bound of its bucket.
+     * Concurrent recording may or may not be included.
+     *
+     * @param quantile - between 0 and 1, e.g. 0.99.
+     * @return - the latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long percentile(double quantile) {
+        long count = getCount();
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length(); i++) {
+            long bucketCount = this.counts.get(i);
+            seen += bucketCount;
+            if (seen >= rank && bucketCount > 0) {
+                return lowerBound(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < this.counts.length(); i++) {
+            count += this.counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded values in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) this.total.sum() / count;
+    }
+
+    /**
+     * Returns the highest recorded value in nanoseconds.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Clears the histogram. Values recorded concurrently may survive the reset.
+     */
+    public void reset() {
+        for (int i = 0; i < this.counts.length(); i++) {
+            this.counts.set(i, 0);
+        }
+        this.total.reset();
+        this.max.set(0);
+    }
+
+    /**
+     * Returns the bucket index of a non-negative value.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the smallest value that falls in a bucket.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+}
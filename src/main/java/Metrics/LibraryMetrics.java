@@ -0,0 +1,145 @@
+package Metrics;
+
+import Model.Book;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms, success and failure counters and a lock-contention counter
+ * for a {@link Service.Library}. Attach it with {@code Library.setMetrics} and detach it with
+ * {@code setMetrics(null)}; a library without metrics does no timing at all.
+ *
+ * <p>Operations slower than the threshold are also emitted as {@link SlowOperationEvent}s when a
+ * Flight Recorder recording has that event enabled.
+ */
+public class LibraryMetrics {
+    // Indexed by Operation.ordinal()
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] successes = new LongAdder[Operation.values().length];
+    private final LongAdder[] failures = new LongAdder[Operation.values().length];
+    private final LongAdder contendedLocks = new LongAdder();
+    private final long slowThresholdNanos;
+
+    /**
+     * Constructs metrics that report operations slower than 10 ms to Flight Recorder.
+     */
+    public LibraryMetrics() {
+        this(Duration.ofMillis(10));
+    }
+
+    /**
+     * Constructs metrics.
+     *
+     * @param slowThreshold - operations taking at least this long emit a SlowOperationEvent.
+     */
+    public LibraryMetrics(Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        for (int i = 0; i < this.latencies.length; i++) {
+            this.latencies[i] = new LatencyHistogram();
+            this.successes[i] = new LongAdder();
+            this.failures[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a finished operation.
+     *
+     * @param operation - the operation.
+     * @param book - the book it acted on, or null.
+     * @param startNanos - {@link System#nanoTime()} when the operation started.
+     * @param success - whether it succeeded.
+     */
+    public void record(Operation operation, Book book, long startNanos, boolean success) {
+        long latency = System.nanoTime() - startNanos;
+        this.latencies[operation.ordinal()].record(latency);
+        (success ? this.successes : this.failures)[operation.ordinal()].increment();
+
+        if (latency >= this.slowThresholdNanos) {
+            SlowOperationEvent event = new SlowOperationEvent();
+            if (event.isEnabled()) {
+                event.operation = operation.name();
+                event.isbn = book == null ? null : book.getIsbn();
+                event.success = success;
+                event.latency = latency;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Counts a lock that was already held when an operation tried to take it.
+     */
+    public void recordContention() {
+        this.contendedLocks.increment();
+    }
+
+    /**
+     * Returns the latency histogram of an operation.
+     *
+     * @param operation - the operation.
+     */
+    public LatencyHistogram getLatencies(Operation operation) {
+        return this.latencies[operation.ordinal()];
+    }
+
+    /**
+     * Returns how many times an operation succeeded.
+     *
+     * @param operation - the operation.
+     */
+    public long getSuccessCount(Operation operation) {
+        return this.successes[operation.ordinal()].sum();
+    }
+
+    /**
+     * Returns how many times an operation failed, e.g. a checkout of a lent book.
+     *
+     * @param operation - the operation.
+     */
+    public long getFailureCount(Operation operation) {
+        return this.failures[operation.ordinal()].sum();
+    }
+
+    /**
+     * Returns how many lock acquisitions had to wait for another thread.
+     */
+    public long getContendedLockCount() {
+        return this.contendedLocks.sum();
+    }
+
+    /**
+     * Returns the latency at or above which an operation emits a SlowOperationEvent.
+     */
+    public Duration getSlowThreshold() {
+        return Duration.ofNanos(this.slowThresholdNanos);
+    }
+
+    /**
+     * Clears every histogram and counter.
+     */
+    public void reset() {
+        for (int i = 0; i < this.latencies.length; i++) {
+            this.latencies[i].reset();
+            this.successes[i].reset();
+            this.failures[i].reset();
+        }
+        this.contendedLocks.reset();
+    }
+
+    /**
+     * Returns one summary line per operation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = getLatencies(operation);
+            sb.append(String.format("%s: %d ok, %d failed, p50 %d ns, p99 %d ns, max %d ns%n",
+                    operation, getSuccessCount(operation), getFailureCount(operation),
+                    histogram.percentile(0.5), histogram.percentile(0.99), histogram.getMax()));
+        }
+        sb.append("contended locks: ").append(getContendedLockCount());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package Metrics;
+
+/**
+ * Library operations that are timed when metrics are enabled.
+ */
+public enum Operation {
+    CHECKOUT,
+    RETURN,
+    ADD_BOOK,
+    GET_ACTIVE_BORROWERS
+}
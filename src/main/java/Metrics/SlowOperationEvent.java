@@ -0,0 +1,31 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted for a library operation slower than the configured threshold.
+ * Enable it in a recording as {@code SimpleLibrary.SlowOperation}.
+ */
+@Name("SimpleLibrary.SlowOperation")
+@Label("Slow Library Operation")
+@Category("SimpleLibrary")
+@Description("A library operation that took longer than the metrics threshold")
+public class SlowOperationEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+}
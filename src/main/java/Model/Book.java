@@ -1,10 +1,18 @@
 package Model;
 
-import java.util.Objects;
+import Util.StringDictionary;
 
 /**
  * Represents a book in the library system.
  * A book is uniquely identified by its ISBN.
+ *
+ * <p>Subclasses may be views whose getters read the fields from elsewhere, such as off-heap
+ * storage; equality and the string form only use the getters.
+ *
+ * <p>Whatever builds many books, such as an importer or a store reading them back, should pass
+ * its library's or store's {@link StringDictionary}, so books by the same author share one author
+ * string instead of holding a copy each. Titles are nearly unique per book, so they are kept as
+ * given.
  */
 public class Book {
     private String isbn;
@@ -31,6 +39,25 @@ public class Book {
         this.publishYear = publishYear;
     }
 
+    /**
+     * Constructs a new book whose author is interned in a dictionary.
+     *
+     * @param isbn - unique ISBN of the book.
+     * @param title - title of the book.
+     * @param author - author of the book.
+     * @param publishYear - year the book was published.
+     * @param authors - dictionary shared by the books of one library or store.
+     */
+    public Book(String isbn, String title, String author, int publishYear, StringDictionary authors) {
+        this(isbn, title, authors.intern(author), publishYear);
+    }
+
+    /**
+     * Constructs a view whose subclass overrides every getter.
+     */
+    protected Book() {
+    }
+
     /**
      * Returns a string representation of the book.
      *
@@ -40,11 +67,11 @@ public class Book {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Title: ");
-        sb.append(this.title);
+        sb.append(getTitle());
         sb.append("\nAuthor: ");
-        sb.append(this.author);
+        sb.append(getAuthor());
         sb.append("\nPublication Year: ");
-        sb.append(this.publishYear);
+        sb.append(getPublishYear());
 
         return sb.toString();
     }
@@ -55,9 +82,8 @@ public class Book {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Book book = (Book) o;
-        return this.isbn.equals(book.isbn);
+        if (!(o instanceof Book book)) return false;
+        return getIsbn().equals(book.getIsbn());
     }
 
     /**
@@ -65,7 +91,7 @@ public class Book {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.isbn);
+        return 31 + getIsbn().hashCode(); // Same value as Objects.hash(isbn) without the varargs array
     }
 
     // Getters
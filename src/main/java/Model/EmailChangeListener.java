@@ -0,0 +1,16 @@
+package Model;
+
+/**
+ * Notified when a user's email changes, e.g. by an index keyed on email.
+ */
+public interface EmailChangeListener {
+
+    /**
+     * Called after the email was changed, while the user's email updates are serialized.
+     *
+     * @param user - the user whose email changed.
+     * @param oldEmail - the previous email, possibly null.
+     * @param newEmail - the new email, possibly null.
+     */
+    void onEmailChanged(User user, String oldEmail, String newEmail);
+}
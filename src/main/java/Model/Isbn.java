@@ -0,0 +1,115 @@
+package Model;
+
+/**
+ * Parses ISBN-10 and ISBN-13 strings into a primitive {@code long} key.
+ * ISBN-10s are converted to their 978-prefixed ISBN-13 form, so both spellings of a
+ * book map to the same key. Hyphens and spaces are ignored and the check digit is verified.
+ */
+public final class Isbn {
+    /** Returned by {@link #tryParse} when the input is not a valid ISBN. */
+    public static final long INVALID = -1L;
+
+    private Isbn() {
+    }
+
+    /**
+     * Parses an ISBN into its 13-digit numeric key.
+     *
+     * @param isbn - ISBN-10 or ISBN-13, optionally hyphenated.
+     * @return - the ISBN-13 as a long.
+     * @throws IllegalArgumentException - if the input is not a valid ISBN.
+     */
+    public static long parse(CharSequence isbn) {
+        long key = tryParse(isbn);
+        if (key == INVALID) {
+            throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+        }
+        return key;
+    }
+
+    /**
+     * Parses an ISBN without throwing or allocating.
+     *
+     * @param isbn - ISBN-10 or ISBN-13, optionally hyphenated.
+     * @return - the ISBN-13 as a long, or {@link #INVALID}.
+     */
+    public static long tryParse(CharSequence isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+
+        long digits = 0;
+        int count = 0;
+        int check = -1;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (check >= 0) {
+                return INVALID; // 'X' is only allowed as the final ISBN-10 character
+            }
+            if (c >= '0' && c <= '9') {
+                if (++count > 13) {
+                    return INVALID;
+                }
+                digits = digits * 10 + (c - '0');
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                count++;
+                check = 10;
+            } else {
+                return INVALID;
+            }
+        }
+
+        if (count == 13) {
+            return checkDigit13(digits / 10) == digits % 10 ? digits : INVALID;
+        }
+        if (count == 10) {
+            long body = check >= 0 ? digits : digits / 10;
+            int last = check >= 0 ? check : (int) (digits % 10);
+            if (checkDigit10(body) != last) {
+                return INVALID;
+            }
+            long prefixed = 978_000_000_000L + body;
+            return prefixed * 10 + checkDigit13(prefixed);
+        }
+        return INVALID;
+    }
+
+    /**
+     * Returns true if the input is a valid ISBN-10 or ISBN-13.
+     */
+    public static boolean isValid(CharSequence isbn) {
+        return tryParse(isbn) != INVALID;
+    }
+
+    /**
+     * Formats a key produced by {@link #parse} as a 13-digit string without hyphens.
+     */
+    public static String toIsbn13(long key) {
+        String digits = Long.toString(key);
+        return digits.length() >= 13 ? digits : "0".repeat(13 - digits.length()) + digits;
+    }
+
+    // Check digit of the 12 leading digits of an ISBN-13 (weights 1,3,1,3,... from the left).
+    private static int checkDigit13(long body) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = (int) (body % 10);
+            body /= 10;
+            sum += (i & 1) == 0 ? digit * 3 : digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    // Check value of the 9 leading digits of an ISBN-10 (weights 10..2), 10 meaning 'X'.
+    private static int checkDigit10(long body) {
+        int sum = 0;
+        for (int weight = 2; weight <= 10; weight++) {
+            sum += (int) (body % 10) * weight;
+            body /= 10;
+        }
+        return (11 - sum % 11) % 11;
+    }
+}
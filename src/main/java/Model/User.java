@@ -1,6 +1,9 @@
 package Model;
 
+import Util.Ids;
+
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a user in the library system.
@@ -10,8 +13,11 @@ public class User {
     private String id;
     private String firstName;
     private String lastName;
-    private String email;
+    private volatile String email;
     private Set<Book> books;
+    private EmailChangeListener[] emailListeners = NO_LISTENERS;
+
+    private static final EmailChangeListener[] NO_LISTENERS = new EmailChangeListener[0];
 
     /**
      * Constructs a new user.
@@ -21,11 +27,27 @@ public class User {
      * @param email - the user's email.
      */
     public User(String firstName, String lastName, String email) {
-        this.id = UUID.randomUUID().toString(); // Generates a unique UUID for each user.
+        this(Ids.randomId(), firstName, lastName, email); // Generates a unique UUID for each user without SecureRandom.
+    }
+
+    /**
+     * Constructs a user with a known ID, e.g. when restoring a persisted library.
+     *
+     * @param id - the user's unique ID.
+     * @param firstName - the user's first name.
+     * @param lastName - the user's last name.
+     * @param email - the user's email.
+     */
+    public User(String id, String firstName, String lastName, String email) {
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("ID cannot be null or empty");
+        }
+
+        this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
-        this.books = new HashSet<>();
+        this.books = ConcurrentHashMap.newKeySet(); // A concurrent Library may lend two books to one user at once.
     }
 
     /**
@@ -70,7 +92,7 @@ public class User {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.id);
+        return 31 + this.id.hashCode(); // Same value as Objects.hash(id) without the varargs array
     }
 
     /**
@@ -93,6 +115,26 @@ public class User {
         return this.books.remove(book);
     }
 
+    /**
+     * Adds several books to the user's checked-out collection.
+     *
+     * @param books - the books to check out.
+     */
+    public void addBooks(Collection<Book> books) {
+        this.books.addAll(books);
+    }
+
+    /**
+     * Removes several books from the user's collection.
+     *
+     * @param books - the books to remove.
+     */
+    public void removeBooks(Collection<Book> books) {
+        for (Book book : books) {
+            this.books.remove(book);
+        }
+    }
+
     // Getters & Setters
 
     /**
@@ -131,12 +173,46 @@ public class User {
     }
 
     /**
-     * Sets the user's email address.
+     * Sets the user's email address and notifies the email listeners.
      *
      * @param email - new email address to replace user's current email.
      */
-    public void setEmail(String email) {
+    public synchronized void setEmail(String email) {
+        String oldEmail = this.email;
         this.email = email;
+        for (EmailChangeListener listener : this.emailListeners) {
+            listener.onEmailChanged(this, oldEmail, email);
+        }
+    }
+
+    /**
+     * Registers a listener to be notified when the email changes.
+     *
+     * @param listener - the listener to add.
+     */
+    public synchronized void addEmailListener(EmailChangeListener listener) {
+        EmailChangeListener[] updated = Arrays.copyOf(this.emailListeners, this.emailListeners.length + 1);
+        updated[this.emailListeners.length] = listener;
+        this.emailListeners = updated;
+    }
+
+    /**
+     * Unregisters an email listener.
+     *
+     * @param listener - the listener to remove.
+     * @return - true if the listener was registered.
+     */
+    public synchronized boolean removeEmailListener(EmailChangeListener listener) {
+        for (int i = 0; i < this.emailListeners.length; i++) {
+            if (this.emailListeners[i] == listener) {
+                EmailChangeListener[] updated = new EmailChangeListener[this.emailListeners.length - 1];
+                System.arraycopy(this.emailListeners, 0, updated, 0, i);
+                System.arraycopy(this.emailListeners, i + 1, updated, i, updated.length - i);
+                this.emailListeners = updated.length == 0 ? NO_LISTENERS : updated;
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,530 @@
+package Persistence;
+
+import Model.Book;
+import Model.Isbn;
+import Model.User;
+import Service.Library;
+import Util.StringDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact binary snapshot of a library's catalog, members and loans, read through memory mapping.
+ *
+ * <p>Layout, all big-endian:
+ * <pre>
+ *   header   magic, version, bookCount, memberCount, then the offset and size of each section
+ *   books    bookCount fixed-width records sorted by key:
+ *            long key, int isbn, int title, int author, int publishYear, int borrower, int reserved
+ *   members  memberCount fixed-width records: int id, int firstName, int lastName, int email, int flags
+ *   strings  deduplicated [int length][UTF-8 bytes] entries, referenced by offset (-1 for null)
+ * </pre>
+ * The key is the numeric ISBN-13 from {@link Isbn}; books whose ISBN doesn't parse get a key above
+ * every valid ISBN derived from the string's hash. The borrower is a member record index, or -1.
+ *
+ * <p>Opening a snapshot only maps the file, so it takes about the same time for any catalog size.
+ * Books and users are materialized when they are accessed. Each section must be smaller than 2 GB.
+ * The snapshot itself is read-only. {@link SnapshotStore} runs a {@link Library} directly on top of
+ * it and keeps changes in memory; {@link #loadInto(Library)} instead builds an ordinary library by
+ * adding every member, book and loan, which costs as much as adding them by hand.
+ */
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x534C4353; // "SLCS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int BOOK_BYTES = 32;
+    private static final int MEMBER_BYTES = 20;
+    private static final int MEMBER_FLAG = 1;
+    private static final long INVALID_KEY_BASE = 1L << 62;
+    private static final int PAGE_BITS = 10; // materialized books are cached in pages of 1024
+
+    private final int bookCount;
+    private final int memberCount;
+    private final MappedByteBuffer books;
+    private final MappedByteBuffer members;
+    private final MappedByteBuffer strings;
+    private final AtomicReferenceArray<AtomicReferenceArray<Book>> materialized;
+    private final StringDictionary authors = new StringDictionary(); // shared by the materialized books
+
+    private CatalogSnapshot(int bookCount, int memberCount, MappedByteBuffer books, MappedByteBuffer members, MappedByteBuffer strings) {
+        this.bookCount = bookCount;
+        this.memberCount = memberCount;
+        this.books = books;
+        this.members = members;
+        this.strings = strings;
+        this.materialized = new AtomicReferenceArray<>((bookCount >>> PAGE_BITS) + 1);
+    }
+
+    /**
+     * Writes a snapshot of the library. Circulation is paused only while references are copied.
+     *
+     * @param library - the library to snapshot.
+     * @param file - destination file, replaced atomically.
+     * @throws IOException - if the file cannot be written.
+     */
+    public static void write(Library library, Path file) throws IOException {
+        List<Book> catalog = new ArrayList<>();
+        List<User> borrowers = new ArrayList<>();
+        List<User> registered = new ArrayList<>();
+        library.runExclusive(() -> {
+            for (Book book : library.getBooks()) {
+                catalog.add(book);
+                borrowers.add(null);
+            }
+            for (Map.Entry<Book, User> loan : library.getCheckedOutBooks().entrySet()) {
+                catalog.add(loan.getKey());
+                borrowers.add(loan.getValue());
+            }
+            registered.addAll(library.getMembers());
+        });
+
+        // Member records: registered members first, then borrowers who aren't members
+        Map<User, Integer> memberIndex = new HashMap<>();
+        List<User> users = new ArrayList<>(registered);
+        for (User member : registered) {
+            memberIndex.put(member, memberIndex.size());
+        }
+        for (User borrower : borrowers) {
+            if (borrower != null && !memberIndex.containsKey(borrower)) {
+                memberIndex.put(borrower, users.size());
+                users.add(borrower);
+            }
+        }
+
+        int n = catalog.size();
+        long[] keys = new long[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = key(catalog.get(i).getIsbn());
+            order[i] = i;
+        }
+        sortByKey(order, keys, 0, n - 1);
+
+        long booksOffset = HEADER_BYTES;
+        long membersOffset = booksOffset + (long) n * BOOK_BYTES;
+        long stringsOffset = membersOffset + (long) users.size() * MEMBER_BYTES;
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringTable strings = new StringTable(channel, stringsOffset);
+
+            SectionWriter bookOut = new SectionWriter(channel, booksOffset);
+            for (int i = 0; i < n; i++) {
+                Book book = catalog.get(order[i]);
+                User borrower = borrowers.get(order[i]);
+                bookOut.reserve(BOOK_BYTES)
+                        .putLong(keys[order[i]])
+                        .putInt(strings.appendUnique(book.getIsbn()))
+                        .putInt(strings.offsetOf(book.getTitle()))
+                        .putInt(strings.offsetOf(book.getAuthor()))
+                        .putInt(book.getPublishYear())
+                        .putInt(borrower == null ? -1 : memberIndex.get(borrower))
+                        .putInt(0);
+            }
+            bookOut.flush();
+
+            SectionWriter memberOut = new SectionWriter(channel, membersOffset);
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                memberOut.reserve(MEMBER_BYTES)
+                        .putInt(strings.appendUnique(user.getId()))
+                        .putInt(strings.offsetOf(user.getFirstName()))
+                        .putInt(strings.offsetOf(user.getLastName()))
+                        .putInt(strings.offsetOf(user.getEmail()))
+                        .putInt(i < registered.size() ? MEMBER_FLAG : 0);
+            }
+            memberOut.flush();
+            long stringBytes = strings.finish();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(users.size())
+                    .putLong(booksOffset).putLong(membersOffset).putLong(stringsOffset).putLong(stringBytes);
+            header.clear();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Maps a snapshot file. Nothing is materialized until accessed.
+     *
+     * @param file - snapshot written by {@link #write}.
+     * @return - the mapped snapshot.
+     * @throws IOException - if the file cannot be read or is not a valid snapshot.
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // read the full header
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            int bookCount = header.getInt();
+            int memberCount = header.getInt();
+            long booksOffset = header.getLong();
+            long membersOffset = header.getLong();
+            long stringsOffset = header.getLong();
+            long stringBytes = header.getLong();
+            long booksBytes = (long) bookCount * BOOK_BYTES;
+            long membersBytes = (long) memberCount * MEMBER_BYTES;
+            // Sections follow the header in order without overlapping, and each fits one mapping
+            if (bookCount < 0 || memberCount < 0 || stringBytes < 0
+                    || booksBytes > Integer.MAX_VALUE || membersBytes > Integer.MAX_VALUE || stringBytes > Integer.MAX_VALUE
+                    || booksOffset < HEADER_BYTES || membersOffset < booksOffset + booksBytes
+                    || stringsOffset < membersOffset + membersBytes) {
+                throw new IOException("Corrupt catalog snapshot: " + file);
+            }
+            if (stringsOffset > channel.size() - stringBytes) {
+                throw new IOException("Truncated catalog snapshot: " + file);
+            }
+
+            return new CatalogSnapshot(bookCount, memberCount,
+                    channel.map(FileChannel.MapMode.READ_ONLY, booksOffset, (long) bookCount * BOOK_BYTES),
+                    channel.map(FileChannel.MapMode.READ_ONLY, membersOffset, (long) memberCount * MEMBER_BYTES),
+                    channel.map(FileChannel.MapMode.READ_ONLY, stringsOffset, stringBytes));
+        }
+    }
+
+    /**
+     * Returns the book at the given position in key order. The book is materialized on first
+     * access and the same instance is returned afterwards.
+     */
+    public Book getBook(int index) {
+        Objects.checkIndex(index, this.bookCount);
+        int pageIndex = index >>> PAGE_BITS;
+        AtomicReferenceArray<Book> page = this.materialized.get(pageIndex);
+        if (page == null) {
+            page = new AtomicReferenceArray<>(1 << PAGE_BITS);
+            if (!this.materialized.compareAndSet(pageIndex, null, page)) {
+                page = this.materialized.get(pageIndex);
+            }
+        }
+        int slot = index & ((1 << PAGE_BITS) - 1);
+        Book book = page.get(slot);
+        if (book == null) {
+            int record = index * BOOK_BYTES;
+            book = new Book(string(this.books.getInt(record + 8)), string(this.books.getInt(record + 12)),
+                    string(this.books.getInt(record + 16)), this.books.getInt(record + 20), this.authors);
+            if (!page.compareAndSet(slot, null, book)) {
+                book = page.get(slot);
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Returns the ISBN of the book at the given position without materializing the book.
+     */
+    public String getIsbn(int index) {
+        Objects.checkIndex(index, this.bookCount);
+        return string(this.books.getInt(index * BOOK_BYTES + 8));
+    }
+
+    /**
+     * Finds the position of the book with the given ISBN by binary search over the fixed-width keys.
+     *
+     * @param isbn - ISBN exactly as stored in the book.
+     * @return - the book's position, or -1 if the snapshot doesn't contain it or the ISBN is null.
+     */
+    public int indexOf(String isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        long key = key(isbn);
+        int low = 0;
+        int high = this.bookCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = this.books.getLong(mid * BOOK_BYTES);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                // Equal keys are adjacent; scan them for the exact ISBN string
+                int first = mid;
+                while (first > 0 && this.books.getLong((first - 1) * BOOK_BYTES) == key) {
+                    first--;
+                }
+                for (int i = first; i < this.bookCount && this.books.getLong(i * BOOK_BYTES) == key; i++) {
+                    if (isbnEquals(i, isbn)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds and materializes the book with the given ISBN.
+     *
+     * @return - the book, or null if the snapshot doesn't contain it.
+     */
+    public Book findBook(String isbn) {
+        int index = indexOf(isbn);
+        return index < 0 ? null : getBook(index);
+    }
+
+    /**
+     * Returns the user who had the book at the given position checked out, or null if it was available.
+     */
+    public User getBorrower(int index) {
+        int member = getBorrowerIndex(index);
+        return member < 0 ? null : getUser(member);
+    }
+
+    /**
+     * Returns the position of the user record of the book's borrower, or -1 if it was available.
+     */
+    public int getBorrowerIndex(int index) {
+        Objects.checkIndex(index, this.bookCount);
+        return this.books.getInt(index * BOOK_BYTES + 24);
+    }
+
+    /**
+     * Returns the user record at the given position, materializing it.
+     * Records include registered members and borrowers who are not members.
+     */
+    public User getUser(int index) {
+        Objects.checkIndex(index, this.memberCount);
+        int record = index * MEMBER_BYTES;
+        return new User(string(this.members.getInt(record)), string(this.members.getInt(record + 4)),
+                string(this.members.getInt(record + 8)), string(this.members.getInt(record + 12)));
+    }
+
+    /**
+     * Returns true if the user record at the given position is a registered member.
+     */
+    public boolean isMember(int index) {
+        Objects.checkIndex(index, this.memberCount);
+        return (this.members.getInt(index * MEMBER_BYTES + 16) & MEMBER_FLAG) != 0;
+    }
+
+    /**
+     * Materializes the whole snapshot into an empty library, restoring books, members and loans.
+     * Every record is read and replayed through the library, so this takes time proportional to
+     * the snapshot, unlike {@link #open(Path)}.
+     *
+     * @param library - the library to fill.
+     */
+    public void loadInto(Library library) {
+        User[] users = new User[this.memberCount];
+        for (int i = 0; i < this.memberCount; i++) {
+            users[i] = getUser(i);
+            if (isMember(i)) {
+                library.addMember(users[i]);
+            }
+        }
+        for (int i = 0; i < this.bookCount; i++) {
+            Book book = getBook(i);
+            library.addBook(book);
+            int borrower = getBorrowerIndex(i);
+            if (borrower >= 0) {
+                library.tryCheckout(book, users[borrower]);
+            }
+        }
+    }
+
+    // Getters
+    /**
+     * Returns the number of books, available and checked out.
+     */
+    public int getBookCount() {
+        return this.bookCount;
+    }
+
+    /**
+     * Returns the number of user records.
+     */
+    public int getUserCount() {
+        return this.memberCount;
+    }
+
+    // Compares a stored ISBN with a string without decoding it; ISBNs are normally ASCII.
+    private boolean isbnEquals(int index, String isbn) {
+        int offset = this.books.getInt(index * BOOK_BYTES + 8);
+        if (offset < 0) {
+            return false;
+        }
+        int length = this.strings.getInt(offset);
+        if (length != isbn.length()) {
+            return isbn.equals(string(offset)); // non-ASCII: lengths in bytes and chars differ
+        }
+        for (int i = 0; i < length; i++) {
+            char c = isbn.charAt(i);
+            if (c >= 0x80) {
+                return isbn.equals(string(offset));
+            }
+            if (this.strings.get(offset + 4 + i) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String string(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        int length = this.strings.getInt(offset);
+        byte[] bytes = new byte[length];
+        this.strings.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Valid ISBNs sort by their numeric value; anything else sorts after them by string hash.
+    private static long key(String isbn) {
+        long key = Isbn.tryParse(isbn);
+        return key != Isbn.INVALID ? key : INVALID_KEY_BASE | (isbn.hashCode() & 0xFFFFFFFFL);
+    }
+
+    // Sorts record positions by key. Quicksort on the indirection array avoids boxing millions of indexes.
+    private static void sortByKey(int[] order, long[] keys, int low, int high) {
+        while (high - low > 16) {
+            int mid = (low + high) >>> 1;
+            long pivot = median(keys[order[low]], keys[order[mid]], keys[order[high]]);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[order[i]] < pivot) i++;
+                while (keys[order[j]] > pivot) j--;
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                sortByKey(order, keys, low, j);
+                low = i;
+            } else {
+                sortByKey(order, keys, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int value = order[i];
+            int j = i - 1;
+            while (j >= low && keys[order[j]] > keys[value]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = value;
+        }
+    }
+
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Buffers fixed-width records and writes them to a channel at consecutive positions.
+     */
+    private static class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        private long position;
+
+        private SectionWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (this.buffer.remaining() < bytes) {
+                flush();
+            }
+            return this.buffer;
+        }
+
+        void flush() throws IOException {
+            this.buffer.flip();
+            writeFully(this.buffer);
+            this.buffer.clear();
+        }
+
+        // Writes a record too large for the buffer straight to the channel.
+        void writeLarge(ByteBuffer record) throws IOException {
+            flush();
+            writeFully(record);
+        }
+
+        void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                this.position += this.channel.write(source, this.position);
+            }
+        }
+    }
+
+    /**
+     * Appends each distinct string once and remembers its offset within the string section.
+     */
+    private static final class StringTable extends SectionWriter {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private long size;
+
+        private StringTable(FileChannel channel, long position) {
+            super(channel, position);
+        }
+
+        // Titles, authors and names repeat across records and are stored once.
+        private int offsetOf(String value) throws IOException {
+            if (value == null) {
+                return -1;
+            }
+            Integer existing = this.offsets.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int offset = append(value);
+            this.offsets.put(value, offset);
+            return offset;
+        }
+
+        // ISBNs and user IDs are unique, so they skip the dedup map.
+        private int appendUnique(String value) throws IOException {
+            return value == null ? -1 : append(value);
+        }
+
+        private int append(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (this.size + 4 + bytes.length > Integer.MAX_VALUE) {
+                throw new IOException("String section exceeds 2 GB");
+            }
+            int offset = (int) this.size;
+            ByteBuffer out = reserve(4 + bytes.length);
+            if (out.remaining() < 4 + bytes.length) {
+                writeLarge(ByteBuffer.allocate(4 + bytes.length).putInt(bytes.length).put(bytes).flip());
+            } else {
+                out.putInt(bytes.length).put(bytes);
+            }
+            this.size += 4 + bytes.length;
+            return offset;
+        }
+
+        private long finish() throws IOException {
+            flush();
+            return this.size;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package Persistence;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationListener;
+import Service.Library;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes a {@link Library} durable by journaling every change to a {@link WriteAheadLog}.
+ *
+ * <p>Opening a journal first rebuilds the library from the latest checkpoint and the log segments
+ * written after it, then registers the journal as a listener so every later {@code addBook},
+ * {@code addMember}, {@code checkout} and {@code returnBook} is appended as a compact binary record.
+ * Records are written while the library holds the book's lock, so the log order matches the order
+ * in which each book changed. In {@link SyncMode#GROUP} mode that also means the lock is held
+ * until the record's group has been fsynced: other operations on books of the same lock stripe
+ * wait for the disk, while other stripes proceed and share the same fsync.
+ *
+ * <p>A checkpoint pauses circulation just long enough to start a new log segment and copy the
+ * current books and loans, writes them to {@code checkpoint.bin}, then deletes the older segments,
+ * which keeps replay time bounded by the checkpoint interval.
+ */
+public class LibraryJournal implements CirculationListener, Closeable {
+    static final byte ADD_BOOK = 1;
+    static final byte ADD_MEMBER = 2;
+    static final byte CHECKOUT = 3;
+    static final byte RETURN = 4;
+    static final byte USER = 5; // a borrower who is not a registered member
+    static final byte CHECKPOINT_START = 6;
+    static final byte CHECKPOINT_END = 7;
+
+    private static final String CHECKPOINT_FILE = "checkpoint.bin";
+    private static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final Library library;
+    private final WriteAheadLog log;
+    private final Set<String> journaledUsers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<RecordEncoder> encoder = ThreadLocal.withInitial(() -> new RecordEncoder(256));
+    private final long recoveredRecords;
+    private ScheduledExecutorService checkpointer;
+
+    private LibraryJournal(Path directory, Library library, WriteAheadLog log, Set<String> users, long recoveredRecords) {
+        this.directory = directory;
+        this.library = library;
+        this.log = log;
+        this.journaledUsers.addAll(users);
+        this.recoveredRecords = recoveredRecords;
+    }
+
+    /**
+     * Restores the library from the journal directory and starts journaling its changes.
+     *
+     * @param directory - directory for the checkpoint and log segments.
+     * @param library - an empty library to restore into.
+     * @param syncMode - when log records are forced to disk.
+     * @param flushInterval - time between writes of buffered records in ASYNC and NONE modes.
+     * @return - the open journal.
+     * @throws IOException - if the journal cannot be read or the log cannot be opened.
+     */
+    public static LibraryJournal open(Path directory, Library library, SyncMode syncMode, Duration flushInterval) throws IOException {
+        Files.createDirectories(directory);
+        Recovery recovery = new Recovery(library);
+
+        long firstSegment = 1;
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            firstSegment = recovery.loadCheckpoint(checkpoint);
+        }
+        long records = WriteAheadLog.replay(directory, firstSegment, recovery::apply);
+
+        WriteAheadLog log = new WriteAheadLog(directory, syncMode, flushInterval, DEFAULT_BUFFER_BYTES);
+        LibraryJournal journal = new LibraryJournal(directory, library, log, recovery.users.keySet(), records);
+        library.addListener(journal);
+        return journal;
+    }
+
+    /**
+     * Writes a checkpoint of the library and deletes the log segments it replaces.
+     *
+     * @throws IOException - if the checkpoint cannot be written.
+     */
+    public synchronized void checkpoint() throws IOException {
+        List<Book> books = new ArrayList<>();
+        List<Book> loanedBooks = new ArrayList<>();
+        List<User> borrowers = new ArrayList<>();
+        List<User> members = new ArrayList<>();
+        long[] nextSegment = new long[1];
+        IOException[] failure = new IOException[1];
+
+        // Circulation is paused only while the segment rotates and references are copied
+        this.library.runExclusive(() -> {
+            try {
+                nextSegment[0] = this.log.rotate();
+            } catch (IOException ex) {
+                failure[0] = ex;
+                return;
+            }
+            books.addAll(this.library.getBooks());
+            for (Map.Entry<Book, User> loan : this.library.getCheckedOutBooks().entrySet()) {
+                loanedBooks.add(loan.getKey());
+                borrowers.add(loan.getValue());
+            }
+            // Members added concurrently are also logged to the new segment; replaying them is harmless
+            members.addAll(this.library.getMembers());
+
+            // Older USER records are about to be deleted, so only users in this checkpoint count as journaled
+            this.journaledUsers.clear();
+            members.forEach(member -> this.journaledUsers.add(member.getId()));
+            borrowers.forEach(borrower -> this.journaledUsers.add(borrower.getId()));
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        Path temp = this.directory.resolve(CHECKPOINT_FILE + ".tmp");
+        RecordEncoder out = new RecordEncoder(4096);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            WriteAheadLog.writeFramed(channel, out.begin(CHECKPOINT_START).putLong(nextSegment[0]).finish());
+            Set<String> written = new HashSet<>();
+            for (User member : members) {
+                written.add(member.getId());
+                WriteAheadLog.writeFramed(channel, encodeUser(out, ADD_MEMBER, member));
+            }
+            for (User borrower : borrowers) {
+                if (written.add(borrower.getId())) {
+                    WriteAheadLog.writeFramed(channel, encodeUser(out, USER, borrower));
+                }
+            }
+            for (Book book : books) {
+                WriteAheadLog.writeFramed(channel, encodeBook(out, book));
+            }
+            for (Book book : loanedBooks) {
+                WriteAheadLog.writeFramed(channel, encodeBook(out, book));
+            }
+            for (int i = 0; i < loanedBooks.size(); i++) {
+                WriteAheadLog.writeFramed(channel, encodeLoan(out, CHECKOUT, loanedBooks.get(i), borrowers.get(i)));
+            }
+            WriteAheadLog.writeFramed(channel, out.begin(CHECKPOINT_END).putLong(books.size() + loanedBooks.size()).finish());
+            channel.force(true);
+        }
+        Files.move(temp, this.directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        this.log.deleteSegmentsBefore(nextSegment[0]);
+    }
+
+    /**
+     * Takes a checkpoint at a fixed interval on a background thread.
+     * Requires a concurrent library, since the checkpoint reads it from another thread.
+     *
+     * @param interval - time between checkpoints.
+     */
+    public synchronized void scheduleCheckpoints(Duration interval) {
+        if (!this.library.isConcurrent()) {
+            throw new IllegalStateException("Background checkpoints require a concurrent Library");
+        }
+        if (this.checkpointer != null) {
+            this.checkpointer.shutdown();
+        }
+        this.checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        this.checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Blocks until every change journaled so far is on disk.
+     */
+    public void sync() {
+        this.log.sync();
+    }
+
+    /**
+     * Returns the number of log records replayed when the journal was opened.
+     */
+    public long getRecoveredRecords() {
+        return this.recoveredRecords;
+    }
+
+    /**
+     * Stops journaling, flushes the log and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService scheduled;
+        synchronized (this) {
+            scheduled = this.checkpointer;
+            this.checkpointer = null;
+        }
+        if (scheduled != null) {
+            // No interrupts: an interrupted FileChannel operation would close the log's channel
+            scheduled.shutdown();
+            try {
+                scheduled.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.library.removeListener(this);
+        this.log.close();
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        this.log.append(encodeBook(this.encoder.get(), book));
+    }
+
+    @Override
+    public void onMemberAdded(User user) {
+        // Append before marking the user journaled, so a concurrent checkout never logs a loan ahead of its user
+        this.log.append(encodeUser(this.encoder.get(), ADD_MEMBER, user));
+        this.journaledUsers.add(user.getId());
+    }
+
+    @Override
+    public void onCheckout(Book book, User user) {
+        RecordEncoder out = this.encoder.get();
+        // Libraries may lend to non-members, so make sure replay can rebuild the borrower. As in
+        // onMemberAdded, the user is marked only after its record is appended, so a checkout on
+        // another stripe can't log a loan ahead of it; a duplicate USER record is harmless on replay.
+        if (!this.journaledUsers.contains(user.getId())) {
+            this.log.append(encodeUser(out, USER, user));
+            this.journaledUsers.add(user.getId());
+        }
+        this.log.append(encodeLoan(out, CHECKOUT, book, user));
+    }
+
+    @Override
+    public void onReturn(Book book, User user) {
+        this.log.append(encodeLoan(this.encoder.get(), RETURN, book, user));
+    }
+
+    private static ByteBuffer encodeBook(RecordEncoder out, Book book) {
+        return out.begin(ADD_BOOK)
+                .putString(book.getIsbn())
+                .putString(book.getTitle())
+                .putString(book.getAuthor())
+                .putInt(book.getPublishYear())
+                .finish();
+    }
+
+    private static ByteBuffer encodeUser(RecordEncoder out, byte type, User user) {
+        return out.begin(type)
+                .putString(user.getId())
+                .putString(user.getFirstName())
+                .putString(user.getLastName())
+                .putString(user.getEmail())
+                .finish();
+    }
+
+    private static ByteBuffer encodeLoan(RecordEncoder out, byte type, Book book, User user) {
+        return out.begin(type)
+                .putString(book.getIsbn())
+                .putString(user.getId())
+                .finish();
+    }
+
+    /**
+     * Applies checkpoint and log records to a library that is not yet journaled.
+     * Replaying a record whose effect is already present is a no-op, so replay is idempotent.
+     */
+    private static final class Recovery {
+        private final Library library;
+        private final Map<String, Book> books = new HashMap<>();
+        private final Map<String, User> users = new HashMap<>();
+
+        private Recovery(Library library) {
+            this.library = library;
+        }
+
+        // Returns the first log segment not covered by the checkpoint.
+        private long loadCheckpoint(Path file) throws IOException {
+            long[] header = {-1, -1};
+            WriteAheadLog.readFramed(file, record -> {
+                byte type = record.get(record.position());
+                if (type == CHECKPOINT_START) {
+                    record.get();
+                    header[0] = record.getLong();
+                } else if (type == CHECKPOINT_END) {
+                    header[1] = 1;
+                } else {
+                    apply(record);
+                }
+            });
+            if (header[0] < 0 || header[1] < 0) {
+                throw new IOException("Incomplete checkpoint: " + file);
+            }
+            return header[0];
+        }
+
+        private void apply(ByteBuffer record) {
+            byte type = record.get();
+            switch (type) {
+                case ADD_BOOK -> {
+                    Book book = new Book(RecordEncoder.getString(record), RecordEncoder.getString(record),
+                            RecordEncoder.getString(record), record.getInt(), this.library.getAuthorDictionary());
+                    this.books.putIfAbsent(book.getIsbn(), book);
+                    this.library.addBook(this.books.get(book.getIsbn()));
+                }
+                case ADD_MEMBER, USER -> {
+                    User user = this.users.computeIfAbsent(RecordEncoder.getString(record), id -> new User(id,
+                            RecordEncoder.getString(record), RecordEncoder.getString(record), RecordEncoder.getString(record)));
+                    if (type == ADD_MEMBER) {
+                        this.library.addMember(user);
+                    }
+                }
+                case CHECKOUT, RETURN -> {
+                    Book book = this.books.get(RecordEncoder.getString(record));
+                    User user = this.users.get(RecordEncoder.getString(record));
+                    if (book == null || user == null) {
+                        return; // refers to state lost before the record was written
+                    }
+                    if (type == CHECKOUT) {
+                        this.library.tryCheckout(book, user);
+                    } else {
+                        this.library.tryReturn(book, user);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown journal record type: " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package Persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable buffer for encoding one binary record at a time, plus the matching decoders.
+ * Strings are written as an int byte length (-1 for null) followed by UTF-8 bytes.
+ */
+public class RecordEncoder {
+    private ByteBuffer buffer;
+
+    /**
+     * Constructs an encoder with the given initial capacity.
+     */
+    public RecordEncoder(int capacity) {
+        this.buffer = ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Clears the buffer and starts a record of the given type.
+     */
+    public RecordEncoder begin(byte type) {
+        this.buffer.clear();
+        this.buffer.put(type);
+        return this;
+    }
+
+    /**
+     * Appends a 4-byte int.
+     */
+    public RecordEncoder putInt(int value) {
+        ensure(Integer.BYTES);
+        this.buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Appends an 8-byte long.
+     */
+    public RecordEncoder putLong(long value) {
+        ensure(Long.BYTES);
+        this.buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string, or -1 for null.
+     */
+    public RecordEncoder putString(String value) {
+        if (value == null) {
+            return putInt(-1);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(Integer.BYTES + bytes.length);
+        this.buffer.putInt(bytes.length);
+        this.buffer.put(bytes);
+        return this;
+    }
+
+    /**
+     * Returns the encoded record, positioned for reading. Valid until the next {@link #begin}.
+     */
+    public ByteBuffer finish() {
+        return this.buffer.flip();
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     */
+    public static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private void ensure(int bytes) {
+        if (this.buffer.remaining() < bytes) {
+            int capacity = Math.max(this.buffer.capacity() << 1, this.buffer.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            grown.put(this.buffer.flip());
+            this.buffer = grown;
+        }
+    }
+}
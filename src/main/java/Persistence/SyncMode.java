@@ -0,0 +1,19 @@
+package Persistence;
+
+/**
+ * When appended log records are forced to disk.
+ */
+public enum SyncMode {
+    /**
+     * Each append waits until the group of records it was written with has been fsynced. A
+     * {@link LibraryJournal} appends under the library's book lock, so the wait holds that lock.
+     */
+    GROUP,
+    /**
+     * Appends return immediately; the records accumulated since the last flush are written and
+     * fsynced once per flush interval, or sooner when the buffer fills or a sync is requested.
+     */
+    ASYNC,
+    /** Records are handed to the operating system once per flush interval, like ASYNC, but never fsynced. */
+    NONE
+}
@@ -0,0 +1,421 @@
+package Persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of binary records split into numbered segment files.
+ *
+ * <p>Each record is framed as {@code [int length][int crc32c][payload]}. Appending threads copy
+ * their framed record into a shared buffer; a single flusher thread swaps that buffer out, writes
+ * it with one {@link FileChannel#write} and, depending on the {@link SyncMode}, one fsync. Records
+ * appended while a flush is in progress are committed together by the next one, so the cost of
+ * an fsync is shared by every thread waiting on it.
+ *
+ * <p>On replay a record with a bad length or checksum marks a torn tail: reading stops there and
+ * the segment is truncated to its last complete record.
+ */
+public class WriteAheadLog implements Closeable {
+    private static final int HEADER_BYTES = 8;
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final ThreadLocal<CRC32C> CHECKSUM = ThreadLocal.withInitial(CRC32C::new);
+
+    private final Path directory;
+    private final SyncMode syncMode;
+    private final long flushIntervalNanos;
+    private final int bufferBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = this.lock.newCondition();
+    private final Condition flushed = this.lock.newCondition();
+    private final Thread flusher;
+
+    private ByteBuffer active;
+    private ByteBuffer flushing;
+    private FileChannel channel;
+    private long segment;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushRequested; // a full buffer or a sync is waiting, so ASYNC and NONE flush early
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Opens a log that appends to a new segment after any existing ones.
+     *
+     * @param directory - directory holding the segment files, created if missing.
+     * @param syncMode - when appended records are forced to disk.
+     * @param flushInterval - time between flushes in ASYNC and NONE modes.
+     * @param bufferBytes - size of each of the two append buffers.
+     * @throws IOException - if the directory or segment cannot be created.
+     */
+    public WriteAheadLog(Path directory, SyncMode syncMode, Duration flushInterval, int bufferBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.syncMode = syncMode;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.bufferBytes = bufferBytes;
+        this.active = ByteBuffer.allocateDirect(bufferBytes);
+        this.flushing = ByteBuffer.allocateDirect(bufferBytes);
+
+        List<Long> existing = segments(directory);
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.channel = openSegment(this.segment);
+
+        this.flusher = new Thread(this::flushLoop, "wal-flusher-" + directory.getFileName());
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Appends a record. In GROUP mode this blocks until the record is on disk.
+     *
+     * @param payload - record bytes from position to limit; consumed by this call.
+     * @return - sequence number of the record within this log instance.
+     * @throws UncheckedIOException - if the log has failed or been closed.
+     */
+    public long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        CRC32C crc = CHECKSUM.get();
+        crc.reset();
+        crc.update(payload.duplicate());
+        int checksum = (int) crc.getValue();
+
+        this.lock.lock();
+        try {
+            ensureOpen();
+            int needed = HEADER_BYTES + length;
+            while (this.active.remaining() < needed) {
+                if (this.active.position() == 0) {
+                    this.active = ByteBuffer.allocateDirect(needed); // Oversized record gets its own buffer
+                    break;
+                }
+                this.flushRequested = true;
+                this.dataAvailable.signal();
+                this.flushed.awaitUninterruptibly();
+                ensureOpen();
+            }
+            this.active.putInt(length).putInt(checksum).put(payload);
+            long seq = ++this.appendedSeq;
+
+            if (this.syncMode == SyncMode.GROUP) {
+                this.dataAvailable.signal();
+                while (this.durableSeq < seq) {
+                    this.flushed.awaitUninterruptibly();
+                    ensureOpen();
+                }
+            }
+            return seq;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record appended so far has been written and, unless the mode is NONE, fsynced.
+     */
+    public void sync() {
+        this.lock.lock();
+        try {
+            awaitDurable(this.appendedSeq);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes pending records and starts a new segment. Records appended afterwards go to the new segment.
+     *
+     * @return - number of the new segment.
+     * @throws IOException - if the new segment cannot be created.
+     */
+    public long rotate() throws IOException {
+        this.lock.lock();
+        try {
+            awaitDurable(this.appendedSeq);
+            this.channel.force(true);
+            this.channel.close();
+            this.segment++;
+            this.channel = openSegment(this.segment);
+            return this.segment;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes every segment numbered below the given one, e.g. once a checkpoint covers them.
+     *
+     * @param segment - first segment to keep.
+     * @throws IOException - if a segment cannot be deleted.
+     */
+    public void deleteSegmentsBefore(long segment) throws IOException {
+        for (long existing : segments(this.directory)) {
+            if (existing < segment) {
+                Files.deleteIfExists(segmentPath(this.directory, existing));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the segment currently appended to.
+     */
+    public long currentSegment() {
+        this.lock.lock();
+        try {
+            return this.segment;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes pending records, stops the flusher and closes the current segment.
+     */
+    @Override
+    public void close() throws IOException {
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            if (this.failure == null) {
+                awaitDurable(this.appendedSeq);
+            }
+            this.closed = true;
+            this.dataAvailable.signalAll();
+            this.flushed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            this.flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.force(true);
+        this.channel.close();
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    /**
+     * Replays every complete record of the segments numbered from {@code fromSegment} onwards, in order.
+     * A torn or corrupt record ends replay of its segment, and the segment is truncated to the last good record.
+     *
+     * @param directory - directory holding the segment files.
+     * @param fromSegment - first segment to replay.
+     * @param handler - receives each record's payload, positioned for reading.
+     * @return - number of records replayed.
+     * @throws IOException - if a segment cannot be read.
+     */
+    public static long replay(Path directory, long fromSegment, Consumer<ByteBuffer> handler) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long records = 0;
+        for (long segment : segments(directory)) {
+            if (segment >= fromSegment) {
+                records += replaySegment(segmentPath(directory, segment), handler);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads every complete record of one file of framed records.
+     *
+     * @param file - file to read.
+     * @param handler - receives each record's payload, positioned for reading.
+     * @return - number of bytes that held complete records.
+     * @throws IOException - if the file cannot be read.
+     */
+    static long readFramed(Path file, Consumer<ByteBuffer> handler) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = CHECKSUM.get();
+            int position = 0;
+            while (mapped.remaining() >= HEADER_BYTES) {
+                int length = mapped.getInt(position);
+                int checksum = mapped.getInt(position + 4);
+                if (length <= 0 || length > mapped.limit() - position - HEADER_BYTES) {
+                    break;
+                }
+                ByteBuffer payload = mapped.slice(position + HEADER_BYTES, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                handler.accept(payload);
+                position += HEADER_BYTES + length;
+                mapped.position(position);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Writes one framed record to a channel, for files that share the log's record format.
+     */
+    static void writeFramed(FileChannel out, ByteBuffer payload) throws IOException {
+        CRC32C crc = CHECKSUM.get();
+        crc.reset();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(payload.remaining()).putInt((int) crc.getValue()).flip();
+        while (header.hasRemaining() || payload.hasRemaining()) {
+            out.write(new ByteBuffer[]{header, payload});
+        }
+    }
+
+    private static long replaySegment(Path file, Consumer<ByteBuffer> handler) throws IOException {
+        long[] count = new long[1];
+        long valid = readFramed(file, payload -> {
+            handler.accept(payload);
+            count[0]++;
+        });
+        if (valid < Files.size(file)) {
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                out.truncate(valid); // Drop the torn tail so the segment ends on a record boundary
+            }
+        }
+        return count[0];
+    }
+
+    private void flushLoop() {
+        long lastFlush = System.nanoTime();
+        while (true) {
+            ByteBuffer batch;
+            FileChannel target;
+            long seq;
+
+            this.lock.lock();
+            try {
+                if (this.syncMode == SyncMode.GROUP) {
+                    while (!this.closed && this.active.position() == 0) {
+                        this.dataAvailable.awaitNanos(this.flushIntervalNanos);
+                    }
+                } else {
+                    // Flush whatever accumulated once the interval has passed since the last flush began
+                    long wait;
+                    while (!this.closed && !this.flushRequested && (wait = lastFlush + this.flushIntervalNanos - System.nanoTime()) > 0) {
+                        this.dataAvailable.awaitNanos(wait);
+                    }
+                    this.flushRequested = false;
+                    lastFlush = System.nanoTime();
+                }
+                if (this.active.position() == 0) {
+                    if (this.closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch = this.active;
+                this.active = this.flushing;
+                this.flushing = batch;
+                target = this.channel;
+                seq = this.appendedSeq;
+                this.flushed.signalAll(); // appenders waiting for buffer space can continue
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                this.lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                if (this.syncMode != SyncMode.NONE) {
+                    target.force(false);
+                }
+            } catch (IOException ex) {
+                error = ex;
+            }
+            batch.clear();
+
+            this.lock.lock();
+            try {
+                if (error != null) {
+                    this.failure = error;
+                    this.closed = true;
+                } else {
+                    this.durableSeq = seq;
+                }
+                if (this.flushing.capacity() > this.bufferBytes) {
+                    this.flushing = ByteBuffer.allocateDirect(this.bufferBytes); // Drop an oversized record's buffer
+                }
+                this.flushed.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    // Caller holds the lock.
+    private void awaitDurable(long seq) {
+        while (this.durableSeq < seq) {
+            ensureOpen();
+            this.flushRequested = true;
+            this.dataAvailable.signal();
+            this.flushed.awaitUninterruptibly();
+        }
+    }
+
+    private void ensureOpen() {
+        if (this.failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", this.failure);
+        }
+        if (this.closed) {
+            throw new UncheckedIOException(new IOException("Write-ahead log is closed"));
+        }
+    }
+
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentPath(this.directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, segment, SUFFIX));
+    }
+
+    // Existing segment numbers in ascending order.
+    private static List<Long> segments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> numbers.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+}
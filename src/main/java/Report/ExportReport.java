@@ -0,0 +1,63 @@
+package Report;
+
+import java.time.Duration;
+
+/**
+ * Totals of a finished export.
+ */
+public class ExportReport {
+    private final long rows;
+    private final long bytes;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a report.
+     *
+     * @param rows - rows written, not counting the header.
+     * @param bytes - bytes written, header included.
+     * @param elapsed - wall-clock time of the export.
+     */
+    public ExportReport(long rows, long bytes, Duration elapsed) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns a one-line summary of the export.
+     */
+    @Override
+    public String toString() {
+        return this.rows + " rows, " + this.bytes + " bytes in " + this.elapsed.toMillis() + " ms";
+    }
+
+    // Getters
+    /**
+     * Returns the number of rows written.
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Returns the wall-clock time of the export.
+     */
+    public Duration getElapsed() {
+        return this.elapsed;
+    }
+
+    /**
+     * Returns rows written per second.
+     */
+    public double getRowsPerSecond() {
+        long nanos = Math.max(1, this.elapsed.toNanos());
+        return this.rows * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,221 @@
+package Report;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable UTF-8 byte buffer that report rows are formatted into. Strings are encoded straight
+ * into the buffer and numbers are written digit by digit, so formatting a row allocates nothing
+ * once the buffer has grown to fit a chunk. Reused chunk after chunk through {@link #clear()}.
+ * Not thread-safe.
+ */
+final class ReportBuffer {
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * Constructs a buffer.
+     *
+     * @param capacity - initial capacity in bytes.
+     */
+    ReportBuffer(int capacity) {
+        this.bytes = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * Empties the buffer, keeping its capacity.
+     */
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a buffer over the written bytes, valid until the next write or {@link #clear()}.
+     */
+    ByteBuffer view() {
+        return ByteBuffer.wrap(this.bytes, 0, this.size);
+    }
+
+    /**
+     * Appends an ASCII character.
+     */
+    ReportBuffer ascii(char c) {
+        ensure(1);
+        this.bytes[this.size++] = (byte) c;
+        return this;
+    }
+
+    /**
+     * Appends an ASCII string, such as a field name.
+     */
+    ReportBuffer ascii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            this.bytes[this.size++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a string as UTF-8; null appends nothing. Unpaired surrogates become {@code ?}.
+     */
+    ReportBuffer text(String value) {
+        if (value == null) {
+            return this;
+        }
+        ensure(3 * value.length()); // the most UTF-8 bytes a UTF-16 char can take
+        byte[] out = this.bytes;
+        int n = this.size;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out[n++] = (byte) c;
+            } else if (c < 0x800) {
+                out[n++] = (byte) (0xC0 | c >> 6);
+                out[n++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out[n++] = (byte) (0xF0 | cp >> 18);
+                out[n++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                out[n++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                out[n++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                out[n++] = '?';
+            } else {
+                out[n++] = (byte) (0xE0 | c >> 12);
+                out[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[n++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        this.size = n;
+        return this;
+    }
+
+    /**
+     * Appends a decimal number.
+     */
+    ReportBuffer number(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                return ascii(Long.toString(value));
+            }
+            ascii('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        for (int i = this.size + digits - 1; i >= this.size; i--) {
+            this.bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        this.size += digits;
+        return this;
+    }
+
+    /**
+     * Appends a CSV field, quoted if it holds a comma, quote or line break; null is empty.
+     */
+    ReportBuffer csv(String value) {
+        int start = this.size;
+        text(value);
+        return quoteCsv(start);
+    }
+
+    /**
+     * Quotes the bytes written since {@code start} as one CSV field if they need it, doubling
+     * quotes in place. Lets a field be built from several appends.
+     */
+    ReportBuffer quoteCsv(int start) {
+        int quotes = 0;
+        boolean special = false;
+        for (int i = start; i < this.size; i++) {
+            byte b = this.bytes[i];
+            if (b == '"') {
+                quotes++;
+            }
+            special |= b == ',' || b == '"' || b == '\n' || b == '\r';
+        }
+        if (!special) {
+            return this;
+        }
+        ensure(quotes + 2);
+        int from = this.size - 1;
+        int to = this.size + quotes + 1;
+        this.bytes[to--] = '"';
+        for (int i = from; i >= start; i--) {
+            byte b = this.bytes[i];
+            this.bytes[to--] = b;
+            if (b == '"') {
+                this.bytes[to--] = '"';
+            }
+        }
+        this.bytes[to] = '"';
+        this.size += quotes + 2;
+        return this;
+    }
+
+    /**
+     * Appends a JSON string literal, or {@code null}.
+     */
+    ReportBuffer json(String value) {
+        if (value == null) {
+            return ascii("null");
+        }
+        return ascii('"').jsonContent(value).ascii('"');
+    }
+
+    /**
+     * Appends a string escaped for use inside a JSON string literal; null appends nothing. Lets
+     * one literal be built from several appends.
+     */
+    ReportBuffer jsonContent(String value) {
+        if (value == null) {
+            return this;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            text(value.substring(start, i));
+            switch (c) {
+                case '"':
+                    ascii("\\\"");
+                    break;
+                case '\\':
+                    ascii("\\\\");
+                    break;
+                case '\n':
+                    ascii("\\n");
+                    break;
+                case '\r':
+                    ascii("\\r");
+                    break;
+                case '\t':
+                    ascii("\\t");
+                    break;
+                default:
+                    ascii("\\u00").ascii(Character.forDigit(c >> 4, 16)).ascii(Character.forDigit(c & 0xF, 16));
+            }
+            start = i + 1;
+        }
+        return text(start == 0 ? value : value.substring(start));
+    }
+
+    private void ensure(int extra) {
+        if (this.size + extra > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + extra));
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package Report;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Streams patron and loan reports to a file.
+ *
+ * <p>The calling thread walks the members or loans a chunk at a time and hands each chunk to a
+ * fork-join pool, where its rows are formatted as UTF-8 straight into the chunk's byte buffer.
+ * Formatted chunks are written to a {@link FileChannel} in order by the calling thread, and
+ * their buffers are reused for later chunks. At most {@code maxInFlight} chunks are held at
+ * once, so memory use is bounded by the chunk size and not by the size of the report.
+ *
+ * <p>The collections are read while the export runs. Export the members or loans of a
+ * {@link Service.CatalogVersion} for a report that is consistent with a single point in time.
+ */
+public class ReportExporter {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+    private static final int BYTES_PER_ROW = 128; // initial buffer size per row, grown on demand
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxInFlight;
+
+    /**
+     * Constructs an exporter on the common pool.
+     */
+    public ReportExporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs an exporter that keeps two chunks per pool thread in flight.
+     *
+     * @param pool - pool that formats chunks.
+     * @param chunkSize - rows per chunk and per write.
+     */
+    public ReportExporter(ForkJoinPool pool, int chunkSize) {
+        this(pool, chunkSize, pool.getParallelism() * 2);
+    }
+
+    /**
+     * Constructs an exporter.
+     *
+     * @param pool - pool that formats chunks.
+     * @param chunkSize - rows per chunk and per write.
+     * @param maxInFlight - maximum number of chunks formatted or being formatted but not yet written.
+     */
+    public ReportExporter(ForkJoinPool pool, int chunkSize, int maxInFlight) {
+        if (chunkSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("Chunk size and chunks in flight must be positive");
+        }
+
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Exports a Library's members.
+     *
+     * @param library - the Library to report on.
+     * @param file - the file to write, replaced if it exists.
+     * @param format - CSV ({@code id,firstName,lastName,email,titles,loans}) or JSON_LINES.
+     * @return - totals of the export.
+     * @throws IOException - if the file can't be written.
+     */
+    public ExportReport exportMembers(Library library, Path file, ReportFormat format) throws IOException {
+        return exportMembers(library.getMembers(), file, format);
+    }
+
+    /**
+     * Exports members, one row per member with the titles they have checked out.
+     *
+     * @param members - the members to report on.
+     * @param file - the file to write, replaced if it exists.
+     * @param format - CSV ({@code id,firstName,lastName,email,titles,loans}) or JSON_LINES.
+     * @return - totals of the export.
+     * @throws IOException - if the file can't be written.
+     */
+    public ExportReport exportMembers(Collection<User> members, Path file, ReportFormat format) throws IOException {
+        RowFormatter<User> formatter = format == ReportFormat.CSV ? ReportExporter::memberCsv : ReportExporter::memberJson;
+        return run(members.iterator(), file, format == ReportFormat.CSV ? "id,firstName,lastName,email,titles,loans\n" : "", formatter);
+    }
+
+    /**
+     * Exports a Library's loans.
+     *
+     * @param library - the Library to report on.
+     * @param file - the file to write, replaced if it exists.
+     * @param format - CSV ({@code isbn,title,author,memberId,memberName}) or JSON_LINES.
+     * @return - totals of the export.
+     * @throws IOException - if the file can't be written.
+     */
+    public ExportReport exportLoans(Library library, Path file, ReportFormat format) throws IOException {
+        return exportLoans(library.getCheckedOutBooks(), file, format);
+    }
+
+    /**
+     * Exports loans, one row per checked-out book with its borrower.
+     *
+     * @param loans - the checked-out books and their borrowers.
+     * @param file - the file to write, replaced if it exists.
+     * @param format - CSV ({@code isbn,title,author,memberId,memberName}) or JSON_LINES.
+     * @return - totals of the export.
+     * @throws IOException - if the file can't be written.
+     */
+    public ExportReport exportLoans(Map<Book, User> loans, Path file, ReportFormat format) throws IOException {
+        RowFormatter<Map.Entry<Book, User>> formatter = format == ReportFormat.CSV ? ReportExporter::loanCsv : ReportExporter::loanJson;
+        return run(loans.entrySet().iterator(), file, format == ReportFormat.CSV ? "isbn,title,author,memberId,memberName\n" : "", formatter);
+    }
+
+    private <T> ExportReport run(Iterator<T> rows, Path file, String header, RowFormatter<T> formatter) throws IOException {
+        long start = System.nanoTime();
+        long rowCount = 0;
+        long byteCount = 0;
+        ArrayDeque<Chunk> free = new ArrayDeque<>(this.maxInFlight);
+        ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>(this.maxInFlight);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (!header.isEmpty()) {
+                ReportBuffer buffer = new ReportBuffer(header.length());
+                byteCount += write(channel, buffer.ascii(header).view());
+            }
+            while (rows.hasNext()) {
+                Chunk chunk = free.isEmpty() ? new Chunk(this.chunkSize) : free.poll();
+                while (chunk.size < this.chunkSize && rows.hasNext()) {
+                    chunk.rows[chunk.size++] = rows.next();
+                }
+                rowCount += chunk.size;
+                inFlight.add(this.pool.submit(() -> format(chunk, formatter)));
+                if (inFlight.size() >= this.maxInFlight) {
+                    Chunk done = inFlight.poll().join();
+                    byteCount += write(channel, done.buffer.view());
+                    free.add(done);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                byteCount += write(channel, inFlight.poll().join().buffer.view());
+            }
+        } finally {
+            for (ForkJoinTask<Chunk> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        return new ExportReport(rowCount, byteCount, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Formats a chunk on a pool thread and lets go of its rows.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Chunk format(Chunk chunk, RowFormatter<T> formatter) {
+        chunk.buffer.clear();
+        for (int i = 0; i < chunk.size; i++) {
+            formatter.format((T) chunk.rows[i], chunk.buffer);
+            chunk.rows[i] = null;
+        }
+        chunk.size = 0;
+        return chunk;
+    }
+
+    private static int write(FileChannel channel, ByteBuffer bytes) throws IOException {
+        int written = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        return written;
+    }
+
+    private static void memberCsv(User user, ReportBuffer out) {
+        out.csv(user.getId()).ascii(',').csv(user.getFirstName()).ascii(',').csv(user.getLastName()).ascii(',')
+                .csv(user.getEmail()).ascii(',');
+        int titles = out.size();
+        int loans = 0;
+        for (Book book : user.getBooks()) {
+            if (loans++ > 0) {
+                out.ascii("; ");
+            }
+            out.text(book.getTitle());
+        }
+        out.quoteCsv(titles).ascii(',').number(loans).ascii('\n');
+    }
+
+    private static void memberJson(User user, ReportBuffer out) {
+        out.ascii("{\"id\":").json(user.getId()).ascii(",\"firstName\":").json(user.getFirstName())
+                .ascii(",\"lastName\":").json(user.getLastName()).ascii(",\"email\":").json(user.getEmail())
+                .ascii(",\"titles\":[");
+        int loans = 0;
+        for (Book book : user.getBooks()) {
+            if (loans++ > 0) {
+                out.ascii(',');
+            }
+            out.json(book.getTitle());
+        }
+        out.ascii("],\"loans\":").number(loans).ascii("}\n");
+    }
+
+    private static void loanCsv(Map.Entry<Book, User> loan, ReportBuffer out) {
+        Book book = loan.getKey();
+        User user = loan.getValue();
+        out.csv(book.getIsbn()).ascii(',').csv(book.getTitle()).ascii(',').csv(book.getAuthor()).ascii(',')
+                .csv(user.getId()).ascii(',');
+        int name = out.size();
+        out.text(user.getFirstName()).ascii(' ').text(user.getLastName()).quoteCsv(name).ascii('\n');
+    }
+
+    private static void loanJson(Map.Entry<Book, User> loan, ReportBuffer out) {
+        Book book = loan.getKey();
+        User user = loan.getValue();
+        out.ascii("{\"isbn\":").json(book.getIsbn()).ascii(",\"title\":").json(book.getTitle())
+                .ascii(",\"author\":").json(book.getAuthor()).ascii(",\"memberId\":").json(user.getId())
+                .ascii(",\"memberName\":\"").jsonContent(user.getFirstName()).ascii(' ').jsonContent(user.getLastName())
+                .ascii("\"}\n");
+    }
+
+    /**
+     * Formats one row, line break included.
+     */
+    private interface RowFormatter<T> {
+        void format(T row, ReportBuffer out);
+    }
+
+    /**
+     * A chunk of rows and the buffer they are formatted into, reused once written.
+     */
+    private static final class Chunk {
+        final Object[] rows;
+        final ReportBuffer buffer;
+        int size;
+
+        Chunk(int capacity) {
+            this.rows = new Object[capacity];
+            this.buffer = new ReportBuffer(capacity * BYTES_PER_ROW);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package Report;
+
+/**
+ * Layout of an exported report.
+ */
+public enum ReportFormat {
+    /**
+     * One row per line, comma separated, after a header line. Fields containing a comma, quote or
+     * line break are quoted as in RFC 4180.
+     */
+    CSV,
+    /**
+     * One JSON object per line, with no header.
+     */
+    JSON_LINES
+}
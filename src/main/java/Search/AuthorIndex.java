@@ -0,0 +1,208 @@
+package Search;
+
+import Model.Book;
+import Util.LongIntHashMap;
+import Util.StringDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Groups books by author, for queries such as "all titles by this author".
+ *
+ * <p>Author names are dictionary-encoded: each spelling is interned in the library's author
+ * {@link StringDictionary}, each distinct normalized name in a dictionary of the index's own, and
+ * the books of an author are kept in one array per group. Names are matched after
+ * {@link Tokenizer} normalization, so case, accents and punctuation don't matter and
+ * "J.R.R. Tolkien" finds the same group as "j r r tolkien". Each spelling is normalized once;
+ * later books are grouped by the code of their spelling alone. A group query costs one
+ * normalization, one dictionary lookup and the size of the group.
+ *
+ * <p>Books are only ever added. Reads and writes are guarded by a read/write lock, so the index
+ * can be shared by a concurrent library.
+ */
+public class AuthorIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final int NO_GROUP = -1;
+    private static final int UNNAMED = -2; // spellings that normalize to nothing
+
+    private final StringDictionary spellings;
+    private final StringDictionary keys = new StringDictionary(); // normalized names
+    private final LongIntHashMap groupsByKey = new LongIntHashMap(16, NO_GROUP); // normalized name code
+    private final LongIntHashMap groupsBySpelling = new LongIntHashMap(16, NO_GROUP); // spelling code
+    private int groupCount;
+    private int[] names = new int[16]; // code of the first spelling seen for each group
+    private Book[][] groups = new Book[16][];
+    private int[] groupSizes = new int[16];
+
+    /**
+     * Constructs an empty index with its own dictionary of spellings.
+     */
+    public AuthorIndex() {
+        this(new StringDictionary());
+    }
+
+    /**
+     * Constructs an empty index that interns spellings in a library's author dictionary.
+     *
+     * @param spellings - dictionary the library's books intern their authors in.
+     */
+    public AuthorIndex(StringDictionary spellings) {
+        this.spellings = spellings;
+    }
+
+    /**
+     * Indexes a book under its author. Books without an author are skipped. The caller must not
+     * add a book twice.
+     *
+     * @param book - the book to index.
+     */
+    public void add(Book book) {
+        int spelling = this.spellings.encode(book.getAuthor());
+        if (spelling == StringDictionary.NONE) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            addLocked(book, spelling);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a batch of books, taking the write lock once for the whole batch. The caller must
+     * not add a book twice.
+     *
+     * @param books - the books to index.
+     */
+    public void addAll(List<Book> books) {
+        int[] spellings = new int[books.size()];
+        for (int i = 0; i < spellings.length; i++) {
+            spellings[i] = this.spellings.encode(books.get(i).getAuthor());
+        }
+        this.lock.writeLock().lock();
+        try {
+            for (int i = 0; i < spellings.length; i++) {
+                if (spellings[i] != StringDictionary.NONE) {
+                    addLocked(books.get(i), spellings[i]);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Book book, int spelling) {
+        int code = this.groupsBySpelling.get(spelling);
+        if (code == NO_GROUP) {
+            code = groupOf(book.getAuthor(), spelling);
+        }
+        if (code == UNNAMED) {
+            return;
+        }
+        Book[] group = this.groups[code];
+        int count = this.groupSizes[code];
+        if (count == group.length) {
+            group = Arrays.copyOf(group, count * 2);
+            this.groups[code] = group;
+        }
+        group[count] = book;
+        this.groupSizes[code] = count + 1;
+    }
+
+    /**
+     * Returns the books by an author.
+     *
+     * @param author - the author's name, in any case and with or without accents.
+     * @param filter - which of the author's books to return.
+     * @return - matching books in the order they were added.
+     */
+    public List<Book> find(String author, Predicate<Book> filter) {
+        List<Book> matches = new ArrayList<>();
+        int key = this.keys.find(key(author));
+        this.lock.readLock().lock();
+        try {
+            int code = this.groupsByKey.get(key);
+            if (code == NO_GROUP) {
+                return matches;
+            }
+            Book[] group = this.groups[code];
+            for (int i = 0; i < this.groupSizes[code]; i++) {
+                if (filter.test(group[i])) {
+                    matches.add(group[i]);
+                }
+            }
+            return matches;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of books by an author.
+     *
+     * @param author - the author's name.
+     */
+    public int count(String author) {
+        int key = this.keys.find(key(author));
+        this.lock.readLock().lock();
+        try {
+            int code = this.groupsByKey.get(key);
+            return code == NO_GROUP ? 0 : this.groupSizes[code];
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every distinct author, spelled as first added.
+     */
+    public List<String> authors() {
+        this.lock.readLock().lock();
+        try {
+            String[] authors = new String[this.groupCount];
+            for (int code = 0; code < authors.length; code++) {
+                authors[code] = this.spellings.decode(this.names[code]);
+            }
+            return List.of(authors);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the group of a spelling not seen before, creating the group if no other spelling
+     * normalizes to the same name. Called with the write lock held.
+     */
+    private int groupOf(String author, int spelling) {
+        String key = key(author);
+        if (key.isEmpty()) {
+            this.groupsBySpelling.put(spelling, UNNAMED);
+            return UNNAMED;
+        }
+        int keyCode = this.keys.encode(key);
+        int code = this.groupsByKey.get(keyCode);
+        if (code == NO_GROUP) {
+            code = this.groupCount++;
+            if (code == this.names.length) {
+                int capacity = code * 2;
+                this.names = Arrays.copyOf(this.names, capacity);
+                this.groups = Arrays.copyOf(this.groups, capacity);
+                this.groupSizes = Arrays.copyOf(this.groupSizes, capacity);
+            }
+            this.groupsByKey.put(keyCode, code);
+            this.names[code] = spelling;
+            this.groups[code] = new Book[4];
+        }
+        this.groupsBySpelling.put(spelling, code);
+        return code;
+    }
+
+    private static String key(String author) {
+        return String.join(" ", Tokenizer.tokenize(author));
+    }
+}
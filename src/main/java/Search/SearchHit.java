@@ -0,0 +1,55 @@
+package Search;
+
+import Model.Book;
+
+/**
+ * A single ranked search result.
+ */
+public class SearchHit {
+    private final Book book;
+    private final float score;
+    private final boolean available;
+
+    /**
+     * Constructs a search hit.
+     *
+     * @param book - the matching book.
+     * @param score - relevance score, higher is better.
+     * @param available - true if the book is available, false if it is checked out.
+     */
+    public SearchHit(Book book, float score, boolean available) {
+        this.book = book;
+        this.score = score;
+        this.available = available;
+    }
+
+    /**
+     * Returns a string representation of the hit.
+     */
+    @Override
+    public String toString() {
+        return this.book.getTitle() + " (" + (this.available ? "available" : "checked out") + ", score " + this.score + ")";
+    }
+
+    // Getters
+    /**
+     * Returns the matching book.
+     */
+    public Book getBook() {
+        return this.book;
+    }
+
+    /**
+     * Returns the relevance score, higher is better.
+     */
+    public float getScore() {
+        return this.score;
+    }
+
+    /**
+     * Returns true if the book is available, false if it is checked out.
+     */
+    public boolean isAvailable() {
+        return this.available;
+    }
+}
@@ -0,0 +1,403 @@
+package Search;
+
+import Model.Book;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Inverted index over the title and author of every book ever added to a library.
+ *
+ * <p>Each normalized term maps to a postings list of document ids, recording whether the term
+ * appeared in the title, the author or both. Terms are kept sorted so the last query word can be
+ * expanded as a prefix for type-ahead, and a trigram index over the terms catches words that are
+ * misspelled or only partially typed in the middle. Every query word must match for a book to be
+ * returned; hits are ranked by how well each word matched and in which field.
+ *
+ * <p>Documents are only ever added. Reads and writes are guarded by a read/write lock, so the
+ * index can be shared by a concurrent library.
+ */
+public class SearchIndex {
+    private static final byte TITLE = 1;
+    private static final byte AUTHOR = 2;
+    private static final int MAX_EXPANSIONS = 128;
+    private static final int MIN_PREFIX_LENGTH = 2; // a single letter only matches exactly
+    private static final int SHORT_PREFIX_LENGTH = 3; // shorter prefixes expand within a budget
+    private static final int MAX_SHORT_PREFIX_POSTINGS = 1 << 12; // documents a short prefix may expand to
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.75f;
+    private static final float FUZZY = 0.5f;
+    private static final float MIN_SIMILARITY = 0.5f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Book> documents = new ArrayList<>();
+    private final Map<Book, Integer> documentIds = new HashMap<>();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, List<String>> trigrams = new HashMap<>();
+
+    /**
+     * Indexes a book's title and author.
+     *
+     * @param book - the book to index.
+     * @return - true if the book was indexed, false if it was already present.
+     */
+    public boolean add(Book book) {
+        List<String> titleTerms = Tokenizer.tokenize(book.getTitle());
+        List<String> authorTerms = Tokenizer.tokenize(book.getAuthor());
+
+        this.lock.writeLock().lock();
+        try {
+            return addLocked(book, titleTerms, authorTerms);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a batch of books, taking the write lock once for the whole batch. The titles and
+     * authors are tokenized before the lock is taken.
+     *
+     * @param books - the books to index.
+     * @return - the number of books indexed, leaving out those already present.
+     */
+    public int addAll(List<Book> books) {
+        List<List<String>> titleTerms = new ArrayList<>(books.size());
+        List<List<String>> authorTerms = new ArrayList<>(books.size());
+        for (Book book : books) {
+            titleTerms.add(Tokenizer.tokenize(book.getTitle()));
+            authorTerms.add(Tokenizer.tokenize(book.getAuthor()));
+        }
+
+        int added = 0;
+        this.lock.writeLock().lock();
+        try {
+            for (int i = 0; i < books.size(); i++) {
+                if (addLocked(books.get(i), titleTerms.get(i), authorTerms.get(i))) {
+                    added++;
+                }
+            }
+            return added;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private boolean addLocked(Book book, List<String> titleTerms, List<String> authorTerms) {
+        if (this.documentIds.containsKey(book)) {
+            return false;
+        }
+        int id = this.documents.size();
+        this.documents.add(book);
+        this.documentIds.put(book, id);
+
+        for (String term : titleTerms) {
+            postingsFor(term).add(id, TITLE);
+        }
+        for (String term : authorTerms) {
+            postingsFor(term).add(id, AUTHOR);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the best matching books for a query.
+     * The last word of the query is treated as a prefix unless the query ends with a space. A
+     * one-letter last word only matches exactly, and a two-letter prefix skips terms once the
+     * books it matches would exceed a fixed budget, so it may return a partial set of hits.
+     *
+     * @param query - free text query over titles and authors.
+     * @param limit - maximum number of hits to return.
+     * @param isAvailable - tells whether a matching book is currently available.
+     * @return - hits ordered by descending score, then by the order books were added.
+     */
+    public List<SearchHit> search(String query, int limit, Predicate<Book> isAvailable) {
+        List<String> words = Tokenizer.tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        long[][] matches = new long[words.size()][];
+        this.lock.readLock().lock();
+        try {
+            for (int i = 0; i < words.size(); i++) {
+                matches[i] = match(words.get(i), lastIsPrefix && i == words.size() - 1);
+                if (matches[i].length == 0) {
+                    return new ArrayList<>(); // every word must match
+                }
+            }
+
+            // Intersect starting from the most selective word
+            Arrays.sort(matches, Comparator.comparingInt(m -> m.length));
+            long[] result = matches[0];
+            for (int i = 1; i < matches.length && result.length > 0; i++) {
+                result = intersect(result, matches[i]);
+            }
+            return topHits(result, limit, isAvailable);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed book equal to the given one, i.e. with the same ISBN.
+     *
+     * @param book - a book carrying the ISBN to look up, e.g. a key built from a request.
+     * @return - the indexed book, or null if no book with that ISBN was added.
+     */
+    public Book get(Book book) {
+        this.lock.readLock().lock();
+        try {
+            Integer id = this.documentIds.get(book);
+            return id == null ? null : this.documents.get(id);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed books.
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.documents.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct indexed terms.
+     */
+    public int termCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.terms.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private Postings postingsFor(String term) {
+        Postings postings = this.terms.get(term);
+        if (postings == null) {
+            postings = new Postings();
+            this.terms.put(term, postings);
+            for (String gram : trigramsOf(term)) {
+                this.trigrams.computeIfAbsent(gram, g -> new ArrayList<>(2)).add(term);
+            }
+        }
+        return postings;
+    }
+
+    /*
+     * Returns the documents matched by one query word as packed (docId << 32 | scoreBits) longs,
+     * sorted by document id with one entry per document. Scores are non-negative floats, whose
+     * bit patterns order the same way as their values.
+     */
+    private long[] match(String word, boolean prefix) {
+        Map<String, Float> expansions = new HashMap<>();
+        Postings exact = this.terms.get(word);
+        if (exact != null) {
+            expansions.put(word, EXACT);
+        }
+        if (prefix && word.length() >= MIN_PREFIX_LENGTH) {
+            // Two letters reach many common terms; skip those too large for the remaining budget
+            // so one keystroke can't pack and sort a large share of the catalog.
+            int budget = word.length() < SHORT_PREFIX_LENGTH ? MAX_SHORT_PREFIX_POSTINGS : Integer.MAX_VALUE;
+            int scanned = 0;
+            for (Map.Entry<String, Postings> term : this.terms.subMap(word, false, word + Character.MAX_VALUE, false).entrySet()) {
+                if (scanned++ >= MAX_EXPANSIONS) {
+                    break;
+                }
+                int size = term.getValue().size;
+                if (size <= budget) {
+                    budget -= size;
+                    expansions.put(term.getKey(), PREFIX);
+                }
+            }
+        }
+        if (expansions.isEmpty()) {
+            fuzzyExpansions(word, expansions);
+        }
+
+        int total = 0;
+        for (String term : expansions.keySet()) {
+            total += this.terms.get(term).size;
+        }
+        long[] packed = new long[total];
+        int n = 0;
+        for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+            Postings postings = this.terms.get(expansion.getKey());
+            for (int i = 0; i < postings.size; i++) {
+                float score = expansion.getValue() * fieldWeight(postings.fields[i]);
+                packed[n++] = ((long) postings.docs[i] << 32) | Float.floatToIntBits(score);
+            }
+        }
+
+        // Sort by document, keep the best score per document
+        Arrays.sort(packed);
+        int unique = 0;
+        for (int i = 0; i < packed.length; i++) {
+            if (i + 1 < packed.length && (packed[i] >>> 32) == (packed[i + 1] >>> 32)) {
+                continue;
+            }
+            packed[unique++] = packed[i];
+        }
+        return unique == packed.length ? packed : Arrays.copyOf(packed, unique);
+    }
+
+    // Adds terms sharing enough trigrams with the word (Dice coefficient) as fuzzy matches.
+    private void fuzzyExpansions(String word, Map<String, Float> expansions) {
+        List<String> grams = trigramsOf(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            List<String> candidates = this.trigrams.get(gram);
+            if (candidates != null) {
+                for (String term : candidates) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(shared.entrySet());
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        for (Map.Entry<String, Integer> candidate : ranked) {
+            if (expansions.size() >= MAX_EXPANSIONS) {
+                break;
+            }
+            float similarity = 2f * candidate.getValue() / (grams.size() + trigramsOf(candidate.getKey()).size());
+            if (similarity >= MIN_SIMILARITY) {
+                expansions.put(candidate.getKey(), FUZZY * similarity);
+            }
+        }
+    }
+
+    private List<SearchHit> topHits(long[] matches, int limit, Predicate<Book> isAvailable) {
+        // Rank key: score in the high bits, inverted doc id in the low bits, so larger is better
+        // and ties favour earlier documents. A primitive min-heap keeps the best 'limit' keys.
+        int capacity = Math.min(limit, matches.length);
+        long[] heap = new long[capacity];
+        int size = 0;
+        for (long match : matches) {
+            long key = ((match & 0xFFFFFFFFL) << 32) | (0xFFFFFFFFL - (match >>> 32));
+            if (size < capacity) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+
+        // Pop ascending keys from the back, leaving hits in descending order
+        SearchHit[] hits = new SearchHit[size];
+        for (int remaining = size; remaining > 0; remaining--) {
+            long key = heap[0];
+            heap[0] = heap[remaining - 1];
+            siftDown(heap, remaining - 1);
+
+            Book book = this.documents.get((int) (0xFFFFFFFFL - (key & 0xFFFFFFFFL)));
+            hits[remaining - 1] = new SearchHit(book, Float.intBitsToFloat((int) (key >>> 32)), isAvailable.test(book));
+        }
+        return new ArrayList<>(Arrays.asList(hits));
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        long key = heap[0];
+        while (true) {
+            int child = (index << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        if (size > 0) {
+            heap[index] = key;
+        }
+    }
+
+    // Sums the scores of documents present in both sorted lists.
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            long docA = a[i] >>> 32;
+            long docB = b[j] >>> 32;
+            if (docA < docB) {
+                i++;
+            } else if (docA > docB) {
+                j++;
+            } else {
+                float score = Float.intBitsToFloat((int) a[i]) + Float.intBitsToFloat((int) b[j]);
+                out[n++] = (docA << 32) | Float.floatToIntBits(score);
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static float fieldWeight(byte fields) {
+        return ((fields & TITLE) != 0 ? 2f : 0f) + ((fields & AUTHOR) != 0 ? 1f : 0f);
+    }
+
+    // Distinct trigrams of the term padded with boundary markers, so short terms still produce grams.
+    private static List<String> trigramsOf(String term) {
+        String padded = "^" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            String gram = padded.substring(i, i + 3);
+            if (!grams.contains(gram)) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Growable postings list of ascending document ids with the fields each term appeared in.
+     */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private byte[] fields = new byte[2];
+        private int size;
+
+        private void add(int doc, byte field) {
+            if (this.size > 0 && this.docs[this.size - 1] == doc) {
+                this.fields[this.size - 1] |= field;
+                return;
+            }
+            if (this.size == this.docs.length) {
+                this.docs = Arrays.copyOf(this.docs, this.size << 1);
+                this.fields = Arrays.copyOf(this.fields, this.size << 1);
+            }
+            this.docs[this.size] = doc;
+            this.fields[this.size] = field;
+            this.size++;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package Search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits catalog text into normalized search terms.
+ * Terms are lower-cased, stripped of accents and split on anything that isn't a letter or digit,
+ * so "Tolkien, J.R.R." becomes {@code [tolkien, j, r, r]}. Apostrophes are dropped rather than
+ * split on, so "O'Brien" and "OBrien" match.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Returns the normalized terms of the text in order of appearance.
+     *
+     * @param text - text to tokenize, may be null.
+     * @return - list of terms, empty if the text has none.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String normalized = normalize(text);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (c != '\'' && c != '’' && term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-cases the text and removes diacritics.
+     */
+    public static String normalize(String text) {
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
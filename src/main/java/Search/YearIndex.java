@@ -0,0 +1,140 @@
+package Search;
+
+import Model.Book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Sorted index of books by publication year, for range queries such as "published 1950-1960".
+ *
+ * <p>Books are bucketed by year. The distinct years are kept in a sorted {@code int} array next
+ * to a parallel array of buckets, so a range query binary searches for its first year and then
+ * walks the buckets in order: O(log y + k) for y distinct years and k books in range. A catalog
+ * spans a few hundred years at most, so inserting a new year into the sorted arrays is cheap.
+ *
+ * <p>Books are only ever added. Reads and writes are guarded by a read/write lock, so the index
+ * can be shared by a concurrent library.
+ */
+public class YearIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int[] years = new int[16];
+    private Book[][] buckets = new Book[16][];
+    private int[] bucketSizes = new int[16];
+    private int yearCount;
+    private int size;
+
+    /**
+     * Indexes a book under its publication year. The caller must not add a book twice.
+     *
+     * @param book - the book to index.
+     */
+    public void add(Book book) {
+        this.lock.writeLock().lock();
+        try {
+            addLocked(book);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a batch of books, taking the write lock once for the whole batch. The caller must
+     * not add a book twice.
+     *
+     * @param books - the books to index.
+     */
+    public void addAll(List<Book> books) {
+        this.lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                addLocked(book);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Book book) {
+        int year = book.getPublishYear();
+        int position = Arrays.binarySearch(this.years, 0, this.yearCount, year);
+        if (position < 0) {
+            position = -position - 1;
+            insertYear(position, year);
+        }
+        Book[] bucket = this.buckets[position];
+        int count = this.bucketSizes[position];
+        if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, count * 2);
+            this.buckets[position] = bucket;
+        }
+        bucket[count] = book;
+        this.bucketSizes[position] = count + 1;
+        this.size++;
+    }
+
+    /**
+     * Returns the books published in a range of years.
+     *
+     * @param from - first year, inclusive.
+     * @param to - last year, inclusive.
+     * @param filter - which books in range to return.
+     * @return - matching books ordered by year, then by the order they were added.
+     */
+    public List<Book> range(int from, int to, Predicate<Book> filter) {
+        List<Book> matches = new ArrayList<>();
+        if (from > to) {
+            return matches;
+        }
+        this.lock.readLock().lock();
+        try {
+            int position = Arrays.binarySearch(this.years, 0, this.yearCount, from);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            for (; position < this.yearCount && this.years[position] <= to; position++) {
+                Book[] bucket = this.buckets[position];
+                for (int i = 0; i < this.bucketSizes[position]; i++) {
+                    if (filter.test(bucket[i])) {
+                        matches.add(bucket[i]);
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed books.
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void insertYear(int position, int year) {
+        if (this.yearCount == this.years.length) {
+            int capacity = this.years.length * 2;
+            this.years = Arrays.copyOf(this.years, capacity);
+            this.buckets = Arrays.copyOf(this.buckets, capacity);
+            this.bucketSizes = Arrays.copyOf(this.bucketSizes, capacity);
+        }
+        int moved = this.yearCount - position;
+        System.arraycopy(this.years, position, this.years, position + 1, moved);
+        System.arraycopy(this.buckets, position, this.buckets, position + 1, moved);
+        System.arraycopy(this.bucketSizes, position, this.bucketSizes, position + 1, moved);
+        this.years[position] = year;
+        this.buckets[position] = new Book[4];
+        this.bucketSizes[position] = 0;
+        this.yearCount++;
+    }
+}
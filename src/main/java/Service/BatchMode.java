@@ -0,0 +1,11 @@
+package Service;
+
+/**
+ * How a batch operation such as {@link Library#checkoutAll} treats items that fail.
+ */
+public enum BatchMode {
+    /** Apply the batch only if every item succeeds, otherwise apply none of it. */
+    ALL_OR_NOTHING,
+    /** Apply every item that can succeed and report the others. */
+    BEST_EFFORT
+}
@@ -0,0 +1,92 @@
+package Service;
+
+import Model.User;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reference-counted index of users who currently have at least one book checked out.
+ * Each checkout increments the user's loan count and each return decrements it, so the set of
+ * active borrowers is always up to date without rescanning the loans.
+ */
+public class BorrowerIndex {
+    private final Map<User, Integer> loanCounts;
+    private final Set<User> view;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param concurrent - true if the index is updated from several threads.
+     */
+    public BorrowerIndex(boolean concurrent) {
+        this.loanCounts = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.view = Collections.unmodifiableSet(this.loanCounts.keySet());
+    }
+
+    /**
+     * Records a new loan for the user.
+     */
+    public void increment(User user) {
+        increment(user, 1);
+    }
+
+    /**
+     * Records several new loans for the user at once.
+     *
+     * @param user - the borrower.
+     * @param loans - number of books checked out.
+     */
+    public void increment(User user, int loans) {
+        this.loanCounts.merge(user, loans, Integer::sum);
+    }
+
+    /**
+     * Records a returned loan, dropping the user once they have no books left.
+     */
+    public void decrement(User user) {
+        decrement(user, 1);
+    }
+
+    /**
+     * Records several returned loans at once, dropping the user once they have no books left.
+     *
+     * @param user - the borrower.
+     * @param loans - number of books returned.
+     */
+    public void decrement(User user, int loans) {
+        this.loanCounts.computeIfPresent(user, (u, count) -> count <= loans ? null : count - loans);
+    }
+
+    /**
+     * Returns the number of books the user currently has checked out.
+     */
+    public int loanCount(User user) {
+        Integer count = this.loanCounts.get(user);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Returns true if the user has at least one book checked out.
+     */
+    public boolean contains(User user) {
+        return this.loanCounts.containsKey(user);
+    }
+
+    /**
+     * Returns the number of active borrowers.
+     */
+    public int size() {
+        return this.loanCounts.size();
+    }
+
+    /**
+     * Returns a live, unmodifiable view of the active borrowers.
+     */
+    public Set<User> view() {
+        return this.view;
+    }
+}
@@ -0,0 +1,78 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+import Util.PersistentMap;
+import Util.PersistentSet;
+
+import java.util.Optional;
+
+/**
+ * An immutable, point-in-time view of a library's available books, loans and members.
+ *
+ * <p>Versions are produced by a {@link VersionedCatalog}. Each one shares almost all of its
+ * structure with the versions before and after it, so keeping one around for a long report costs
+ * only the nodes that later changes replaced.
+ */
+public final class CatalogVersion {
+    private final long version;
+    private final PersistentSet<Book> availableBooks;
+    private final PersistentMap<Book, User> loans;
+    private final PersistentSet<User> members;
+
+    CatalogVersion(long version, PersistentSet<Book> availableBooks, PersistentMap<Book, User> loans, PersistentSet<User> members) {
+        this.version = version;
+        this.availableBooks = availableBooks;
+        this.loans = loans;
+        this.members = members;
+    }
+
+    /**
+     * Returns true if the book was on the shelf in this version.
+     *
+     * @param book - the book to check.
+     */
+    public boolean isAvailable(Book book) {
+        return this.availableBooks.contains(book);
+    }
+
+    /**
+     * Returns who had the book checked out in this version.
+     *
+     * @param book - the book to check.
+     * @return - the borrower, or an empty Optional if the book was not on loan.
+     */
+    public Optional<User> getCurrentBorrower(Book book) {
+        return Optional.ofNullable(this.loans.get(book));
+    }
+
+    // Getters
+
+    /**
+     * Returns the number of changes applied to produce this version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the books that were available, as an immutable set.
+     */
+    public PersistentSet<Book> getAvailableBooks() {
+        return this.availableBooks;
+    }
+
+    /**
+     * Returns the books that were checked out and their borrowers, as an immutable map.
+     */
+    public PersistentMap<Book, User> getCheckedOutBooks() {
+        return this.loans;
+    }
+
+    /**
+     * Returns the registered members, as an immutable set.
+     */
+    public PersistentSet<User> getMembers() {
+        return this.members;
+    }
+}
@@ -0,0 +1,38 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+
+/**
+ * Observes successful changes to a {@link Library}.
+ *
+ * <p>Checkout, return and addBook callbacks run while the library holds the lock for that book,
+ * so events for the same book are delivered in the order they happened. Implementations should
+ * be quick and must not call back into the library for the same book.
+ */
+public interface CirculationListener {
+
+    /**
+     * Called after a book was added to the library.
+     */
+    default void onBookAdded(Book book) {
+    }
+
+    /**
+     * Called after a user was registered as a member.
+     */
+    default void onMemberAdded(User user) {
+    }
+
+    /**
+     * Called after a book was checked out to a user.
+     */
+    default void onCheckout(Book book, User user) {
+    }
+
+    /**
+     * Called after a user returned a book.
+     */
+    default void onReturn(Book book, User user) {
+    }
+}
@@ -0,0 +1,25 @@
+package Service;
+
+/**
+ * Outcome of a non-throwing circulation operation such as {@link Library#tryCheckout}.
+ * The constants are shared, so reporting a result never allocates.
+ */
+public enum CirculationStatus {
+    /** The operation completed. */
+    SUCCESS,
+    /** The book is not in the library's available collection. */
+    NOT_AVAILABLE,
+    /** The book is not checked out by the given user. */
+    NOT_CHECKED_OUT,
+    /** The user already has a copy of this title. */
+    ALREADY_BORROWED,
+    /** The item was valid but not applied because another item of an all-or-nothing batch failed. */
+    ABORTED;
+
+    /**
+     * Returns true if the operation completed.
+     */
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,222 @@
+package Service;
+
+import Model.Book;
+import Model.Isbn;
+import Model.User;
+import Util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A memory-compact, single-copy catalog keyed by the numeric ISBN-13 of each book.
+ *
+ * <p>Books and members live in dense slot arrays. The ISBN key maps to a book slot through a
+ * primitive open-addressing table, and each book slot records the slot of its current borrower
+ * (or {@code -1} when available). Once a member is registered, {@code addBook} (apart from growing
+ * the arrays), {@code checkout}, {@code returnBook} and {@code getCurrentBorrower} allocate nothing.
+ *
+ * <p>Unlike {@link Library}, the catalog does not update {@link User#getBooks()}, and it only
+ * accepts books with a valid ISBN-10 or ISBN-13. Not thread-safe.
+ */
+public class CompactCatalog {
+    private static final int AVAILABLE = -1;
+    private static final int MISSING = -1;
+
+    private final String name;
+    private final LongIntHashMap bookSlots;
+    private Book[] books;
+    private int[] borrowers;
+    private int bookCount;
+
+    private final Map<User, Integer> memberSlots;
+    private User[] members;
+    private int memberCount;
+
+    /**
+     * Constructs an empty catalog.
+     *
+     * @param name - name of the catalog.
+     * @param expectedBooks - number of books to hold without resizing.
+     */
+    public CompactCatalog(String name, int expectedBooks) {
+        this.name = name;
+        this.bookSlots = new LongIntHashMap(expectedBooks, MISSING);
+        this.books = new Book[Math.max(expectedBooks, 16)];
+        this.borrowers = new int[this.books.length];
+        this.memberSlots = new HashMap<>();
+        this.members = new User[16];
+    }
+
+    /**
+     * Adds a book to the catalog as available.
+     *
+     * @param book - the book to add.
+     * @return - true if the book was added, false if its ISBN is already catalogued.
+     * @throws IllegalArgumentException - if the book's ISBN is not a valid ISBN-10 or ISBN-13.
+     */
+    public boolean addBook(Book book) {
+        long key = Isbn.parse(book.getIsbn());
+        if (this.bookSlots.containsKey(key)) {
+            return false;
+        }
+
+        if (this.bookCount == this.books.length) {
+            int capacity = this.books.length + (this.books.length >> 1);
+            this.books = Arrays.copyOf(this.books, capacity);
+            this.borrowers = Arrays.copyOf(this.borrowers, capacity);
+        }
+        int slot = this.bookCount++;
+        this.books[slot] = book;
+        this.borrowers[slot] = AVAILABLE;
+        this.bookSlots.put(key, slot);
+        return true;
+    }
+
+    /**
+     * Registers a member.
+     *
+     * @param user - user to register.
+     * @return - true if the user was added, false if already registered.
+     */
+    public boolean addMember(User user) {
+        if (this.memberSlots.containsKey(user)) {
+            return false;
+        }
+        memberSlot(user);
+        return true;
+    }
+
+    /**
+     * Checks out a book to a user, registering the user on first use.
+     *
+     * @param book - the book to check out.
+     * @param user - the user checking the book out.
+     * @return - SUCCESS, or NOT_AVAILABLE if the book is lent or not in the catalog.
+     */
+    public CirculationStatus checkout(Book book, User user) {
+        return checkout(Isbn.tryParse(book.getIsbn()), user);
+    }
+
+    /**
+     * Checks out a book by ISBN key, registering the user on first use.
+     *
+     * @param isbn - ISBN key from {@link Isbn#parse}.
+     * @param user - the user checking the book out.
+     * @return - SUCCESS, or NOT_AVAILABLE if the book is lent or not in the catalog.
+     */
+    public CirculationStatus checkout(long isbn, User user) {
+        int slot = this.bookSlots.get(isbn);
+        if (slot == MISSING || this.borrowers[slot] != AVAILABLE) {
+            return CirculationStatus.NOT_AVAILABLE;
+        }
+        this.borrowers[slot] = memberSlot(user);
+        return CirculationStatus.SUCCESS;
+    }
+
+    /**
+     * Returns a book to the catalog.
+     *
+     * @param book - the book being returned.
+     * @param user - the user returning the book.
+     * @return - SUCCESS, or NOT_CHECKED_OUT if the user doesn't have the book.
+     */
+    public CirculationStatus returnBook(Book book, User user) {
+        return returnBook(Isbn.tryParse(book.getIsbn()), user);
+    }
+
+    /**
+     * Returns a book by ISBN key.
+     *
+     * @param isbn - ISBN key from {@link Isbn#parse}.
+     * @param user - the user returning the book.
+     * @return - SUCCESS, or NOT_CHECKED_OUT if the user doesn't have the book.
+     */
+    public CirculationStatus returnBook(long isbn, User user) {
+        int slot = this.bookSlots.get(isbn);
+        if (slot == MISSING) {
+            return CirculationStatus.NOT_CHECKED_OUT;
+        }
+        int borrower = this.borrowers[slot];
+        if (borrower == AVAILABLE || !this.members[borrower].equals(user)) {
+            return CirculationStatus.NOT_CHECKED_OUT;
+        }
+        this.borrowers[slot] = AVAILABLE;
+        return CirculationStatus.SUCCESS;
+    }
+
+    /**
+     * Returns the user who has the book checked out.
+     *
+     * @param isbn - ISBN key from {@link Isbn#parse}.
+     * @return - the borrower, or null if the book is available or not in the catalog.
+     */
+    public User getCurrentBorrower(long isbn) {
+        int slot = this.bookSlots.get(isbn);
+        if (slot == MISSING || this.borrowers[slot] == AVAILABLE) {
+            return null;
+        }
+        return this.members[this.borrowers[slot]];
+    }
+
+    /**
+     * Returns the user who has the book checked out, or null if it is available.
+     */
+    public User getCurrentBorrower(Book book) {
+        return getCurrentBorrower(Isbn.tryParse(book.getIsbn()));
+    }
+
+    /**
+     * Returns true if the book is catalogued and not checked out.
+     */
+    public boolean isAvailable(long isbn) {
+        int slot = this.bookSlots.get(isbn);
+        return slot != MISSING && this.borrowers[slot] == AVAILABLE;
+    }
+
+    /**
+     * Returns the catalogued book with the given ISBN key, or null.
+     */
+    public Book getBook(long isbn) {
+        int slot = this.bookSlots.get(isbn);
+        return slot == MISSING ? null : this.books[slot];
+    }
+
+    // Returns the user's slot, registering them if needed.
+    private int memberSlot(User user) {
+        Integer slot = this.memberSlots.get(user);
+        if (slot != null) {
+            return slot;
+        }
+        if (this.memberCount == this.members.length) {
+            this.members = Arrays.copyOf(this.members, this.members.length << 1);
+        }
+        int next = this.memberCount++;
+        this.members[next] = user;
+        this.memberSlots.put(user, next);
+        return next;
+    }
+
+    // Getters
+    /**
+     * Returns the name of the catalog.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of catalogued books.
+     */
+    public int getBookCount() {
+        return this.bookCount;
+    }
+
+    /**
+     * Returns the number of registered members.
+     */
+    public int getMemberCount() {
+        return this.memberCount;
+    }
+}
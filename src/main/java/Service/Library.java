@@ -2,31 +2,156 @@ package Service;
 
 import Exceptions.BookNotAvailableException;
 import Exceptions.BookNotCheckedOutException;
+import Metrics.LibraryMetrics;
+import Metrics.Operation;
 import Model.Book;
 import Model.User;
+import Search.SearchHit;
+import Search.AuthorIndex;
+import Search.SearchIndex;
+import Search.YearIndex;
+import Storage.InMemoryStore;
+import Storage.LibraryStore;
+import Util.StringDictionary;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a library that contains books and registered users.
  * Supports book checkouts, returns, and member management.
+ *
+ * <p>A Library is either single-threaded (the default) or concurrent. In concurrent mode every
+ * checkout and return runs under a lock striped by ISBN, so the update of {@code books},
+ * {@code checkedOutBooks} and the user's books is atomic while operations on different books
+ * proceed in parallel.
  */
 public class Library {
     private String name;
     private Set<Book> books;
     private Set<User> members;
+    private final MemberRegistry registry;
     private Map<Book, User> checkedOutBooks;
+    private final BorrowerIndex activeBorrowers;
+    private final Map<Book, Queue<Hold>> holds;
+    private final LibraryStore store;
+    private final StringDictionary authors = new StringDictionary();
+    // The catalog indexes are null when the store keeps books off the heap or the library skips them
+    private final SearchIndex searchIndex;
+    private final YearIndex yearIndex;
+    private final AuthorIndex authorIndex;
+    private final Map<String, Book> booksByIsbn; // finds books when a resident store has no indexes, else null
+    private final ReentrantLock[] locks; // null in single-threaded mode
+    private volatile CirculationListener[] listeners = new CirculationListener[0];
+    private volatile LibraryMetrics metrics; // null when instrumentation is disabled
 
     /**
-     * Constructs a new Library with the given name.
+     * Constructs a new single-threaded Library with the given name.
      *
      * @param name - name of the Library.
      */
     public Library(String name) {
+        this(name, new InMemoryStore(false), 0, true);
+    }
+
+    /**
+     * Constructs a new thread-safe Library with the given name.
+     *
+     * @param name - name of the Library.
+     * @param lockStripes - number of per-ISBN lock stripes, rounded up to a power of two.
+     */
+    public Library(String name, int lockStripes) {
+        this(name, new InMemoryStore(true), checkStripes(lockStripes), true);
+    }
+
+    /**
+     * Constructs a Library that keeps its catalog, members and loans in the given store.
+     * The library is thread-safe if the store is, and picks up whatever the store already holds.
+     *
+     * @param name - name of the Library.
+     * @param store - where books, members and loans are kept.
+     */
+    public Library(String name, LibraryStore store) {
+        this(name, store, true);
+    }
+
+    /**
+     * Constructs a Library on a store, optionally without its catalog indexes. The full-text
+     * search, year and author indexes each take a write lock of their own for every book added,
+     * which serializes books added from many threads; a library that is loaded in bulk and never
+     * queried that way can skip them. {@link #search}, {@link #findBooksByYear} and
+     * {@link #findBooksByAuthor} are then unsupported, and {@link #findBook} uses a plain map.
+     *
+     * @param name - name of the Library.
+     * @param store - where books, members and loans are kept.
+     * @param catalogIndexes - false to skip the search, year and author indexes.
+     */
+    public Library(String name, LibraryStore store, boolean catalogIndexes) {
+        this(name, store, store.isConcurrent() ? Runtime.getRuntime().availableProcessors() * 4 : 0, catalogIndexes);
+    }
+
+    private Library(String name, LibraryStore store, int lockStripes, boolean catalogIndexes) {
+        boolean concurrent = lockStripes > 0;
         this.name = name;
-        this.books = new HashSet<>();
-        this.members = new HashSet<>();
-        this.checkedOutBooks = new HashMap<>();
+        this.store = store;
+        this.books = store.availableBooks();
+        this.members = store.members();
+        this.registry = new MemberRegistry(concurrent);
+        this.checkedOutBooks = store.loans();
+        this.activeBorrowers = new BorrowerIndex(concurrent);
+        this.holds = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        boolean indexed = catalogIndexes && store.isResident();
+        this.searchIndex = indexed ? new SearchIndex() : null;
+        this.yearIndex = indexed ? new YearIndex() : null;
+        this.authorIndex = indexed ? new AuthorIndex(this.authors) : null;
+        this.booksByIsbn = store.isResident() && !indexed ? (concurrent ? new ConcurrentHashMap<>() : new HashMap<>()) : null;
+
+        if (concurrent) {
+            int stripes = 1;
+            while (stripes < lockStripes) {
+                stripes <<= 1;
+            }
+            this.locks = new ReentrantLock[stripes];
+            for (int i = 0; i < this.locks.length; i++) {
+                this.locks[i] = new ReentrantLock();
+            }
+        } else {
+            this.locks = null;
+        }
+
+        // Rebuild the state derived from a store that was opened with data in it
+        for (User user : this.members) {
+            this.registry.register(user);
+        }
+        for (Map.Entry<Book, User> loan : this.checkedOutBooks.entrySet()) {
+            User borrower = this.registry.findById(loan.getValue().getId()).orElse(loan.getValue());
+            borrower.addBook(loan.getKey());
+            this.activeBorrowers.increment(borrower);
+        }
+        if (store.isResident()) {
+            this.books.forEach(this::index);
+            this.checkedOutBooks.keySet().forEach(this::index);
+        }
+    }
+
+    private static int checkStripes(int lockStripes) {
+        if (lockStripes <= 0) {
+            throw new IllegalArgumentException("Lock stripes must be positive");
+        }
+        return lockStripes;
+    }
+
+    /**
+     * Creates a thread-safe Library with a stripe count sized to the available processors.
+     *
+     * @param name - name of the Library.
+     * @return - a new concurrent Library.
+     */
+    public static Library concurrent(String name) {
+        return new Library(name, Runtime.getRuntime().availableProcessors() * 4);
     }
 
     /**
@@ -37,13 +162,7 @@ public class Library {
      * @throws BookNotCheckedOutException - exception to throw if the user hasn't checked out the book trying to be returned.
      */
     public void returnBook(Book book, User user) throws BookNotCheckedOutException {
-        boolean isCheckedOut = user.getBooks().contains(book);
-
-        if (isCheckedOut) {
-            user.removeBook(book);
-            this.books.add(book);
-            checkedOutBooks.remove(book); // Remove tracking
-        } else {
+        if (tryReturn(book, user) != CirculationStatus.SUCCESS) {
             throw new BookNotCheckedOutException("Book not checked out by User: " + user.getLastName() + ", " + user.getFirstName());
         }
     }
@@ -56,24 +175,334 @@ public class Library {
      * @throws BookNotAvailableException - Exception to throw if the book is not currently available.
      */
     public void checkout(Book book, User user) throws BookNotAvailableException {
-        boolean isAvailable = this.books.contains(book);
-
-        if (isAvailable) {
-            user.addBook(book);
-            this.books.remove(book);
-            checkedOutBooks.put(book, user); // Track who has it checked out
-        } else {
+        if (tryCheckout(book, user) != CirculationStatus.SUCCESS) {
             throw new BookNotAvailableException("Book is not available for checkout.");
         }
     }
 
+    /**
+     * Attempts to return a Book to the Library without throwing on failure.
+     * A failed return allocates nothing. A successful one allocates the entry that puts the book
+     * back in the available set.
+     *
+     * @param book - the book being returned.
+     * @param user - the user returning the book.
+     * @return - SUCCESS, or NOT_CHECKED_OUT if the user doesn't have the book.
+     */
+    public CirculationStatus tryReturn(Book book, User user) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        ReentrantLock lock = lockFor(book);
+        if (lock != null) acquire(lock, metrics);
+        boolean success;
+        try {
+            success = returnLocked(book, user);
+            if (success) {
+                handOff(book);
+            }
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+        if (metrics != null) metrics.record(Operation.RETURN, book, start, success);
+        return success ? CirculationStatus.SUCCESS : CirculationStatus.NOT_CHECKED_OUT;
+    }
+
+    /**
+     * Attempts to check out a book from the library without throwing on failure.
+     * A failed checkout allocates nothing. A successful one allocates the hash-map entries that
+     * record the loan in {@code checkedOutBooks} and {@link User#getBooks()}; use
+     * {@link CompactCatalog} where successful checkouts must not allocate either.
+     *
+     * @param book - the book to check out.
+     * @param user - the user checking the book out.
+     * @return - SUCCESS, or NOT_AVAILABLE if the book is not currently available.
+     */
+    public CirculationStatus tryCheckout(Book book, User user) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        ReentrantLock lock = lockFor(book);
+        if (lock != null) acquire(lock, metrics);
+        boolean success;
+        try {
+            success = checkoutLocked(book, user);
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+        if (metrics != null) metrics.record(Operation.CHECKOUT, book, start, success);
+        return success ? CirculationStatus.SUCCESS : CirculationStatus.NOT_AVAILABLE;
+    }
+
+    /**
+     * Places a hold on a book. If the book is available it is checked out to the user at once;
+     * otherwise the user joins the book's FIFO hold queue and the book is checked out to them
+     * when it comes back, inside the same locked step as the return.
+     *
+     * <p>The future completes with the book once the user has it. It is completed while the book's
+     * lock is held, so dependent actions should use the {@code *Async} methods if they do real work.
+     * Cancelling the future withdraws the hold.
+     *
+     * @param book - the book to reserve.
+     * @param user - the user waiting for it.
+     * @return - a future completed when the book is checked out to the user, or completed
+     *           exceptionally with BookNotAvailableException if the book is not in the library.
+     */
+    public CompletableFuture<Book> placeHold(Book book, User user) {
+        ReentrantLock lock = lockFor(book);
+        if (lock != null) lock.lock();
+        try {
+            if (user.getBooks().contains(book) || checkoutLocked(book, user)) {
+                return CompletableFuture.completedFuture(book);
+            }
+            if (!this.checkedOutBooks.containsKey(book)) {
+                return CompletableFuture.failedFuture(new BookNotAvailableException("Book is not in the library."));
+            }
+            Queue<Hold> queue = this.holds.computeIfAbsent(book, b -> new ConcurrentLinkedQueue<>());
+            for (Hold hold : queue) {
+                if (hold.user.equals(user) && !hold.future.isDone()) {
+                    return hold.future;
+                }
+            }
+            Hold hold = new Hold(user);
+            queue.add(hold);
+            return hold.future;
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of users waiting for a book, not counting cancelled holds.
+     *
+     * @param book - the book to check.
+     */
+    public int getHoldCount(Book book) {
+        Queue<Hold> queue = this.holds.get(book);
+        if (queue == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Hold hold : queue) {
+            if (!hold.future.isDone()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks out an available book while its lock stripe, if any, is held.
+     */
+    private boolean checkoutLocked(Book book, User user) {
+        if (!this.books.remove(book)) {
+            return false;
+        }
+        user.addBook(book);
+        checkedOutBooks.put(book, user); // Track who has it checked out
+        this.activeBorrowers.increment(user);
+        for (CirculationListener listener : this.listeners) {
+            listener.onCheckout(book, user);
+        }
+        return true;
+    }
+
+    /**
+     * Returns a book while its lock stripe, if any, is held.
+     */
+    private boolean returnLocked(Book book, User user) {
+        if (!user.removeBook(book)) {
+            return false;
+        }
+        this.books.add(book);
+        checkedOutBooks.remove(book); // Remove tracking
+        this.activeBorrowers.decrement(user);
+        for (CirculationListener listener : this.listeners) {
+            listener.onReturn(book, user);
+        }
+        return true;
+    }
+
+    /**
+     * Checks a just-returned book out to the first user still waiting for it.
+     * Called with the book's lock stripe held.
+     */
+    private void handOff(Book book) {
+        if (this.holds.isEmpty()) {
+            return;
+        }
+        Queue<Hold> queue = this.holds.get(book);
+        if (queue == null) {
+            return;
+        }
+        Hold hold;
+        while ((hold = queue.peek()) != null) {
+            if (hold.future.isDone()) {
+                queue.poll(); // Cancelled by the caller
+                continue;
+            }
+            if (!checkoutLocked(book, hold.user)) {
+                break; // A listener took the book again
+            }
+            queue.poll();
+            if (hold.future.complete(book)) {
+                break;
+            }
+            returnLocked(book, hold.user); // Cancelled after the check above
+        }
+        if (queue.isEmpty()) {
+            this.holds.remove(book);
+        }
+    }
+
+    /**
+     * Checks out a stack of books to one user, e.g. from a self-checkout kiosk.
+     * The lock stripes of the whole batch are taken once, in ascending order, and the user's books
+     * and loan count are updated once per batch. A book listed twice fails the second time.
+     *
+     * @param user - the user checking the books out.
+     * @param batch - the books to check out.
+     * @param mode - whether a failed item cancels the whole batch.
+     * @return - one status per book in iteration order: SUCCESS, NOT_AVAILABLE, or ABORTED if an
+     *           ALL_OR_NOTHING batch was cancelled by another item.
+     */
+    public CirculationStatus[] checkoutAll(User user, Collection<Book> batch, BatchMode mode) {
+        Book[] items = batch.toArray(new Book[0]);
+        CirculationStatus[] results = new CirculationStatus[items.length];
+        int[] held = lockStripes(items);
+        try {
+            Set<Book> seen = new HashSet<>(items.length * 2);
+            int failed = 0;
+            for (int i = 0; i < items.length; i++) {
+                if (seen.add(items[i]) && this.books.contains(items[i])) {
+                    results[i] = CirculationStatus.SUCCESS;
+                } else {
+                    results[i] = CirculationStatus.NOT_AVAILABLE;
+                    failed++;
+                }
+            }
+
+            List<Book> accepted = accepted(items, results, failed, mode);
+            if (accepted.isEmpty()) {
+                return results;
+            }
+            for (Book book : accepted) {
+                this.books.remove(book);
+                this.checkedOutBooks.put(book, user);
+            }
+            user.addBooks(accepted);
+            this.activeBorrowers.increment(user, accepted.size());
+            for (Book book : accepted) {
+                for (CirculationListener listener : this.listeners) {
+                    listener.onCheckout(book, user);
+                }
+            }
+            return results;
+        } finally {
+            unlockStripes(held);
+        }
+    }
+
+    /**
+     * Returns a stack of books from one user with the same locking and batching as {@link #checkoutAll}.
+     *
+     * @param user - the user returning the books.
+     * @param batch - the books to return.
+     * @param mode - whether a failed item cancels the whole batch.
+     * @return - one status per book in iteration order: SUCCESS, NOT_CHECKED_OUT, or ABORTED if an
+     *           ALL_OR_NOTHING batch was cancelled by another item.
+     */
+    public CirculationStatus[] returnAll(User user, Collection<Book> batch, BatchMode mode) {
+        Book[] items = batch.toArray(new Book[0]);
+        CirculationStatus[] results = new CirculationStatus[items.length];
+        int[] held = lockStripes(items);
+        try {
+            Set<Book> userBooks = user.getBooks();
+            Set<Book> seen = new HashSet<>(items.length * 2);
+            int failed = 0;
+            for (int i = 0; i < items.length; i++) {
+                if (seen.add(items[i]) && userBooks.contains(items[i])) {
+                    results[i] = CirculationStatus.SUCCESS;
+                } else {
+                    results[i] = CirculationStatus.NOT_CHECKED_OUT;
+                    failed++;
+                }
+            }
+
+            List<Book> accepted = accepted(items, results, failed, mode);
+            if (accepted.isEmpty()) {
+                return results;
+            }
+            user.removeBooks(accepted);
+            for (Book book : accepted) {
+                this.books.add(book);
+                this.checkedOutBooks.remove(book);
+            }
+            this.activeBorrowers.decrement(user, accepted.size());
+            for (Book book : accepted) {
+                for (CirculationListener listener : this.listeners) {
+                    listener.onReturn(book, user);
+                }
+            }
+            for (Book book : accepted) {
+                handOff(book);
+            }
+            return results;
+        } finally {
+            unlockStripes(held);
+        }
+    }
+
+    /**
+     * Returns the items of a validated batch that should be applied, marking the valid items
+     * ABORTED when an ALL_OR_NOTHING batch has failures.
+     */
+    private static List<Book> accepted(Book[] items, CirculationStatus[] results, int failed, BatchMode mode) {
+        if (failed > 0 && mode == BatchMode.ALL_OR_NOTHING) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == CirculationStatus.SUCCESS) {
+                    results[i] = CirculationStatus.ABORTED;
+                }
+            }
+            return Collections.emptyList();
+        }
+        List<Book> accepted = new ArrayList<>(items.length - failed);
+        for (int i = 0; i < items.length; i++) {
+            if (results[i] == CirculationStatus.SUCCESS) {
+                accepted.add(items[i]);
+            }
+        }
+        return accepted;
+    }
+
     /**
      * Returns all users who currently have a book checked out.
      *
-     * @return - Set of users who have a book checked out.
+     * @return - live, unmodifiable Set of users who have a book checked out.
      */
     public Set<User> getActiveBorrowers() {
-        return new HashSet<>(this.checkedOutBooks.values());
+        LibraryMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return this.activeBorrowers.view();
+        }
+        long start = System.nanoTime();
+        Set<User> view = this.activeBorrowers.view();
+        metrics.record(Operation.GET_ACTIVE_BORROWERS, null, start, true);
+        return view;
+    }
+
+    /**
+     * Returns the number of users who currently have a book checked out.
+     */
+    public int getActiveBorrowerCount() {
+        return this.activeBorrowers.size();
+    }
+
+    /**
+     * Returns true if the user currently has at least one book checked out.
+     *
+     * @param user - the user to check.
+     */
+    public boolean isActiveBorrower(User user) {
+        return this.activeBorrowers.contains(user);
     }
 
     /**
@@ -94,7 +523,217 @@ public class Library {
      * @return - true if the book was added, false otherwise.
      */
     public boolean addBook(Book book){
-        return this.books.add(book);
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics == null ? 0L : System.nanoTime();
+        ReentrantLock lock = lockFor(book);
+        if (lock != null) acquire(lock, metrics);
+        boolean added;
+        try {
+            added = addBookLocked(book, null);
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+        if (metrics != null) metrics.record(Operation.ADD_BOOK, book, start, added);
+        return added;
+    }
+
+    /**
+     * Adds a batch of books to the library's collection.
+     * In concurrent mode the batch is grouped by lock stripe and each stripe is locked once. The
+     * new books are added to each catalog index under one acquisition of its lock, after the
+     * stripes are released, so a book may be visible on the shelf before search finds it.
+     *
+     * @param batch - the books to add.
+     * @return - the number of books that were added.
+     */
+    public int addBooks(List<Book> batch) {
+        List<Book> unindexed = this.searchIndex != null ? new ArrayList<>(batch.size()) : null;
+        int added = 0;
+        if (this.locks == null) {
+            for (Book book : batch) {
+                if (addBookLocked(book, unindexed)) {
+                    added++;
+                }
+            }
+            indexAll(unindexed);
+            return added;
+        }
+
+        // Counting sort of the batch by stripe, so each stripe is taken once in ascending order.
+        int size = batch.size();
+        int[] stripeOf = new int[size];
+        int[] start = new int[this.locks.length + 1];
+        for (int i = 0; i < size; i++) {
+            stripeOf[i] = stripeIndex(batch.get(i));
+            start[stripeOf[i] + 1]++;
+        }
+        for (int s = 0; s < this.locks.length; s++) {
+            start[s + 1] += start[s];
+        }
+        int[] order = new int[size];
+        int[] next = Arrays.copyOf(start, this.locks.length);
+        for (int i = 0; i < size; i++) {
+            order[next[stripeOf[i]]++] = i;
+        }
+
+        for (int s = 0; s < this.locks.length; s++) {
+            if (start[s] == start[s + 1]) {
+                continue;
+            }
+            this.locks[s].lock();
+            try {
+                for (int i = start[s]; i < start[s + 1]; i++) {
+                    if (addBookLocked(batch.get(order[i]), unindexed)) {
+                        added++;
+                    }
+                }
+            } finally {
+                this.locks[s].unlock();
+            }
+        }
+        indexAll(unindexed);
+        return added;
+    }
+
+    /**
+     * Adds a book while its lock stripe, if any, is held.
+     *
+     * @param unindexed - collects the book for {@link #indexAll} instead of indexing it now, or null.
+     */
+    private boolean addBookLocked(Book book, List<Book> unindexed) {
+        // A checked-out copy already exists, adding it again would lend the same book twice.
+        if (this.checkedOutBooks.containsKey(book)) {
+            return false;
+        }
+        if (!this.books.add(book)) {
+            return false;
+        }
+        if (unindexed != null) {
+            unindexed.add(book);
+        } else {
+            index(book);
+        }
+        for (CirculationListener listener : this.listeners) {
+            listener.onBookAdded(book);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a new book of the catalog to the search, year and author indexes, or to the ISBN map
+     * that replaces them.
+     */
+    private void index(Book book) {
+        if (this.searchIndex != null) {
+            this.searchIndex.add(book);
+            this.yearIndex.add(book);
+            this.authorIndex.add(book);
+        } else if (this.booksByIsbn != null) {
+            this.booksByIsbn.put(book.getIsbn(), book);
+        }
+    }
+
+    /**
+     * Adds a batch of new books to the catalog indexes, taking each index's lock once.
+     */
+    private void indexAll(List<Book> unindexed) {
+        if (unindexed != null && !unindexed.isEmpty()) {
+            this.searchIndex.addAll(unindexed);
+            this.yearIndex.addAll(unindexed);
+            this.authorIndex.addAll(unindexed);
+        }
+    }
+
+    /**
+     * Searches the titles and authors of every book in the library, including checked-out books.
+     * The last word of the query is matched as a prefix to support type-ahead.
+     *
+     * @param query - free text query.
+     * @param limit - maximum number of hits to return.
+     * @return - hits ordered by relevance, each saying whether the book is available.
+     * @throws UnsupportedOperationException - if the library keeps no catalog indexes, because its
+     *         store keeps books off the heap or it was constructed without them.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        if (this.searchIndex == null) {
+            throw new UnsupportedOperationException("Search needs catalog indexes and a store that keeps books on the heap");
+        }
+        return this.searchIndex.search(query, limit, this.books::contains);
+    }
+
+    /**
+     * Finds the books of the catalog published in a range of years, including checked-out books
+     * unless only available ones are asked for.
+     *
+     * @param from - first year, inclusive.
+     * @param to - last year, inclusive.
+     * @param availableOnly - true to leave out checked-out books.
+     * @return - the books ordered by year, then by the order they were added.
+     * @throws UnsupportedOperationException - if the library keeps no catalog indexes, because its
+     *         store keeps books off the heap or it was constructed without them.
+     */
+    public List<Book> findBooksByYear(int from, int to, boolean availableOnly) {
+        if (this.yearIndex == null) {
+            throw new UnsupportedOperationException("Year queries need catalog indexes and a store that keeps books on the heap");
+        }
+        return this.yearIndex.range(from, to, availableOnly ? this.books::contains : book -> true);
+    }
+
+    /**
+     * Finds the books of the catalog by an author, including checked-out books unless only
+     * available ones are asked for. The name is matched ignoring case, accents and punctuation.
+     *
+     * @param author - the author's name.
+     * @param availableOnly - true to leave out checked-out books.
+     * @return - the books in the order they were added.
+     * @throws UnsupportedOperationException - if the library keeps no catalog indexes, because its
+     *         store keeps books off the heap or it was constructed without them.
+     */
+    public List<Book> findBooksByAuthor(String author, boolean availableOnly) {
+        if (this.authorIndex == null) {
+            throw new UnsupportedOperationException("Author queries need catalog indexes and a store that keeps books on the heap");
+        }
+        return this.authorIndex.find(author, availableOnly ? this.books::contains : book -> true);
+    }
+
+    /**
+     * Looks up a book of the catalog, available or checked out, by its ISBN.
+     *
+     * @param isbn - the ISBN exactly as the book was added.
+     * @return - the book, or an empty Optional if no book has that ISBN.
+     */
+    public Optional<Book> findBook(String isbn) {
+        if (isbn == null || isbn.isEmpty()) {
+            return Optional.empty();
+        }
+        if (this.booksByIsbn != null) {
+            return Optional.ofNullable(this.booksByIsbn.get(isbn));
+        }
+        if (this.searchIndex == null) {
+            return this.store.findBook(isbn);
+        }
+        // Books are equal by ISBN, so a key book finds the catalogued instance in the search index.
+        return Optional.ofNullable(this.searchIndex.get(new Book(isbn, null, null, 0)));
+    }
+
+    /**
+     * Looks up a registered member by id.
+     *
+     * @param id - the member's id.
+     * @return - the member, or an empty Optional if no member has that id.
+     */
+    public Optional<User> findMember(String id) {
+        return this.registry.findById(id);
+    }
+
+    /**
+     * Looks up the registered members using an email address, ignoring case.
+     *
+     * @param email - the email address.
+     * @return - the matching members, empty if none.
+     */
+    public Set<User> findMembersByEmail(String email) {
+        return this.registry.findByEmail(email);
     }
 
     /**
@@ -104,7 +743,180 @@ public class Library {
      * @return - true if the user was added, false otherwise.
      */
     public boolean addMember(User user){
-        return this.members.add(user);
+        if (!this.members.add(user)) {
+            return false;
+        }
+        this.registry.register(user);
+        for (CirculationListener listener : this.listeners) {
+            listener.onMemberAdded(user);
+        }
+        return true;
+    }
+
+    /**
+     * Registers a batch of users as members of the library.
+     *
+     * @param batch - users to register.
+     * @return - the number of users that were added.
+     */
+    public int addMembers(List<User> batch) {
+        int added = 0;
+        for (User user : batch) {
+            if (addMember(user)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Registers a listener to be notified of every successful change.
+     *
+     * @param listener - the listener to add.
+     */
+    public synchronized void addListener(CirculationListener listener) {
+        CirculationListener[] current = this.listeners;
+        CirculationListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        this.listeners = updated;
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener - the listener to remove.
+     * @return - true if the listener was registered.
+     */
+    public synchronized boolean removeListener(CirculationListener listener) {
+        CirculationListener[] current = this.listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                CirculationListener[] updated = new CirculationListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                this.listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs an action while no checkout, return or addBook can make progress.
+     * In concurrent mode every lock stripe is held, in ascending order, for the duration of the action.
+     *
+     * @param action - the action to run, e.g. taking a consistent snapshot.
+     */
+    public void runExclusive(Runnable action) {
+        if (this.locks == null) {
+            action.run();
+            return;
+        }
+        int locked = 0;
+        try {
+            for (; locked < this.locks.length; locked++) {
+                this.locks[locked].lock();
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                this.locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Enables or disables instrumentation. While disabled, operations read one field and do no timing.
+     *
+     * @param metrics - metrics to record into, or null to disable instrumentation.
+     */
+    public void setMetrics(LibraryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics being recorded, or null if instrumentation is disabled.
+     */
+    public LibraryMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Takes a lock stripe, counting the acquisition as contended if another thread holds it.
+     */
+    private static void acquire(ReentrantLock lock, LibraryMetrics metrics) {
+        if (metrics == null) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            metrics.recordContention();
+            lock.lock();
+        }
+    }
+
+    /**
+     * Returns whether this Library was constructed in thread-safe mode.
+     */
+    public boolean isConcurrent() {
+        return this.locks != null;
+    }
+
+    /**
+     * Returns the lock stripe guarding the given book, or null in single-threaded mode.
+     */
+    private ReentrantLock lockFor(Book book) {
+        if (this.locks == null) {
+            return null;
+        }
+        return this.locks[stripeIndex(book)];
+    }
+
+    /**
+     * Locks the distinct stripes guarding the given books in ascending order, the same order as
+     * {@link #runExclusive}, so batches can't deadlock with each other.
+     *
+     * @return - the stripes held, or null in single-threaded mode.
+     */
+    private int[] lockStripes(Book[] items) {
+        if (this.locks == null) {
+            return null;
+        }
+        int[] stripes = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            stripes[i] = stripeIndex(items[i]);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int stripe : stripes) {
+            if (distinct == 0 || stripes[distinct - 1] != stripe) {
+                stripes[distinct++] = stripe;
+            }
+        }
+        int[] held = Arrays.copyOf(stripes, distinct);
+        for (int stripe : held) {
+            this.locks[stripe].lock();
+        }
+        return held;
+    }
+
+    /**
+     * Releases stripes taken by {@link #lockStripes} in reverse order.
+     */
+    private void unlockStripes(int[] held) {
+        if (held == null) {
+            return;
+        }
+        for (int i = held.length - 1; i >= 0; i--) {
+            this.locks[held[i]].unlock();
+        }
+    }
+
+    /**
+     * Returns the index of the lock stripe guarding the given book.
+     */
+    private int stripeIndex(Book book) {
+        int h = book.hashCode();
+        h ^= (h >>> 16);
+        return h & (this.locks.length - 1);
     }
 
     // Getters
@@ -117,6 +929,7 @@ public class Library {
 
     /**
      * Returns the set of books currently available in the library.
+     * The collection is live; use a {@link VersionedCatalog} for a consistent point-in-time view.
      */
     public Set<Book> getBooks() {
         return this.books;
@@ -124,15 +937,45 @@ public class Library {
 
     /**
      * Returns the set of registered users in the library.
+     * The collection is live; use a {@link VersionedCatalog} for a consistent point-in-time view.
      */
     public Set<User> getMembers() {
         return this.members;
     }
 
+    /**
+     * Returns the store holding the library's books, members and loans.
+     */
+    public LibraryStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Returns the dictionary that books built for this library, such as by an importer, intern
+     * their authors in, so books by the same author share one string. It lives as long as the
+     * library.
+     */
+    public StringDictionary getAuthorDictionary() {
+        return this.authors;
+    }
+
     /**
      * Returns Map<Book, User> of checked out books.
+     * The collection is live; use a {@link VersionedCatalog} for a consistent point-in-time view.
      */
     public Map<Book, User> getCheckedOutBooks() {
         return this.checkedOutBooks;
     }
+
+    /**
+     * A user waiting for a book and the future to complete when they get it.
+     */
+    private static final class Hold {
+        final User user;
+        final CompletableFuture<Book> future = new CompletableFuture<>();
+
+        Hold(User user) {
+            this.user = user;
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package Service;
+
+import Model.EmailChangeListener;
+import Model.User;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registered members indexed by id and by email.
+ *
+ * <p>The id index is the primary key. The email index is a secondary, non-unique index (a family
+ * may share an address) keyed on the trimmed, lower-cased email. The registry listens to each
+ * member's {@link User#setEmail}, so the email index follows changes made after registration.
+ */
+public class MemberRegistry implements EmailChangeListener {
+    private final boolean concurrent;
+    private final Map<String, User> byId;
+    private final Map<String, Set<User>> byEmail;
+
+    /**
+     * Constructs an empty registry.
+     *
+     * @param concurrent - true if the registry is updated from several threads.
+     */
+    public MemberRegistry(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.byId = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.byEmail = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    /**
+     * Registers a member.
+     *
+     * @param user - the member.
+     * @return - true if the member was added, false if a member with that id is already registered.
+     */
+    public boolean register(User user) {
+        if (this.byId.putIfAbsent(user.getId(), user) != null) {
+            return false;
+        }
+        // Serialized with setEmail, so no change is missed between reading the email and listening.
+        synchronized (user) {
+            user.addEmailListener(this);
+            index(user.getEmail(), user);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a member.
+     *
+     * @param user - the member.
+     * @return - true if the member was registered.
+     */
+    public boolean unregister(User user) {
+        if (!this.byId.remove(user.getId(), user)) {
+            return false;
+        }
+        synchronized (user) {
+            user.removeEmailListener(this);
+            unindex(user.getEmail(), user);
+        }
+        return true;
+    }
+
+    /**
+     * Looks up a member by id.
+     *
+     * @param id - the member's id.
+     * @return - the member, or an empty Optional.
+     */
+    public Optional<User> findById(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(this.byId.get(id));
+    }
+
+    /**
+     * Looks up the members using an email address, ignoring case and surrounding spaces.
+     *
+     * @param email - the email address.
+     * @return - a snapshot of the matching members, empty if none.
+     */
+    public Set<User> findByEmail(String email) {
+        String key = key(email);
+        Set<User> users = key == null ? null : this.byEmail.get(key);
+        return users == null ? Collections.emptySet() : Set.copyOf(users);
+    }
+
+    /**
+     * Returns true if the user is registered.
+     *
+     * @param user - the user to check.
+     */
+    public boolean contains(User user) {
+        return this.byId.get(user.getId()) == user;
+    }
+
+    /**
+     * Returns the number of registered members.
+     */
+    public int size() {
+        return this.byId.size();
+    }
+
+    /**
+     * Moves a registered member to its new email key.
+     */
+    @Override
+    public void onEmailChanged(User user, String oldEmail, String newEmail) {
+        if (!contains(user)) {
+            return;
+        }
+        unindex(oldEmail, user);
+        index(newEmail, user);
+    }
+
+    private void index(String email, User user) {
+        String key = key(email);
+        if (key == null) {
+            return;
+        }
+        this.byEmail.compute(key, (k, users) -> {
+            Set<User> set = users != null ? users : (this.concurrent ? ConcurrentHashMap.newKeySet(2) : new HashSet<>(2));
+            set.add(user);
+            return set;
+        });
+    }
+
+    private void unindex(String email, User user) {
+        String key = key(email);
+        if (key == null) {
+            return;
+        }
+        this.byEmail.computeIfPresent(key, (k, users) -> {
+            users.remove(user);
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    private static String key(String email) {
+        if (email == null) {
+            return null;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+}
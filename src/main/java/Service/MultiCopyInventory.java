@@ -0,0 +1,235 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe inventory that holds several copies of each title.
+ *
+ * <p>Each title keeps an atomic count of available copies and a table with one borrower slot per
+ * copy. A checkout reserves a copy by decrementing the count with compare-and-set, then claims a
+ * free slot starting from a random position, so threads borrowing the same bestseller rarely touch
+ * the same slot. No locks are taken. The count never exceeds the number of free slots, so a
+ * reserved copy always finds one.
+ *
+ * <p>A user holds at most one copy of a title. Each title maps its holders to the slot of their
+ * copy, and a checkout registers the user there before it reserves a copy, so a user who already
+ * holds one is turned away without touching the count, and a return clears its slot directly.
+ * Copies never show up in {@link User#getBooks()} and can't be returned to a {@link Library},
+ * which would shelve it as that library's single copy. The number of copies is fixed when a title
+ * is stocked.
+ *
+ * <p>The inventory is standalone: it is not connected to any {@link Library}, so its checkouts are
+ * not journaled, reach no {@link CirculationListener} or event stream, are not recorded by
+ * library metrics, and are not reflected in search availability. There are no holds.
+ */
+public class MultiCopyInventory {
+    private static final Integer PENDING = -1; // compared by identity
+
+    private final String name;
+    private final Map<Book, Stock> titles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty inventory.
+     *
+     * @param name - name of the branch holding the inventory.
+     */
+    public MultiCopyInventory(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Stocks a title with a number of copies, all available.
+     *
+     * @param book - the title.
+     * @param copies - number of copies held.
+     * @return - true if the title was stocked, false if it is already in the inventory.
+     */
+    public boolean addTitle(Book book, int copies) {
+        if (copies <= 0) {
+            throw new IllegalArgumentException("Copies must be positive");
+        }
+        return this.titles.putIfAbsent(book, new Stock(copies)) == null;
+    }
+
+    /**
+     * Checks out one copy of a title.
+     *
+     * @param book - the title to borrow.
+     * @param user - the borrower.
+     * @return - SUCCESS, NOT_AVAILABLE if no copy is free or the title isn't stocked, or
+     *           ALREADY_BORROWED if the user already has a copy.
+     */
+    public CirculationStatus tryCheckout(Book book, User user) {
+        Stock stock = this.titles.get(book);
+        if (stock == null) {
+            return CirculationStatus.NOT_AVAILABLE;
+        }
+        // The holder map admits one copy per user and arbitrates racing checkouts by the same user
+        if (stock.holders.putIfAbsent(user, PENDING) != null) {
+            return CirculationStatus.ALREADY_BORROWED;
+        }
+        if (!stock.reserve()) {
+            stock.holders.remove(user, PENDING);
+            return CirculationStatus.NOT_AVAILABLE;
+        }
+        stock.holders.put(user, stock.claim(user));
+        return CirculationStatus.SUCCESS;
+    }
+
+    /**
+     * Returns the user's copy of a title.
+     *
+     * @param book - the title being returned.
+     * @param user - the borrower.
+     * @return - SUCCESS, or NOT_CHECKED_OUT if the user has no copy of the title.
+     */
+    public CirculationStatus tryReturn(Book book, User user) {
+        Stock stock = this.titles.get(book);
+        Integer slot = stock == null ? null : stock.holders.get(user);
+        // A checkout still in progress hasn't lent the user anything yet
+        if (slot == null || slot == PENDING || !stock.holders.remove(user, slot)) {
+            return CirculationStatus.NOT_CHECKED_OUT;
+        }
+        stock.release(slot);
+        return CirculationStatus.SUCCESS;
+    }
+
+    /**
+     * Returns the number of copies of a title currently available, or 0 if it isn't stocked.
+     *
+     * @param book - the title.
+     */
+    public int getAvailableCopies(Book book) {
+        Stock stock = this.titles.get(book);
+        return stock == null ? 0 : stock.available.get();
+    }
+
+    /**
+     * Returns the number of copies of a title held, or 0 if it isn't stocked.
+     *
+     * @param book - the title.
+     */
+    public int getTotalCopies(Book book) {
+        Stock stock = this.titles.get(book);
+        return stock == null ? 0 : stock.borrowers.length();
+    }
+
+    /**
+     * Returns the borrower of one copy of a title.
+     *
+     * @param book - the title.
+     * @param copy - the copy number, from 0 to {@code getTotalCopies(book) - 1}.
+     * @return - the borrower, or null if the copy is on the shelf.
+     */
+    public User getCopyBorrower(Book book, int copy) {
+        Stock stock = this.titles.get(book);
+        return stock == null ? null : stock.borrowers.get(copy);
+    }
+
+    /**
+     * Returns the users who currently hold a copy of a title.
+     *
+     * @param book - the title.
+     * @return - a snapshot of the borrowers, empty if none or if the title isn't stocked.
+     */
+    public List<User> getBorrowers(Book book) {
+        Stock stock = this.titles.get(book);
+        List<User> borrowers = new ArrayList<>();
+        if (stock != null) {
+            for (int i = 0; i < stock.borrowers.length(); i++) {
+                User user = stock.borrowers.get(i);
+                if (user != null) {
+                    borrowers.add(user);
+                }
+            }
+        }
+        return borrowers;
+    }
+
+    // Getters
+    /**
+     * Returns the name of the inventory.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of titles stocked.
+     */
+    public int getTitleCount() {
+        return this.titles.size();
+    }
+
+    /**
+     * Returns whether a user currently holds a copy of a title.
+     *
+     * @param book - the title.
+     * @param user - the user.
+     */
+    public boolean hasCopy(Book book, User user) {
+        Stock stock = this.titles.get(book);
+        Integer slot = stock == null ? null : stock.holders.get(user);
+        return slot != null && slot != PENDING;
+    }
+
+    /**
+     * Copies of one title: an available counter, a borrower per copy and the slot of each user
+     * holding a copy, or {@link #PENDING} while their checkout is in progress.
+     */
+    private static final class Stock {
+        final AtomicInteger available;
+        final AtomicReferenceArray<User> borrowers;
+        final Map<User, Integer> holders = new ConcurrentHashMap<>();
+
+        Stock(int copies) {
+            this.available = new AtomicInteger(copies);
+            this.borrowers = new AtomicReferenceArray<>(copies);
+        }
+
+        /**
+         * Takes one copy off the available count, failing when none is left.
+         */
+        boolean reserve() {
+            int current;
+            do {
+                current = this.available.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!this.available.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        /**
+         * Writes the user into a free slot and returns it. Only called after a successful reserve.
+         */
+        int claim(User user) {
+            int length = this.borrowers.length();
+            int i = ThreadLocalRandom.current().nextInt(length);
+            while (true) {
+                if (this.borrowers.get(i) == null && this.borrowers.compareAndSet(i, null, user)) {
+                    return i;
+                }
+                i = i + 1 == length ? 0 : i + 1;
+            }
+        }
+
+        /**
+         * Clears a slot and puts the copy back on the available count.
+         */
+        void release(int slot) {
+            this.borrowers.set(slot, null);
+            this.available.incrementAndGet();
+        }
+    }
+}
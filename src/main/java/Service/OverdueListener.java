@@ -0,0 +1,21 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+
+import java.time.Instant;
+
+/**
+ * Observes loans that passed their due date without being returned.
+ */
+public interface OverdueListener {
+
+    /**
+     * Called once when a loan becomes overdue.
+     *
+     * @param book - the overdue book.
+     * @param user - the borrower.
+     * @param dueDate - when the book was due.
+     */
+    void onOverdue(Book book, User user, Instant dueDate);
+}
@@ -0,0 +1,265 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+import Util.TimingWheel;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the due date of every loan in a {@link Library} and reports loans that become overdue.
+ *
+ * <p>Registered as a {@link CirculationListener}, the scheduler stamps each checkout with a due
+ * date one loan period after the checkout and puts it on a {@link TimingWheel}; a return cancels
+ * it. Both are O(1), and {@link #advance()} fires only the loans that are due, so finding overdue
+ * books never scans the active loans. Time comes from an injectable {@link Clock}, so a
+ * {@link Util.ManualClock} can simulate weeks of circulation in a test.
+ *
+ * <p>A library notifies the scheduler under the book's lock stripe, so the scheduler is striped
+ * the same way: loans are split by book across shards, each with its own lock, map and wheel,
+ * and checkouts of different books rarely wait on each other. {@link #advance()} visits the
+ * shards one at a time and reports the loans in due-date order.
+ *
+ * <p>Due dates are kept in memory. Loans that exist before the scheduler is registered, including
+ * those replayed by a journal that was opened first, have no due date.
+ */
+public class OverdueScheduler implements CirculationListener, Closeable {
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    private final Clock clock;
+    private final long loanPeriodMillis;
+    private final Shard[] shards;
+    private volatile OverdueListener[] listeners = new OverdueListener[0];
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructs a scheduler on the system clock with a one second tick.
+     *
+     * @param loanPeriod - how long a book may be kept.
+     */
+    public OverdueScheduler(Duration loanPeriod) {
+        this(loanPeriod, Clock.systemUTC(), DEFAULT_TICK);
+    }
+
+    /**
+     * Constructs a scheduler.
+     *
+     * @param loanPeriod - how long a book may be kept.
+     * @param clock - source of the current time.
+     * @param tick - resolution of due dates; a loan is reported at most one tick after it is due.
+     */
+    public OverdueScheduler(Duration loanPeriod, Clock clock, Duration tick) {
+        if (loanPeriod.isNegative() || loanPeriod.isZero()) {
+            throw new IllegalArgumentException("Loan period must be positive");
+        }
+        this.clock = clock;
+        this.loanPeriodMillis = loanPeriod.toMillis();
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.shards = new Shard[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.shards[i] = new Shard(tick.toMillis(), clock.millis());
+        }
+    }
+
+    /**
+     * Stamps the loan with its due date.
+     */
+    @Override
+    public void onCheckout(Book book, User user) {
+        long due = this.clock.millis() + this.loanPeriodMillis;
+        Shard shard = shardFor(book);
+        synchronized (shard) {
+            TimingWheel.Timer<Loan> previous = shard.loans.put(book, shard.wheel.schedule(new Loan(book, user, due), due));
+            if (previous != null) {
+                shard.forget(previous);
+            }
+        }
+    }
+
+    /**
+     * Cancels the loan's due date.
+     */
+    @Override
+    public void onReturn(Book book, User user) {
+        Shard shard = shardFor(book);
+        synchronized (shard) {
+            TimingWheel.Timer<Loan> timer = shard.loans.remove(book);
+            if (timer != null) {
+                shard.forget(timer);
+            }
+        }
+    }
+
+    /**
+     * Reports every loan that has become due since the last call.
+     * Listeners are called after the shard locks are released, on the calling thread, in due-date
+     * order.
+     *
+     * @return - the number of loans that became overdue.
+     */
+    public int advance() {
+        List<Loan> due = new ArrayList<>();
+        long now = this.clock.millis();
+        for (Shard shard : this.shards) {
+            synchronized (shard) {
+                int before = due.size();
+                shard.wheel.advanceTo(now, due::add);
+                shard.overdueCount += due.size() - before;
+            }
+        }
+        if (this.shards.length > 1) {
+            due.sort(Comparator.comparingLong(loan -> loan.due)); // stable, so each shard's tick order holds
+        }
+        OverdueListener[] current = this.listeners;
+        for (Loan loan : due) {
+            Instant dueDate = Instant.ofEpochMilli(loan.due);
+            for (OverdueListener listener : current) {
+                listener.onOverdue(loan.book, loan.user, dueDate);
+            }
+        }
+        return due.size();
+    }
+
+    /**
+     * Calls {@link #advance()} at a fixed interval on a background thread.
+     *
+     * @param interval - time between advances.
+     */
+    public synchronized void start(Duration interval) {
+        if (this.ticker != null) {
+            this.ticker.shutdown();
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-overdue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        this.ticker.scheduleWithFixedDelay(this::advance, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background thread, if started.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.ticker != null) {
+            this.ticker.shutdown();
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * Registers a listener to be notified of overdue loans.
+     *
+     * @param listener - the listener to add.
+     */
+    public synchronized void addListener(OverdueListener listener) {
+        OverdueListener[] current = this.listeners;
+        OverdueListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        this.listeners = updated;
+    }
+
+    /**
+     * Returns when a checked-out book is due.
+     *
+     * @param book - the book.
+     * @return - the due date, or an empty Optional if the book is not on loan.
+     */
+    public Optional<Instant> getDueDate(Book book) {
+        Shard shard = shardFor(book);
+        synchronized (shard) {
+            TimingWheel.Timer<Loan> timer = shard.loans.get(book);
+            return timer == null ? Optional.empty() : Optional.of(Instant.ofEpochMilli(timer.getDeadline()));
+        }
+    }
+
+    /**
+     * Returns true if the book is on loan and has been reported overdue.
+     *
+     * @param book - the book.
+     */
+    public boolean isOverdue(Book book) {
+        Shard shard = shardFor(book);
+        synchronized (shard) {
+            TimingWheel.Timer<Loan> timer = shard.loans.get(book);
+            return timer != null && !timer.isPending();
+        }
+    }
+
+    /**
+     * Returns the number of loans that have been reported overdue and not yet returned.
+     */
+    public int getOverdueCount() {
+        int count = 0;
+        for (Shard shard : this.shards) {
+            synchronized (shard) {
+                count += shard.overdueCount;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of loans being tracked, overdue or not.
+     */
+    public int getLoanCount() {
+        int count = 0;
+        for (Shard shard : this.shards) {
+            synchronized (shard) {
+                count += shard.loans.size();
+            }
+        }
+        return count;
+    }
+
+    private Shard shardFor(Book book) {
+        int hash = book.hashCode();
+        return this.shards[(hash ^ hash >>> 16) & (this.shards.length - 1)];
+    }
+
+    /**
+     * The loans of one stripe of books, guarded by the shard's monitor.
+     */
+    private static final class Shard {
+        final TimingWheel<Loan> wheel;
+        final Map<Book, TimingWheel.Timer<Loan>> loans = new HashMap<>();
+        int overdueCount;
+
+        Shard(long tickMillis, long startMillis) {
+            this.wheel = new TimingWheel<>(tickMillis, startMillis);
+        }
+
+        void forget(TimingWheel.Timer<Loan> timer) {
+            if (!this.wheel.cancel(timer)) {
+                this.overdueCount--;
+            }
+        }
+    }
+
+    private static final class Loan {
+        final Book book;
+        final User user;
+        final long due;
+
+        Loan(Book book, User user, long due) {
+            this.book = book;
+            this.user = user;
+            this.due = due;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package Service;
+
+import Exceptions.BookNotAvailableException;
+import Exceptions.BookNotCheckedOutException;
+import Model.Book;
+import Model.User;
+import Search.SearchHit;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe library partitioned into independent shards by ISBN hash.
+ *
+ * <p>Each shard is a single-threaded {@link Library} owning its slice of the catalog and its
+ * {@code checkedOutBooks}, guarded by a lock of its own. Operations on one book touch only that
+ * book's shard, so circulation on different shards shares no lock and no map. Views that span users,
+ * such as {@link #getActiveBorrowers()} and {@link #search}, fan out to every shard and merge.
+ * A user's own books are already kept in {@link User#getBooks()}, which every shard updates.
+ */
+public class ShardedLibrary {
+    private final String name;
+    private final Library[] shards;
+    private final ReentrantLock[] locks;
+    private final Set<User> members = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a sharded library.
+     *
+     * @param name - name of the library.
+     * @param shardCount - number of shards, e.g. one per core.
+     */
+    public ShardedLibrary(String name, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+
+        this.name = name;
+        this.shards = new Library[shardCount];
+        this.locks = new ReentrantLock[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Library(name + " #" + i);
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Allows a user to check out a book from the library.
+     *
+     * @param book - the book to check out.
+     * @param user - the user checking the book out.
+     * @throws BookNotAvailableException - Exception to throw if the book is not currently available.
+     */
+    public void checkout(Book book, User user) throws BookNotAvailableException {
+        if (tryCheckout(book, user) != CirculationStatus.SUCCESS) {
+            throw new BookNotAvailableException("Book is not available for checkout.");
+        }
+    }
+
+    /**
+     * Allows a user to return a Book to the Library.
+     *
+     * @param book - the book being returned.
+     * @param user - the user returning the book.
+     * @throws BookNotCheckedOutException - exception to throw if the user hasn't checked out the book trying to be returned.
+     */
+    public void returnBook(Book book, User user) throws BookNotCheckedOutException {
+        if (tryReturn(book, user) != CirculationStatus.SUCCESS) {
+            throw new BookNotCheckedOutException("Book not checked out by User: " + user.getLastName() + ", " + user.getFirstName());
+        }
+    }
+
+    /**
+     * Attempts to check out a book from its shard without throwing on failure.
+     *
+     * @param book - the book to check out.
+     * @param user - the user checking the book out.
+     * @return - SUCCESS, or NOT_AVAILABLE if the book is not currently available.
+     */
+    public CirculationStatus tryCheckout(Book book, User user) {
+        int shard = shardIndex(book);
+        this.locks[shard].lock();
+        try {
+            return this.shards[shard].tryCheckout(book, user);
+        } finally {
+            this.locks[shard].unlock();
+        }
+    }
+
+    /**
+     * Attempts to return a book to its shard without throwing on failure.
+     *
+     * @param book - the book being returned.
+     * @param user - the user returning the book.
+     * @return - SUCCESS, or NOT_CHECKED_OUT if the user doesn't have the book.
+     */
+    public CirculationStatus tryReturn(Book book, User user) {
+        int shard = shardIndex(book);
+        this.locks[shard].lock();
+        try {
+            return this.shards[shard].tryReturn(book, user);
+        } finally {
+            this.locks[shard].unlock();
+        }
+    }
+
+    /**
+     * Returns the user who has a book checked out.
+     *
+     * @param book - the book to check for current borrower.
+     * @return - the borrower, or an empty Optional if the book is not checked out.
+     */
+    public Optional<User> getCurrentBorrower(Book book) {
+        int shard = shardIndex(book);
+        this.locks[shard].lock();
+        try {
+            return this.shards[shard].getCurrentBorrower(book);
+        } finally {
+            this.locks[shard].unlock();
+        }
+    }
+
+    /**
+     * Adds a book to its shard.
+     *
+     * @param book - the book to add.
+     * @return - true if the book was added, false otherwise.
+     */
+    public boolean addBook(Book book) {
+        int shard = shardIndex(book);
+        this.locks[shard].lock();
+        try {
+            return this.shards[shard].addBook(book);
+        } finally {
+            this.locks[shard].unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of books, locking each shard once.
+     *
+     * @param batch - the books to add.
+     * @return - the number of books that were added.
+     */
+    public int addBooks(List<Book> batch) {
+        List<List<Book>> perShard = new ArrayList<>(this.shards.length);
+        for (int i = 0; i < this.shards.length; i++) {
+            perShard.add(new ArrayList<>(batch.size() / this.shards.length + 1));
+        }
+        for (Book book : batch) {
+            perShard.get(shardIndex(book)).add(book);
+        }
+
+        int added = 0;
+        for (int i = 0; i < this.shards.length; i++) {
+            if (perShard.get(i).isEmpty()) {
+                continue;
+            }
+            this.locks[i].lock();
+            try {
+                added += this.shards[i].addBooks(perShard.get(i));
+            } finally {
+                this.locks[i].unlock();
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Registers a user as a member of the library.
+     *
+     * @param user - user to register.
+     * @return - true if the user was added, false otherwise.
+     */
+    public boolean addMember(User user) {
+        return this.members.add(user);
+    }
+
+    /**
+     * Returns every user who has a book checked out in any shard.
+     *
+     * @return - a snapshot merged from all shards.
+     */
+    public Set<User> getActiveBorrowers() {
+        Set<User> borrowers = new HashSet<>();
+        for (int i = 0; i < this.shards.length; i++) {
+            this.locks[i].lock();
+            try {
+                borrowers.addAll(this.shards[i].getActiveBorrowers());
+            } finally {
+                this.locks[i].unlock();
+            }
+        }
+        return borrowers;
+    }
+
+    /**
+     * Returns the number of users who have a book checked out in any shard.
+     */
+    public int getActiveBorrowerCount() {
+        return getActiveBorrowers().size();
+    }
+
+    /**
+     * Returns true if the user has at least one book checked out in any shard.
+     *
+     * @param user - the user to check.
+     */
+    public boolean isActiveBorrower(User user) {
+        for (int i = 0; i < this.shards.length; i++) {
+            this.locks[i].lock();
+            try {
+                if (this.shards[i].isActiveBorrower(user)) {
+                    return true;
+                }
+            } finally {
+                this.locks[i].unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the books a user currently has checked out, across all shards.
+     *
+     * @param user - the borrower.
+     * @return - a snapshot of the user's books.
+     */
+    public Set<Book> getBooks(User user) {
+        return new HashSet<>(user.getBooks());
+    }
+
+    /**
+     * Searches every shard and merges the hits by score.
+     *
+     * @param query - free text query.
+     * @param limit - maximum number of hits to return.
+     * @return - hits ordered by relevance, each saying whether the book is available.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (int i = 0; i < this.shards.length; i++) {
+            this.locks[i].lock();
+            try {
+                hits.addAll(this.shards[i].search(query, limit));
+            } finally {
+                this.locks[i].unlock();
+            }
+        }
+        hits.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Registers a listener with every shard. It is called under the lock of the book's shard.
+     *
+     * @param listener - the listener to add.
+     */
+    public void addListener(CirculationListener listener) {
+        for (Library shard : this.shards) {
+            shard.addListener(listener);
+        }
+    }
+
+    /**
+     * Runs an action while every shard is locked, taken in ascending order.
+     *
+     * @param action - the action to run, e.g. taking a consistent snapshot.
+     */
+    public void runExclusive(Runnable action) {
+        int locked = 0;
+        try {
+            for (; locked < this.locks.length; locked++) {
+                this.locks[locked].lock();
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                this.locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the shard owning the given book.
+     */
+    private int shardIndex(Book book) {
+        int h = book.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, this.shards.length);
+    }
+
+    // Getters
+    /**
+     * Returns the name of the library.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of shards.
+     */
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * Returns the registered members.
+     */
+    public Set<User> getMembers() {
+        return this.members;
+    }
+
+    /**
+     * Returns the number of books on the shelves of all shards.
+     */
+    public int getAvailableCount() {
+        int count = 0;
+        for (int i = 0; i < this.shards.length; i++) {
+            this.locks[i].lock();
+            try {
+                count += this.shards[i].getBooks().size();
+            } finally {
+                this.locks[i].unlock();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of books checked out across all shards.
+     */
+    public int getCheckedOutCount() {
+        int count = 0;
+        for (int i = 0; i < this.shards.length; i++) {
+            this.locks[i].lock();
+            try {
+                count += this.shards[i].getCheckedOutBooks().size();
+            } finally {
+                this.locks[i].unlock();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,189 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+import Util.PersistentMap;
+import Util.PersistentSet;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a versioned copy of a library's books, loans and members for readers that must not
+ * block circulation or race with it.
+ *
+ * <p>Each change recorded by the library is applied to persistent collections, producing a new
+ * {@link CatalogVersion} that shares everything except the path to the changed entry, and the
+ * new version is published through a volatile field. {@link #snapshot()} returns the latest
+ * version in O(1); the version never changes afterwards, however long the reader takes.
+ *
+ * <p>The library reports changes under its lock stripes, so they are not applied there: each
+ * change is queued, and whichever thread takes the catalog's lock applies everything queued as
+ * one batch and publishes one version for it. A thread that finds the lock taken leaves its
+ * change to the holder and returns, so circulation never waits for another thread's update. The
+ * queue keeps the order the library reported the changes in. A snapshot applies any changes
+ * still queued first, so it includes every change reported before it.
+ *
+ * <p>The books of a {@link Library#checkoutAll} or {@link Library#returnAll} batch are applied one
+ * at a time, so a snapshot may show part of a batch.
+ */
+public class VersionedCatalog implements CirculationListener {
+    private static final int BOOK_ADDED = 0;
+    private static final int MEMBER_ADDED = 1;
+    private static final int CHECKOUT = 2;
+    private static final int RETURN = 3;
+
+    private volatile CatalogVersion current = new CatalogVersion(0, PersistentSet.empty(), PersistentMap.empty(), PersistentSet.empty());
+    private final ConcurrentLinkedQueue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private VersionedCatalog() {
+    }
+
+    /**
+     * Copies the library's current state and keeps the copy up to date from then on.
+     * Checkouts, returns and added books pause while the state is copied.
+     *
+     * @param library - the library to follow.
+     * @return - the versioned catalog.
+     */
+    public static VersionedCatalog attach(Library library) {
+        VersionedCatalog catalog = new VersionedCatalog();
+        // Listen first: members are added outside the library's lock stripes, so any member the
+        // copy below misses arrives as an event instead.
+        library.addListener(catalog);
+        library.runExclusive(() -> {
+            PersistentSet<Book> available = PersistentSet.empty();
+            for (Book book : library.getBooks()) {
+                available = available.plus(book);
+            }
+            PersistentMap<Book, User> loans = PersistentMap.empty();
+            for (var loan : library.getCheckedOutBooks().entrySet()) {
+                loans = loans.plus(loan.getKey(), loan.getValue());
+            }
+            catalog.lock.lock();
+            try {
+                catalog.apply();
+                PersistentSet<User> members = catalog.current.getMembers();
+                for (User user : library.getMembers()) {
+                    members = members.plus(user);
+                }
+                catalog.current = new CatalogVersion(catalog.current.getVersion() + 1, available, loans, members);
+            } finally {
+                catalog.lock.unlock();
+            }
+        });
+        return catalog;
+    }
+
+    /**
+     * Returns the latest version. Waits only if changes are queued and another thread is
+     * applying them.
+     */
+    public CatalogVersion snapshot() {
+        if (!this.pending.isEmpty()) {
+            this.lock.lock();
+            try {
+                apply();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return this.current;
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        submit(new Change(BOOK_ADDED, book, null));
+    }
+
+    @Override
+    public void onMemberAdded(User user) {
+        submit(new Change(MEMBER_ADDED, null, user));
+    }
+
+    @Override
+    public void onCheckout(Book book, User user) {
+        submit(new Change(CHECKOUT, book, user));
+    }
+
+    @Override
+    public void onReturn(Book book, User user) {
+        submit(new Change(RETURN, book, null));
+    }
+
+    /**
+     * Queues a change and applies the queue if no other thread is applying it.
+     */
+    private void submit(Change change) {
+        this.pending.add(change);
+        // The holder may have drained the queue just before this change arrived, so a thread
+        // that releases the lock looks again.
+        while (!this.pending.isEmpty() && this.lock.tryLock()) {
+            try {
+                apply();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies every queued change and publishes the result as one version. Called with the
+     * lock held.
+     */
+    private void apply() {
+        Change change = this.pending.poll();
+        if (change == null) {
+            return;
+        }
+        CatalogVersion version = this.current;
+        PersistentSet<Book> available = version.getAvailableBooks();
+        PersistentMap<Book, User> loans = version.getCheckedOutBooks();
+        PersistentSet<User> members = version.getMembers();
+        long changes = 0;
+        do {
+            switch (change.kind) {
+                case BOOK_ADDED:
+                    available = available.plus(change.book);
+                    changes++;
+                    break;
+                case MEMBER_ADDED:
+                    PersistentSet<User> added = members.plus(change.user);
+                    if (added != members) {
+                        members = added;
+                        changes++;
+                    }
+                    break;
+                case CHECKOUT:
+                    available = available.minus(change.book);
+                    loans = loans.plus(change.book, change.user);
+                    changes++;
+                    break;
+                default:
+                    available = available.plus(change.book);
+                    loans = loans.minus(change.book);
+                    changes++;
+            }
+            change = this.pending.poll();
+        } while (change != null);
+        if (changes > 0) {
+            this.current = new CatalogVersion(version.getVersion() + changes, available, loans, members);
+        }
+    }
+
+    /**
+     * A change reported by the library and not yet applied.
+     */
+    private static final class Change {
+        final int kind;
+        final Book book;
+        final User user;
+
+        Change(int kind, Book book, User user) {
+            this.kind = kind;
+            this.book = book;
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package Storage;
+
+import Model.Book;
+import Model.EmailChangeListener;
+import Model.User;
+import Persistence.RecordEncoder;
+import Util.StringDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the catalog and loans in log-structured merge trees on local disk, so the number of books
+ * is not limited by the heap.
+ *
+ * <p>The available books and the loans are each stored in an {@link LsmTree} keyed by ISBN. A
+ * {@link FrequencyCache} in front of them keeps the availability and borrower of the most
+ * requested books in memory, so hot {@code getCurrentBorrower} and availability checks do not
+ * touch the disk while the long tail stays there. Changes are written through to the trees and
+ * the cache.
+ *
+ * <p>Members stay on the heap as well as on disk: a {@link User} carries live state (the books it
+ * holds and its email listeners) that must be the same object across lookups. For the same reason
+ * every borrower read back from disk is resolved to one shared instance per user id.
+ *
+ * <p>Writes buffered in memory reach the disk when a tree's buffer fills and on {@link #close()};
+ * pair the store with a {@link Persistence.LibraryJournal} if every change must survive a crash.
+ */
+public class DiskStore implements LibraryStore, EmailChangeListener {
+    public static final int DEFAULT_MEMTABLE_ENTRIES = 1 << 16;
+
+    private static final byte BOOK = 1;
+    private static final byte LOAN = 2;
+    private static final byte MEMBER = 3;
+
+    private final LsmTree bookTree;
+    private final LsmTree loanTree;
+    private final LsmTree memberTree;
+    private final FrequencyCache<String, BookState> cache; // null when caching is disabled
+    private final AtomicLong writes = new AtomicLong(); // guards the cache against stale loads
+    private final Map<String, User> users = new ConcurrentHashMap<>(); // one instance per user id
+    private final Map<String, User> membersById = new ConcurrentHashMap<>();
+    private final StringDictionary authors = new StringDictionary(); // shared by the books read back
+    private final AtomicInteger availableCount = new AtomicInteger();
+    private final AtomicInteger loanCount = new AtomicInteger();
+    private final ThreadLocal<RecordEncoder> encoder = ThreadLocal.withInitial(() -> new RecordEncoder(256));
+    private final Set<Book> availableBooks = new AvailableBooks();
+    private final Map<Book, User> loans = new Loans();
+    private final Set<User> members = new Members();
+
+    private DiskStore(Path directory, int cacheEntries, int memtableEntries) throws IOException {
+        this.bookTree = new LsmTree(directory.resolve("books"), memtableEntries);
+        this.loanTree = new LsmTree(directory.resolve("loans"), memtableEntries);
+        this.memberTree = new LsmTree(directory.resolve("members"), memtableEntries);
+        this.cache = cacheEntries > 0 ? new FrequencyCache<>(cacheEntries) : null;
+
+        for (Iterator<Map.Entry<String, byte[]>> it = this.memberTree.iterator(); it.hasNext(); ) {
+            User user = decodeUser(ByteBuffer.wrap(it.next().getValue()).position(1));
+            this.membersById.put(user.getId(), user);
+            user.addEmailListener(this);
+        }
+        for (Iterator<Map.Entry<String, byte[]>> it = this.bookTree.iterator(); it.hasNext(); it.next()) {
+            this.availableCount.incrementAndGet();
+        }
+        for (Iterator<Map.Entry<String, byte[]>> it = this.loanTree.iterator(); it.hasNext(); it.next()) {
+            this.loanCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Opens the store in a directory, creating it if needed.
+     *
+     * @param directory - directory for the store's files.
+     * @param cacheEntries - number of books whose state is cached in memory, or 0 for no cache.
+     * @return - the open store.
+     * @throws IOException - if the files cannot be read or created.
+     */
+    public static DiskStore open(Path directory, int cacheEntries) throws IOException {
+        return open(directory, cacheEntries, DEFAULT_MEMTABLE_ENTRIES);
+    }
+
+    /**
+     * Opens the store in a directory, creating it if needed.
+     *
+     * @param directory - directory for the store's files.
+     * @param cacheEntries - number of books whose state is cached in memory, or 0 for no cache.
+     * @param memtableEntries - number of changes each tree buffers in memory before writing a file.
+     * @return - the open store.
+     * @throws IOException - if the files cannot be read or created.
+     */
+    public static DiskStore open(Path directory, int cacheEntries, int memtableEntries) throws IOException {
+        return new DiskStore(directory, cacheEntries, memtableEntries);
+    }
+
+    @Override
+    public Set<Book> availableBooks() {
+        return this.availableBooks;
+    }
+
+    @Override
+    public Map<Book, User> loans() {
+        return this.loans;
+    }
+
+    @Override
+    public Set<User> members() {
+        return this.members;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public boolean isResident() {
+        return false;
+    }
+
+    @Override
+    public Optional<Book> findBook(String isbn) {
+        byte[] record = this.bookTree.get(isbn);
+        if (record == null) {
+            record = this.loanTree.get(isbn);
+        }
+        return record == null ? Optional.empty() : Optional.of(decodeBook(ByteBuffer.wrap(record).position(1)));
+    }
+
+    /**
+     * Rewrites a member's record when their email changes.
+     */
+    @Override
+    public void onEmailChanged(User user, String oldEmail, String newEmail) {
+        if (this.membersById.get(user.getId()) == user) {
+            this.memberTree.put(user.getId(), encodeUser(MEMBER, user));
+        }
+    }
+
+    /**
+     * Returns the fraction of lookups answered by the cache.
+     */
+    public double getCacheHitRate() {
+        return this.cache == null ? 0 : this.cache.getHitRate();
+    }
+
+    /**
+     * Writes buffered changes to disk and closes the files.
+     */
+    @Override
+    public void close() throws IOException {
+        for (User user : this.membersById.values()) {
+            user.removeEmailListener(this);
+        }
+        this.bookTree.close();
+        this.loanTree.close();
+        this.memberTree.close();
+    }
+
+    /**
+     * Returns a book's availability and borrower, from the cache when possible.
+     */
+    private BookState state(String isbn) {
+        if (this.cache == null) {
+            return load(isbn);
+        }
+        BookState state = this.cache.get(isbn);
+        if (state != null) {
+            return state;
+        }
+        long seen = this.writes.get();
+        state = load(isbn);
+        synchronized (this.cache) {
+            // A change written while we read the trees may already be newer than what we loaded
+            if (this.writes.get() == seen) {
+                this.cache.put(isbn, state);
+            }
+        }
+        return state;
+    }
+
+    private BookState load(String isbn) {
+        boolean available = this.bookTree.get(isbn) != null;
+        byte[] loan = this.loanTree.get(isbn);
+        User borrower = null;
+        if (loan != null) {
+            ByteBuffer in = ByteBuffer.wrap(loan).position(1);
+            decodeBook(in);
+            borrower = decodeUser(in);
+        }
+        return BookState.of(available, borrower);
+    }
+
+    /**
+     * Records a book's new state after its trees were written.
+     */
+    private void changed(String isbn, BookState state) {
+        this.writes.incrementAndGet();
+        if (this.cache != null) {
+            this.cache.put(isbn, state);
+        }
+    }
+
+    private byte[] encodeBook(byte type, Book book) {
+        RecordEncoder out = this.encoder.get().begin(type)
+                .putString(book.getIsbn())
+                .putString(book.getTitle())
+                .putString(book.getAuthor())
+                .putInt(book.getPublishYear());
+        return toArray(out.finish());
+    }
+
+    private byte[] encodeLoan(Book book, User user) {
+        RecordEncoder out = this.encoder.get().begin(LOAN)
+                .putString(book.getIsbn())
+                .putString(book.getTitle())
+                .putString(book.getAuthor())
+                .putInt(book.getPublishYear());
+        putUser(out, user);
+        return toArray(out.finish());
+    }
+
+    private byte[] encodeUser(byte type, User user) {
+        return toArray(putUser(this.encoder.get().begin(type), user).finish());
+    }
+
+    private static RecordEncoder putUser(RecordEncoder out, User user) {
+        return out.putString(user.getId())
+                .putString(user.getFirstName())
+                .putString(user.getLastName())
+                .putString(user.getEmail());
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private Book decodeBook(ByteBuffer in) {
+        return new Book(RecordEncoder.getString(in), RecordEncoder.getString(in), RecordEncoder.getString(in), in.getInt(),
+                this.authors);
+    }
+
+    private User decodeUser(ByteBuffer in) {
+        String id = RecordEncoder.getString(in);
+        String firstName = RecordEncoder.getString(in);
+        String lastName = RecordEncoder.getString(in);
+        String email = RecordEncoder.getString(in);
+        return this.users.computeIfAbsent(id, key -> new User(key, firstName, lastName, email));
+    }
+
+    /**
+     * Whether a book is on the shelf and who has it. Shared constants cover the common states.
+     */
+    private static final class BookState {
+        static final BookState ABSENT = new BookState(false, null);
+        static final BookState AVAILABLE = new BookState(true, null);
+
+        final boolean available;
+        final User borrower;
+
+        private BookState(boolean available, User borrower) {
+            this.available = available;
+            this.borrower = borrower;
+        }
+
+        static BookState of(boolean available, User borrower) {
+            if (borrower == null) {
+                return available ? AVAILABLE : ABSENT;
+            }
+            return new BookState(available, borrower);
+        }
+    }
+
+    private final class AvailableBooks extends AbstractSet<Book> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Book book && state(book.getIsbn()).available;
+        }
+
+        @Override
+        public boolean add(Book book) {
+            BookState state = state(book.getIsbn());
+            if (state.available) {
+                return false;
+            }
+            bookTree.put(book.getIsbn(), encodeBook(BOOK, book));
+            availableCount.incrementAndGet();
+            changed(book.getIsbn(), BookState.of(true, state.borrower));
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Book book)) {
+                return false;
+            }
+            BookState state = state(book.getIsbn());
+            if (!state.available) {
+                return false;
+            }
+            bookTree.delete(book.getIsbn());
+            availableCount.decrementAndGet();
+            changed(book.getIsbn(), BookState.of(false, state.borrower));
+            return true;
+        }
+
+        @Override
+        public Iterator<Book> iterator() {
+            Iterator<Map.Entry<String, byte[]>> records = bookTree.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public Book next() {
+                    return decodeBook(ByteBuffer.wrap(records.next().getValue()).position(1));
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return availableCount.get();
+        }
+    }
+
+    private final class Loans extends AbstractMap<Book, User> {
+        @Override
+        public User get(Object key) {
+            return key instanceof Book book ? state(book.getIsbn()).borrower : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public User put(Book book, User user) {
+            BookState state = state(book.getIsbn());
+            users.put(user.getId(), user);
+            loanTree.put(book.getIsbn(), encodeLoan(book, user));
+            if (state.borrower == null) {
+                loanCount.incrementAndGet();
+            }
+            changed(book.getIsbn(), BookState.of(state.available, user));
+            return state.borrower;
+        }
+
+        @Override
+        public User remove(Object key) {
+            if (!(key instanceof Book book)) {
+                return null;
+            }
+            BookState state = state(book.getIsbn());
+            if (state.borrower == null) {
+                return null;
+            }
+            loanTree.delete(book.getIsbn());
+            loanCount.decrementAndGet();
+            changed(book.getIsbn(), BookState.of(state.available, null));
+            return state.borrower;
+        }
+
+        @Override
+        public int size() {
+            return loanCount.get();
+        }
+
+        @Override
+        public Set<Entry<Book, User>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Book, User>> iterator() {
+                    Iterator<Map.Entry<String, byte[]>> records = loanTree.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return records.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Book, User> next() {
+                            ByteBuffer in = ByteBuffer.wrap(records.next().getValue()).position(1);
+                            Book book = decodeBook(in);
+                            return new SimpleImmutableEntry<>(book, decodeUser(in));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return loanCount.get();
+                }
+            };
+        }
+    }
+
+    private final class Members extends AbstractSet<User> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof User user && membersById.containsKey(user.getId());
+        }
+
+        @Override
+        public boolean add(User user) {
+            if (membersById.putIfAbsent(user.getId(), user) != null) {
+                return false;
+            }
+            users.put(user.getId(), user);
+            user.addEmailListener(DiskStore.this);
+            memberTree.put(user.getId(), encodeUser(MEMBER, user));
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof User user) || membersById.remove(user.getId()) == null) {
+                return false;
+            }
+            user.removeEmailListener(DiskStore.this);
+            memberTree.delete(user.getId());
+            return true;
+        }
+
+        @Override
+        public Iterator<User> iterator() {
+            return Collections.unmodifiableCollection(membersById.values()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return membersById.size();
+        }
+    }
+}
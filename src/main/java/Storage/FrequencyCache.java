@@ -0,0 +1,184 @@
+package Storage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache that admits new entries by how often their keys are requested.
+ *
+ * <p>Every lookup is counted in a small count-min sketch of counters that saturate at 15 and
+ * are halved periodically, so it tracks recent popularity in a few bytes per entry. Entries are
+ * kept in least-recently-used order, and once the cache is full a new entry replaces the LRU
+ * victim only if its key has been requested more often (the TinyLFU admission policy). A scan
+ * over the long tail therefore cannot flush the hot entries out.
+ *
+ * <p>Thread-safe through a single monitor: every lookup, hit or miss, updates the sketch and the
+ * LRU order under it, so concurrent readers of a {@link DiskStore} serialize on the cache even
+ * though the store itself allows concurrent reads.
+ *
+ * @param <K> - the type of keys.
+ * @param <V> - the type of values.
+ */
+public class FrequencyCache<K, V> {
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MIN_WIDTH = 1024; // keeps collisions rare in small caches
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache.
+     *
+     * @param capacity - maximum number of entries, at least 1.
+     */
+    public FrequencyCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        int width = Integer.highestOneBit(Math.max(MIN_WIDTH, capacity * 2) - 1) << 1;
+        this.counters = new byte[ROWS][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Returns the cached value and counts the request.
+     *
+     * @param key - the key.
+     * @return - the value, or null if the key is not cached.
+     */
+    public synchronized V get(K key) {
+        increment(key);
+        V value = this.entries.get(key);
+        if (value != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Offers an entry to the cache. A cached key is updated in place; a new key is admitted if
+     * there is room or it is requested more often than the least recently used entry.
+     *
+     * @param key - the key.
+     * @param value - the value, not null.
+     * @return - true if the entry is in the cache afterwards.
+     */
+    public synchronized boolean put(K key, V value) {
+        if (this.entries.replace(key, value) != null) {
+            return true;
+        }
+        if (this.entries.size() >= this.capacity) {
+            Iterator<Map.Entry<K, V>> eldest = this.entries.entrySet().iterator();
+            K victim = eldest.next().getKey();
+            if (frequency(key) <= frequency(victim)) {
+                return false;
+            }
+            eldest.remove();
+        }
+        this.entries.put(key, value);
+        return true;
+    }
+
+    /**
+     * Updates an entry only if its key is already cached.
+     *
+     * @param key - the key.
+     * @param value - the new value, not null.
+     */
+    public synchronized void update(K key, V value) {
+        this.entries.replace(key, value);
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key - the key.
+     */
+    public synchronized void invalidate(K key) {
+        this.entries.remove(key);
+    }
+
+    /**
+     * Returns the number of cached entries.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache.
+     */
+    public double getHitRate() {
+        long hit = this.hits.sum();
+        long total = hit + this.misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the estimated recent request count of a key, at most 15.
+     */
+    synchronized int frequency(K key) {
+        long hash = spread(key);
+        int min = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, this.counters[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    private void increment(K key) {
+        long hash = spread(key);
+        boolean added = false;
+        for (int row = 0; row < ROWS; row++) {
+            int index = index(hash, row);
+            if (this.counters[row][index] < MAX_COUNT) {
+                this.counters[row][index]++;
+                added = true;
+            }
+        }
+        if (added && ++this.additions >= this.sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * Halves every counter so the sketch follows changes in popularity.
+     */
+    private void age() {
+        for (byte[] row : this.counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        this.additions /= 2;
+    }
+
+    private int index(long hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h >>> 32) & this.mask;
+    }
+
+    private static long spread(Object key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
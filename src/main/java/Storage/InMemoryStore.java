@@ -0,0 +1,78 @@
+package Storage;
+
+import Model.Book;
+import Model.User;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps everything in hash sets and maps on the heap. The default store of a {@link Service.Library}.
+ */
+public class InMemoryStore implements LibraryStore {
+    private final boolean concurrent;
+    private final Set<Book> availableBooks;
+    private final Map<Book, User> loans;
+    private final Set<User> members;
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param concurrent - true to use concurrent collections.
+     */
+    public InMemoryStore(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.availableBooks = concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+        this.loans = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.members = concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    }
+
+    @Override
+    public Set<Book> availableBooks() {
+        return this.availableBooks;
+    }
+
+    @Override
+    public Map<Book, User> loans() {
+        return this.loans;
+    }
+
+    @Override
+    public Set<User> members() {
+        return this.members;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return this.concurrent;
+    }
+
+    @Override
+    public boolean isResident() {
+        return true;
+    }
+
+    /**
+     * Scans the available books and loans. The library answers ISBN lookups from its search index
+     * instead, so this is only a fallback.
+     */
+    @Override
+    public Optional<Book> findBook(String isbn) {
+        Book key = new Book(isbn, null, null, 0);
+        for (Book book : this.availableBooks) {
+            if (book.equals(key)) {
+                return Optional.of(book);
+            }
+        }
+        for (Book book : this.loans.keySet()) {
+            if (book.equals(key)) {
+                return Optional.of(book);
+            }
+        }
+        return Optional.empty();
+    }
+}
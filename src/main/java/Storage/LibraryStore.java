@@ -0,0 +1,61 @@
+package Storage;
+
+import Model.Book;
+import Model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Where a {@link Service.Library} keeps its catalog, members and loans.
+ *
+ * <p>The library reads and changes the collections returned here and keeps its lock striping,
+ * holds, indexes and listeners on top. Changes to the same book are never made concurrently: the
+ * library holds that book's lock, so a store only needs to be safe for changes to different books.
+ */
+public interface LibraryStore extends Closeable {
+
+    /**
+     * Returns the books on the shelf.
+     */
+    Set<Book> availableBooks();
+
+    /**
+     * Returns the checked-out books and their borrowers.
+     */
+    Map<Book, User> loans();
+
+    /**
+     * Returns the registered members.
+     */
+    Set<User> members();
+
+    /**
+     * Returns true if the collections may be used from several threads at once.
+     */
+    boolean isConcurrent();
+
+    /**
+     * Returns true if every book is held on the heap. The library then also keeps its full-text
+     * search index, which holds every book.
+     */
+    boolean isResident();
+
+    /**
+     * Looks up a book by ISBN, whether available or on loan.
+     *
+     * @param isbn - the ISBN.
+     * @return - the book, or an empty Optional.
+     */
+    Optional<Book> findBook(String isbn);
+
+    /**
+     * Releases the store's resources. The library must not be used afterwards.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,627 @@
+package Storage;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Log-structured merge tree from string keys to byte values over files in one directory.
+ *
+ * <p>Writes go to a sorted in-memory table. When it fills up it is written out as an immutable
+ * sorted segment with a sparse index and a Bloom filter in its footer, so a lookup reads at most
+ * one small block per segment and skips most segments without reading at all. When too many
+ * segments accumulate they are merged into one, dropping overwritten values and deletions.
+ *
+ * <p>A merge always covers every segment older than its output, which is numbered above them and
+ * named with a {@code .merged.sst} suffix. That name records the swap: on reopen, any segment
+ * numbered below a merged one is left over from a merge interrupted by a crash and is deleted
+ * rather than read, so a value whose deletion the merge dropped can't come back. Every new file
+ * is fsynced along with the directory entry that names it.
+ *
+ * <p>The in-memory table is written out on {@link #close()}; there is no write-ahead log, so
+ * writes since the last flush are lost on a crash. Thread-safe: lookups share a read lock, writes
+ * take the write lock, and flushes run inline on the writing thread. A merge also runs on the
+ * writing thread that triggered it, but outside the lock: it reads the segments it pinned, and
+ * only the swap of the merged segment for them takes the write lock, so lookups and other writes
+ * carry on while the data is rewritten.
+ */
+final class LsmTree implements Closeable {
+    private static final byte[] TOMBSTONE = new byte[0]; // compared by identity
+    private static final int INDEX_INTERVAL = 32;
+    private static final int MAX_SEGMENTS = 8;
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    private static final int BLOOM_HASHES = 7;
+    private static final String SUFFIX = ".sst";
+    private static final String MERGED_SUFFIX = ".merged.sst";
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private final Path directory;
+    private final int memtableLimit;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Condition compacted = this.lock.writeLock().newCondition();
+    private TreeMap<String, byte[]> memtable = new TreeMap<>();
+    private List<Segment> segments = new ArrayList<>(); // newest first
+    private long nextSegment;
+    private boolean compacting;
+    private long mergeNumber; // file number of the running merge's output
+
+    /**
+     * Opens the tree stored in a directory, creating it if needed.
+     *
+     * @param directory - directory holding the segment files.
+     * @param memtableLimit - number of entries buffered in memory before a segment is written.
+     */
+    LsmTree(Path directory, int memtableLimit) throws IOException {
+        if (memtableLimit <= 0) {
+            throw new IllegalArgumentException("Memtable limit must be positive");
+        }
+        this.directory = directory;
+        this.memtableLimit = memtableLimit;
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        long merged = -1;
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(MERGED_SUFFIX)) {
+                merged = Math.max(merged, segmentNumber(file));
+            }
+        }
+        boolean removed = false;
+        for (Path file : files) {
+            if (segmentNumber(file) < merged) {
+                Files.delete(file); // already merged into a newer segment
+                removed = true;
+                continue;
+            }
+            this.segments.add(0, new Segment(file));
+            this.nextSegment = Math.max(this.nextSegment, segmentNumber(file) + 1);
+        }
+        if (removed) {
+            syncDirectory();
+        }
+    }
+
+    /**
+     * Returns the value stored for a key, or null.
+     */
+    byte[] get(String key) {
+        this.lock.readLock().lock();
+        try {
+            byte[] value = this.memtable.get(key);
+            if (value == null) {
+                for (Segment segment : this.segments) {
+                    value = segment.get(key);
+                    if (value != null) {
+                        break;
+                    }
+                }
+            }
+            return value == TOMBSTONE ? null : value;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a value, replacing any previous one.
+     */
+    void put(String key, byte[] value) {
+        write(key, value);
+    }
+
+    /**
+     * Removes a key, if present.
+     */
+    void delete(String key) {
+        write(key, TOMBSTONE);
+    }
+
+    private void write(String key, byte[] value) {
+        try {
+            List<Segment> pinned = null;
+            this.lock.writeLock().lock();
+            try {
+                this.memtable.put(key, value);
+                if (this.memtable.size() >= this.memtableLimit) {
+                    pinned = flushLocked();
+                }
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            if (pinned != null) {
+                compact(pinned);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Returns an iterator over the live entries in key order, as of this call.
+     * Segments it reads stay open until it is exhausted or the tree is closed.
+     */
+    Iterator<Map.Entry<String, byte[]>> iterator() {
+        List<Iterator<Map.Entry<String, byte[]>>> sources = new ArrayList<>();
+        List<Segment> pinned;
+        this.lock.readLock().lock();
+        try {
+            sources.add(new TreeMap<>(this.memtable).entrySet().iterator());
+            pinned = List.copyOf(this.segments);
+            for (Segment segment : pinned) {
+                segment.retain();
+                sources.add(segment.iterator());
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return new MergingIterator(sources, false, () -> pinned.forEach(Segment::release));
+    }
+
+    /**
+     * Writes the in-memory table out as a segment.
+     */
+    void flush() throws IOException {
+        List<Segment> pinned;
+        this.lock.writeLock().lock();
+        try {
+            pinned = flushLocked();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        if (pinned != null) {
+            compact(pinned);
+        }
+    }
+
+    /**
+     * Writes the in-memory table out as a segment. Called with the write lock held. If there are
+     * now too many segments and no merge is running, pins every segment for a merge and returns
+     * them, oldest last; the caller runs {@link #compact} after releasing the lock.
+     */
+    private List<Segment> flushLocked() throws IOException {
+        if (!this.memtable.isEmpty()) {
+            Segment written = writeSegment(this.memtable.entrySet().iterator(), this.memtable.size(), true, this.nextSegment++);
+            this.segments.add(0, written);
+            this.memtable = new TreeMap<>();
+        }
+        if (this.segments.size() <= MAX_SEGMENTS || this.compacting) {
+            return null;
+        }
+        this.compacting = true;
+        // Numbered before any later flush, so on reopen the merged segment sorts below them
+        this.mergeNumber = this.nextSegment++;
+        List<Segment> pinned = List.copyOf(this.segments);
+        pinned.forEach(Segment::retain);
+        return pinned;
+    }
+
+    /**
+     * Merges pinned segments into one, dropping overwritten values and deletions, then swaps it in
+     * for them. Runs without the lock; segments flushed meanwhile are newer and stay in front.
+     * The pinned files are deleted after the swap, oldest first, also without the lock.
+     */
+    private void compact(List<Segment> pinned) throws IOException {
+        boolean swapped = false;
+        try {
+            List<Iterator<Map.Entry<String, byte[]>>> sources = new ArrayList<>();
+            long entries = 0;
+            for (Segment segment : pinned) {
+                sources.add(segment.iterator());
+                entries += segment.entries;
+            }
+            // Every older segment is pinned, so deletions have nothing left to hide and are dropped
+            Segment merged = writeSegment(new MergingIterator(sources, false, () -> { }), entries, false, this.mergeNumber);
+            this.lock.writeLock().lock();
+            try {
+                List<Segment> current = new ArrayList<>(this.segments.subList(0, this.segments.size() - pinned.size()));
+                current.add(merged);
+                this.segments = current;
+                swapped = true;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            // A crash part way through leaves files that reopening discards, see the constructor
+            for (int i = pinned.size() - 1; i >= 0; i--) {
+                Files.deleteIfExists(pinned.get(i).file);
+            }
+            syncDirectory();
+        } finally {
+            for (Segment segment : pinned) {
+                if (swapped) {
+                    segment.release(); // the tree's reference
+                }
+                segment.release(); // the merge's pin; closed once no iterator uses it
+            }
+            this.lock.writeLock().lock();
+            try {
+                this.compacting = false;
+                this.compacted.signalAll();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of segment files.
+     */
+    int getSegmentCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.segments.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            while (this.compacting) {
+                this.compacted.awaitUninterruptibly(); // the merge's swap needs the lock
+            }
+            this.compacting = true; // no merge after close
+            flushLocked();
+            for (Segment segment : this.segments) {
+                segment.channel.close();
+            }
+            this.segments = new ArrayList<>();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private Segment writeSegment(Iterator<Map.Entry<String, byte[]>> entries, long expected, boolean keepTombstones,
+                                 long number) throws IOException {
+        Path file = this.directory.resolve(String.format("%016d", number) + (keepTombstones ? SUFFIX : MERGED_SUFFIX));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long[] bloom = new long[(int) Math.max(1, (expected * BLOOM_BITS_PER_KEY + 63) / 64)];
+        List<byte[]> indexKeys = new ArrayList<>();
+        List<Long> indexOffsets = new ArrayList<>();
+        long written = 0;
+        long offset = 0; // DataOutputStream.size() is an int and stops counting at 2 GB
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            while (entries.hasNext()) {
+                Map.Entry<String, byte[]> entry = entries.next();
+                byte[] value = entry.getValue();
+                if (value == TOMBSTONE && !keepTombstones) {
+                    continue;
+                }
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                if (written % INDEX_INTERVAL == 0) {
+                    indexKeys.add(key);
+                    indexOffsets.add(offset);
+                }
+                addToBloom(bloom, entry.getKey());
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(value == TOMBSTONE ? -1 : value.length);
+                out.write(value);
+                offset += 2 * Integer.BYTES + key.length + value.length;
+                written++;
+            }
+            long footer = offset;
+            out.writeLong(written);
+            out.writeInt(indexKeys.size());
+            for (int i = 0; i < indexKeys.size(); i++) {
+                out.writeInt(indexKeys.get(i).length);
+                out.write(indexKeys.get(i));
+                out.writeLong(indexOffsets.get(i));
+            }
+            out.writeInt(bloom.length);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            out.writeLong(footer);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        return new Segment(file);
+    }
+
+    /**
+     * Makes renames and deletions in the directory durable.
+     */
+    private void syncDirectory() throws IOException {
+        if (WINDOWS) {
+            return; // directories can't be opened as channels there
+        }
+        try (FileChannel channel = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    private static void addToBloom(long[] bloom, String key) {
+        long bits = (long) bloom.length * 64;
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] bloom, String key) {
+        long bits = (long) bloom.length * 64;
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 15)) | 1;
+    }
+
+    /**
+     * An immutable sorted file of entries. Tombstones are stored with a value length of -1.
+     */
+    private static final class Segment {
+        final Path file;
+        final FileChannel channel;
+        final long entries;
+        final long dataEnd;
+        final String[] indexKeys;
+        final long[] indexOffsets;
+        final long[] bloom;
+        final AtomicInteger references = new AtomicInteger(1); // the tree's own reference
+
+        Segment(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            long size = this.channel.size();
+            this.dataEnd = read(size - Long.BYTES, Long.BYTES).getLong();
+            ByteBuffer footer = read(this.dataEnd, (int) (size - Long.BYTES - this.dataEnd));
+            this.entries = footer.getLong();
+            int indexSize = footer.getInt();
+            this.indexKeys = new String[indexSize];
+            this.indexOffsets = new long[indexSize];
+            for (int i = 0; i < indexSize; i++) {
+                byte[] key = new byte[footer.getInt()];
+                footer.get(key);
+                this.indexKeys[i] = new String(key, StandardCharsets.UTF_8);
+                this.indexOffsets[i] = footer.getLong();
+            }
+            this.bloom = new long[footer.getInt()];
+            for (int i = 0; i < this.bloom.length; i++) {
+                this.bloom[i] = footer.getLong();
+            }
+        }
+
+        /**
+         * Returns the stored value, TOMBSTONE for a deleted key, or null if the key is not here.
+         */
+        byte[] get(String key) {
+            if (this.indexKeys.length == 0 || !mightContain(this.bloom, key)) {
+                return null;
+            }
+            int block = Arrays.binarySearch(this.indexKeys, key);
+            if (block < 0) {
+                block = -block - 2; // the block whose first key precedes the key
+                if (block < 0) {
+                    return null;
+                }
+            }
+            long start = this.indexOffsets[block];
+            long end = block + 1 < this.indexOffsets.length ? this.indexOffsets[block + 1] : this.dataEnd;
+            ByteBuffer buffer = read(start, (int) (end - start));
+            while (buffer.hasRemaining()) {
+                String candidate = readKey(buffer);
+                int length = buffer.getInt();
+                int order = candidate.compareTo(key);
+                if (order == 0) {
+                    return readValue(buffer, length);
+                }
+                if (order > 0) {
+                    return null;
+                }
+                buffer.position(buffer.position() + Math.max(0, length));
+            }
+            return null;
+        }
+
+        Iterator<Map.Entry<String, byte[]>> iterator() {
+            return new Iterator<>() {
+                private static final int CHUNK = 1 << 16;
+                private long position;
+                private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+                @Override
+                public boolean hasNext() {
+                    return this.position + this.buffer.position() < dataEnd || this.buffer.hasRemaining();
+                }
+
+                @Override
+                public Map.Entry<String, byte[]> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int keyLength = peekInt();
+                    ensure(Integer.BYTES + keyLength + Integer.BYTES);
+                    String key = readKey(this.buffer);
+                    int valueLength = this.buffer.getInt();
+                    ensure(Math.max(0, valueLength));
+                    return new AbstractMap.SimpleImmutableEntry<>(key, readValue(this.buffer, valueLength));
+                }
+
+                private int peekInt() {
+                    ensure(Integer.BYTES);
+                    return this.buffer.getInt(this.buffer.position());
+                }
+
+                private void ensure(int bytes) {
+                    if (this.buffer.remaining() >= bytes) {
+                        return;
+                    }
+                    this.position += this.buffer.position();
+                    this.buffer = read(this.position, (int) Math.min(Math.max(CHUNK, bytes), dataEnd - this.position));
+                }
+            };
+        }
+
+        void retain() {
+            this.references.incrementAndGet();
+        }
+
+        void release() {
+            if (this.references.decrementAndGet() == 0) {
+                try {
+                    this.channel.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+
+        private ByteBuffer read(long position, int length) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("Truncated segment " + this.file);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return buffer.flip();
+        }
+
+        private static String readKey(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            String key = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return key;
+        }
+
+        private static byte[] readValue(ByteBuffer buffer, int length) {
+            if (length < 0) {
+                return TOMBSTONE;
+            }
+            byte[] value = new byte[length];
+            buffer.get(value);
+            return value;
+        }
+    }
+
+    /**
+     * Merges sorted sources into one sorted stream. Sources are ordered newest first, and for a
+     * key present in several sources only the newest value is returned. Tombstones are returned
+     * only if asked for.
+     */
+    private static final class MergingIterator implements Iterator<Map.Entry<String, byte[]>> {
+        private final PriorityQueue<Head> heads = new PriorityQueue<>();
+        private final boolean tombstones;
+        private final Runnable onExhausted;
+        private Map.Entry<String, byte[]> next;
+
+        MergingIterator(List<Iterator<Map.Entry<String, byte[]>>> sources, boolean tombstones, Runnable onExhausted) {
+            this.tombstones = tombstones;
+            this.onExhausted = onExhausted;
+            for (int i = 0; i < sources.size(); i++) {
+                Iterator<Map.Entry<String, byte[]>> source = sources.get(i);
+                if (source.hasNext()) {
+                    this.heads.add(new Head(source.next(), source, i));
+                }
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Map.Entry<String, byte[]> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, byte[]> current = this.next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            while (!this.heads.isEmpty()) {
+                Head newest = this.heads.poll();
+                Map.Entry<String, byte[]> entry = newest.entry;
+                // Skip older versions of the same key
+                while (!this.heads.isEmpty() && this.heads.peek().entry.getKey().equals(entry.getKey())) {
+                    refill(this.heads.poll());
+                }
+                refill(newest);
+                if (entry.getValue() != TOMBSTONE || this.tombstones) {
+                    this.next = entry;
+                    return;
+                }
+            }
+            this.next = null;
+            this.onExhausted.run();
+        }
+
+        private void refill(Head head) {
+            if (head.source.hasNext()) {
+                head.entry = head.source.next();
+                this.heads.add(head);
+            }
+        }
+
+        private static final class Head implements Comparable<Head> {
+            Map.Entry<String, byte[]> entry;
+            final Iterator<Map.Entry<String, byte[]>> source;
+            final int age; // lower is newer
+
+            Head(Map.Entry<String, byte[]> entry, Iterator<Map.Entry<String, byte[]>> source, int age) {
+                this.entry = entry;
+                this.source = source;
+                this.age = age;
+            }
+
+            @Override
+            public int compareTo(Head other) {
+                int order = this.entry.getKey().compareTo(other.entry.getKey());
+                return order != 0 ? order : Integer.compare(this.age, other.age);
+            }
+        }
+    }
+}
@@ -0,0 +1,648 @@
+package Storage;
+
+import Model.Book;
+import Model.Isbn;
+import Model.User;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps the catalog in columns of native memory, so a catalog of tens of millions of books adds
+ * almost nothing to the Java heap or to garbage collection pauses.
+ *
+ * <p>Books are stored as rows in chunks of {@value #CHUNK_ROWS}. Each chunk is one
+ * {@link MemorySegment} laid out column by column: the packed ISBN-13 key ({@link Isbn}), the
+ * position of the book's text, the publication year, the borrower and the availability flag.
+ * The ISBN as added, the title and the author are stored as length-prefixed UTF-8 in an
+ * append-only text arena, and an open-addressing table of row numbers, also off-heap, finds a
+ * row by ISBN key. Nothing is ever moved, so only the arena is freed, on {@link #close()}.
+ *
+ * <p>Books handed out by the store are flyweight views holding only a row number; their getters
+ * decode the columns on each call. Like {@link Service.CompactCatalog}, the store only accepts
+ * books with a valid ISBN-10 or ISBN-13, and two spellings of the same ISBN are the same book.
+ * Members stay on the heap.
+ *
+ * <p>Only adding a book and closing the store take the write lock. Checkouts and returns of books
+ * already stored run under the read lock and change the borrower and availability columns by
+ * compare-and-set, so circulation on different books proceeds in parallel and two threads racing
+ * for the same book see exactly one of them succeed. A view's ISBN, title, author and year never
+ * change once its row is written, so views read them without the lock; the chunk arrays they go
+ * through are volatile, so a view never sees an array that is being grown under the write lock
+ * half published. Views hash and compare by the packed ISBN key they are created with and keep
+ * their ISBN once it is read, so a view already in a set can still be found after the store is
+ * closed; its other getters can no longer be used.
+ */
+public class OffHeapStore implements LibraryStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    // Column offsets within a row chunk, widest first so every value is aligned
+    private static final long KEYS = 0;
+    private static final long TEXT = KEYS + 8L * CHUNK_ROWS;
+    private static final long YEARS = TEXT + 8L * CHUNK_ROWS;
+    private static final long BORROWERS = YEARS + 4L * CHUNK_ROWS;
+    private static final long AVAILABLE = BORROWERS + 4L * CHUNK_ROWS;
+    private static final long CHUNK_BYTES = AVAILABLE + 4L * CHUNK_ROWS;
+    // Atomic access to the int columns, indexed in ints from the start of a chunk
+    private static final VarHandle INTS = ValueLayout.JAVA_INT.arrayElementVarHandle();
+    private static final int TEXT_CHUNK_BYTES = 1 << 22;
+    private static final int INITIAL_INDEX_SLOTS = 1 << 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Arena arena = Arena.ofShared();
+    // Volatile so lock-free views see the chunk of their row whenever these arrays are replaced
+    private volatile MemorySegment[] rows = new MemorySegment[0];
+    private int rowCount;
+    private volatile MemorySegment[] text = new MemorySegment[0];
+    private long textEnd; // arena position of the next free byte
+    private Arena indexArena;
+    private MemorySegment index; // row + 1 per slot, 0 when empty
+    private int indexMask;
+    private final AtomicInteger availableCount = new AtomicInteger();
+    private final AtomicInteger loanCount = new AtomicInteger();
+    private final Map<Integer, User> borrowers = new ConcurrentHashMap<>(); // by borrower column value
+    private final Map<User, Integer> borrowerRefs = new ConcurrentHashMap<>();
+    private final AtomicInteger lastBorrowerRef = new AtomicInteger();
+    private final Set<Book> availableBooks = new AvailableBooks();
+    private final Map<Book, User> loans = new Loans();
+    private final Set<User> members = ConcurrentHashMap.newKeySet();
+    private boolean closed;
+
+    /**
+     * Constructs an empty store.
+     */
+    public OffHeapStore() {
+        this.indexArena = Arena.ofShared();
+        this.index = newIndex(this.indexArena, INITIAL_INDEX_SLOTS);
+        this.indexMask = INITIAL_INDEX_SLOTS - 1;
+    }
+
+    @Override
+    public Set<Book> availableBooks() {
+        return this.availableBooks;
+    }
+
+    @Override
+    public Map<Book, User> loans() {
+        return this.loans;
+    }
+
+    @Override
+    public Set<User> members() {
+        return this.members;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public boolean isResident() {
+        return false;
+    }
+
+    @Override
+    public Optional<Book> findBook(String isbn) {
+        long key = Isbn.tryParse(isbn);
+        if (key == Isbn.INVALID) {
+            return Optional.empty();
+        }
+        this.lock.readLock().lock();
+        try {
+            int row = find(key);
+            return row < 0 ? Optional.empty() : Optional.of(new BookView(row, key));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of books stored, available or not.
+     */
+    public int getBookCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.rowCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the native memory held by the store, in bytes.
+     */
+    public long getOffHeapBytes() {
+        this.lock.readLock().lock();
+        try {
+            return this.rows.length * CHUNK_BYTES + (long) this.text.length * TEXT_CHUNK_BYTES + this.index.byteSize();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Frees the native memory. Books handed out by the store can no longer be read.
+     */
+    @Override
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            if (!this.closed) {
+                this.closed = true;
+                this.indexArena.close();
+                this.arena.close();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the row of a key, or -1. Called with the lock held.
+     */
+    private int find(long key) {
+        for (int slot = mix(key) & this.indexMask; ; slot = (slot + 1) & this.indexMask) {
+            int entry = this.index.getAtIndex(ValueLayout.JAVA_INT, slot);
+            if (entry == 0) {
+                return -1;
+            }
+            if (keyAt(entry - 1) == key) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Applies an update to the row of a book. A book already stored is updated under the read
+     * lock; a new book is appended under the write lock first, as neither available nor on loan.
+     */
+    private <T> T updateRow(Book book, long key, IntFunction<T> update) {
+        this.lock.readLock().lock();
+        try {
+            int row = find(key);
+            if (row >= 0) {
+                return update.apply(row);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        this.lock.writeLock().lock();
+        try {
+            return update.apply(findOrAppend(book, key));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the row of a book, appending it as neither available nor on loan if it is new.
+     * Called with the write lock held.
+     */
+    private int findOrAppend(Book book, long key) {
+        int row = find(key);
+        if (row >= 0) {
+            return row;
+        }
+        row = this.rowCount;
+        if (row >>> CHUNK_BITS == this.rows.length) {
+            MemorySegment[] grown = Arrays.copyOf(this.rows, this.rows.length + 1);
+            grown[grown.length - 1] = this.arena.allocate(CHUNK_BYTES, Long.BYTES);
+            this.rows = grown; // published complete
+        }
+        long textPosition = appendText(book);
+        MemorySegment chunk = this.rows[row >>> CHUNK_BITS];
+        long i = row & CHUNK_MASK;
+        chunk.set(ValueLayout.JAVA_LONG, KEYS + 8 * i, key);
+        chunk.set(ValueLayout.JAVA_LONG, TEXT + 8 * i, textPosition);
+        chunk.set(ValueLayout.JAVA_INT, YEARS + 4 * i, book.getPublishYear());
+        chunk.set(ValueLayout.JAVA_INT, BORROWERS + 4 * i, 0);
+        chunk.set(ValueLayout.JAVA_INT, AVAILABLE + 4 * i, 0);
+        this.rowCount++;
+
+        if (2L * this.rowCount > this.indexMask + 1) {
+            resizeIndex();
+        }
+        insert(this.index, this.indexMask, key, row);
+        return row;
+    }
+
+    /**
+     * Writes a book's ISBN, title and author to the text arena and returns their position.
+     * A book's text never spans two arena chunks.
+     */
+    private long appendText(Book book) {
+        byte[][] fields = {utf8(book.getIsbn()), utf8(book.getTitle()), utf8(book.getAuthor())};
+        int size = 0;
+        for (byte[] field : fields) {
+            size += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+        if (size > TEXT_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Book text too long: " + size + " bytes");
+        }
+        long position = this.textEnd;
+        if (position % TEXT_CHUNK_BYTES + size > TEXT_CHUNK_BYTES) {
+            position = (position / TEXT_CHUNK_BYTES + 1) * TEXT_CHUNK_BYTES;
+        }
+        int chunkIndex = (int) (position / TEXT_CHUNK_BYTES);
+        if (chunkIndex == this.text.length) {
+            MemorySegment[] grown = Arrays.copyOf(this.text, chunkIndex + 1);
+            grown[chunkIndex] = this.arena.allocate(TEXT_CHUNK_BYTES, 1);
+            this.text = grown; // published complete
+        }
+        MemorySegment chunk = this.text[chunkIndex];
+        long offset = position % TEXT_CHUNK_BYTES;
+        for (byte[] field : fields) {
+            chunk.set(ValueLayout.JAVA_INT_UNALIGNED, offset, field == null ? -1 : field.length);
+            offset += Integer.BYTES;
+            if (field != null) {
+                MemorySegment.copy(field, 0, chunk, ValueLayout.JAVA_BYTE, offset, field.length);
+                offset += field.length;
+            }
+        }
+        this.textEnd = position + size;
+        return position;
+    }
+
+    /**
+     * Decodes one of a row's text fields: 0 for the ISBN, 1 for the title, 2 for the author.
+     */
+    private String textAt(int row, int field) {
+        long position = column(row).get(ValueLayout.JAVA_LONG, TEXT + 8L * (row & CHUNK_MASK));
+        MemorySegment chunk = this.text[(int) (position / TEXT_CHUNK_BYTES)];
+        long offset = position % TEXT_CHUNK_BYTES;
+        for (int f = 0; ; f++) {
+            int length = chunk.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+            offset += Integer.BYTES;
+            if (f == field) {
+                if (length < 0) {
+                    return null;
+                }
+                byte[] bytes = new byte[length];
+                MemorySegment.copy(chunk, ValueLayout.JAVA_BYTE, offset, bytes, 0, length);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            offset += Math.max(length, 0);
+        }
+    }
+
+    private MemorySegment column(int row) {
+        return this.rows[row >>> CHUNK_BITS];
+    }
+
+    private long keyAt(int row) {
+        return column(row).get(ValueLayout.JAVA_LONG, KEYS + 8L * (row & CHUNK_MASK));
+    }
+
+    private int yearAt(int row) {
+        return column(row).get(ValueLayout.JAVA_INT, YEARS + 4L * (row & CHUNK_MASK));
+    }
+
+    private int borrowerAt(int row) {
+        return (int) INTS.getVolatile(column(row), (BORROWERS >>> 2) + (row & CHUNK_MASK));
+    }
+
+    private int getAndSetBorrower(int row, int ref) {
+        return (int) INTS.getAndSet(column(row), (BORROWERS >>> 2) + (row & CHUNK_MASK), ref);
+    }
+
+    private boolean casBorrower(int row, int expected, int ref) {
+        return INTS.compareAndSet(column(row), (BORROWERS >>> 2) + (row & CHUNK_MASK), expected, ref);
+    }
+
+    private boolean isAvailable(int row) {
+        return (int) INTS.getVolatile(column(row), (AVAILABLE >>> 2) + (row & CHUNK_MASK)) != 0;
+    }
+
+    /**
+     * Flips a row's availability flag, returning false if it already had the requested value.
+     */
+    private boolean casAvailable(int row, boolean available) {
+        return INTS.compareAndSet(column(row), (AVAILABLE >>> 2) + (row & CHUNK_MASK), available ? 0 : 1, available ? 1 : 0);
+    }
+
+    /**
+     * Returns the borrower column value for a user, registering the user if needed. The latest
+     * instance seen for a user is the one handed back.
+     */
+    private int refOf(User user) {
+        int ref = this.borrowerRefs.computeIfAbsent(user, u -> this.lastBorrowerRef.incrementAndGet());
+        this.borrowers.put(ref, user);
+        return ref;
+    }
+
+    private User userOf(int ref) {
+        return ref == 0 ? null : this.borrowers.get(ref);
+    }
+
+    private void resizeIndex() {
+        int slots = (this.indexMask + 1) * 2;
+        Arena resized = Arena.ofShared();
+        MemorySegment table = newIndex(resized, slots);
+        for (int row = 0; row < this.rowCount - 1; row++) {
+            insert(table, slots - 1, keyAt(row), row);
+        }
+        this.indexArena.close();
+        this.indexArena = resized;
+        this.index = table;
+        this.indexMask = slots - 1;
+    }
+
+    private static MemorySegment newIndex(Arena arena, int slots) {
+        MemorySegment table = arena.allocate((long) slots * Integer.BYTES, Integer.BYTES);
+        table.fill((byte) 0);
+        return table;
+    }
+
+    private static void insert(MemorySegment table, int mask, long key, int row) {
+        int slot = mix(key) & mask;
+        while (table.getAtIndex(ValueLayout.JAVA_INT, slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.setAtIndex(ValueLayout.JAVA_INT, slot, row + 1);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A book read from its row on each call, except for the ISBN, which is kept once read.
+     */
+    private final class BookView extends Book {
+        private final int row;
+        private final long key;
+        private String isbn; // racy but idempotent, like String's hash
+
+        BookView(int row, long key) {
+            this.row = row;
+            this.key = key;
+        }
+
+        @Override
+        public String getIsbn() {
+            String isbn = this.isbn;
+            if (isbn == null) {
+                isbn = textAt(this.row, 0);
+                this.isbn = isbn;
+            }
+            return isbn;
+        }
+
+        @Override
+        public String getTitle() {
+            return textAt(this.row, 1);
+        }
+
+        @Override
+        public String getAuthor() {
+            return textAt(this.row, 2);
+        }
+
+        @Override
+        public int getPublishYear() {
+            return yearAt(this.row);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof BookView view && view.owner() == OffHeapStore.this) {
+                return this.key == view.key;
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode(); // from the kept ISBN, so it matches the heap book it was added as
+        }
+
+        private OffHeapStore owner() {
+            return OffHeapStore.this;
+        }
+    }
+
+    /**
+     * Walks the rows, taking the read lock for each step. The element of a row is built when the
+     * row is reached, so it reflects one reading of columns that may change concurrently.
+     */
+    private abstract class RowIterator<E> implements Iterator<E> {
+        private int row;
+        private E next;
+
+        RowIterator() {
+            advance();
+        }
+
+        /**
+         * Returns the element for a row, or null to skip it.
+         */
+        abstract E element(int row);
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public E next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = this.next;
+            advance();
+            return element;
+        }
+
+        private void advance() {
+            lock.readLock().lock();
+            try {
+                this.next = null;
+                while (this.next == null && this.row < rowCount) {
+                    this.next = element(this.row++);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private final class AvailableBooks extends AbstractSet<Book> {
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Book book)) {
+                return false;
+            }
+            long key = Isbn.tryParse(book.getIsbn());
+            if (key == Isbn.INVALID) {
+                return false;
+            }
+            lock.readLock().lock();
+            try {
+                int row = find(key);
+                return row >= 0 && isAvailable(row);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean add(Book book) {
+            long key = Isbn.parse(book.getIsbn());
+            boolean added = updateRow(book, key, row -> casAvailable(row, true));
+            if (added) {
+                availableCount.incrementAndGet();
+            }
+            return added;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Book book)) {
+                return false;
+            }
+            long key = Isbn.tryParse(book.getIsbn());
+            if (key == Isbn.INVALID) {
+                return false;
+            }
+            lock.readLock().lock();
+            try {
+                int row = find(key);
+                if (row < 0 || !casAvailable(row, false)) {
+                    return false;
+                }
+                availableCount.decrementAndGet();
+                return true;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Iterator<Book> iterator() {
+            return new RowIterator<>() {
+                @Override
+                Book element(int row) {
+                    return isAvailable(row) ? new BookView(row, keyAt(row)) : null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return availableCount.get();
+        }
+    }
+
+    private final class Loans extends AbstractMap<Book, User> {
+        @Override
+        public User get(Object key) {
+            if (!(key instanceof Book book)) {
+                return null;
+            }
+            long isbnKey = Isbn.tryParse(book.getIsbn());
+            if (isbnKey == Isbn.INVALID) {
+                return null;
+            }
+            lock.readLock().lock();
+            try {
+                int row = find(isbnKey);
+                return row < 0 ? null : userOf(borrowerAt(row));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public User put(Book book, User user) {
+            long key = Isbn.parse(book.getIsbn());
+            int ref = refOf(user);
+            int previous = updateRow(book, key, row -> getAndSetBorrower(row, ref));
+            if (previous == 0) {
+                loanCount.incrementAndGet();
+            }
+            return userOf(previous);
+        }
+
+        @Override
+        public User remove(Object key) {
+            if (!(key instanceof Book book)) {
+                return null;
+            }
+            long isbnKey = Isbn.tryParse(book.getIsbn());
+            if (isbnKey == Isbn.INVALID) {
+                return null;
+            }
+            lock.readLock().lock();
+            try {
+                int row = find(isbnKey);
+                if (row < 0) {
+                    return null;
+                }
+                int previous;
+                do {
+                    previous = borrowerAt(row);
+                    if (previous == 0) {
+                        return null;
+                    }
+                } while (!casBorrower(row, previous, 0));
+                loanCount.decrementAndGet();
+                return userOf(previous);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            return loanCount.get();
+        }
+
+        @Override
+        public Set<Entry<Book, User>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Book, User>> iterator() {
+                    return new RowIterator<>() {
+                        @Override
+                        Entry<Book, User> element(int row) {
+                            int borrower = borrowerAt(row);
+                            return borrower == 0 ? null : new SimpleImmutableEntry<>(new BookView(row, keyAt(row)), userOf(borrower));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return Loans.this.size();
+                }
+            };
+        }
+    }
+}
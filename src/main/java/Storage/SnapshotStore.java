@@ -0,0 +1,441 @@
+package Storage;
+
+import Model.Book;
+import Model.User;
+import Persistence.CatalogSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs a library directly on a memory-mapped {@link CatalogSnapshot}, so a large catalog starts
+ * without replaying it into the heap.
+ *
+ * <p>The snapshot is never written. Books are materialized from the mapping when they are first
+ * accessed, and every change is kept in a heap overlay: the new state of each snapshot book that
+ * was checked out, returned or removed, keyed by its position in the snapshot, and the books added
+ * since it was written. The overlay grows with the number of books changed, not with the catalog.
+ * Write a new snapshot with {@link CatalogSnapshot#write} to keep the changes; pair the store with
+ * a {@link Persistence.LibraryJournal} if every change must survive a crash.
+ *
+ * <p>Opening reads the member records and scans the borrower column once, to count the available
+ * books and find the loans. Users are shared: every borrower read from the snapshot resolves to
+ * one instance per user record, and members to the same instance.
+ */
+public class SnapshotStore implements LibraryStore {
+    private final CatalogSnapshot snapshot;
+    private final AtomicReferenceArray<User> users; // by user record, materialized on first access
+    private final int[] snapshotLoans; // positions of the books on loan in the snapshot
+    private final Map<Integer, BookState> changed = new ConcurrentHashMap<>(); // by snapshot position
+    private final Map<String, AddedBook> added = new ConcurrentHashMap<>(); // by ISBN
+    private final Map<String, User> membersById = new ConcurrentHashMap<>();
+    private final AtomicInteger availableCount = new AtomicInteger();
+    private final AtomicInteger loanCount = new AtomicInteger();
+    private final Set<Book> availableBooks = new AvailableBooks();
+    private final Map<Book, User> loans = new Loans();
+    private final Set<User> members = new Members();
+
+    private SnapshotStore(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.users = new AtomicReferenceArray<>(snapshot.getUserCount());
+        for (int i = 0; i < snapshot.getUserCount(); i++) {
+            if (snapshot.isMember(i)) {
+                User user = user(i);
+                this.membersById.put(user.getId(), user);
+            }
+        }
+        int[] onLoan = new int[16];
+        int loanTotal = 0;
+        for (int i = 0; i < snapshot.getBookCount(); i++) {
+            if (snapshot.getBorrowerIndex(i) < 0) {
+                continue;
+            }
+            if (loanTotal == onLoan.length) {
+                onLoan = Arrays.copyOf(onLoan, loanTotal * 2);
+            }
+            onLoan[loanTotal++] = i;
+        }
+        this.snapshotLoans = Arrays.copyOf(onLoan, loanTotal);
+        this.availableCount.set(snapshot.getBookCount() - loanTotal);
+        this.loanCount.set(loanTotal);
+    }
+
+    /**
+     * Opens a store over a snapshot file.
+     *
+     * @param file - a file written by {@link CatalogSnapshot#write}.
+     * @return - the open store.
+     * @throws IOException - if the file cannot be read or is not a valid snapshot.
+     */
+    public static SnapshotStore open(Path file) throws IOException {
+        return new SnapshotStore(CatalogSnapshot.open(file));
+    }
+
+    /**
+     * Creates a store over a snapshot that is already open.
+     *
+     * @param snapshot - the snapshot to run on.
+     * @return - a store with no changes on top of the snapshot.
+     */
+    public static SnapshotStore of(CatalogSnapshot snapshot) {
+        return new SnapshotStore(snapshot);
+    }
+
+    @Override
+    public Set<Book> availableBooks() {
+        return this.availableBooks;
+    }
+
+    @Override
+    public Map<Book, User> loans() {
+        return this.loans;
+    }
+
+    @Override
+    public Set<User> members() {
+        return this.members;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public boolean isResident() {
+        return false;
+    }
+
+    @Override
+    public Optional<Book> findBook(String isbn) {
+        int index = this.snapshot.indexOf(isbn);
+        if (index >= 0) {
+            BookState state = state(index);
+            return state.available || state.borrower != null ? Optional.of(this.snapshot.getBook(index)) : Optional.empty();
+        }
+        AddedBook book = isbn == null ? null : this.added.get(isbn);
+        return book == null ? Optional.empty() : Optional.of(book.book);
+    }
+
+    /**
+     * Returns the number of books whose state differs from the snapshot, including added books.
+     */
+    public int getChangedBookCount() {
+        return this.changed.size() + this.added.size();
+    }
+
+    // Getters
+    public CatalogSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    private User user(int index) {
+        User user = this.users.get(index);
+        if (user == null) {
+            user = this.snapshot.getUser(index);
+            if (!this.users.compareAndSet(index, null, user)) {
+                user = this.users.get(index);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Returns the current state of the book at a snapshot position.
+     */
+    private BookState state(int index) {
+        BookState state = this.changed.get(index);
+        if (state != null) {
+            return state;
+        }
+        int borrower = this.snapshot.getBorrowerIndex(index);
+        return borrower < 0 ? BookState.AVAILABLE : BookState.of(false, user(borrower));
+    }
+
+    private BookState state(Book book) {
+        int index = this.snapshot.indexOf(book.getIsbn());
+        if (index >= 0) {
+            return state(index);
+        }
+        AddedBook entry = this.added.get(book.getIsbn());
+        return entry == null ? BookState.ABSENT : entry.state;
+    }
+
+    private void update(Book book, BookState state) {
+        int index = this.snapshot.indexOf(book.getIsbn());
+        if (index >= 0) {
+            this.changed.put(index, state);
+        } else if (state == BookState.ABSENT) {
+            this.added.remove(book.getIsbn());
+        } else {
+            AddedBook entry = this.added.get(book.getIsbn());
+            this.added.put(book.getIsbn(), new AddedBook(entry == null ? book : entry.book, state));
+        }
+    }
+
+    /**
+     * Whether a book is on the shelf and who has it. Shared constants cover the common states.
+     */
+    private static final class BookState {
+        static final BookState ABSENT = new BookState(false, null);
+        static final BookState AVAILABLE = new BookState(true, null);
+
+        final boolean available;
+        final User borrower;
+
+        private BookState(boolean available, User borrower) {
+            this.available = available;
+            this.borrower = borrower;
+        }
+
+        static BookState of(boolean available, User borrower) {
+            if (borrower == null) {
+                return available ? AVAILABLE : ABSENT;
+            }
+            return new BookState(available, borrower);
+        }
+    }
+
+    /**
+     * A book that is not in the snapshot, with its state.
+     */
+    private static final class AddedBook {
+        final Book book;
+        final BookState state;
+
+        AddedBook(Book book, BookState state) {
+            this.book = book;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Walks the snapshot positions from an array of candidates, then the changed snapshot books
+     * and the added books, skipping whatever doesn't match.
+     */
+    private abstract class OverlayIterator<T> implements Iterator<T> {
+        private final int candidateCount;
+        private final int[] candidates; // null to walk every snapshot position
+        private final Iterator<Map.Entry<Integer, BookState>> changes;
+        private final Iterator<AddedBook> additions = added.values().iterator();
+        private int position;
+        private T next;
+
+        OverlayIterator(int[] candidates) {
+            this.candidates = candidates;
+            this.candidateCount = candidates == null ? snapshot.getBookCount() : candidates.length;
+            // Changed books outside the candidates are found through the overlay instead
+            this.changes = candidates == null ? Collections.emptyIterator() : changed.entrySet().iterator();
+        }
+
+        /**
+         * Returns the element for a snapshot book in the given state, or null to skip it.
+         */
+        abstract T fromSnapshot(int index, BookState state);
+
+        /**
+         * Returns true if a changed snapshot book outside the candidates may match.
+         */
+        abstract boolean outsideCandidates(int index);
+
+        abstract T fromAdded(AddedBook book);
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == null) {
+                if (this.position < this.candidateCount) {
+                    int index = this.candidates == null ? this.position : this.candidates[this.position];
+                    this.position++;
+                    this.next = fromSnapshot(index, state(index));
+                } else if (this.changes.hasNext()) {
+                    Map.Entry<Integer, BookState> change = this.changes.next();
+                    if (outsideCandidates(change.getKey())) {
+                        this.next = fromSnapshot(change.getKey(), change.getValue());
+                    }
+                } else if (this.additions.hasNext()) {
+                    this.next = fromAdded(this.additions.next());
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = this.next;
+            this.next = null;
+            return result;
+        }
+    }
+
+    private final class AvailableBooks extends AbstractSet<Book> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Book book && state(book).available;
+        }
+
+        @Override
+        public boolean add(Book book) {
+            BookState state = state(book);
+            if (state.available) {
+                return false;
+            }
+            update(book, BookState.of(true, state.borrower));
+            availableCount.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Book book)) {
+                return false;
+            }
+            BookState state = state(book);
+            if (!state.available) {
+                return false;
+            }
+            update(book, BookState.of(false, state.borrower));
+            availableCount.decrementAndGet();
+            return true;
+        }
+
+        @Override
+        public Iterator<Book> iterator() {
+            return new OverlayIterator<>(null) {
+                @Override
+                Book fromSnapshot(int index, BookState state) {
+                    return state.available ? snapshot.getBook(index) : null;
+                }
+
+                @Override
+                boolean outsideCandidates(int index) {
+                    return false;
+                }
+
+                @Override
+                Book fromAdded(AddedBook book) {
+                    return book.state.available ? book.book : null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return availableCount.get();
+        }
+    }
+
+    private final class Loans extends AbstractMap<Book, User> {
+        @Override
+        public User get(Object key) {
+            return key instanceof Book book ? state(book).borrower : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public User put(Book book, User user) {
+            BookState state = state(book);
+            update(book, BookState.of(state.available, user));
+            if (state.borrower == null) {
+                loanCount.incrementAndGet();
+            }
+            return state.borrower;
+        }
+
+        @Override
+        public User remove(Object key) {
+            if (!(key instanceof Book book)) {
+                return null;
+            }
+            BookState state = state(book);
+            if (state.borrower == null) {
+                return null;
+            }
+            update(book, BookState.of(state.available, null));
+            loanCount.decrementAndGet();
+            return state.borrower;
+        }
+
+        @Override
+        public int size() {
+            return loanCount.get();
+        }
+
+        @Override
+        public Set<Entry<Book, User>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Book, User>> iterator() {
+                    return new OverlayIterator<>(snapshotLoans) {
+                        @Override
+                        Entry<Book, User> fromSnapshot(int index, BookState state) {
+                            return state.borrower == null ? null : new SimpleImmutableEntry<>(snapshot.getBook(index), state.borrower);
+                        }
+
+                        @Override
+                        boolean outsideCandidates(int index) {
+                            return snapshot.getBorrowerIndex(index) < 0;
+                        }
+
+                        @Override
+                        Entry<Book, User> fromAdded(AddedBook book) {
+                            return book.state.borrower == null ? null : new SimpleImmutableEntry<>(book.book, book.state.borrower);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return loanCount.get();
+                }
+            };
+        }
+    }
+
+    private final class Members extends AbstractSet<User> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof User user && membersById.containsKey(user.getId());
+        }
+
+        @Override
+        public boolean add(User user) {
+            return membersById.putIfAbsent(user.getId(), user) == null;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof User user && membersById.remove(user.getId()) != null;
+        }
+
+        @Override
+        public Iterator<User> iterator() {
+            return Collections.unmodifiableCollection(membersById.values()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return membersById.size();
+        }
+    }
+}
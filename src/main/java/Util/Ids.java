@@ -0,0 +1,35 @@
+package Util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fast, non-blocking generator of random version 4 UUIDs.
+ *
+ * <p>{@link UUID#randomUUID()} draws from a shared {@code SecureRandom}, which serializes threads
+ * during bulk registration. These ids come from {@link ThreadLocalRandom}, so every thread
+ * generates independently. They are unique for practical purposes but predictable, so they must
+ * not be used as secrets.
+ */
+public final class Ids {
+
+    private Ids() {
+    }
+
+    /**
+     * Returns a random version 4 UUID.
+     */
+    public static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L; // version 4
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48); // IETF variant
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Returns a random version 4 UUID in its standard string form.
+     */
+    public static String randomId() {
+        return randomUuid().toString();
+    }
+}
@@ -0,0 +1,217 @@
+package Util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to primitive {@code int} values.
+ * Uses linear probing with backward-shift deletion, so lookups, updates and removals of
+ * existing keys never allocate. Not thread-safe.
+ */
+public class LongIntHashMap {
+    private static final long FREE = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final int noValue;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasFreeKey; // key 0 is stored outside the table since it marks free slots
+    private int freeKeyValue;
+
+    /**
+     * Constructs a map sized for the expected number of entries.
+     *
+     * @param expectedSize - number of entries to hold without resizing.
+     * @param noValue - value returned by lookups for absent keys.
+     */
+    public LongIntHashMap(int expectedSize, int noValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        this.noValue = noValue;
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Returns the value mapped to the key, or the configured no-value.
+     */
+    public int get(long key) {
+        if (key == FREE) {
+            return this.hasFreeKey ? this.freeKeyValue : this.noValue;
+        }
+        int index = mix(key) & this.mask;
+        long current;
+        while ((current = this.keys[index]) != FREE) {
+            if (current == key) {
+                return this.values[index];
+            }
+            index = (index + 1) & this.mask;
+        }
+        return this.noValue;
+    }
+
+    /**
+     * Returns true if the key is present.
+     */
+    public boolean containsKey(long key) {
+        if (key == FREE) {
+            return this.hasFreeKey;
+        }
+        int index = mix(key) & this.mask;
+        long current;
+        while ((current = this.keys[index]) != FREE) {
+            if (current == key) {
+                return true;
+            }
+            index = (index + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @return - the previous value, or the configured no-value if the key was absent.
+     */
+    public int put(long key, int value) {
+        if (key == FREE) {
+            int previous = this.hasFreeKey ? this.freeKeyValue : this.noValue;
+            if (!this.hasFreeKey) {
+                this.hasFreeKey = true;
+                this.size++;
+            }
+            this.freeKeyValue = value;
+            return previous;
+        }
+
+        int index = mix(key) & this.mask;
+        long current;
+        while ((current = this.keys[index]) != FREE) {
+            if (current == key) {
+                int previous = this.values[index];
+                this.values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & this.mask;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+        if (++this.size > this.resizeAt) {
+            rehash(this.keys.length << 1);
+        }
+        return this.noValue;
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @return - the removed value, or the configured no-value if the key was absent.
+     */
+    public int remove(long key) {
+        if (key == FREE) {
+            if (!this.hasFreeKey) {
+                return this.noValue;
+            }
+            this.hasFreeKey = false;
+            this.size--;
+            return this.freeKeyValue;
+        }
+
+        int index = mix(key) & this.mask;
+        long current;
+        while ((current = this.keys[index]) != FREE) {
+            if (current == key) {
+                int previous = this.values[index];
+                shiftBack(index);
+                this.size--;
+                return previous;
+            }
+            index = (index + 1) & this.mask;
+        }
+        return this.noValue;
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns true if the map has no entries.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes all entries, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, FREE);
+        this.hasFreeKey = false;
+        this.size = 0;
+    }
+
+    // Closes the gap left at 'gap' by moving later entries of the same probe run backwards.
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & this.mask;
+            long key = this.keys[index];
+            if (key == FREE) {
+                break;
+            }
+            int home = mix(key) & this.mask;
+            // Move the entry if its home slot is not cyclically within (gap, index]
+            if (gap <= index ? (home <= gap || home > index) : (home <= gap && home > index)) {
+                this.keys[gap] = key;
+                this.values[gap] = this.values[index];
+                gap = index;
+            }
+        }
+        this.keys[gap] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int index = mix(key) & this.mask;
+                while (this.keys[index] != FREE) {
+                    index = (index + 1) & this.mask;
+                }
+                this.keys[index] = key;
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(4L, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // Fibonacci hashing spreads sequential ISBNs across the table.
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,61 @@
+package Util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A clock that only moves when told to, for simulating time in tests and benchmarks.
+ * Reads and updates are thread-safe.
+ */
+public class ManualClock extends Clock {
+    private volatile long millis;
+
+    /**
+     * Constructs a clock stopped at the given instant.
+     *
+     * @param start - the initial time.
+     */
+    public ManualClock(Instant start) {
+        this.millis = start.toEpochMilli();
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration - how far to move, not negative.
+     * @return - the new time.
+     */
+    public synchronized Instant advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Cannot move a clock backwards");
+        }
+        this.millis += duration.toMillis();
+        return instant();
+    }
+
+    @Override
+    public long millis() {
+        return this.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(this.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (!ZoneOffset.UTC.equals(zone)) {
+            throw new UnsupportedOperationException("ManualClock runs in UTC only");
+        }
+        return this;
+    }
+}
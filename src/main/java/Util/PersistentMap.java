@@ -0,0 +1,375 @@
+package Util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash map whose updates return a new map sharing structure with the old one.
+ *
+ * <p>Entries are kept in a hash array mapped trie: each node covers five bits of the key's hash
+ * and stores only the branches in use, indexed through a 32-bit bitmap. {@link #plus} and
+ * {@link #minus} copy the nodes on the path to the key, at most seven small arrays, and leave the
+ * rest of the trie shared, so every earlier version stays valid and unchanged. Lookups are
+ * O(log32 n). The map is safe to read from any thread once published. Null keys are not allowed.
+ *
+ * @param <K> - the type of keys.
+ * @param <V> - the type of values.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_DEPTH = 8; // seven bitmap levels for 32 hash bits, then a collision node
+    private static final Object NOT_FOUND = new Object();
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a map with the key mapped to the value.
+     *
+     * @param key - the key, not null.
+     * @param value - the value.
+     * @return - the new map, or this map if the key is already mapped to that value.
+     */
+    public PersistentMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        boolean[] added = new boolean[1];
+        Node updated = this.root.put(0, hash(key), key, value, added);
+        if (updated == this.root) {
+            return this;
+        }
+        return new PersistentMap<>(updated, added[0] ? this.size + 1 : this.size);
+    }
+
+    /**
+     * Returns a map without the key.
+     *
+     * @param key - the key to remove.
+     * @return - the new map, or this map if the key is absent.
+     */
+    public PersistentMap<K, V> minus(Object key) {
+        if (key == null) {
+            return this;
+        }
+        Node updated = this.root.remove(0, hash(key), key);
+        if (updated == this.root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentMap<>(updated, this.size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return key == null ? null : (V) this.root.find(0, hash(key), key, null);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && this.root.find(0, hash(key), key, NOT_FOUND) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new TrieIterator<>(PersistentMap.this.root) {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Entry<K, V> element(Object key, Object value) {
+                        return new SimpleImmutableEntry<>((K) key, (V) value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return PersistentMap.this.size;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the keys that creates no entry objects.
+     */
+    Iterator<K> keyIterator() {
+        return new TrieIterator<>(this.root) {
+            @Override
+            @SuppressWarnings("unchecked")
+            K element(Object key, Object value) {
+                return (K) key;
+            }
+        };
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+        Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, 2 * index);
+        copy[2 * index] = key;
+        copy[2 * index + 1] = value;
+        System.arraycopy(array, 2 * index, copy, 2 * index + 2, array.length - 2 * index);
+        return copy;
+    }
+
+    private static Object[] removePair(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, 2 * index);
+        System.arraycopy(array, 2 * index + 2, copy, 2 * index, copy.length - 2 * index);
+        return copy;
+    }
+
+    private static Object[] replace(Object[] array, int position, Object value) {
+        Object[] copy = array.clone();
+        copy[position] = value;
+        return copy;
+    }
+
+    /**
+     * A trie node. Both kinds keep key/value pairs in a flat array; in a bitmap node a null key
+     * marks a pair whose value is a child node.
+     */
+    private abstract static class Node {
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key, Object notFound);
+
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * Returns the node without the key, this node if the key is absent, or null if it becomes empty.
+         */
+        abstract Node remove(int shift, int hash, Object key);
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key, Object notFound) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.bitmap & bit) == 0) {
+                return notFound;
+            }
+            int index = Integer.bitCount(this.bitmap & (bit - 1));
+            Object storedKey = this.array[2 * index];
+            Object stored = this.array[2 * index + 1];
+            if (storedKey == null) {
+                return ((Node) stored).find(shift + BITS, hash, key, notFound);
+            }
+            return key.equals(storedKey) ? stored : notFound;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = Integer.bitCount(this.bitmap & (bit - 1));
+            if ((this.bitmap & bit) == 0) {
+                added[0] = true;
+                return new BitmapNode(this.bitmap | bit, insertPair(this.array, index, key, value));
+            }
+            Object storedKey = this.array[2 * index];
+            Object stored = this.array[2 * index + 1];
+            if (storedKey == null) {
+                Node child = (Node) stored;
+                Node updated = child.put(shift + BITS, hash, key, value, added);
+                return updated == child ? this : new BitmapNode(this.bitmap, replace(this.array, 2 * index + 1, updated));
+            }
+            if (key.equals(storedKey)) {
+                return stored == value ? this : new BitmapNode(this.bitmap, replace(this.array, 2 * index + 1, value));
+            }
+            added[0] = true;
+            Node child = pair(shift + BITS, storedKey, stored, hash, key, value);
+            Object[] copy = this.array.clone();
+            copy[2 * index] = null;
+            copy[2 * index + 1] = child;
+            return new BitmapNode(this.bitmap, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(this.bitmap & (bit - 1));
+            Object storedKey = this.array[2 * index];
+            Object stored = this.array[2 * index + 1];
+            if (storedKey == null) {
+                Node child = (Node) stored;
+                Node updated = child.remove(shift + BITS, hash, key);
+                if (updated == child) {
+                    return this;
+                }
+                if (updated != null) {
+                    return new BitmapNode(this.bitmap, replace(this.array, 2 * index + 1, updated));
+                }
+            } else if (!key.equals(storedKey)) {
+                return this;
+            }
+            if (this.bitmap == bit) {
+                return null;
+            }
+            return new BitmapNode(this.bitmap ^ bit, removePair(this.array, index));
+        }
+
+        /**
+         * Builds the smallest subtree holding two keys that share a slot at the parent level.
+         */
+        private static Node pair(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, ignored).put(shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * Keys whose full 32-bit hashes are equal, searched linearly.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key, Object notFound) {
+            int index = indexOf(key);
+            return hash == this.hash && index >= 0 ? this.array[2 * index + 1] : notFound;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Push this node one level down so the new key can branch off beside it
+                int bit = 1 << ((this.hash >>> shift) & MASK);
+                return new BitmapNode(bit, new Object[] {null, this}).put(shift, hash, key, value, added);
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.array[2 * index + 1] == value ? this : new CollisionNode(hash, replace(this.array, 2 * index + 1, value));
+            }
+            added[0] = true;
+            return new CollisionNode(hash, insertPair(this.array, this.array.length / 2, key, value));
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            return this.array.length == 2 ? null : new CollisionNode(hash, removePair(this.array, index));
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return i / 2;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Depth-first walk over the leaves of a trie, keeping the path on a fixed-size stack.
+     */
+    private abstract static class TrieIterator<E> implements Iterator<E> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Object nextKey;
+        private Object nextValue;
+
+        TrieIterator(Node root) {
+            this.arrays[0] = root.array;
+            advance();
+        }
+
+        abstract E element(Object key, Object value);
+
+        @Override
+        public boolean hasNext() {
+            return this.nextKey != null;
+        }
+
+        @Override
+        public E next() {
+            if (this.nextKey == null) {
+                throw new NoSuchElementException();
+            }
+            E element = element(this.nextKey, this.nextValue);
+            advance();
+            return element;
+        }
+
+        private void advance() {
+            while (this.depth >= 0) {
+                Object[] array = this.arrays[this.depth];
+                int position = this.positions[this.depth];
+                if (position >= array.length) {
+                    this.depth--;
+                    continue;
+                }
+                this.positions[this.depth] = position + 2;
+                Object key = array[position];
+                if (key == null) {
+                    this.depth++;
+                    this.arrays[this.depth] = ((Node) array[position + 1]).array;
+                    this.positions[this.depth] = 0;
+                    continue;
+                }
+                this.nextKey = key;
+                this.nextValue = array[position + 1];
+                return;
+            }
+            this.nextKey = null;
+            this.nextValue = null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package Util;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+/**
+ * Immutable hash set whose updates return a new set sharing structure with the old one.
+ * Backed by a {@link PersistentMap}, so additions and removals copy O(log32 n) small nodes.
+ *
+ * @param <E> - the type of elements.
+ */
+public final class PersistentSet<E> extends AbstractSet<E> {
+    private static final PersistentSet<?> EMPTY = new PersistentSet<>(PersistentMap.empty());
+
+    private final PersistentMap<E, Boolean> map;
+
+    private PersistentSet(PersistentMap<E, Boolean> map) {
+        this.map = map;
+    }
+
+    /**
+     * Returns the empty set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentSet<E> empty() {
+        return (PersistentSet<E>) EMPTY;
+    }
+
+    /**
+     * Returns a set that also contains the element.
+     *
+     * @param element - the element, not null.
+     * @return - the new set, or this set if the element is already present.
+     */
+    public PersistentSet<E> plus(E element) {
+        PersistentMap<E, Boolean> updated = this.map.plus(element, Boolean.TRUE);
+        return updated == this.map ? this : new PersistentSet<>(updated);
+    }
+
+    /**
+     * Returns a set without the element.
+     *
+     * @param element - the element to remove.
+     * @return - the new set, or this set if the element is absent.
+     */
+    public PersistentSet<E> minus(Object element) {
+        PersistentMap<E, Boolean> updated = this.map.minus(element);
+        return updated == this.map ? this : new PersistentSet<>(updated);
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return this.map.containsKey(element);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return this.map.keyIterator();
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+}
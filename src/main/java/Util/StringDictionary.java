@@ -0,0 +1,201 @@
+package Util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Interns strings into compact {@code int} codes, keeping one {@link String} per distinct value.
+ *
+ * <p>Values are stored in pages indexed by code, and an open-addressing table of codes, probed by
+ * the string's own hash code, finds the code of a value. {@link #intern} returns the stored string
+ * for a value, so records built through the same dictionary share one copy of each value instead
+ * of holding a string per record, and {@link #decode} allocates nothing.
+ *
+ * <p>Meant for low-cardinality fields such as author names, where many copies share a few
+ * distinct values: a field that is nearly unique per record, such as a title, saves little and
+ * pays an insert under the write lock for every record.
+ *
+ * <p>Thread-safe. Lookups of values already present take no lock in the common case (an
+ * optimistic read that is validated afterwards), inserts are serialized, and {@link #decode}
+ * never locks. Values are never removed, so a dictionary holds every distinct value it was
+ * given for as long as it is reachable; give each library or store its own, so the values go
+ * away with it.
+ */
+public final class StringDictionary {
+    /** The code of null. */
+    public static final int NONE = -1;
+
+    private static final int VALUE_PAGE_BITS = 12;
+    private static final int VALUE_PAGE_SIZE = 1 << VALUE_PAGE_BITS;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile String[][] values = new String[16][]; // by code
+    private volatile int size; // written last, publishes a new code to lock-free readers
+    private long[] table = new long[1024]; // hash << 32 | (code + 1), 0 when empty
+
+    /**
+     * Constructs an empty dictionary.
+     */
+    public StringDictionary() {
+    }
+
+    /**
+     * Returns the code of a value, adding the value if it is new.
+     *
+     * @param value - the string to intern, may be null.
+     * @return - the value's code, or {@link #NONE} for null.
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        int code = find(value);
+        if (code != NONE) {
+            return code;
+        }
+        long stamp = this.lock.writeLock();
+        try {
+            code = probe(this.table, value, value.hashCode());
+            return code != NONE ? code : insert(value);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the dictionary's copy of a value, adding the value if it is new.
+     *
+     * @param value - the string to intern, may be null.
+     * @return - a string equal to the value, the same instance for every equal value, or null.
+     */
+    public String intern(String value) {
+        return decode(encode(value));
+    }
+
+    /**
+     * Returns the code of a value without adding it.
+     *
+     * @param value - the string to look up, may be null.
+     * @return - the value's code, or {@link #NONE} if it is null or absent.
+     */
+    public int find(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        int hash = value.hashCode();
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int code = probe(this.table, value, hash);
+            if (this.lock.validate(stamp)) {
+                return code;
+            }
+        }
+        stamp = this.lock.readLock();
+        try {
+            return probe(this.table, value, hash);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the value of a code.
+     *
+     * @param code - a code returned by this dictionary, or {@link #NONE}.
+     * @return - the value, or null for {@link #NONE}.
+     * @throws IllegalArgumentException - if the code was not issued by this dictionary.
+     */
+    public String decode(int code) {
+        if (code == NONE) {
+            return null;
+        }
+        if (code < 0 || code >= this.size) {
+            throw new IllegalArgumentException("Unknown code: " + code);
+        }
+        return this.values[code >>> VALUE_PAGE_BITS][code & (VALUE_PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Returns the number of distinct values.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds a value's code in a table. Runs under an optimistic read, so it must not fail on a
+     * table or page that is being changed; the caller validates the result.
+     */
+    private int probe(long[] table, String value, int hash) {
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            long cell = table[slot];
+            if (cell == 0) {
+                return NONE;
+            }
+            if ((int) (cell >>> 32) == hash) {
+                int code = (int) cell - 1;
+                if (matches(code, value)) {
+                    return code;
+                }
+            }
+        }
+    }
+
+    private boolean matches(int code, String value) {
+        String[][] pages = this.values;
+        if (code < 0 || code >= this.size || (code >>> VALUE_PAGE_BITS) >= pages.length) {
+            return false;
+        }
+        String[] page = pages[code >>> VALUE_PAGE_BITS];
+        return page != null && value.equals(page[code & (VALUE_PAGE_SIZE - 1)]);
+    }
+
+    /**
+     * Adds a new value to the pages and the table. Called with the write lock held.
+     */
+    private int insert(String value) {
+        int code = this.size;
+        String[][] pages = this.values;
+        int page = code >>> VALUE_PAGE_BITS;
+        if (page == pages.length) {
+            pages = Arrays.copyOf(pages, pages.length * 2);
+        }
+        if (pages[page] == null) {
+            pages[page] = new String[VALUE_PAGE_SIZE];
+        }
+        pages[page][code & (VALUE_PAGE_SIZE - 1)] = value;
+        this.values = pages;
+
+        if (2 * (code + 1) > this.table.length) {
+            this.table = rehash(this.table.length * 2);
+        }
+        place(this.table, value.hashCode(), code);
+        this.size = code + 1;
+        return code;
+    }
+
+    private long[] rehash(int capacity) {
+        long[] resized = new long[capacity];
+        for (long cell : this.table) {
+            if (cell != 0) {
+                place(resized, (int) (cell >>> 32), (int) cell - 1);
+            }
+        }
+        return resized;
+    }
+
+    private static void place(long[] table, int hash, int code) {
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = (long) hash << 32 | (code + 1);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
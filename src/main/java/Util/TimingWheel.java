@@ -0,0 +1,256 @@
+package Util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for large numbers of timers.
+ *
+ * <p>Time is counted in ticks of a fixed length. Each level has 64 slots, and a slot on level
+ * {@code n} spans {@code 64^n} ticks. A timer is placed on the level of the highest digit in
+ * which its deadline differs from the current tick, and moved to a lower level when the wheel
+ * reaches its slot, so scheduling and cancelling are O(1) and each timer moves at most once per
+ * level. A bitmap of occupied slots per level lets {@link #advanceTo} jump straight to the next
+ * slot with timers, so advancing across long idle periods costs nothing per empty tick.
+ *
+ * <p>Timers never fire early: a deadline is rounded up to the next tick. Not thread-safe.
+ *
+ * @param <T> - the type of the payload carried by each timer.
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+    private static final int READY = LEVELS * SLOTS; // timers that were already due when scheduled
+
+    private final long tickMillis;
+    private final Timer<T>[] heads;
+    private final long[] occupied = new long[LEVELS];
+    private long now; // current tick
+    private int size;
+
+    /**
+     * Constructs an empty wheel.
+     *
+     * @param tickMillis - length of one tick in milliseconds.
+     * @param startMillis - the current time in milliseconds, not negative.
+     */
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (startMillis < 0) {
+            throw new IllegalArgumentException("Start time cannot be negative");
+        }
+        this.tickMillis = tickMillis;
+        this.heads = newHeads(READY + 1);
+        this.now = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a timer. A deadline that has already passed fires on the next advance.
+     *
+     * @param payload - value handed to the consumer when the timer fires.
+     * @param deadlineMillis - when the timer fires, in milliseconds.
+     * @return - the timer, which can be cancelled.
+     */
+    public Timer<T> schedule(T payload, long deadlineMillis) {
+        Timer<T> timer = new Timer<>(payload, deadlineMillis, Math.max(0, Math.ceilDiv(deadlineMillis, this.tickMillis)));
+        insert(timer);
+        this.size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a pending timer.
+     *
+     * @param timer - a timer scheduled on this wheel.
+     * @return - true if the timer was pending, false if it already fired or was cancelled.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.bucket < 0) {
+            return false;
+        }
+        unlink(timer);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward and fires every timer whose deadline is at or before the given time.
+     * Timers fire in deadline order, rounded to the tick. Moving backwards does nothing.
+     *
+     * @param nowMillis - the current time in milliseconds.
+     * @param onExpired - receives the payload of each fired timer. It must not modify the wheel.
+     * @return - the number of timers that fired.
+     */
+    public int advanceTo(long nowMillis, Consumer<? super T> onExpired) {
+        long target = Math.floorDiv(nowMillis, this.tickMillis);
+        int fired = expire(READY, onExpired);
+        for (long next = nextEventTick(); next <= target; next = nextEventTick()) {
+            this.now = next;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * SLOT_BITS;
+                if ((next & ((1L << shift) - 1)) == 0) {
+                    cascade(level * SLOTS + slot(next, level));
+                }
+            }
+            fired += expire(slot(next, 0), onExpired);
+            fired += expire(READY, onExpired);
+        }
+        if (target > this.now) {
+            this.now = target;
+        }
+        return fired;
+    }
+
+    /**
+     * Returns the number of pending timers.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the start of the current tick in milliseconds.
+     */
+    public long getTimeMillis() {
+        return this.now * this.tickMillis;
+    }
+
+    /**
+     * Returns the first tick at which a slot holding timers is reached, or Long.MAX_VALUE.
+     * Occupied slots always lie ahead of the current digit of their level.
+     */
+    private long nextEventTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            long mask = this.occupied[level];
+            if (mask == 0) {
+                continue;
+            }
+            int shift = level * SLOT_BITS;
+            long above = level == LEVELS - 1 ? 0 : this.now & (-1L << (shift + SLOT_BITS));
+            next = Math.min(next, above | ((long) Long.numberOfTrailingZeros(mask) << shift));
+        }
+        return next;
+    }
+
+    private void insert(Timer<T> timer) {
+        if (timer.tick <= this.now) {
+            link(timer, READY);
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(timer.tick ^ this.now)) / SLOT_BITS;
+        int slot = slot(timer.tick, level);
+        link(timer, level * SLOTS + slot);
+        this.occupied[level] |= 1L << slot;
+    }
+
+    private void cascade(int bucket) {
+        Timer<T> timer = detach(bucket);
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private int expire(int bucket, Consumer<? super T> onExpired) {
+        int fired = 0;
+        Timer<T> timer = detach(bucket);
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.next = null;
+            timer.bucket = -1;
+            this.size--;
+            fired++;
+            onExpired.accept(timer.payload);
+            timer = next;
+        }
+        return fired;
+    }
+
+    /**
+     * Empties a bucket and returns its former list.
+     */
+    private Timer<T> detach(int bucket) {
+        Timer<T> head = this.heads[bucket];
+        this.heads[bucket] = null;
+        if (bucket < READY) {
+            this.occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+        }
+        return head;
+    }
+
+    private void link(Timer<T> timer, int bucket) {
+        Timer<T> head = this.heads[bucket];
+        timer.bucket = bucket;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        this.heads[bucket] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        int bucket = timer.bucket;
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            this.heads[bucket] = timer.next;
+            if (timer.next == null && bucket < READY) {
+                this.occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+            }
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Timer<T>[] newHeads(int length) {
+        return (Timer<T>[]) new Timer<?>[length];
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+    }
+
+    /**
+     * A scheduled timer, linked into the slot it is waiting in.
+     *
+     * @param <T> - the type of the payload.
+     */
+    public static final class Timer<T> {
+        private final T payload;
+        private final long deadline;
+        private final long tick;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int bucket = -1; // -1 once fired or cancelled
+
+        private Timer(T payload, long deadline, long tick) {
+            this.payload = payload;
+            this.deadline = deadline;
+            this.tick = tick;
+        }
+
+        // Getters
+
+        public T getPayload() {
+            return this.payload;
+        }
+
+        public long getDeadline() {
+            return this.deadline;
+        }
+
+        public boolean isPending() {
+            return this.bucket >= 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package Analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountMinSketchTest {
+
+    @Test
+    public void testExactWithoutCollisions() {
+        CountMinSketch sketch = new CountMinSketch(1024);
+        assertEquals(0, sketch.estimate("a".hashCode()));
+        assertEquals(1, sketch.add("a".hashCode()));
+        assertEquals(2, sketch.add("a".hashCode()));
+        sketch.add("b".hashCode());
+        assertEquals(2, sketch.estimate("a".hashCode()));
+        assertEquals(1, sketch.estimate("b".hashCode()));
+    }
+
+    @Test
+    public void testEstimatesNeverUndercountAndStayWithinBound() {
+        int width = 1024;
+        CountMinSketch sketch = new CountMinSketch(width);
+        int[] exact = new int[10_000];
+        Random random = new Random(1);
+        int total = 200_000;
+        for (int i = 0; i < total; i++) {
+            int key = random.nextInt(exact.length);
+            exact[key]++;
+            sketch.add(Integer.hashCode(key));
+        }
+        int overBound = 0;
+        for (int key = 0; key < exact.length; key++) {
+            int estimate = sketch.estimate(Integer.hashCode(key));
+            assertTrue(estimate >= exact[key]);
+            if (estimate - exact[key] > Math.E / width * total) {
+                overBound++;
+            }
+        }
+        assertTrue(overBound < exact.length / 50, "over bound: " + overBound);
+    }
+
+    @Test
+    public void testSubtract() {
+        CountMinSketch window = new CountMinSketch(64);
+        CountMinSketch bucket = new CountMinSketch(64);
+        for (int i = 0; i < 5; i++) {
+            window.add(7);
+            bucket.add(7);
+        }
+        window.add(7);
+        window.subtract(bucket);
+        bucket.clear();
+        assertEquals(1, window.estimate(7));
+        assertEquals(0, bucket.estimate(7));
+    }
+
+    @Test
+    public void testRejectsWidthThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(1000));
+    }
+}
@@ -0,0 +1,215 @@
+package Analytics;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import Util.ManualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PopularityTrackerTest {
+
+    private ManualClock clock;
+    private PopularityTracker tracker;
+    private Book lotr;
+    private Book hobbit;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(Instant.parse("2024-01-01T00:00:00Z"));
+        tracker = new PopularityTracker(Duration.ofDays(7), 7, 10, clock);
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        hobbit = new Book("978-0-261-10221-7", "The Hobbit", "J.R.R. Tolkien", 1937);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+    }
+
+    private void record(Book book, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(book);
+        }
+    }
+
+    @Test
+    public void testTopBooksAndAuthors() {
+        record(gatsby, 5);
+        record(lotr, 3);
+        record(hobbit, 4);
+
+        List<PopularItem<Book>> books = tracker.topBooks(2);
+        assertEquals(2, books.size());
+        assertEquals(gatsby, books.get(0).getItem());
+        assertEquals(5, books.get(0).getCount());
+        assertEquals(hobbit, books.get(1).getItem());
+
+        List<PopularItem<String>> authors = tracker.topAuthors(10);
+        assertEquals("J.R.R. Tolkien", authors.get(0).getItem());
+        assertEquals(7, authors.get(0).getCount());
+        assertEquals("F. Scott Fitzgerald", authors.get(1).getItem());
+        assertEquals(12, tracker.getWindowCheckouts());
+        assertEquals(3, tracker.estimateCheckouts(lotr));
+    }
+
+    @Test
+    public void testFedByLibraryCheckouts() {
+        Library library = new Library("Fairfax County Public Library");
+        User mike = new User("Mike", "Myers", "mm@gmail.com");
+        library.addMember(mike);
+        library.addBook(lotr);
+        library.addListener(tracker);
+        for (int i = 0; i < 3; i++) {
+            library.tryCheckout(lotr, mike);
+            library.tryReturn(lotr, mike);
+        }
+        library.tryReturn(gatsby, mike);
+        assertEquals(3, tracker.estimateCheckouts(lotr));
+        assertEquals(3, tracker.getWindowCheckouts());
+    }
+
+    @Test
+    public void testOldCheckoutsExpire() {
+        record(gatsby, 10);
+        clock.advance(Duration.ofDays(3));
+        record(lotr, 4);
+        clock.advance(Duration.ofDays(3));
+        assertEquals(gatsby, tracker.topBooks(1).get(0).getItem());
+
+        // Gatsby's day leaves the window, Lord of the Rings is still in it
+        clock.advance(Duration.ofDays(1));
+        assertEquals(0, tracker.estimateCheckouts(gatsby));
+        assertEquals(4, tracker.getWindowCheckouts());
+        List<PopularItem<Book>> top = tracker.topBooks(10);
+        assertEquals(1, top.size());
+        assertEquals(lotr, top.get(0).getItem());
+
+        clock.advance(Duration.ofDays(30));
+        assertTrue(tracker.topBooks(10).isEmpty());
+        assertEquals(0, tracker.getWindowCheckouts());
+    }
+
+    @Test
+    public void testNewFavouriteDisplacesWeakestCandidate() {
+        PopularityTracker small = new PopularityTracker(Duration.ofDays(7), 7, 2, clock);
+        small.record(gatsby);
+        small.record(hobbit);
+        small.record(hobbit);
+        for (int i = 0; i < 3; i++) {
+            small.record(lotr);
+        }
+        List<PopularItem<Book>> top = small.topBooks(2);
+        assertEquals(List.of(lotr, hobbit), top.stream().map(PopularItem::getItem).toList());
+    }
+
+    @Test
+    public void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PopularityTracker(Duration.ofDays(7), 0, 10, clock));
+        assertThrows(IllegalArgumentException.class, () -> new PopularityTracker(Duration.ofDays(7), 7, 0, clock));
+        assertThrows(IllegalArgumentException.class, () -> new PopularityTracker(Duration.ofMillis(3), 7, 10, clock));
+    }
+
+    @Test
+    public void testConcurrentRecordsAreAllCounted() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Book book = t % 2 == 0 ? lotr : gatsby;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    tracker.record(book);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        long total = (long) threads * perThread;
+        assertEquals(total, tracker.getWindowCheckouts());
+        assertEquals(total / 2, tracker.estimateCheckouts(lotr));
+        assertEquals(total / 2, tracker.estimateCheckouts(gatsby));
+    }
+
+    /**
+     * 2M Zipf-distributed checkouts over 100K books by 1K authors, sliding the window as they
+     * arrive. The reported top books and authors must match the exact counts. Throughput and
+     * query latency are measured by PopularityBenchmark.
+     */
+    @Test
+    public void testAccuracyOnZipfCheckouts() {
+        int catalogSize = 100_000;
+        int authorCount = 1_000;
+        int sampleCount = 1_000_000;
+        int laps = 2;
+        Book[] catalog = new Book[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            catalog[i] = new Book("isbn-" + i, "Title " + i, "Author " + (i % authorCount), 2000);
+        }
+
+        // Zipf(1.1) ranks drawn by binary search over the cumulative distribution
+        double[] cumulative = new double[catalogSize];
+        double sum = 0;
+        for (int rank = 0; rank < catalogSize; rank++) {
+            sum += 1 / Math.pow(rank + 1, 1.1);
+            cumulative[rank] = sum;
+        }
+        Random random = new Random(2024);
+        Book[] samples = new Book[sampleCount];
+        long[] exactBooks = new long[catalogSize];
+        long[] exactAuthors = new long[authorCount];
+        for (int i = 0; i < sampleCount; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            int rank = Math.min(index < 0 ? -index - 1 : index, catalogSize - 1);
+            samples[i] = catalog[rank];
+            exactBooks[rank] += laps;
+            exactAuthors[rank % authorCount] += laps;
+        }
+
+        PopularityTracker big = new PopularityTracker(Duration.ofDays(7), 7, 100, clock);
+        for (int lap = 0; lap < laps; lap++) {
+            for (Book book : samples) {
+                big.record(book);
+            }
+            clock.advance(Duration.ofDays(1)); // always inside the 7-day window
+        }
+        long total = (long) sampleCount * laps;
+        assertEquals(total, big.getWindowCheckouts());
+
+        int k = 10;
+        long errorBound = (long) (Math.E / (1 << 13) * total);
+        List<PopularItem<Book>> topBooks = big.topBooks(k);
+        int[] expectedBooks = IntStream.range(0, catalogSize).boxed()
+                .sorted(Comparator.comparingLong(i -> -exactBooks[i]))
+                .limit(k).mapToInt(Integer::intValue).toArray();
+        for (int i = 0; i < k; i++) {
+            assertEquals(catalog[expectedBooks[i]], topBooks.get(i).getItem());
+            long error = topBooks.get(i).getCount() - exactBooks[expectedBooks[i]];
+            assertTrue(error >= 0 && error <= errorBound, "error " + error + " over bound " + errorBound);
+        }
+
+        List<PopularItem<String>> topAuthors = big.topAuthors(k);
+        int[] expectedAuthors = IntStream.range(0, authorCount).boxed()
+                .sorted(Comparator.comparingLong(i -> -exactAuthors[i]))
+                .limit(k).mapToInt(Integer::intValue).toArray();
+        for (int i = 0; i < k; i++) {
+            assertEquals("Author " + expectedAuthors[i], topAuthors.get(i).getItem());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package Events;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventStreamTest {
+
+    private final User mike = new User("Mike", "Myers", "mm@gmail.com");
+    private final Book lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+
+    @Test
+    public void testLibraryEventsReachEveryHandler() {
+        EventStream stream = new EventStream();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        stream.addHandler((event, sequence, endOfBatch) -> first.add(event.getType() + ":" + sequence));
+        stream.addHandler((event, sequence, endOfBatch) -> second.add(event.getType() + ":" + sequence));
+        stream.start();
+
+        Library lib = new Library("Fairfax County Public Library");
+        lib.addListener(stream);
+        lib.addBook(lotr);
+        lib.addMember(mike);
+        lib.tryCheckout(lotr, mike);
+        lib.tryReturn(lotr, mike);
+        lib.tryReturn(lotr, mike); // failed changes are not published
+        stream.close();
+
+        List<String> expected = List.of("BOOK_ADDED:0", "MEMBER_ADDED:1", "CHECKOUT:2", "RETURN:3");
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+        assertEquals(4, stream.getPublishedCount());
+        assertEquals(0, stream.getDroppedCount());
+        assertThrows(IllegalStateException.class, () -> stream.addHandler((event, sequence, endOfBatch) -> { }));
+        assertFalse(stream.publish(EventType.CHECKOUT, lotr, mike));
+    }
+
+    @Test
+    public void testEventFields() {
+        EventStream stream = new EventStream(8, WaitStrategy.BLOCKING, BackpressurePolicy.BLOCK);
+        List<Object> seen = new ArrayList<>();
+        stream.addHandler((event, sequence, endOfBatch) -> {
+            seen.add(event.getBook());
+            seen.add(event.getUser());
+            assertTrue(event.getTimestamp() > 0);
+        });
+        stream.start();
+        stream.onCheckout(lotr, mike);
+        stream.close();
+
+        assertEquals(List.of(lotr, mike), seen);
+    }
+
+    @Test
+    public void testBatches() {
+        EventStream stream = new EventStream(256, WaitStrategy.SLEEPING, BackpressurePolicy.DROP);
+        AtomicInteger events = new AtomicInteger();
+        AtomicInteger batches = new AtomicInteger();
+        stream.addHandler((event, sequence, endOfBatch) -> {
+            events.incrementAndGet();
+            if (endOfBatch) {
+                batches.incrementAndGet();
+            }
+        });
+
+        // Published before the consumer starts, so it finds them all in one pass
+        for (int i = 0; i < 100; i++) {
+            stream.onCheckout(lotr, mike);
+        }
+        stream.start();
+        stream.close();
+
+        assertEquals(100, events.get());
+        assertEquals(1, batches.get());
+    }
+
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        EventStream stream = new EventStream(4, WaitStrategy.BLOCKING, BackpressurePolicy.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        stream.addHandler((event, sequence, endOfBatch) -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            handled.incrementAndGet();
+        });
+        stream.start();
+
+        int published = 0;
+        for (int i = 0; i < 10; i++) {
+            if (stream.publish(EventType.CHECKOUT, lotr, mike)) {
+                published++;
+            }
+        }
+        release.countDown();
+        stream.close();
+
+        assertEquals(4, published);
+        assertEquals(6, stream.getDroppedCount());
+        assertEquals(4, handled.get());
+    }
+
+    @Test
+    public void testBlockWhenFullLosesNothing() {
+        EventStream stream = new EventStream(4, WaitStrategy.YIELDING, BackpressurePolicy.BLOCK);
+        List<Long> sequences = new ArrayList<>();
+        stream.addHandler((event, sequence, endOfBatch) -> sequences.add(sequence));
+        stream.start();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(stream.publish(EventType.CHECKOUT, lotr, mike));
+        }
+        stream.close();
+
+        assertEquals(1_000, sequences.size());
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(i, sequences.get(i));
+        }
+        assertEquals(0, stream.getDroppedCount());
+    }
+
+    @Test
+    public void testHandlerErrorsAreCounted() {
+        EventStream stream = new EventStream(16, WaitStrategy.SLEEPING, BackpressurePolicy.DROP);
+        AtomicInteger handled = new AtomicInteger();
+        stream.addHandler((event, sequence, endOfBatch) -> {
+            handled.incrementAndGet();
+            if (sequence == 1) {
+                throw new IllegalStateException("audit sink unavailable");
+            }
+        });
+        stream.start();
+        for (int i = 0; i < 3; i++) {
+            stream.onReturn(lotr, mike);
+        }
+        stream.close();
+
+        assertEquals(3, handled.get());
+        assertEquals(1, stream.getHandlerErrorCount());
+    }
+
+    @Test
+    public void testConcurrentProducersEveryWaitStrategy() throws Exception {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            int producers = 4;
+            int perProducer = 5_000;
+            EventStream stream = new EventStream(64, strategy, BackpressurePolicy.BLOCK);
+            User[] users = new User[producers];
+            long[] lastSeen = new long[producers];
+            AtomicInteger outOfOrder = new AtomicInteger();
+            AtomicInteger handled = new AtomicInteger();
+            for (int p = 0; p < producers; p++) {
+                users[p] = new User("Producer", Integer.toString(p), null);
+                lastSeen[p] = -1;
+            }
+            stream.addHandler((event, sequence, endOfBatch) -> {
+                int producer = Integer.parseInt(event.getUser().getLastName());
+                long index = event.getBook().getPublishYear();
+                if (index != lastSeen[producer] + 1) {
+                    outOfOrder.incrementAndGet();
+                }
+                lastSeen[producer] = index;
+                handled.incrementAndGet();
+            });
+            stream.start();
+
+            Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                User user = users[p];
+                threads[p] = new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        stream.publish(EventType.CHECKOUT, new Book("978-0-09-556397-5", null, null, i), user);
+                    }
+                });
+                threads[p].start();
+            }
+            for (Thread thread : threads) {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            }
+            stream.close();
+
+            assertEquals(0, stream.getHandlerErrorCount(), strategy.name());
+            assertEquals(producers * perProducer, handled.get(), strategy.name());
+            assertEquals(0, outOfOrder.get(), strategy.name());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package Http;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibraryServerTest {
+
+    private Library lib;
+    private User mike;
+    private Book lotr;
+    private Book mockingbird;
+    private LibraryServer server;
+    private HttpClient client;
+
+    @BeforeAll
+    public static void disableNagle() {
+        // As a launcher would with -Dsun.net.httpserver.nodelay=true, see LibraryServer
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        lib = Library.concurrent("Fairfax County Public Library");
+        mike = new User("mike-1", "Mike", "Myers", "mm@gmail.com");
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a \"Mockingbird\"", "Harper Lee", 1960);
+        lib.addMember(mike);
+        lib.addBook(lotr);
+        lib.addBook(mockingbird);
+
+        server = LibraryServer.start(lib, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testCheckoutAndReturn() throws Exception {
+        HttpResponse<String> response = send("POST", "/checkout?isbn=978-0-09-556397-5&user=mike-1");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"status\":\"SUCCESS\"}", response.body());
+        assertEquals(Optional.of(mike), lib.getCurrentBorrower(lotr));
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElseThrow());
+
+        response = send("POST", "/checkout?isbn=978-0-09-556397-5&user=mike-1");
+        assertEquals(409, response.statusCode());
+        assertEquals("{\"status\":\"NOT_AVAILABLE\"}", response.body());
+
+        assertEquals(200, send("POST", "/return?isbn=978-0-09-556397-5&user=mike-1").statusCode());
+        assertEquals(409, send("POST", "/return?isbn=978-0-09-556397-5&user=mike-1").statusCode());
+        assertTrue(lib.getBooks().contains(lotr));
+    }
+
+    @Test
+    public void testBorrower() throws Exception {
+        lib.tryCheckout(mockingbird, mike);
+
+        HttpResponse<String> response = send("GET", "/borrower?isbn=978-0-06-112008-4");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"isbn\":\"978-0-06-112008-4\",\"title\":\"To Kill a \\\"Mockingbird\\\"\",\"available\":false,"
+                + "\"borrower\":{\"id\":\"mike-1\",\"name\":\"Mike Myers\"}}", response.body());
+
+        response = send("GET", "/borrower?isbn=978-0-09-556397-5");
+        assertTrue(response.body().endsWith("\"available\":true,\"borrower\":null}"));
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        HttpResponse<String> response = send("GET", "/search?q=lord%20of%20the&limit=5");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"hits\":[{\"isbn\":\"978-0-09-556397-5\",\"title\":\"The Lord of the Rings\","
+                + "\"author\":\"J.R.R. Tolkien\",\"year\":1954,\"available\":true,\"score\":"));
+
+        assertEquals("{\"hits\":[]}", send("GET", "/search?q=zzzzzz").body());
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        assertEquals(404, send("POST", "/checkout?isbn=unknown&user=mike-1").statusCode());
+        assertEquals(404, send("POST", "/checkout?isbn=978-0-09-556397-5&user=nobody").statusCode());
+        HttpResponse<String> missing = send("POST", "/checkout?isbn=978-0-09-556397-5");
+        assertEquals(400, missing.statusCode());
+        assertEquals("{\"error\":\"Missing parameter: user\"}", missing.body());
+        assertEquals(400, send("GET", "/search?q=lord&limit=zero").statusCode());
+        assertEquals(405, send("GET", "/checkout?isbn=978-0-09-556397-5&user=mike-1").statusCode());
+        assertTrue(lib.getBooks().contains(lotr));
+    }
+
+    @Test
+    public void testRequiresConcurrentLibrary() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LibraryServer.start(new Library("Single"), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)));
+    }
+
+    @Test
+    public void testParseQuery() {
+        assertEquals(Map.of("q", "lord of the", "limit", "5", "flag", ""), LibraryServer.parseQuery("q=lord+of%20the&limit=5&flag"));
+        assertTrue(LibraryServer.parseQuery(null).isEmpty());
+    }
+
+    @Test
+    public void testLoadGenerator() throws Exception {
+        LoadGenerator generator = new LoadGenerator(URI.create("http://127.0.0.1:" + server.getPort()),
+                List.of(lotr.getIsbn(), mockingbird.getIsbn()), List.of(mike.getId()));
+        LoadGenerator.Report report = generator.run(16, Duration.ofMillis(500));
+
+        assertTrue(report.getRequests() > 0);
+        assertEquals(0, report.getErrors());
+        assertTrue(report.getP50() <= report.getP99());
+        assertTrue(report.getP99() <= report.getMax());
+        assertTrue(lib.getCheckedOutBooks().isEmpty());
+    }
+
+    @Test
+    public void testLoadGenerator_stopsWhenInterrupted() throws Exception {
+        LoadGenerator generator = new LoadGenerator(URI.create("http://127.0.0.1:" + server.getPort()),
+                List.of(lotr.getIsbn(), mockingbird.getIsbn()), List.of(mike.getId()));
+        Thread runner = new Thread(() -> {
+            try {
+                generator.run(4, Duration.ofMinutes(1));
+            } catch (InterruptedException expected) {
+                // the clients were interrupted along with the run
+            }
+        });
+        runner.start();
+        Thread.sleep(200);
+        runner.interrupt();
+        runner.join(10_000);
+        assertFalse(runner.isAlive());
+    }
+
+    private HttpResponse<String> send(String method, String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + pathAndQuery))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
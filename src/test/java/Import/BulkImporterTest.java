@@ -0,0 +1,193 @@
+package Import;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<String> rejected = new ArrayList<>();
+    private final List<Long> progress = new ArrayList<>();
+
+    private final ImportListener listener = new ImportListener() {
+        @Override
+        public void onRejected(long lineNumber, String record, String reason) {
+            rejected.add(lineNumber + ": " + reason);
+        }
+
+        @Override
+        public void onProgress(long records, long accepted, long rejectedSoFar) {
+            progress.add(records);
+        }
+    };
+
+    @Test
+    public void testImportBooksFromCsv() throws IOException {
+        Path file = write("books.csv",
+                "isbn,title,author,publishYear",
+                "978-0-06-112008-4,To Kill a Mockingbird,Harper Lee,1960",
+                "978-0-7432-7356-5,\"The Great Gatsby\",F. Scott Fitzgerald,1925",
+                "978-0-09-556397-5,The Lord of the Rings,J.R.R. Tolkien,1954",
+                "",
+                "0-14-143951-3,\"Pride and Prejudice, Again\",Jane Austen,1813",
+                "978-0-06-112008-4,To Kill a Mockingbird,Harper Lee,1960",
+                "978-0-14-303943-3,The Road,Cormac McCarthy,year");
+
+        Library lib = new Library("Fairfax County Public Library");
+        ImportReport report = new BulkImporter(ForkJoinPool.commonPool(), 2, listener).importBooks(file, RecordFormat.CSV, lib);
+
+        assertEquals(6, report.getRecords());
+        assertEquals(3, report.getAccepted());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(2, report.getRejected());
+        assertEquals(List.of("4: Invalid ISBN: 978-0-09-556397-5", "8: Invalid year: year"), rejected);
+        assertEquals(List.of(2L, 4L, 6L), progress);
+
+        assertEquals(3, lib.getBooks().size());
+        assertTrue(lib.getBooks().contains(new Book("0-14-143951-3", "", "", 0)));
+        assertEquals("Pride and Prejudice, Again", lib.search("pride", 1).get(0).getBook().getTitle());
+    }
+
+    @Test
+    public void testImportBooks_upperCaseHeaderUnderTurkishLocale() throws IOException {
+        Path file = write("books.csv",
+                "ISBN,Title,Author,PublishYear",
+                "978-0-06-112008-4,To Kill a Mockingbird,Harper Lee,1960");
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR")); // "ISBN" lower-cases to "ısbn" there
+        try {
+            Library lib = new Library("Fairfax County Public Library");
+            ImportReport report = new BulkImporter(ForkJoinPool.commonPool(), 2, listener).importBooks(file, RecordFormat.CSV, lib);
+            assertEquals(1, report.getAccepted());
+            assertEquals(0, report.getRejected());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testImportBooks_authorsInternedInLibraryDictionary() throws IOException {
+        Path file = write("books.csv",
+                "978-0-06-112008-4,To Kill a Mockingbird,Harper Lee,1960",
+                "978-0-06-093546-7,Go Set a Watchman,Harper Lee,2015");
+
+        Library lib = new Library("Fairfax County Public Library");
+        new BulkImporter(ForkJoinPool.commonPool(), 1, listener).importBooks(file, RecordFormat.CSV, lib);
+
+        List<Book> books = lib.findBooksByAuthor("harper lee", false);
+        assertEquals(2, books.size());
+        assertSame(books.get(0).getAuthor(), books.get(1).getAuthor());
+        assertSame(books.get(0).getAuthor(), lib.getAuthorDictionary().intern("Harper Lee"));
+    }
+
+    @Test
+    public void testImportBooksFromTaggedRecords() throws IOException {
+        Path file = write("books.mrk",
+                "020 $a 9780060935467 (pbk.)",
+                "100 $a Lee, Harper.",
+                "245 $a To kill a mockingbird /",
+                "260 $a New York : $b Harper, $c c1960.",
+                "",
+                "",
+                "020 $a 0747532699",
+                "245 $a Harry Potter : $b the philosopher's stone",
+                "100 $a Rowling, J. K.",
+                "264 $c 1997",
+                "",
+                "245 $a No ISBN here",
+                "264 $c 2001");
+
+        Library lib = new Library("Fairfax County Public Library");
+        ImportReport report = new BulkImporter(ForkJoinPool.commonPool(), 16, listener).importBooks(file, RecordFormat.TAGGED, lib);
+
+        assertEquals(3, report.getRecords());
+        assertEquals(2, report.getAccepted());
+        assertEquals(List.of("12: Missing ISBN"), rejected);
+
+        Book mockingbird = lib.search("mockingbird", 1).get(0).getBook();
+        assertEquals("9780060935467", mockingbird.getIsbn());
+        assertEquals("To kill a mockingbird", mockingbird.getTitle());
+        assertEquals("Lee, Harper.", mockingbird.getAuthor());
+        assertEquals(1960, mockingbird.getPublishYear());
+
+        Book potter = lib.search("potter", 1).get(0).getBook();
+        assertEquals("Harry Potter the philosopher's stone", potter.getTitle());
+        assertEquals(1997, potter.getPublishYear());
+    }
+
+    @Test
+    public void testImportMembers() throws IOException {
+        Path file = write("members.csv",
+                "firstName,lastName,email,id",
+                "Mike,Myers,mm@gmail.com,m-1",
+                "Guest,Reader,,",
+                "\"Mary\nAnne\",Smith,mas@gmail.com,m-2",
+                ",Nobody,nobody@gmail.com,m-3",
+                "Bad,Email,not-an-email,m-4",
+                "Mike,Myers,mm@gmail.com,m-1");
+
+        Library lib = Library.concurrent("Fairfax County Public Library");
+        ImportReport report = new BulkImporter(ForkJoinPool.commonPool(), 4, 1, listener).importMembers(file, lib);
+
+        assertEquals(6, report.getRecords());
+        assertEquals(3, report.getAccepted());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(List.of("6: Missing name", "7: Invalid email: not-an-email"), rejected);
+        assertTrue(lib.getMembers().contains(new User("m-1", "Mike", "Myers", null)));
+        assertTrue(lib.getMembers().stream().anyMatch(u -> u.getFirstName().equals("Mary\nAnne")));
+    }
+
+    @Test
+    public void testLargeImportIntoConcurrentLibrary() throws IOException {
+        int rows = 50_000;
+        List<String> lines = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String isbn = i % 100 == 0 ? "bad-" + i : isbn(i);
+            lines.add(isbn + ",Title " + i + ",Author " + (i % 500) + "," + (1900 + i % 120));
+        }
+        Path file = write("large.csv", lines.toArray(new String[0]));
+
+        Library lib = Library.concurrent("Fairfax County Public Library");
+        ImportReport report = new BulkImporter(ForkJoinPool.commonPool(), 1000, listener).importBooks(file, RecordFormat.CSV, lib);
+
+        assertEquals(rows, report.getRecords());
+        assertEquals(rows / 100, report.getRejected());
+        assertEquals(rows - rows / 100, report.getAccepted());
+        assertEquals(rows - rows / 100, lib.getBooks().size());
+        assertEquals(rows / 1000, progress.size());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkImporter(ForkJoinPool.commonPool(), 0, listener));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), List.of(lines));
+    }
+
+    private static String isbn(long n) {
+        String digits = "978" + String.format("%09d", n);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+}
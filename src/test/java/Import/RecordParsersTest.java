@@ -0,0 +1,34 @@
+package Import;
+
+import Model.Book;
+import Util.StringDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordParsersTest {
+
+    @Test
+    public void testCsvFields() {
+        assertEquals(List.of("a", "b", "c"), RecordParsers.csvFields(" a , b,c "));
+        assertEquals(List.of("a, b", "say \"hi\"", ""), RecordParsers.csvFields("\"a, b\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of(" padded "), RecordParsers.csvFields("\" padded \""));
+        assertThrows(IllegalArgumentException.class, () -> RecordParsers.csvFields("\"open"));
+    }
+
+    @Test
+    public void testBookFromCsv() {
+        Book book = RecordParsers.bookFromCsv("978-0-06-112008-4,To Kill a Mockingbird,Harper Lee,1960", new StringDictionary());
+        assertEquals("978-0-06-112008-4", book.getIsbn());
+        assertEquals(1960, book.getPublishYear());
+
+        assertEquals("Expected 4 fields but found 3",
+                assertThrows(IllegalArgumentException.class, () -> RecordParsers.bookFromCsv("a,b,c", new StringDictionary())).getMessage());
+        assertEquals("Missing title",
+                assertThrows(IllegalArgumentException.class, () -> RecordParsers.bookFromCsv("978-0-06-112008-4,,Lee,1960", new StringDictionary())).getMessage());
+        assertEquals("Invalid year: 99999",
+                assertThrows(IllegalArgumentException.class, () -> RecordParsers.bookFromCsv("978-0-06-112008-4,T,A,99999", new StringDictionary())).getMessage());
+    }
+}
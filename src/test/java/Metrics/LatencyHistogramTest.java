@@ -0,0 +1,62 @@
+package Metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketPrecision() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789L, Long.MAX_VALUE}) {
+            long lower = LatencyHistogram.lowerBound(LatencyHistogram.bucket(value));
+            assertTrue(lower <= value, "lower bound of " + value);
+            assertTrue(value - lower <= value / 16, "precision of " + value);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(1_000_000L, histogram.getMax());
+        assertEquals(500_000, histogram.percentile(0.5), 500_000 / 16.0);
+        assertEquals(990_000, histogram.percentile(0.99), 990_000 / 16.0);
+        assertEquals(0, histogram.percentile(0.0));
+        assertEquals(500_000, histogram.getMean(), 1_000);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long value = (t + 1) * 100L;
+            threads.add(Thread.startVirtualThread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(value);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.getCount());
+        assertEquals(800, histogram.getMax());
+    }
+}
@@ -0,0 +1,112 @@
+package Metrics;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibraryMetricsTest {
+
+    @TempDir
+    Path directory;
+
+    private final User mike = new User("Mike", "Myers", "mm@gmail.com");
+    private final Book lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+
+    @Test
+    public void testRecordsOperations() {
+        Library lib = new Library("Fairfax County Public Library");
+        LibraryMetrics metrics = new LibraryMetrics();
+        lib.setMetrics(metrics);
+
+        lib.addBook(lotr);
+        lib.addBook(lotr);
+        lib.tryCheckout(lotr, mike);
+        lib.tryCheckout(lotr, mike);
+        lib.getActiveBorrowers();
+        lib.tryReturn(lotr, mike);
+
+        assertEquals(1, metrics.getSuccessCount(Operation.ADD_BOOK));
+        assertEquals(1, metrics.getFailureCount(Operation.ADD_BOOK));
+        assertEquals(1, metrics.getSuccessCount(Operation.CHECKOUT));
+        assertEquals(1, metrics.getFailureCount(Operation.CHECKOUT));
+        assertEquals(1, metrics.getSuccessCount(Operation.GET_ACTIVE_BORROWERS));
+        assertEquals(1, metrics.getSuccessCount(Operation.RETURN));
+        assertEquals(2, metrics.getLatencies(Operation.CHECKOUT).getCount());
+        assertTrue(metrics.toString().startsWith("CHECKOUT: 1 ok, 1 failed"));
+
+        lib.setMetrics(null);
+        lib.tryCheckout(lotr, mike);
+        assertEquals(1, metrics.getSuccessCount(Operation.CHECKOUT));
+        assertNull(lib.getMetrics());
+
+        metrics.reset();
+        assertEquals(0, metrics.getLatencies(Operation.CHECKOUT).getCount());
+        assertEquals(0, metrics.getFailureCount(Operation.ADD_BOOK));
+    }
+
+    @Test
+    public void testCountsContendedLocks() throws Exception {
+        Library lib = new Library("Fairfax County Public Library", 1);
+        LibraryMetrics metrics = new LibraryMetrics();
+        lib.setMetrics(metrics);
+        lib.addBook(lotr);
+
+        // Hold the single stripe from another thread while checking out
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.startVirtualThread(() -> lib.runExclusive(() -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+        Thread borrower = Thread.startVirtualThread(() -> lib.tryCheckout(lotr, mike));
+        while (metrics.getContendedLockCount() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        holder.join();
+        borrower.join();
+
+        assertEquals(1, metrics.getContendedLockCount());
+        assertEquals(1, metrics.getSuccessCount(Operation.CHECKOUT));
+    }
+
+    @Test
+    public void testSlowOperationsEmitFlightRecorderEvents() throws Exception {
+        Library lib = new Library("Fairfax County Public Library");
+        lib.setMetrics(new LibraryMetrics(Duration.ZERO));
+        Path file = directory.resolve("library.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(SlowOperationEvent.class);
+            recording.start();
+            lib.addBook(lotr);
+            lib.tryCheckout(lotr, mike);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("SimpleLibrary.SlowOperation"))
+                .toList();
+        assertEquals(List.of("ADD_BOOK", "CHECKOUT"), events.stream().map(e -> e.getString("operation")).toList());
+        assertEquals("978-0-09-556397-5", events.get(1).getString("isbn"));
+        assertTrue(events.get(1).getBoolean("success"));
+    }
+}
@@ -0,0 +1,44 @@
+package Model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsbnTest {
+
+    @Test
+    public void testParse_isbn13() {
+        assertEquals(9780061120084L, Isbn.parse("978-0-06-112008-4"));
+        assertEquals(9780743273565L, Isbn.parse("9780743273565"));
+    }
+
+    @Test
+    public void testParse_isbn10_convertsToIsbn13() {
+        // ISBN-10 and ISBN-13 spellings of To Kill a Mockingbird share one key
+        assertEquals(Isbn.parse("978-0-06-112008-4"), Isbn.parse("0-06-112008-1"));
+
+        // 'X' check digit
+        assertEquals(Isbn.parse("978-0-8044-2957-3"), Isbn.parse("0-8044-2957-X"));
+    }
+
+    @Test
+    public void testParse_invalid_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Isbn.parse("978-0-06-112008-5")); // bad check digit
+        assertThrows(IllegalArgumentException.class, () -> Isbn.parse("978-0-06-112008"));   // too short
+        assertThrows(IllegalArgumentException.class, () -> Isbn.parse("0-8044-X957-3"));     // misplaced X
+        assertThrows(IllegalArgumentException.class, () -> Isbn.parse("abc"));
+    }
+
+    @Test
+    public void testTryParse_invalid_returnsSentinel() {
+        assertEquals(Isbn.INVALID, Isbn.tryParse(null));
+        assertEquals(Isbn.INVALID, Isbn.tryParse(""));
+        assertFalse(Isbn.isValid("978-0-09-556397-5"));
+        assertTrue(Isbn.isValid("978-0-7432-7356-5"));
+    }
+
+    @Test
+    public void testToIsbn13() {
+        assertEquals("9780061120084", Isbn.toIsbn13(Isbn.parse("0-06-112008-1")));
+    }
+}
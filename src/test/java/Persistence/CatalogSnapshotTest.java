@@ -0,0 +1,198 @@
+package Persistence;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private Library lib;
+    private User mike;
+    private User guest;
+    private Book lotr;
+    private Book mockingbird;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        lib = new Library("Fairfax County Public Library");
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        guest = new User("Guest", "Reader", null);
+
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954); // invalid check digit
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+
+        lib.addMember(mike);
+        lib.addBook(lotr);
+        lib.addBook(mockingbird);
+        lib.addBook(gatsby);
+        lib.tryCheckout(mockingbird, mike);
+        lib.tryCheckout(lotr, guest);
+    }
+
+    @Test
+    public void testWriteAndOpen_lookupByIsbn() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(3, snapshot.getBookCount());
+        assertEquals(2, snapshot.getUserCount());
+
+        Book found = snapshot.findBook("978-0-7432-7356-5");
+        assertEquals(gatsby, found);
+        assertEquals("The Great Gatsby", found.getTitle());
+        assertEquals("F. Scott Fitzgerald", found.getAuthor());
+        assertEquals(1925, found.getPublishYear());
+
+        // books with an unparseable ISBN are still found
+        assertEquals(lotr, snapshot.findBook("978-0-09-556397-5"));
+        assertNull(snapshot.findBook("978-0-8044-2957-3"));
+        assertNull(snapshot.findBook("not-an-isbn"));
+    }
+
+    @Test
+    public void testBorrowersAndMembers() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(mike, snapshot.getBorrower(snapshot.indexOf("978-0-06-112008-4")));
+        assertNull(snapshot.getBorrower(snapshot.indexOf("978-0-7432-7356-5")));
+
+        User borrower = snapshot.getBorrower(snapshot.indexOf("978-0-09-556397-5"));
+        assertEquals(guest, borrower);
+        assertNull(borrower.getEmail());
+
+        int members = 0;
+        for (int i = 0; i < snapshot.getUserCount(); i++) {
+            if (snapshot.isMember(i)) {
+                members++;
+                assertEquals(mike, snapshot.getUser(i));
+            }
+        }
+        assertEquals(1, members);
+    }
+
+    @Test
+    public void testLoadInto_restoresLibrary() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+
+        Library restored = new Library("Fairfax County Public Library");
+        CatalogSnapshot.open(file).loadInto(restored);
+
+        assertEquals(lib.getBooks(), restored.getBooks());
+        assertEquals(lib.getMembers(), restored.getMembers());
+        assertEquals(lib.getCheckedOutBooks(), restored.getCheckedOutBooks());
+        assertEquals(Optional.of(guest), restored.getCurrentBorrower(lotr));
+    }
+
+    @Test
+    public void testLargeCatalog_sortedLookup() throws IOException {
+        Library large = new Library("Large");
+        for (int i = 0; i < 5_000; i++) {
+            // mix of valid ISBN-13s (descending) and free-form identifiers
+            large.addBook(new Book(i % 2 == 0 ? isbn(5_000 - i) : "local-" + i, "Title " + (i % 10), "Author", 2000));
+        }
+        Path file = directory.resolve("large.snap");
+        CatalogSnapshot.write(large, file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        for (Book book : large.getBooks()) {
+            assertEquals(book, snapshot.findBook(book.getIsbn()));
+        }
+    }
+
+    @Test
+    public void testOpen_invalidFile_shouldThrow() throws IOException {
+        Path file = directory.resolve("garbage.snap");
+        Files.write(file, new byte[100]);
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    public void testOpen_corruptSectionOffsets_shouldThrow() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+        byte[] valid = Files.readAllBytes(file);
+
+        assertCorrupt(valid, file, 8, -1, false); // negative book count
+        assertCorrupt(valid, file, 16, 0, true); // books overlap the header
+        assertCorrupt(valid, file, 24, 64, true); // members overlap the books
+        assertCorrupt(valid, file, 32, 64 + 3 * 32, true); // strings overlap the members
+        assertCorrupt(valid, file, 32, Long.MAX_VALUE - 8, true); // strings past the end, without overflow
+        assertCorrupt(valid, file, 40, valid.length, true); // string section longer than the file
+        assertCorrupt(valid, file, 8, Integer.MAX_VALUE / 16, false); // books past the members
+
+        Files.write(file, valid);
+        assertEquals(3, CatalogSnapshot.open(file).getBookCount());
+    }
+
+    private static void assertCorrupt(byte[] valid, Path file, int field, long value, boolean isLong) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(valid.clone());
+        if (isLong) {
+            bytes.putLong(field, value);
+        } else {
+            bytes.putInt(field, (int) value);
+        }
+        Files.write(file, bytes.array());
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    public void testGetBook_returnsSameInstance() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        int index = snapshot.indexOf("978-0-7432-7356-5");
+        assertSame(snapshot.getBook(index), snapshot.getBook(index));
+        assertSame(snapshot.getBook(index), snapshot.findBook("978-0-7432-7356-5"));
+    }
+
+    @Test
+    public void testIndexOf_null_returnsMinusOne() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(-1, snapshot.indexOf(null));
+        assertNull(snapshot.findBook(null));
+    }
+
+    @Test
+    public void testGetBook_outOfRange_shouldThrow() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getBook(3));
+    }
+
+    private static String isbn(int index) {
+        String body = "978" + String.format("%09d", index);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (body.charAt(i) - '0') * ((i & 1) == 0 ? 1 : 3);
+        }
+        return body + ((10 - sum % 10) % 10);
+    }
+}
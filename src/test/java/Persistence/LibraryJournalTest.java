@@ -0,0 +1,234 @@
+package Persistence;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibraryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private User mike;
+    private User john;
+    private Book lotr;
+    private Book mockingbird;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+    }
+
+    @Test
+    public void testReopen_restoresCirculationState() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(lib)) {
+            populate(lib);
+            lib.tryReturn(lotr, mike);
+        }
+
+        Library restored = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertEquals(8, journal.getRecoveredRecords());
+            assertRestored(lib, restored);
+
+            // the borrower's own view of their books is rebuilt too
+            User restoredJohn = restored.getCurrentBorrower(gatsby).orElseThrow();
+            assertEquals(john.getId(), restoredJohn.getId());
+            assertEquals("ucantcme@gmail.com", restoredJohn.getEmail());
+            assertTrue(restoredJohn.getBooks().contains(gatsby));
+        }
+    }
+
+    @Test
+    public void testReopen_holdHandOff() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(lib)) {
+            lib.addMember(mike);
+            lib.addMember(john);
+            lib.addBook(lotr);
+            lib.tryCheckout(lotr, mike);
+            lib.placeHold(lotr, john);
+            lib.tryReturn(lotr, mike);
+        }
+
+        Library restored = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertEquals(Optional.of(john), restored.getCurrentBorrower(lotr));
+            assertTrue(restored.getBooks().isEmpty());
+        }
+    }
+
+    @Test
+    public void testReopen_nonMemberBorrower() throws IOException {
+        User guest = new User("Guest", "Reader", "guest@gmail.com");
+        Library lib = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(lib)) {
+            lib.addBook(lotr);
+            lib.tryCheckout(lotr, guest);
+        }
+
+        Library restored = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertEquals(Optional.of(guest), restored.getCurrentBorrower(lotr));
+            assertTrue(restored.getMembers().isEmpty());
+        }
+    }
+
+    @Test
+    public void testCheckpoint_deletesOldSegmentsAndRestores() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(lib)) {
+            populate(lib);
+            journal.checkpoint();
+
+            // changes after the checkpoint land in the new segment
+            lib.tryReturn(gatsby, john);
+            lib.tryCheckout(mockingbird, john);
+        }
+        assertEquals(1, segmentCount()); // only the segment started by the checkpoint remains
+
+        Library restored = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertEquals(2, journal.getRecoveredRecords());
+            assertRestored(lib, restored);
+        }
+    }
+
+    @Test
+    public void testCheckpoint_nonMemberBorrowsAgainAfterCheckpoint() throws IOException {
+        User guest = new User("Guest", "Reader", "guest@gmail.com");
+        Library lib = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(lib)) {
+            lib.addBook(lotr);
+            lib.tryCheckout(lotr, guest);
+            lib.tryReturn(lotr, guest);
+            journal.checkpoint();
+            lib.tryCheckout(lotr, guest);
+        }
+
+        Library restored = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertEquals(Optional.of(guest), restored.getCurrentBorrower(lotr));
+        }
+    }
+
+    @Test
+    public void testReopen_afterTornTail() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(lib)) {
+            populate(lib);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.filter(path -> path.toString().endsWith(".log")).findFirst().orElseThrow();
+            Files.write(segment, new byte[]{0, 0, 1, 0, 9, 9, 9}, StandardOpenOption.APPEND);
+        }
+
+        Library restored = new Library("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertRestored(lib, restored);
+        }
+    }
+
+    @Test
+    public void testConcurrentCirculation_withBackgroundCheckpoints() throws Exception {
+        Library lib = Library.concurrent("Fairfax County Public Library");
+        List<Book> catalog = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+
+        try (LibraryJournal journal = LibraryJournal.open(directory, lib, SyncMode.ASYNC, Duration.ofMillis(2))) {
+            journal.scheduleCheckpoints(Duration.ofMillis(20));
+            for (int i = 0; i < 64; i++) {
+                Book book = new Book("isbn-" + i, "Title " + i, "Author", 2000);
+                catalog.add(book);
+                lib.addBook(book);
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                User user = new User("Thread", "User" + t, "user" + t + "@gmail.com");
+                users.add(user);
+                lib.addMember(user);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        Book book = catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()));
+                        if (!lib.tryReturn(book, user).isSuccess()) {
+                            lib.tryCheckout(book, user);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+            journal.checkpoint();
+        }
+
+        Library restored = Library.concurrent("Fairfax County Public Library");
+        try (LibraryJournal journal = open(restored)) {
+            assertRestored(lib, restored);
+        }
+    }
+
+    @Test
+    public void testScheduleCheckpoints_requiresConcurrentLibrary() throws IOException {
+        try (LibraryJournal journal = open(new Library("Fairfax County Public Library"))) {
+            assertThrows(IllegalStateException.class, () -> journal.scheduleCheckpoints(Duration.ofSeconds(1)));
+        }
+    }
+
+    private LibraryJournal open(Library lib) throws IOException {
+        return LibraryJournal.open(directory, lib, SyncMode.GROUP, Duration.ofMillis(5));
+    }
+
+    // Journals 7 records: two members, three books and two checkouts
+    private void populate(Library lib) {
+        lib.addMember(mike);
+        lib.addMember(john);
+        lib.addBook(lotr);
+        lib.addBook(mockingbird);
+        lib.addBook(gatsby);
+        lib.tryCheckout(lotr, mike);
+        lib.tryCheckout(gatsby, john);
+    }
+
+    private static void assertRestored(Library expected, Library actual) {
+        assertEquals(expected.getBooks(), actual.getBooks());
+        assertEquals(expected.getMembers(), actual.getMembers());
+        assertEquals(expected.getCheckedOutBooks(), actual.getCheckedOutBooks());
+        assertEquals(expected.getActiveBorrowers(), actual.getActiveBorrowers());
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).count();
+        }
+    }
+}
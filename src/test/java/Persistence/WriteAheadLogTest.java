@@ -0,0 +1,190 @@
+package Persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppendAndReplay_inOrder() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(5), 64)) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i + 1, log.append(record(i)));
+            }
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        assertEquals(100, WriteAheadLog.replay(directory, 1, payload -> replayed.add(payload.getInt())));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, replayed.get(i));
+        }
+    }
+
+    @Test
+    public void testConcurrentGroupCommit_noRecordLost() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(1), 4096)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(record(thread * perThread + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+        }
+
+        boolean[] seen = new boolean[threads * perThread];
+        WriteAheadLog.replay(directory, 1, payload -> seen[payload.getInt()] = true);
+        for (boolean record : seen) {
+            assertTrue(record);
+        }
+    }
+
+    @Test
+    public void testAsyncMode_syncMakesRecordsVisible() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.ASYNC, Duration.ofSeconds(30), 1024)) {
+            log.append(record(1));
+            log.sync();
+            assertEquals(1, WriteAheadLog.replay(directory, 1, payload -> { }));
+        }
+    }
+
+    @Test
+    public void testAsyncMode_flushesOncePerInterval() throws Exception {
+        Path segment = directory.resolve("wal-00000000000000000001.log");
+        int writes = 0;
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.ASYNC, Duration.ofMillis(300), 1 << 20)) {
+            long size = Files.size(segment);
+            long end = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+            while (System.nanoTime() < end) {
+                log.append(record(1));
+                Thread.sleep(1);
+                if (Files.size(segment) != size) {
+                    size = Files.size(segment);
+                    writes++;
+                }
+            }
+        }
+        // a steady trickle of appends is written about every 300 ms, not as fast as the disk allows
+        assertTrue(writes >= 1 && writes <= 5, "writes: " + writes);
+    }
+
+    @Test
+    public void testReplay_truncatesTornTail() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.NONE, Duration.ofMillis(5), 1024)) {
+            log.append(record(1));
+            log.append(record(2));
+        }
+        Path segment = onlySegment();
+        long complete = Files.size(segment);
+
+        // Simulate a crash halfway through writing a third record
+        Files.write(segment, new byte[]{0, 0, 0, 4, 1, 2}, StandardOpenOption.APPEND);
+
+        assertEquals(2, WriteAheadLog.replay(directory, 1, payload -> { }));
+        assertEquals(complete, Files.size(segment));
+    }
+
+    @Test
+    public void testReplay_stopsAtCorruptRecord() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.NONE, Duration.ofMillis(5), 1024)) {
+            log.append(record(1));
+            log.append(record(2));
+        }
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x7F; // flip bits in the last record's payload
+        Files.write(segment, bytes);
+
+        List<Integer> replayed = new ArrayList<>();
+        assertEquals(1, WriteAheadLog.replay(directory, 1, payload -> replayed.add(payload.getInt())));
+        assertEquals(List.of(1), replayed);
+    }
+
+    @Test
+    public void testRotateAndDeleteOldSegments() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(5), 1024)) {
+            log.append(record(1));
+            long next = log.rotate();
+            assertEquals(2, next);
+            log.append(record(2));
+
+            log.deleteSegmentsBefore(next);
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        WriteAheadLog.replay(directory, 1, payload -> replayed.add(payload.getInt()));
+        assertEquals(List.of(2), replayed);
+    }
+
+    @Test
+    public void testReopen_appendsToNewSegment() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(5), 1024)) {
+            log.append(record(1));
+        }
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(5), 1024)) {
+            assertEquals(2, log.currentSegment());
+            log.append(record(2));
+        }
+        assertEquals(2, WriteAheadLog.replay(directory, 1, payload -> { }));
+    }
+
+    @Test
+    public void testAppend_oversizedRecord() throws IOException {
+        ByteBuffer large = ByteBuffer.allocate(10_000);
+        large.putInt(42).position(large.capacity()).flip();
+        try (WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(5), 64)) {
+            log.append(record(1));
+            log.append(large);
+        }
+        List<Integer> sizes = new ArrayList<>();
+        WriteAheadLog.replay(directory, 1, payload -> sizes.add(payload.remaining()));
+        assertEquals(List.of(4, 10_000), sizes);
+    }
+
+    @Test
+    public void testAppend_afterClose_shouldThrow() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, SyncMode.GROUP, Duration.ofMillis(5), 64);
+        log.close();
+        assertThrows(UncheckedIOException.class, () -> log.append(record(1)));
+    }
+
+    private static ByteBuffer record(int value) {
+        return ByteBuffer.allocate(4).putInt(value).flip();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
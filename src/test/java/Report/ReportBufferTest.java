@@ -0,0 +1,69 @@
+package Report;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportBufferTest {
+
+    @Test
+    public void testTextIsUtf8() {
+        String value = "Gabriel García Márquez, 東京, 📚";
+        assertEquals(value, written(new ReportBuffer(4).text(value)));
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), bytes(new ReportBuffer(4).text(value)));
+        assertEquals("?", written(new ReportBuffer(4).text("\uD83D")));
+        assertEquals("", written(new ReportBuffer(4).text(null)));
+    }
+
+    @Test
+    public void testNumbers() {
+        ReportBuffer buffer = new ReportBuffer(4);
+        buffer.number(0).ascii(' ').number(7).ascii(' ').number(1960).ascii(' ').number(-42).ascii(' ')
+                .number(Long.MAX_VALUE).ascii(' ').number(Long.MIN_VALUE);
+        assertEquals("0 7 1960 -42 " + Long.MAX_VALUE + " " + Long.MIN_VALUE, written(buffer));
+    }
+
+    @Test
+    public void testCsvQuoting() {
+        assertEquals("Harper Lee", written(new ReportBuffer(4).csv("Harper Lee")));
+        assertEquals("\"Pride and Prejudice, Again\"", written(new ReportBuffer(4).csv("Pride and Prejudice, Again")));
+        assertEquals("\"The \"\"Best\"\" Book\"", written(new ReportBuffer(4).csv("The \"Best\" Book")));
+        assertEquals("\"two\nlines\"", written(new ReportBuffer(4).csv("two\nlines")));
+        assertEquals("", written(new ReportBuffer(4).csv(null)));
+
+        ReportBuffer buffer = new ReportBuffer(4).ascii("a,");
+        int start = buffer.size();
+        buffer.text("b").ascii(',').text("c").quoteCsv(start);
+        assertEquals("a,\"b,c\"", written(buffer));
+    }
+
+    @Test
+    public void testJsonEscaping() {
+        assertEquals("null", written(new ReportBuffer(4).json(null)));
+        assertEquals("\"Dune\"", written(new ReportBuffer(4).json("Dune")));
+        assertEquals("\"say \\\"hi\\\"\\\\ \\n\\t\\u0001 é\"", written(new ReportBuffer(4).json("say \"hi\"\\ \n\t\u0001 é")));
+    }
+
+    @Test
+    public void testClearKeepsCapacity() {
+        ReportBuffer buffer = new ReportBuffer(4);
+        buffer.text("x".repeat(1000));
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertEquals("abc", written(buffer.text("abc")));
+    }
+
+    private static byte[] bytes(ReportBuffer buffer) {
+        ByteBuffer view = buffer.view();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static String written(ReportBuffer buffer) {
+        return new String(bytes(buffer), StandardCharsets.UTF_8);
+    }
+}
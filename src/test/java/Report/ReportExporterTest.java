@@ -0,0 +1,148 @@
+package Report;
+
+import Model.Book;
+import Model.User;
+import Service.Library;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testExportMembersCsv() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        User mike = new User("u1", "Mike", "Myers", "mm@gmail.com");
+        User jane = new User("u2", "Jane", "O\"Neil", "jane@example.com");
+        Book mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        lib.addMember(mike);
+        lib.addMember(jane);
+        lib.addBook(mockingbird);
+        lib.tryCheckout(mockingbird, mike);
+
+        Path file = directory.resolve("members.csv");
+        ExportReport report = new ReportExporter(pool, 1).exportMembers(lib, file, ReportFormat.CSV);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("id,firstName,lastName,email,titles,loans", lines.get(0));
+        assertEquals(Set.of("u1,Mike,Myers,mm@gmail.com,To Kill a Mockingbird,1", "u2,Jane,\"O\"\"Neil\",jane@example.com,,0"),
+                new HashSet<>(lines.subList(1, lines.size())));
+        assertEquals(2, report.getRows());
+        assertEquals(Files.size(file), report.getBytes());
+    }
+
+    @Test
+    public void testExportMembersJsonLines() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        User mike = new User("u1", "Mike", "Myers", "mm@gmail.com");
+        Book gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        Book pride = new Book("0-14-143951-3", "Pride and Prejudice, \"Again\"", "Jane Austen", 1813);
+        lib.addMember(mike);
+        lib.addBook(gatsby);
+        lib.addBook(pride);
+        lib.tryCheckout(gatsby, mike);
+        lib.tryCheckout(pride, mike);
+
+        Path file = directory.resolve("members.jsonl");
+        new ReportExporter(pool, 8).exportMembers(lib, file, ReportFormat.JSON_LINES);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        assertTrue(line.startsWith("{\"id\":\"u1\",\"firstName\":\"Mike\",\"lastName\":\"Myers\",\"email\":\"mm@gmail.com\",\"titles\":["), line);
+        assertTrue(line.contains("\"The Great Gatsby\""), line);
+        assertTrue(line.contains("\"Pride and Prejudice, \\\"Again\\\"\""), line);
+        assertTrue(line.endsWith("],\"loans\":2}"), line);
+    }
+
+    @Test
+    public void testExportLoans() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        User mike = new User("u1", "Mike", "Myers", "mm@gmail.com");
+        Book mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        Book gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        lib.addMember(mike);
+        lib.addBook(mockingbird);
+        lib.addBook(gatsby);
+        lib.tryCheckout(mockingbird, mike);
+
+        Path csv = directory.resolve("loans.csv");
+        ReportExporter exporter = new ReportExporter(pool, 8);
+        assertEquals(1, exporter.exportLoans(lib, csv, ReportFormat.CSV).getRows());
+        assertEquals(List.of("isbn,title,author,memberId,memberName", "978-0-06-112008-4,To Kill a Mockingbird,Harper Lee,u1,Mike Myers"),
+                Files.readAllLines(csv));
+
+        Path json = directory.resolve("loans.jsonl");
+        exporter.exportLoans(lib, json, ReportFormat.JSON_LINES);
+        assertEquals(List.of("{\"isbn\":\"978-0-06-112008-4\",\"title\":\"To Kill a Mockingbird\",\"author\":\"Harper Lee\",\"memberId\":\"u1\",\"memberName\":\"Mike Myers\"}"),
+                Files.readAllLines(json));
+    }
+
+    @Test
+    public void testManyMembersAcrossChunks() throws IOException {
+        Library lib = Library.concurrent("Fairfax County Public Library");
+        int members = 10_000;
+        for (int i = 0; i < members; i++) {
+            User user = new User("member-" + i, "First" + i, "Last" + i, i + "@example.com");
+            lib.addMember(user);
+            if (i % 10 == 0) {
+                Book book = new Book("isbn-" + i, "Title " + i, "Author " + i, 2000);
+                lib.addBook(book);
+                lib.tryCheckout(book, user);
+            }
+        }
+
+        Path file = directory.resolve("members.csv");
+        ExportReport report = new ReportExporter(pool, 64, 3).exportMembers(lib, file, ReportFormat.CSV);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(members + 1, lines.size());
+        assertEquals(members, report.getRows());
+        assertEquals(Files.size(file), report.getBytes());
+        Set<String> rows = new HashSet<>(lines.subList(1, lines.size()));
+        assertEquals(members, rows.size());
+        assertTrue(rows.contains("member-10,First10,Last10,10@example.com,Title 10,1"));
+        assertTrue(rows.contains("member-11,First11,Last11,11@example.com,,0"));
+
+        Path loans = directory.resolve("loans.csv");
+        assertEquals(members / 10, new ReportExporter(pool, 64, 3).exportLoans(lib, loans, ReportFormat.CSV).getRows());
+        assertEquals(members / 10 + 1, Files.readAllLines(loans).size());
+    }
+
+    @Test
+    public void testReplacesExistingFileAndEmptyReport() throws IOException {
+        Path file = directory.resolve("members.jsonl");
+        Files.writeString(file, "stale contents that are longer than the report\n");
+
+        ExportReport report = new ReportExporter(pool, 8).exportMembers(List.of(), file, ReportFormat.JSON_LINES);
+
+        assertEquals(0, report.getRows());
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ReportExporter(pool, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ReportExporter(pool, 8, 0));
+    }
+}
@@ -0,0 +1,70 @@
+package Search;
+
+import Model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthorIndexTest {
+
+    private AuthorIndex index;
+    private Book lotr;
+    private Book hobbit;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        index = new AuthorIndex();
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        hobbit = new Book("978-0-261-10221-7", "The Hobbit", "J.R.R. Tolkien", 1937);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        index.add(lotr);
+        index.add(gatsby);
+        index.add(hobbit);
+    }
+
+    @Test
+    public void testFindGroupsByAuthor() {
+        assertEquals(List.of(lotr, hobbit), index.find("J.R.R. Tolkien", book -> true));
+        assertEquals(List.of(gatsby), index.find("F. Scott Fitzgerald", book -> true));
+        assertTrue(index.find("William Golding", book -> true).isEmpty());
+        assertEquals(2, index.count("J.R.R. Tolkien"));
+        assertEquals(0, index.count("William Golding"));
+    }
+
+    @Test
+    public void testNamesAreNormalized() {
+        assertEquals(List.of(lotr, hobbit), index.find("j r r tolkien", book -> true));
+        assertEquals(List.of(lotr, hobbit), index.find("  J.R.R.  TOLKIEN ", book -> true));
+        Book borges = new Book("978-0-14-028680-9", "Ficciones", "Jorge Luis Borges", 1944);
+        index.add(borges);
+        assertEquals(List.of(borges), index.find("jorge luis börges", book -> true));
+    }
+
+    @Test
+    public void testFilter() {
+        assertEquals(List.of(hobbit), index.find("J.R.R. Tolkien", book -> book.getPublishYear() < 1950));
+    }
+
+    @Test
+    public void testAuthorsAndMissingAuthor() {
+        index.add(new Book("isbn-1", "Anonymous Work", null, 1900));
+        index.add(new Book("isbn-2", "Untitled", "  ", 1900));
+        assertEquals(List.of("J.R.R. Tolkien", "F. Scott Fitzgerald"), index.authors());
+        assertTrue(index.find(null, book -> true).isEmpty());
+    }
+
+    @Test
+    public void testManyAuthors() {
+        for (int i = 0; i < 1_000; i++) {
+            for (int j = 0; j < 3; j++) {
+                index.add(new Book("isbn-" + i + "-" + j, "Title", "Author " + i, 2000));
+            }
+        }
+        assertEquals(1_002, index.authors().size());
+        assertEquals(3, index.find("Author 500", book -> true).size());
+    }
+}
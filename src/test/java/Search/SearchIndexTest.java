@@ -0,0 +1,122 @@
+package Search;
+
+import Model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+    private Book lotr;
+    private Book flies;
+    private Book hobbit;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        index = new SearchIndex();
+
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        flies = new Book("978-0-03-491532-9", "Lord of the Flies", "William Golding", 1954);
+        hobbit = new Book("978-0-261-10221-7", "The Hobbit", "J.R.R. Tolkien", 1937);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+
+        index.add(lotr);
+        index.add(flies);
+        index.add(hobbit);
+        index.add(gatsby);
+    }
+
+    @Test
+    public void testAdd_duplicateIgnored() {
+        assertFalse(index.add(lotr));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testAddAll_skipsBooksAlreadyPresent() {
+        Book dune = new Book("978-0-441-17271-9", "Dune", "Frank Herbert", 1965);
+        assertEquals(1, index.addAll(List.of(lotr, dune, gatsby)));
+        assertEquals(5, index.size());
+        assertEquals(dune, index.search("dune", 5, book -> true).get(0).getBook());
+    }
+
+    @Test
+    public void testSearch_allWordsMustMatch() {
+        List<SearchHit> hits = index.search("lord rings ", 10, book -> true);
+        assertEquals(1, hits.size());
+        assertEquals(lotr, hits.get(0).getBook());
+    }
+
+    @Test
+    public void testSearch_titleRanksAboveAuthor() {
+        // "lord" is in two titles; both match, earlier-added book wins the tie
+        List<SearchHit> hits = index.search("lord ", 10, book -> true);
+        assertEquals(List.of(lotr, flies), hits.stream().map(SearchHit::getBook).toList());
+
+        // an author match alone scores below a title match
+        Book tolkienBiography = new Book("978-0-00-000000-2", "A Life", "Humphrey Carpenter", 1977);
+        Book carpenters = new Book("978-0-00-000001-9", "The Carpenter", "Anonymous", 2001);
+        index.add(tolkienBiography);
+        index.add(carpenters);
+        hits = index.search("carpenter ", 10, book -> true);
+        assertEquals(carpenters, hits.get(0).getBook());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    public void testSearch_prefixForTypeAhead() {
+        List<SearchHit> hits = index.search("tolk", 10, book -> true);
+        assertEquals(List.of(lotr, hobbit), hits.stream().map(SearchHit::getBook).toList());
+
+        // a trailing space means the last word is complete, so it only matches as a weaker fuzzy hit
+        List<SearchHit> complete = index.search("tolk ", 10, book -> true);
+        assertTrue(complete.get(0).getScore() < hits.get(0).getScore());
+    }
+
+    @Test
+    public void testSearch_fuzzyFallbackForMisspelling() {
+        List<SearchHit> hits = index.search("fitzgerld ", 10, book -> true);
+        assertEquals(1, hits.size());
+        assertEquals(gatsby, hits.get(0).getBook());
+    }
+
+    @Test
+    public void testSearch_reportsAvailability() {
+        List<SearchHit> hits = index.search("gatsby", 10, book -> !book.equals(gatsby));
+        assertFalse(hits.get(0).isAvailable());
+
+        hits = index.search("hobbit", 10, book -> !book.equals(gatsby));
+        assertTrue(hits.get(0).isAvailable());
+    }
+
+    @Test
+    public void testSearch_shortPrefixSkipsCommonTerms() {
+        for (int i = 0; i < 5_000; i++) {
+            index.add(new Book("zebra-" + i, "Zebra Crossing " + i, "Anonymous", 2000));
+        }
+        Book zeppelin = new Book("978-0-00-000000-2", "Zeppelin", "Anonymous", 2000);
+        index.add(zeppelin);
+
+        // "zebra" matches more books than a two-letter prefix may expand to
+        List<SearchHit> hits = index.search("ze", 10, book -> true);
+        assertEquals(1, hits.size());
+        assertEquals(zeppelin, hits.get(0).getBook());
+        assertEquals(10, index.search("zeb", 10, book -> true).size()); // three letters expand fully
+
+        // A single letter only matches a one-letter term
+        assertTrue(index.search("z", 10, book -> true).isEmpty());
+    }
+
+    @Test
+    public void testSearch_limitAndEmptyQuery() {
+        assertEquals(1, index.search("the", 1, book -> true).size());
+        assertTrue(index.search("", 10, book -> true).isEmpty());
+        assertTrue(index.search("gatsby", 0, book -> true).isEmpty());
+        assertTrue(index.search("zzzzzz ", 10, book -> true).isEmpty());
+    }
+}
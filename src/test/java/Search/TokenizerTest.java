@@ -0,0 +1,29 @@
+package Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenizerTest {
+
+    @Test
+    public void testTokenize_splitsAndLowercases() {
+        assertEquals(List.of("the", "lord", "of", "the", "rings"), Tokenizer.tokenize("The Lord of the Rings"));
+        assertEquals(List.of("j", "r", "r", "tolkien"), Tokenizer.tokenize("J.R.R. Tolkien"));
+    }
+
+    @Test
+    public void testTokenize_stripsAccentsAndApostrophes() {
+        assertEquals(List.of("gabriel", "garcia", "marquez"), Tokenizer.tokenize("Gabriel García Márquez"));
+        assertEquals(List.of("obrien"), Tokenizer.tokenize("O'Brien"));
+    }
+
+    @Test
+    public void testTokenize_emptyInput() {
+        assertTrue(Tokenizer.tokenize(null).isEmpty());
+        assertTrue(Tokenizer.tokenize("").isEmpty());
+        assertTrue(Tokenizer.tokenize(" -- ").isEmpty());
+    }
+}
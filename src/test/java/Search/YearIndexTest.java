@@ -0,0 +1,74 @@
+package Search;
+
+import Model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YearIndexTest {
+
+    private YearIndex index;
+    private Book lotr;
+    private Book flies;
+    private Book hobbit;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        index = new YearIndex();
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        flies = new Book("978-0-03-491532-9", "Lord of the Flies", "William Golding", 1954);
+        hobbit = new Book("978-0-261-10221-7", "The Hobbit", "J.R.R. Tolkien", 1937);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        index.add(lotr);
+        index.add(hobbit);
+        index.add(gatsby);
+        index.add(flies);
+    }
+
+    @Test
+    public void testRangeIsOrderedByYear() {
+        assertEquals(List.of(gatsby, hobbit, lotr, flies), index.range(1900, 2000, book -> true));
+        assertEquals(List.of(hobbit, lotr, flies), index.range(1937, 1954, book -> true));
+        assertEquals(List.of(lotr, flies), index.range(1954, 1954, book -> true));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testEmptyRanges() {
+        assertTrue(index.range(1955, 2020, book -> true).isEmpty());
+        assertTrue(index.range(1800, 1900, book -> true).isEmpty());
+        assertTrue(index.range(1960, 1950, book -> true).isEmpty());
+    }
+
+    @Test
+    public void testFilter() {
+        assertEquals(List.of(flies), index.range(1900, 2000, book -> book.getAuthor().startsWith("William")));
+    }
+
+    @Test
+    public void testMatchesScanOverManyYears() {
+        Random random = new Random(3);
+        YearIndex many = new YearIndex();
+        List<Book> all = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Book book = new Book("isbn-" + i, "Title", "Author", 1500 + random.nextInt(600));
+            all.add(book);
+            many.add(book);
+        }
+        for (int query = 0; query < 100; query++) {
+            int from = 1500 + random.nextInt(600);
+            int to = from + random.nextInt(50);
+            List<Book> expected = all.stream()
+                    .filter(book -> book.getPublishYear() >= from && book.getPublishYear() <= to)
+                    .sorted((a, b) -> Integer.compare(a.getPublishYear(), b.getPublishYear()))
+                    .toList();
+            assertEquals(expected, many.range(from, to, book -> true));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package Service;
+
+import Model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BorrowerIndexTest {
+
+    private BorrowerIndex index;
+    private User mike;
+    private User john;
+
+    @BeforeEach
+    public void setUp() {
+        index = new BorrowerIndex(false);
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+    }
+
+    @Test
+    public void testIncrementAndDecrement() {
+        index.increment(mike);
+        index.increment(mike);
+        index.increment(john);
+
+        assertEquals(2, index.loanCount(mike));
+        assertEquals(2, index.size());
+
+        index.decrement(mike);
+        assertTrue(index.contains(mike));
+
+        index.decrement(mike);
+        assertFalse(index.contains(mike));
+        assertEquals(0, index.loanCount(mike));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testDecrement_unknownUser_isIgnored() {
+        index.decrement(mike);
+        assertFalse(index.contains(mike));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testView_isLiveAndUnmodifiable() {
+        Set<User> view = index.view();
+        index.increment(john);
+
+        assertTrue(view.contains(john));
+        assertSame(view, index.view());
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(john));
+    }
+
+    @Test
+    public void testBatchIncrementAndDecrement() {
+        index.increment(mike, 3);
+        assertEquals(3, index.loanCount(mike));
+
+        index.decrement(mike, 2);
+        assertEquals(1, index.loanCount(mike));
+
+        index.decrement(mike, 1);
+        assertFalse(index.contains(mike));
+    }
+}
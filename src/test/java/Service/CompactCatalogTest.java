@@ -0,0 +1,97 @@
+package Service;
+
+import Model.Book;
+import Model.Isbn;
+import Model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactCatalogTest {
+
+    private CompactCatalog catalog;
+    private User mike;
+    private User john;
+    private Book mockingbird;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new CompactCatalog("Fairfax County Public Library", 2);
+
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+
+        catalog.addMember(mike);
+        catalog.addBook(mockingbird);
+        catalog.addBook(gatsby);
+    }
+
+    @Test
+    public void testAddBook() {
+        assertEquals(2, catalog.getBookCount());
+        assertTrue(catalog.isAvailable(Isbn.parse("978-0-06-112008-4")));
+        assertSame(gatsby, catalog.getBook(Isbn.parse("978-0-7432-7356-5")));
+
+        // the ISBN-10 spelling of a catalogued book is a duplicate
+        assertFalse(catalog.addBook(new Book("0-06-112008-1", "To Kill a Mockingbird", "Harper Lee", 1960)));
+    }
+
+    @Test
+    public void testAddBook_invalidIsbn_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.addBook(new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954)));
+    }
+
+    @Test
+    public void testAddBook_growsBeyondExpectedSize() {
+        for (int i = 0; i < 100; i++) {
+            String body = "978" + String.format("%09d", i);
+            int sum = 0;
+            for (int d = 0; d < 12; d++) {
+                sum += (body.charAt(d) - '0') * ((d & 1) == 0 ? 1 : 3);
+            }
+            assertTrue(catalog.addBook(new Book(body + ((10 - sum % 10) % 10), "Title", "Author", 2000)));
+        }
+        assertEquals(102, catalog.getBookCount());
+    }
+
+    @Test
+    public void testAddMember() {
+        assertFalse(catalog.addMember(mike));
+        assertTrue(catalog.addMember(john));
+        assertEquals(2, catalog.getMemberCount());
+    }
+
+    @Test
+    public void testCheckoutAndReturn() {
+        assertEquals(CirculationStatus.SUCCESS, catalog.checkout(mockingbird, mike));
+        assertEquals(mike, catalog.getCurrentBorrower(mockingbird));
+        assertFalse(catalog.isAvailable(Isbn.parse("978-0-06-112008-4")));
+
+        // lent books cannot be checked out again, and only the borrower can return them
+        assertEquals(CirculationStatus.NOT_AVAILABLE, catalog.checkout(mockingbird, john));
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, catalog.returnBook(mockingbird, john));
+
+        assertEquals(CirculationStatus.SUCCESS, catalog.returnBook(mockingbird, mike));
+        assertNull(catalog.getCurrentBorrower(mockingbird));
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, catalog.returnBook(mockingbird, mike));
+    }
+
+    @Test
+    public void testCheckout_unknownBook() {
+        Book unknown = new Book("978-0-8044-2957-3", "Unknown", "Nobody", 1999);
+        assertEquals(CirculationStatus.NOT_AVAILABLE, catalog.checkout(unknown, mike));
+        assertNull(catalog.getCurrentBorrower(unknown));
+    }
+
+    @Test
+    public void testCheckout_registersNewMember() {
+        assertEquals(CirculationStatus.SUCCESS, catalog.checkout(gatsby, john));
+        assertEquals(john, catalog.getCurrentBorrower(Isbn.parse("978-0-7432-7356-5")));
+        assertEquals(2, catalog.getMemberCount());
+    }
+}
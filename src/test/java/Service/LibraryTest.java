@@ -4,11 +4,26 @@ import Exceptions.BookNotAvailableException;
 import Exceptions.BookNotCheckedOutException;
 import Model.Book;
 import Model.User;
+import Search.SearchHit;
+import Storage.InMemoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -126,6 +141,30 @@ public class LibraryTest {
         }
     }
 
+    @Test
+    public void testGetActiveBorrowers_tracksReturns() throws BookNotAvailableException, BookNotCheckedOutException {
+        Set<User> activeBorrowers = lib.getActiveBorrowers();
+        assertTrue(activeBorrowers.isEmpty());
+
+        lib.checkout(lotr, john);
+        lib.checkout(gatsby, john);
+
+        // the view is live, so it reflects new loans without being fetched again
+        assertTrue(activeBorrowers.contains(john));
+        assertTrue(lib.isActiveBorrower(john));
+        assertEquals(1, lib.getActiveBorrowerCount());
+
+        // john stays active until his last book is returned
+        lib.returnBook(lotr, john);
+        assertTrue(lib.isActiveBorrower(john));
+        lib.returnBook(gatsby, john);
+        assertFalse(lib.isActiveBorrower(john));
+        assertEquals(0, lib.getActiveBorrowerCount());
+
+        // callers cannot modify the view
+        assertThrows(UnsupportedOperationException.class, () -> activeBorrowers.add(mike));
+    }
+
     @Test
     public void testGetCurrentBorrower() {
         try {
@@ -153,6 +192,40 @@ public class LibraryTest {
         }
     }
 
+    @Test
+    public void testTryCheckout() {
+        // first checkout succeeds and tracks the borrower
+        assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(gatsby, john));
+        assertEquals(john, lib.getCheckedOutBooks().get(gatsby));
+
+        // second checkout reports the book unavailable instead of throwing
+        assertEquals(CirculationStatus.NOT_AVAILABLE, lib.tryCheckout(gatsby, mike));
+        assertFalse(mike.getBooks().contains(gatsby));
+        assertEquals(john, lib.getCheckedOutBooks().get(gatsby));
+    }
+
+    @Test
+    public void testTryReturn() {
+        // returning a book that was never checked out fails without changing state
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, lib.tryReturn(lotr, mike));
+        assertTrue(lib.getBooks().contains(lotr));
+
+        lib.tryCheckout(lotr, mike);
+
+        // only the borrower can return the book
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, lib.tryReturn(lotr, john));
+        assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(lotr, mike));
+        assertTrue(lib.getBooks().contains(lotr));
+        assertNull(lib.getCheckedOutBooks().get(lotr));
+    }
+
+    @Test
+    public void testCheckout_unavailable_shouldThrow() throws BookNotAvailableException {
+        lib.checkout(gatsby, john);
+        assertThrows(BookNotAvailableException.class, () -> lib.checkout(gatsby, mike));
+        assertThrows(BookNotCheckedOutException.class, () -> lib.returnBook(gatsby, mike));
+    }
+
     @Test
     public void testAddBook() {
         // initialize new test book
@@ -165,6 +238,118 @@ public class LibraryTest {
         assertTrue(lib.getBooks().contains(flies));
     }
 
+    @Test
+    public void testSearch_includesCheckedOutBooks() throws BookNotAvailableException {
+        lib.checkout(gatsby, john);
+
+        List<SearchHit> hits = lib.search("great gats", 10);
+        assertEquals(1, hits.size());
+        assertEquals(gatsby, hits.get(0).getBook());
+        assertFalse(hits.get(0).isAvailable());
+
+        hits = lib.search("tolkien", 10);
+        assertEquals(lotr, hits.get(0).getBook());
+        assertTrue(hits.get(0).isAvailable());
+    }
+
+    @Test
+    public void testFindBooksByYear_followsCirculation() throws Exception {
+        assertEquals(List.of(lotr, mockingbird), lib.findBooksByYear(1950, 1960, false));
+
+        lib.checkout(lotr, mike);
+        assertEquals(List.of(lotr, mockingbird), lib.findBooksByYear(1950, 1960, false));
+        assertEquals(List.of(mockingbird), lib.findBooksByYear(1950, 1960, true));
+
+        lib.returnBook(lotr, mike);
+        assertEquals(List.of(lotr, mockingbird), lib.findBooksByYear(1950, 1960, true));
+        assertTrue(lib.findBooksByYear(1961, 2000, false).isEmpty());
+    }
+
+    @Test
+    public void testFindBooksByAuthor_followsCirculation() throws Exception {
+        Book hobbit = new Book("978-0-261-10221-7", "The Hobbit", "J.R.R. Tolkien", 1937);
+        lib.addBook(hobbit);
+        lib.checkout(hobbit, john);
+
+        assertEquals(List.of(lotr, hobbit), lib.findBooksByAuthor("j.r.r. tolkien", false));
+        assertEquals(List.of(lotr), lib.findBooksByAuthor("J.R.R. Tolkien", true));
+        assertFalse(lib.addBook(hobbit));
+        assertEquals(2, lib.findBooksByAuthor("J.R.R. Tolkien", false).size());
+        assertTrue(lib.findBooksByAuthor("William Golding", false).isEmpty());
+    }
+
+    @Test
+    public void testListener_notifiedOfSuccessfulChangesOnly() {
+        List<String> events = new ArrayList<>();
+        CirculationListener listener = new CirculationListener() {
+            @Override
+            public void onBookAdded(Book book) {
+                events.add("add " + book.getTitle());
+            }
+
+            @Override
+            public void onMemberAdded(User user) {
+                events.add("member " + user.getLastName());
+            }
+
+            @Override
+            public void onCheckout(Book book, User user) {
+                events.add("checkout " + book.getTitle());
+            }
+
+            @Override
+            public void onReturn(Book book, User user) {
+                events.add("return " + book.getTitle());
+            }
+        };
+        lib.addListener(listener);
+
+        Book flies = new Book("978-0-03-491532-9", "Lord of the Flies", "William Golding", 1954);
+        lib.addBook(flies);
+        lib.addBook(flies);
+        lib.addMember(new User("James", "Bond", "007@gmail.com"));
+        lib.tryCheckout(flies, mike);
+        lib.tryCheckout(flies, john);
+        lib.tryReturn(flies, john);
+        lib.tryReturn(flies, mike);
+
+        assertEquals(List.of("add Lord of the Flies", "member Bond", "checkout Lord of the Flies", "return Lord of the Flies"), events);
+
+        assertTrue(lib.removeListener(listener));
+        assertFalse(lib.removeListener(listener));
+        lib.tryCheckout(flies, mike);
+        assertEquals(4, events.size());
+    }
+
+    @Test
+    public void testRunExclusive_blocksCirculation() throws Exception {
+        Library concurrent = new Library("Stress Test Library", 4);
+        concurrent.addBook(lotr);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread exclusive = new Thread(() -> concurrent.runExclusive(() -> {
+            inside.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        exclusive.start();
+        inside.await();
+
+        // checkout cannot complete while the exclusive action runs
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<CirculationStatus> checkout = pool.submit(() -> concurrent.tryCheckout(lotr, mike));
+        assertThrows(TimeoutException.class, () -> checkout.get(100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertEquals(CirculationStatus.SUCCESS, checkout.get(10, TimeUnit.SECONDS));
+        exclusive.join();
+        pool.shutdown();
+    }
+
     @Test
     public void testAddMember() {
         // initialize new test user
@@ -176,4 +361,367 @@ public class LibraryTest {
         // confirm user is in library members list
         assertTrue(lib.getMembers().contains(james));
     }
+
+    @Test
+    public void testAddBook_checkedOutBook_shouldFail() throws BookNotAvailableException {
+        lib.checkout(lotr, mike);
+
+        // re-adding a lent book must not make it available a second time
+        assertFalse(lib.addBook(lotr));
+        assertFalse(lib.getBooks().contains(lotr));
+    }
+
+    @Test
+    public void testConcurrentConstructor() {
+        Library concurrent = Library.concurrent("Fairfax County Public Library");
+        assertTrue(concurrent.isConcurrent());
+        assertFalse(lib.isConcurrent());
+        assertThrows(IllegalArgumentException.class, () -> new Library("Invalid", 0));
+    }
+
+    @Test
+    public void testConcurrentCheckoutAndReturn_noBookLostOrDoubleLent() throws Exception {
+        int threads = 8;
+        int iterations = 20_000;
+        int bookCount = 32;
+
+        Library concurrent = new Library("Stress Test Library", 16);
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < bookCount; i++) {
+            Book book = new Book("isbn-" + i, "Title " + i, "Author " + i, 2000);
+            catalog.add(book);
+            concurrent.addBook(book);
+        }
+
+        // holders[i] counts how many users currently believe they hold book i
+        AtomicIntegerArray holders = new AtomicIntegerArray(bookCount);
+        AtomicIntegerArray doubleLent = new AtomicIntegerArray(1);
+        List<User> users = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            // Each thread owns its users, so only that thread can return what they borrowed
+            User first = new User("Thread", "First" + t, "first" + t + "@gmail.com");
+            User second = new User("Thread", "Second" + t, "second" + t + "@gmail.com");
+            users.add(first);
+            users.add(second);
+            concurrent.addMember(first);
+            concurrent.addMember(second);
+
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < iterations; i++) {
+                    User user = random.nextBoolean() ? first : second;
+                    int index = random.nextInt(bookCount);
+                    Book book = catalog.get(index);
+
+                    if (user.getBooks().contains(book)) {
+                        holders.decrementAndGet(index);
+                        concurrent.returnBook(book, user);
+                    } else {
+                        try {
+                            concurrent.checkout(book, user);
+                            if (holders.incrementAndGet(index) > 1) {
+                                doubleLent.incrementAndGet(0);
+                            }
+                        } catch (BookNotAvailableException ex) {
+                            // another user holds it, expected under contention
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // confirm no book was ever lent to two users at once
+        assertEquals(0, doubleLent.get(0));
+
+        // confirm every book is either available or checked out, never both or neither
+        Map<Book, User> checkedOut = concurrent.getCheckedOutBooks();
+        for (Book book : catalog) {
+            assertTrue(concurrent.getBooks().contains(book) ^ checkedOut.containsKey(book));
+        }
+        assertEquals(bookCount, concurrent.getBooks().size() + checkedOut.size());
+
+        // confirm every user's books agree with the library's loan tracking
+        int lent = 0;
+        for (User user : users) {
+            for (Book book : user.getBooks()) {
+                assertEquals(user, checkedOut.get(book));
+            }
+            lent += user.getBooks().size();
+            assertEquals(!user.getBooks().isEmpty(), concurrent.isActiveBorrower(user));
+        }
+        assertEquals(checkedOut.size(), lent);
+    }
+
+    @Test
+    public void testAddBooks() throws BookNotAvailableException {
+        Library concurrent = new Library("Fairfax County Public Library", 4);
+        concurrent.addBook(lotr);
+        concurrent.checkout(lotr, mike);
+
+        List<Book> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Book("isbn-" + i, "Title " + i, "Author", 2000));
+        }
+        batch.add(lotr); // checked out, must not be added again
+        batch.add(new Book("isbn-0", "Title 0", "Author", 2000));
+
+        assertEquals(100, concurrent.addBooks(batch));
+        assertEquals(100, concurrent.getBooks().size());
+        assertEquals(1, concurrent.search("title 42", 5).size());
+        assertEquals(100, concurrent.findBooksByYear(2000, 2000, false).size());
+        assertEquals(100, concurrent.findBooksByAuthor("author", true).size());
+        assertEquals(Optional.of(batch.get(7)), concurrent.findBook("isbn-7"));
+
+        assertEquals(1, lib.addBooks(List.of(gatsby, new Book("isbn-0", "Title 0", "Author", 2000))));
+        assertEquals(1, lib.addMembers(List.of(mike, john, new User("Jane", "Doe", null))));
+    }
+
+    @Test
+    public void testWithoutCatalogIndexes() {
+        Library unindexed = new Library("Fairfax County Public Library", new InMemoryStore(true), false);
+        unindexed.addBook(lotr);
+        assertEquals(2, unindexed.addBooks(List.of(gatsby, mockingbird, lotr)));
+
+        assertEquals(3, unindexed.getBooks().size());
+        assertEquals(CirculationStatus.SUCCESS, unindexed.tryCheckout(gatsby, mike));
+        assertSame(gatsby, unindexed.findBook("978-0-7432-7356-5").orElseThrow());
+        assertSame(lotr, unindexed.findBook("978-0-09-556397-5").orElseThrow());
+        assertTrue(unindexed.findBook("978-0-14-303943-3").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> unindexed.search("gatsby", 10));
+        assertThrows(UnsupportedOperationException.class, () -> unindexed.findBooksByYear(1900, 2000, false));
+        assertThrows(UnsupportedOperationException.class, () -> unindexed.findBooksByAuthor("Harper Lee", false));
+    }
+
+    @Test
+    public void testCheckoutAll_bestEffort() {
+        lib.tryCheckout(gatsby, john);
+
+        CirculationStatus[] results = lib.checkoutAll(mike, List.of(lotr, gatsby, mockingbird, lotr), BatchMode.BEST_EFFORT);
+
+        assertArrayEquals(new CirculationStatus[]{CirculationStatus.SUCCESS, CirculationStatus.NOT_AVAILABLE,
+                CirculationStatus.SUCCESS, CirculationStatus.NOT_AVAILABLE}, results);
+        assertEquals(Set.of(lotr, mockingbird), mike.getBooks());
+        assertEquals(mike, lib.getCheckedOutBooks().get(mockingbird));
+        assertTrue(lib.getBooks().isEmpty());
+        assertEquals(2, lib.getActiveBorrowerCount());
+    }
+
+    @Test
+    public void testCheckoutAll_allOrNothing() {
+        lib.tryCheckout(gatsby, john);
+
+        CirculationStatus[] results = lib.checkoutAll(mike, List.of(lotr, gatsby, mockingbird), BatchMode.ALL_OR_NOTHING);
+
+        assertArrayEquals(new CirculationStatus[]{CirculationStatus.ABORTED, CirculationStatus.NOT_AVAILABLE,
+                CirculationStatus.ABORTED}, results);
+        assertTrue(mike.getBooks().isEmpty());
+        assertTrue(lib.getBooks().containsAll(List.of(lotr, mockingbird)));
+        assertFalse(lib.isActiveBorrower(mike));
+
+        results = lib.checkoutAll(mike, List.of(lotr, mockingbird), BatchMode.ALL_OR_NOTHING);
+        assertArrayEquals(new CirculationStatus[]{CirculationStatus.SUCCESS, CirculationStatus.SUCCESS}, results);
+        assertEquals(Set.of(lotr, mockingbird), mike.getBooks());
+    }
+
+    @Test
+    public void testReturnAll() {
+        Library concurrent = new Library("Fairfax County Public Library", 2);
+        concurrent.addBooks(List.of(lotr, mockingbird, gatsby));
+        List<Book> journal = new ArrayList<>();
+        concurrent.addListener(new CirculationListener() {
+            @Override
+            public void onReturn(Book book, User user) {
+                journal.add(book);
+            }
+        });
+        concurrent.checkoutAll(mike, List.of(lotr, mockingbird, gatsby), BatchMode.ALL_OR_NOTHING);
+
+        CirculationStatus[] results = concurrent.returnAll(mike, List.of(lotr, lotr, mockingbird), BatchMode.ALL_OR_NOTHING);
+        assertArrayEquals(new CirculationStatus[]{CirculationStatus.ABORTED, CirculationStatus.NOT_CHECKED_OUT,
+                CirculationStatus.ABORTED}, results);
+        assertEquals(3, mike.getBooks().size());
+
+        results = concurrent.returnAll(mike, List.of(lotr, mockingbird), BatchMode.BEST_EFFORT);
+        assertArrayEquals(new CirculationStatus[]{CirculationStatus.SUCCESS, CirculationStatus.SUCCESS}, results);
+        assertEquals(Set.of(gatsby), mike.getBooks());
+        assertEquals(Set.of(lotr, mockingbird), concurrent.getBooks());
+        assertEquals(List.of(lotr, mockingbird), journal);
+        assertTrue(concurrent.isActiveBorrower(mike));
+
+        concurrent.returnAll(mike, List.of(gatsby), BatchMode.BEST_EFFORT);
+        assertFalse(concurrent.isActiveBorrower(mike));
+        assertTrue(concurrent.getCheckedOutBooks().isEmpty());
+    }
+
+    @Test
+    public void testCheckoutAll_concurrentOverlappingBatches() throws Exception {
+        Library concurrent = new Library("Fairfax County Public Library", 8);
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            catalog.add(new Book("isbn-" + i, "Title", "Author", 2000));
+        }
+        concurrent.addBooks(catalog);
+        User[] users = new User[4];
+        ExecutorService pool = Executors.newFixedThreadPool(users.length);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < users.length; t++) {
+            User user = users[t] = new User("User", Integer.toString(t), null);
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2_000; i++) {
+                    List<Book> batch = new ArrayList<>();
+                    for (int j = 0; j < 10; j++) {
+                        batch.add(catalog.get(random.nextInt(catalog.size())));
+                    }
+                    concurrent.checkoutAll(user, batch, random.nextBoolean() ? BatchMode.ALL_OR_NOTHING : BatchMode.BEST_EFFORT);
+                    concurrent.returnAll(user, new ArrayList<>(user.getBooks()), BatchMode.BEST_EFFORT);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(catalog.size(), concurrent.getBooks().size());
+        assertTrue(concurrent.getCheckedOutBooks().isEmpty());
+        assertEquals(0, concurrent.getActiveBorrowerCount());
+    }
+
+    @Test
+    public void testPlaceHold_availableBookIsCheckedOutAtOnce() throws Exception {
+        CompletableFuture<Book> hold = lib.placeHold(lotr, mike);
+
+        assertTrue(hold.isDone());
+        assertEquals(lotr, hold.get());
+        assertEquals(Optional.of(mike), lib.getCurrentBorrower(lotr));
+        assertSame(hold.get(), lib.placeHold(lotr, mike).get());
+        assertEquals(0, lib.getHoldCount(lotr));
+    }
+
+    @Test
+    public void testPlaceHold_handsOffInFifoOrder() throws Exception {
+        User jane = new User("Jane", "Doe", null);
+        List<String> events = new ArrayList<>();
+        lib.addListener(new CirculationListener() {
+            @Override
+            public void onCheckout(Book book, User user) {
+                events.add("checkout " + user.getFirstName());
+            }
+
+            @Override
+            public void onReturn(Book book, User user) {
+                events.add("return " + user.getFirstName());
+            }
+        });
+        lib.tryCheckout(lotr, mike);
+
+        CompletableFuture<Book> johnHold = lib.placeHold(lotr, john);
+        CompletableFuture<Book> janeHold = lib.placeHold(lotr, jane);
+        assertSame(johnHold, lib.placeHold(lotr, john));
+        assertFalse(johnHold.isDone());
+        assertEquals(2, lib.getHoldCount(lotr));
+
+        assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(lotr, mike));
+        assertEquals(lotr, johnHold.get(0, TimeUnit.SECONDS));
+        assertFalse(janeHold.isDone());
+        assertEquals(Optional.of(john), lib.getCurrentBorrower(lotr));
+        assertTrue(john.getBooks().contains(lotr));
+        assertFalse(lib.getBooks().contains(lotr));
+        assertFalse(lib.isActiveBorrower(mike));
+
+        lib.returnAll(john, List.of(lotr), BatchMode.BEST_EFFORT);
+        assertEquals(Optional.of(jane), lib.getCurrentBorrower(lotr));
+        assertTrue(janeHold.isDone());
+        assertEquals(0, lib.getHoldCount(lotr));
+        assertEquals(List.of("checkout Mike", "return Mike", "checkout John", "return John", "checkout Jane"), events);
+    }
+
+    @Test
+    public void testPlaceHold_cancelledHoldIsSkipped() {
+        lib.tryCheckout(lotr, mike);
+        CompletableFuture<Book> johnHold = lib.placeHold(lotr, john);
+        User jane = new User("Jane", "Doe", null);
+        CompletableFuture<Book> janeHold = lib.placeHold(lotr, jane);
+
+        johnHold.cancel(false);
+        assertEquals(1, lib.getHoldCount(lotr));
+
+        lib.tryReturn(lotr, mike);
+        assertTrue(janeHold.isDone());
+        assertEquals(Optional.of(jane), lib.getCurrentBorrower(lotr));
+        assertFalse(john.getBooks().contains(lotr));
+    }
+
+    @Test
+    public void testPlaceHold_unknownBook() {
+        Book flies = new Book("978-0-571-05686-2", "Lord of the Flies", "William Golding", 1954);
+        CompletableFuture<Book> hold = lib.placeHold(flies, mike);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, hold::get);
+        assertInstanceOf(BookNotAvailableException.class, ex.getCause());
+    }
+
+    @Test
+    public void testPlaceHold_concurrentWaitersAllGetTheBook() throws Exception {
+        Library concurrent = new Library("Fairfax County Public Library", 4);
+        concurrent.addBook(lotr);
+        int waiters = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(waiters);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < waiters; t++) {
+            User user = new User("User", Integer.toString(t), null);
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    Book book = concurrent.placeHold(lotr, user).get(10, TimeUnit.SECONDS);
+                    assertEquals(Optional.of(user), concurrent.getCurrentBorrower(book));
+                    assertEquals(CirculationStatus.SUCCESS, concurrent.tryReturn(book, user));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(concurrent.getBooks().contains(lotr));
+        assertEquals(0, concurrent.getHoldCount(lotr));
+        assertEquals(0, concurrent.getActiveBorrowerCount());
+    }
+
+    @Test
+    public void testFindBookAndMember() {
+        lib.tryCheckout(lotr, mike);
+
+        assertSame(lotr, lib.findBook("978-0-09-556397-5").orElseThrow());
+        assertSame(gatsby, lib.findBook("978-0-7432-7356-5").orElseThrow());
+        assertTrue(lib.findBook("978-0-00-000000-0").isEmpty());
+        assertTrue(lib.findBook(null).isEmpty());
+
+        assertSame(mike, lib.findMember(mike.getId()).orElseThrow());
+        assertTrue(lib.findMember("nobody").isEmpty());
+    }
+
+    @Test
+    public void testFindMembersByEmail() {
+        assertEquals(Set.of(mike), lib.findMembersByEmail("MM@gmail.com"));
+
+        mike.setEmail("mike@myers.com");
+        assertTrue(lib.findMembersByEmail("mm@gmail.com").isEmpty());
+        assertEquals(Set.of(mike), lib.findMembersByEmail("mike@myers.com"));
+        assertSame(mike, lib.findMember(mike.getId()).orElseThrow());
+    }
 }
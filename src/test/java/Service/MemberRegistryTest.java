@@ -0,0 +1,116 @@
+package Service;
+
+import Model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberRegistryTest {
+
+    private MemberRegistry registry;
+    private User mike;
+    private User john;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new MemberRegistry(false);
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+        registry.register(mike);
+        registry.register(john);
+    }
+
+    @Test
+    public void testRegisterAndFind() {
+        assertFalse(registry.register(mike));
+        assertFalse(registry.register(new User(mike.getId(), "Other", "Mike", "other@gmail.com")));
+        assertEquals(2, registry.size());
+
+        assertSame(mike, registry.findById(mike.getId()).orElseThrow());
+        assertTrue(registry.findById("nobody").isEmpty());
+        assertTrue(registry.findById(null).isEmpty());
+
+        assertEquals(Set.of(mike), registry.findByEmail("mm@gmail.com"));
+        assertEquals(Set.of(mike), registry.findByEmail("  MM@Gmail.com "));
+        assertTrue(registry.findByEmail("nobody@gmail.com").isEmpty());
+        assertTrue(registry.findByEmail(null).isEmpty());
+    }
+
+    @Test
+    public void testSharedEmail() {
+        User jane = new User("Jane", "Myers", "MM@gmail.com");
+        assertTrue(registry.register(jane));
+
+        assertEquals(Set.of(mike, jane), registry.findByEmail("mm@gmail.com"));
+    }
+
+    @Test
+    public void testSetEmailReindexes() {
+        mike.setEmail("mike@myers.com");
+
+        assertTrue(registry.findByEmail("mm@gmail.com").isEmpty());
+        assertEquals(Set.of(mike), registry.findByEmail("mike@myers.com"));
+
+        mike.setEmail(null);
+        assertTrue(registry.findByEmail("mike@myers.com").isEmpty());
+
+        mike.setEmail("mm@gmail.com");
+        assertEquals(Set.of(mike), registry.findByEmail("mm@gmail.com"));
+    }
+
+    @Test
+    public void testUnregister() {
+        assertTrue(registry.unregister(mike));
+        assertFalse(registry.unregister(mike));
+        assertFalse(registry.contains(mike));
+        assertTrue(registry.findById(mike.getId()).isEmpty());
+        assertTrue(registry.findByEmail("mm@gmail.com").isEmpty());
+
+        // No longer listening, so later changes do not reappear in the index.
+        mike.setEmail("mike@myers.com");
+        assertTrue(registry.findByEmail("mike@myers.com").isEmpty());
+    }
+
+    @Test
+    public void testConcurrentRegisterAndSetEmail() throws Exception {
+        MemberRegistry shared = new MemberRegistry(true);
+        int threads = 4;
+        int perThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<User>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                List<User> users = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    User user = new User("User", thread + "-" + i, "old" + thread + "-" + i + "@gmail.com");
+                    assertTrue(shared.register(user));
+                    user.setEmail("new" + thread + "-" + i + "@gmail.com");
+                    users.add(user);
+                }
+                return users;
+            }));
+        }
+
+        List<User> all = new ArrayList<>();
+        for (Future<List<User>> future : futures) {
+            all.addAll(future.get());
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, shared.size());
+        for (User user : all) {
+            assertSame(user, shared.findById(user.getId()).orElseThrow());
+            assertEquals(Set.of(user), shared.findByEmail(user.getEmail()));
+            assertTrue(shared.findByEmail("old" + user.getLastName() + "@gmail.com").isEmpty());
+        }
+    }
+}
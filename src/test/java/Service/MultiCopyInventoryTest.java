@@ -0,0 +1,170 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiCopyInventoryTest {
+
+    private MultiCopyInventory inventory;
+    private User mike;
+    private User john;
+    private User jane;
+    private Book mockingbird;
+
+    @BeforeEach
+    public void setUp() {
+        inventory = new MultiCopyInventory("Fairfax County Public Library");
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+        jane = new User("Jane", "Doe", null);
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        inventory.addTitle(mockingbird, 2);
+    }
+
+    @Test
+    public void testAddTitle() {
+        assertFalse(inventory.addTitle(mockingbird, 5));
+        assertEquals(2, inventory.getTotalCopies(mockingbird));
+        assertEquals(2, inventory.getAvailableCopies(mockingbird));
+        assertEquals(1, inventory.getTitleCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> inventory.addTitle(new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925), 0));
+    }
+
+    @Test
+    public void testCheckoutAndReturnCopies() {
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, mike));
+        assertEquals(CirculationStatus.ALREADY_BORROWED, inventory.tryCheckout(mockingbird, mike));
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, john));
+        assertEquals(CirculationStatus.NOT_AVAILABLE, inventory.tryCheckout(mockingbird, jane));
+
+        assertEquals(0, inventory.getAvailableCopies(mockingbird));
+        assertEquals(Set.of(mike, john), Set.copyOf(inventory.getBorrowers(mockingbird)));
+        assertTrue(inventory.hasCopy(mockingbird, mike));
+        assertTrue(mike.getBooks().isEmpty());
+
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, inventory.tryReturn(mockingbird, jane));
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryReturn(mockingbird, mike));
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, inventory.tryReturn(mockingbird, mike));
+        assertFalse(inventory.hasCopy(mockingbird, mike));
+        assertEquals(1, inventory.getAvailableCopies(mockingbird));
+        assertEquals(List.of(john), inventory.getBorrowers(mockingbird));
+
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, jane));
+    }
+
+    @Test
+    public void testReturnWithEqualUserInstance() {
+        inventory.tryCheckout(mockingbird, mike);
+        User sameMember = new User(mike.getId(), "Mike", "Myers", "mm@gmail.com");
+
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryReturn(mockingbird, sameMember));
+        assertEquals(2, inventory.getAvailableCopies(mockingbird));
+    }
+
+    @Test
+    public void testLibraryDoesNotTakeInventoryCopies() {
+        Library library = new Library("Fairfax County Public Library");
+        library.addMember(mike);
+        inventory.tryCheckout(mockingbird, mike);
+
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, library.tryReturn(mockingbird, mike));
+        assertFalse(library.getBooks().contains(mockingbird));
+        assertTrue(inventory.hasCopy(mockingbird, mike));
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryReturn(mockingbird, mike));
+        assertEquals(2, inventory.getAvailableCopies(mockingbird));
+    }
+
+    @Test
+    public void testUnknownTitle() {
+        Book gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        assertEquals(CirculationStatus.NOT_AVAILABLE, inventory.tryCheckout(gatsby, mike));
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, inventory.tryReturn(gatsby, mike));
+        assertEquals(0, inventory.getAvailableCopies(gatsby));
+        assertTrue(inventory.getBorrowers(gatsby).isEmpty());
+    }
+
+    @Test
+    public void testHolderOfLastCopy_getsAlreadyBorrowed() {
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, mike));
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, john));
+
+        assertEquals(CirculationStatus.ALREADY_BORROWED, inventory.tryCheckout(mockingbird, mike));
+        assertEquals(CirculationStatus.NOT_AVAILABLE, inventory.tryCheckout(mockingbird, jane));
+        assertFalse(inventory.hasCopy(mockingbird, jane));
+        assertEquals(CirculationStatus.NOT_CHECKED_OUT, inventory.tryReturn(mockingbird, jane));
+        assertEquals(0, inventory.getAvailableCopies(mockingbird));
+    }
+
+    @Test
+    public void testDuplicateCheckouts_neverTakeAnotherUsersCopy() throws Exception {
+        // mike holds one of the two copies and keeps asking for another while john borrows the
+        // other one over and over; john must never find it taken
+        assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, mike));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> duplicates = pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    assertEquals(CirculationStatus.ALREADY_BORROWED, inventory.tryCheckout(mockingbird, mike));
+                }
+            });
+            Future<?> borrower = pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    assertEquals(CirculationStatus.SUCCESS, inventory.tryCheckout(mockingbird, john));
+                    assertEquals(CirculationStatus.SUCCESS, inventory.tryReturn(mockingbird, john));
+                }
+            });
+            duplicates.get(30, TimeUnit.SECONDS);
+            borrower.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, inventory.getAvailableCopies(mockingbird));
+        assertEquals(List.of(mike), inventory.getBorrowers(mockingbird));
+    }
+
+    @Test
+    public void testConcurrentCheckoutNeverOverLends() throws Exception {
+        int copies = 8;
+        Book bestseller = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        inventory.addTitle(bestseller, copies);
+        AtomicInteger holding = new AtomicInteger();
+        AtomicInteger maxHolding = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            User user = new User("User", Integer.toString(t), null);
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (inventory.tryCheckout(bestseller, user) == CirculationStatus.SUCCESS) {
+                        maxHolding.accumulateAndGet(holding.incrementAndGet(), Math::max);
+                        holding.decrementAndGet();
+                        assertEquals(CirculationStatus.SUCCESS, inventory.tryReturn(bestseller, user));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(maxHolding.get() <= copies);
+        assertEquals(copies, inventory.getAvailableCopies(bestseller));
+        assertTrue(inventory.getBorrowers(bestseller).isEmpty());
+    }
+}
@@ -0,0 +1,179 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+import Util.ManualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverdueSchedulerTest {
+
+    private static final Instant START = Instant.parse("2024-09-01T09:00:00Z");
+    private static final Duration LOAN = Duration.ofDays(21);
+
+    private ManualClock clock;
+    private OverdueScheduler scheduler;
+    private Library lib;
+    private User mike;
+    private User john;
+    private Book lotr;
+    private Book gatsby;
+    private List<String> overdue;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(START);
+        scheduler = new OverdueScheduler(LOAN, clock, Duration.ofMinutes(1));
+        overdue = new ArrayList<>();
+        scheduler.addListener((book, user, dueDate) -> overdue.add(book.getTitle() + "/" + user.getFirstName() + "/" + dueDate));
+
+        lib = new Library("Fairfax County Public Library");
+        lib.addListener(scheduler);
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        lib.addMember(mike);
+        lib.addMember(john);
+        lib.addBook(lotr);
+        lib.addBook(gatsby);
+    }
+
+    @Test
+    public void testDueDate() {
+        lib.tryCheckout(lotr, mike);
+
+        assertEquals(START.plus(LOAN), scheduler.getDueDate(lotr).orElseThrow());
+        assertTrue(scheduler.getDueDate(gatsby).isEmpty());
+        assertEquals(1, scheduler.getLoanCount());
+    }
+
+    @Test
+    public void testOverdue() {
+        lib.tryCheckout(lotr, mike);
+        clock.advance(Duration.ofDays(1));
+        lib.tryCheckout(gatsby, john);
+
+        clock.advance(LOAN.minusDays(1).minusSeconds(1));
+        assertEquals(0, scheduler.advance());
+        assertFalse(scheduler.isOverdue(lotr));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, scheduler.advance());
+        assertEquals(List.of("The Lord of the Rings/Mike/" + START.plus(LOAN)), overdue);
+        assertTrue(scheduler.isOverdue(lotr));
+        assertFalse(scheduler.isOverdue(gatsby));
+        assertEquals(1, scheduler.getOverdueCount());
+
+        // Reported once only
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(0, scheduler.advance());
+
+        clock.advance(Duration.ofDays(1));
+        assertEquals(1, scheduler.advance());
+        assertEquals(2, scheduler.getOverdueCount());
+    }
+
+    @Test
+    public void testReturnCancels() {
+        lib.tryCheckout(lotr, mike);
+        lib.tryCheckout(gatsby, john);
+        clock.advance(LOAN.minusDays(1));
+        lib.tryReturn(lotr, mike);
+
+        clock.advance(Duration.ofDays(2));
+        assertEquals(1, scheduler.advance());
+        assertEquals(1, overdue.size());
+        assertTrue(scheduler.getDueDate(lotr).isEmpty());
+
+        lib.tryReturn(gatsby, john);
+        assertEquals(0, scheduler.getOverdueCount());
+        assertEquals(0, scheduler.getLoanCount());
+    }
+
+    @Test
+    public void testCheckoutAfterReturnGetsNewDueDate() {
+        lib.tryCheckout(lotr, mike);
+        clock.advance(Duration.ofDays(30));
+        scheduler.advance();
+        lib.tryReturn(lotr, mike);
+        lib.tryCheckout(lotr, john);
+
+        assertFalse(scheduler.isOverdue(lotr));
+        assertEquals(clock.instant().plus(LOAN), scheduler.getDueDate(lotr).orElseThrow());
+        assertEquals(0, scheduler.getOverdueCount());
+    }
+
+    @Test
+    public void testConcurrentLoansAcrossShards() throws Exception {
+        OverdueScheduler shared = new OverdueScheduler(LOAN, clock, Duration.ofMinutes(1));
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            futures.add(pool.submit(() -> {
+                for (int i = first; i < first + perThread; i++) {
+                    Book book = new Book(Integer.toString(i), null, null, 0);
+                    shared.onCheckout(book, mike);
+                    if (i % 2 == 0) {
+                        shared.onReturn(book, mike);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread / 2, shared.getLoanCount());
+        clock.advance(LOAN.plusDays(1));
+        List<Instant> dueDates = new ArrayList<>();
+        shared.addListener((book, user, dueDate) -> dueDates.add(dueDate));
+        assertEquals(threads * perThread / 2, shared.advance());
+        assertEquals(threads * perThread / 2, shared.getOverdueCount());
+        List<Instant> sorted = new ArrayList<>(dueDates);
+        sorted.sort(null);
+        assertEquals(sorted, dueDates);
+    }
+
+    @Test
+    public void testMillionLoansSimulatedTime() {
+        OverdueScheduler large = new OverdueScheduler(LOAN, clock, OverdueScheduler.DEFAULT_TICK);
+        int loans = 1_000_000;
+        Book[] books = new Book[loans];
+        for (int i = 0; i < loans; i++) {
+            books[i] = new Book(Integer.toString(i), null, null, 0);
+            large.onCheckout(books[i], mike);
+            if (i % 100_000 == 99_999) {
+                clock.advance(Duration.ofHours(1));
+            }
+        }
+        for (int i = 0; i < loans; i += 2) {
+            large.onReturn(books[i], mike);
+        }
+
+        int fired = 0;
+        for (int day = 0; day < 30; day++) {
+            clock.advance(Duration.ofDays(1));
+            fired += large.advance();
+        }
+
+        assertEquals(loans / 2, fired);
+        assertEquals(loans / 2, large.getOverdueCount());
+        assertEquals(loans / 2, large.getLoanCount());
+    }
+}
@@ -0,0 +1,131 @@
+package Service;
+
+import Exceptions.BookNotAvailableException;
+import Exceptions.BookNotCheckedOutException;
+import Model.Book;
+import Model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedLibraryTest {
+
+    private ShardedLibrary lib;
+    private User mike;
+    private User john;
+    private List<Book> catalog;
+
+    @BeforeEach
+    public void setUp() {
+        lib = new ShardedLibrary("Fairfax County Public Library", 4);
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+        lib.addMember(mike);
+        lib.addMember(john);
+
+        catalog = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            catalog.add(new Book("isbn-" + i, "Title " + i, "Author " + (i % 3), 2000 + i));
+        }
+        assertEquals(40, lib.addBooks(catalog));
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals("Fairfax County Public Library", lib.getName());
+        assertEquals(4, lib.getShardCount());
+        assertEquals(40, lib.getAvailableCount());
+        assertEquals(Set.of(mike, john), lib.getMembers());
+        assertThrows(IllegalArgumentException.class, () -> new ShardedLibrary("Empty", 0));
+    }
+
+    @Test
+    public void testCheckoutAndReturnAcrossShards() throws BookNotAvailableException, BookNotCheckedOutException {
+        for (int i = 0; i < 10; i++) {
+            lib.checkout(catalog.get(i), mike);
+        }
+        lib.checkout(catalog.get(10), john);
+        assertThrows(BookNotAvailableException.class, () -> lib.checkout(catalog.get(0), john));
+        assertThrows(BookNotCheckedOutException.class, () -> lib.returnBook(catalog.get(0), john));
+
+        assertEquals(11, lib.getCheckedOutCount());
+        assertEquals(29, lib.getAvailableCount());
+        assertEquals(Set.copyOf(catalog.subList(0, 10)), lib.getBooks(mike));
+        assertEquals(Optional.of(john), lib.getCurrentBorrower(catalog.get(10)));
+        assertEquals(Set.of(mike, john), lib.getActiveBorrowers());
+
+        lib.returnBook(catalog.get(10), john);
+        assertFalse(lib.isActiveBorrower(john));
+        assertTrue(lib.isActiveBorrower(mike));
+        assertEquals(1, lib.getActiveBorrowerCount());
+        assertFalse(lib.addBook(catalog.get(0)));
+    }
+
+    @Test
+    public void testSearchMergesShards() {
+        lib.tryCheckout(catalog.get(7), mike);
+
+        Library single = new Library("Fairfax County Public Library");
+        single.addBooks(catalog);
+        single.tryCheckout(catalog.get(7), mike);
+        for (String query : List.of("author 1", "title 3", "autor")) {
+            assertEquals(single.search(query, 100).stream().map(h -> h.getBook()).collect(Collectors.toSet()),
+                    lib.search(query, 100).stream().map(h -> h.getBook()).collect(Collectors.toSet()));
+        }
+        assertEquals(5, lib.search("author", 5).size());
+        assertEquals(catalog.get(7), lib.search("title 7", 1).get(0).getBook());
+        assertFalse(lib.search("title 7", 1).get(0).isAvailable());
+    }
+
+    @Test
+    public void testListenerSeesEveryShard() {
+        List<Book> checkedOut = new ArrayList<>();
+        lib.addListener(new CirculationListener() {
+            @Override
+            public void onCheckout(Book book, User user) {
+                checkedOut.add(book);
+            }
+        });
+        for (Book book : catalog) {
+            lib.tryCheckout(book, mike);
+        }
+        assertEquals(catalog, checkedOut);
+    }
+
+    @Test
+    public void testConcurrentCirculation() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            User user = new User("User", Integer.toString(t), null);
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    Book book = catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()));
+                    if (lib.tryCheckout(book, user).isSuccess()) {
+                        assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(book, user));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(40, lib.getAvailableCount());
+        assertEquals(0, lib.getCheckedOutCount());
+        assertTrue(lib.getActiveBorrowers().isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package Service;
+
+import Model.Book;
+import Model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionedCatalogTest {
+
+    private Library lib;
+    private User mike;
+    private User john;
+    private Book lotr;
+    private Book mockingbird;
+    private Book gatsby;
+
+    @BeforeEach
+    public void setUp() {
+        lib = new Library("Fairfax County Public Library");
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+        john = new User("John", "Cena", "ucantcme@gmail.com");
+        lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        lib.addMember(mike);
+        lib.addBook(lotr);
+        lib.addBook(mockingbird);
+        lib.tryCheckout(lotr, mike);
+    }
+
+    @Test
+    public void testAttachCopiesCurrentState() {
+        CatalogVersion version = VersionedCatalog.attach(lib).snapshot();
+
+        assertEquals(Set.of(mockingbird), version.getAvailableBooks());
+        assertEquals(Map.of(lotr, mike), version.getCheckedOutBooks());
+        assertEquals(Set.of(mike), version.getMembers());
+        assertTrue(version.isAvailable(mockingbird));
+        assertSame(mike, version.getCurrentBorrower(lotr).orElseThrow());
+    }
+
+    @Test
+    public void testSnapshotsArePointInTime() {
+        VersionedCatalog catalog = VersionedCatalog.attach(lib);
+        CatalogVersion before = catalog.snapshot();
+
+        lib.addMember(john);
+        lib.addBook(gatsby);
+        lib.tryReturn(lotr, mike);
+        lib.tryCheckout(mockingbird, john);
+        CatalogVersion after = catalog.snapshot();
+
+        assertEquals(Set.of(mockingbird), before.getAvailableBooks());
+        assertEquals(Map.of(lotr, mike), before.getCheckedOutBooks());
+        assertEquals(Set.of(mike), before.getMembers());
+
+        assertEquals(Set.of(lotr, gatsby), after.getAvailableBooks());
+        assertEquals(Map.of(mockingbird, john), after.getCheckedOutBooks());
+        assertEquals(Set.of(mike, john), after.getMembers());
+        assertEquals(before.getVersion() + 4, after.getVersion());
+        assertEquals(lib.getBooks(), after.getAvailableBooks());
+        assertEquals(lib.getCheckedOutBooks(), after.getCheckedOutBooks());
+    }
+
+    @Test
+    public void testFailedChangesDoNotCreateVersions() {
+        VersionedCatalog catalog = VersionedCatalog.attach(lib);
+        CatalogVersion before = catalog.snapshot();
+
+        lib.tryCheckout(lotr, john);
+        lib.tryReturn(mockingbird, mike);
+
+        assertSame(before, catalog.snapshot());
+    }
+
+    @Test
+    public void testReadersSeeConsistentVersionsDuringConcurrentCirculation() throws Exception {
+        Library shared = Library.concurrent("Concurrent Library");
+        int books = 512;
+        Book[] catalogBooks = new Book[books];
+        for (int i = 0; i < books; i++) {
+            catalogBooks[i] = new Book(Integer.toString(i), "Title " + i, "Author", 2000);
+            shared.addBook(catalogBooks[i]);
+        }
+        VersionedCatalog catalog = VersionedCatalog.attach(shared);
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            User user = new User("Writer", Integer.toString(t), null);
+            int offset = t;
+            writers.add(pool.submit(() -> {
+                for (int round = 0; round < 20_000; round++) {
+                    Book book = catalogBooks[(round * 7 + offset) % books];
+                    if (shared.tryCheckout(book, user) == CirculationStatus.SUCCESS) {
+                        shared.tryReturn(book, user);
+                    }
+                }
+            }));
+        }
+        Future<Integer> reader = pool.submit(() -> {
+            int checked = 0;
+            while (!stop.get()) {
+                CatalogVersion version = catalog.snapshot();
+                // Every book is either on the shelf or on loan, never both or neither
+                assertEquals(books, version.getAvailableBooks().size() + version.getCheckedOutBooks().size());
+                for (Book book : version.getCheckedOutBooks().keySet()) {
+                    assertFalse(version.isAvailable(book));
+                }
+                checked++;
+            }
+            return checked;
+        });
+
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        stop.set(true);
+        assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        pool.shutdown();
+
+        assertEquals(shared.getBooks(), catalog.snapshot().getAvailableBooks());
+        assertTrue(catalog.snapshot().getCheckedOutBooks().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package Storage;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.Library;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final User mike = new User("Mike", "Myers", "mm@gmail.com");
+    private final User john = new User("John", "Cena", "ucantcme@gmail.com");
+    private final Book lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+    private final Book gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+
+    @Test
+    public void testCheckoutAndReturn() throws IOException {
+        try (DiskStore store = DiskStore.open(dir, 100)) {
+            Library lib = new Library("Fairfax County Public Library", store);
+            lib.addMember(mike);
+            lib.addBook(lotr);
+            lib.addBook(gatsby);
+            assertEquals(2, lib.getBooks().size());
+            assertTrue(lib.getBooks().contains(lotr));
+
+            assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(lotr, mike));
+            assertSame(mike, lib.getCurrentBorrower(lotr).orElseThrow());
+            assertFalse(lib.getBooks().contains(lotr));
+            assertEquals(1, lib.getCheckedOutBooks().size());
+            assertTrue(mike.getBooks().contains(lotr));
+            assertNotEquals(CirculationStatus.SUCCESS, lib.tryCheckout(lotr, john));
+
+            assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(lotr, mike));
+            assertTrue(lib.getCurrentBorrower(lotr).isEmpty());
+            assertTrue(lib.getBooks().contains(lotr));
+            assertTrue(lib.getCheckedOutBooks().isEmpty());
+        }
+    }
+
+    @Test
+    public void testReopenRestoresLoansAndMembers() throws IOException {
+        try (DiskStore store = DiskStore.open(dir, 100, 4)) {
+            Library lib = new Library("Fairfax County Public Library", store);
+            lib.addMember(mike);
+            lib.addMember(john);
+            lib.addBook(lotr);
+            lib.addBook(gatsby);
+            lib.tryCheckout(gatsby, john);
+            john.setEmail("john@example.com");
+        }
+        try (DiskStore store = DiskStore.open(dir, 100, 4)) {
+            Library lib = new Library("Fairfax County Public Library", store);
+            assertEquals(2, lib.getMembers().size());
+            assertEquals(1, lib.getBooks().size());
+            assertEquals(1, lib.getCheckedOutBooks().size());
+            User borrower = lib.getCurrentBorrower(gatsby).orElseThrow();
+            assertEquals(john, borrower);
+            assertSame(lib.findMember(john.getId()).orElseThrow(), borrower);
+            assertTrue(borrower.getBooks().contains(gatsby));
+            assertEquals(1, lib.findMembersByEmail("john@example.com").size());
+            assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(gatsby, borrower));
+            assertEquals(2, lib.getBooks().size());
+        }
+    }
+
+    @Test
+    public void testFindBookWithoutSearchIndex() throws IOException {
+        try (DiskStore store = DiskStore.open(dir, 0)) {
+            Library lib = new Library("Fairfax County Public Library", store);
+            lib.addMember(mike);
+            lib.addBook(lotr);
+            lib.tryCheckout(lotr, mike);
+            assertEquals("The Lord of the Rings", lib.findBook(lotr.getIsbn()).orElseThrow().getTitle());
+            assertTrue(lib.findBook("missing").isEmpty());
+            assertThrows(UnsupportedOperationException.class, () -> lib.search("rings", 10));
+            assertThrows(UnsupportedOperationException.class, () -> lib.findBooksByYear(1950, 1960, false));
+        }
+    }
+
+    @Test
+    public void testMatchesInMemoryLibrary() throws IOException {
+        Random random = new Random(7);
+        // Users remember their own books, so each library gets its own instances
+        List<User> users = new ArrayList<>();
+        List<User> twins = new ArrayList<>();
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new User("user-" + i, "First" + i, "Last" + i, "user" + i + "@example.com"));
+            twins.add(new User("user-" + i, "First" + i, "Last" + i, "user" + i + "@example.com"));
+        }
+        for (int i = 0; i < 300; i++) {
+            catalog.add(new Book("isbn-" + i, "Title " + i, "Author " + (i % 13), 1900 + i % 100));
+        }
+        try (DiskStore store = DiskStore.open(dir, 32, 16)) {
+            Library disk = new Library("Disk", store);
+            Library memory = new Library("Memory");
+            users.forEach(disk::addMember);
+            twins.forEach(memory::addMember);
+            for (int i = 0; i < 5_000; i++) {
+                Book book = catalog.get(random.nextInt(catalog.size()));
+                int u = random.nextInt(users.size());
+                switch (random.nextInt(3)) {
+                    case 0 -> assertEquals(memory.addBook(book), disk.addBook(book));
+                    case 1 -> assertEquals(memory.tryCheckout(book, twins.get(u)), disk.tryCheckout(book, users.get(u)));
+                    default -> assertEquals(memory.tryReturn(book, twins.get(u)), disk.tryReturn(book, users.get(u)));
+                }
+                assertEquals(memory.getCurrentBorrower(book), disk.getCurrentBorrower(book));
+            }
+            assertEquals(memory.getBooks(), new HashSet<>(disk.getBooks()));
+            assertEquals(memory.getCheckedOutBooks(), new HashMap<>(disk.getCheckedOutBooks()));
+            assertTrue(store.getCacheHitRate() > 0);
+        }
+    }
+}
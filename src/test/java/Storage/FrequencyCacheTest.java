@@ -0,0 +1,99 @@
+package Storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrequencyCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        FrequencyCache<String, Integer> cache = new FrequencyCache<>(4);
+        assertNull(cache.get("a"));
+        assertTrue(cache.put("a", 1));
+        assertEquals(1, cache.get("a"));
+        assertTrue(cache.put("a", 2));
+        assertEquals(2, cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(2.0 / 3, cache.getHitRate(), 0.01);
+    }
+
+    @Test
+    public void testUpdateAndInvalidate() {
+        FrequencyCache<String, Integer> cache = new FrequencyCache<>(4);
+        cache.update("a", 1);
+        assertNull(cache.get("a"));
+        cache.put("a", 1);
+        cache.update("a", 2);
+        assertEquals(2, cache.get("a"));
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.get(i);
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void testScanDoesNotEvictHotEntries() {
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(10);
+        for (int round = 0; round < 5; round++) {
+            for (int hot = 0; hot < 10; hot++) {
+                if (cache.get(hot) == null) {
+                    cache.put(hot, hot);
+                }
+            }
+        }
+        // Each long-tail key is requested once, while the hot keys keep being requested
+        for (int cold = 1_000; cold < 2_000; cold++) {
+            if (cache.get(cold) == null) {
+                cache.put(cold, cold);
+            }
+            cache.get(cold % 10);
+        }
+        for (int hot = 0; hot < 10; hot++) {
+            assertEquals(hot, cache.get(hot));
+        }
+    }
+
+    @Test
+    public void testFrequentKeyIsAdmitted() {
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(2);
+        cache.get(1);
+        cache.put(1, 1);
+        cache.get(2);
+        cache.put(2, 2);
+        assertFalse(cache.put(3, 3));
+        for (int i = 0; i < 5; i++) {
+            cache.get(3);
+        }
+        assertTrue(cache.put(3, 3));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.get(3));
+    }
+
+    @Test
+    public void testFrequencySaturatesAndAges() {
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(1);
+        for (int i = 0; i < 100; i++) {
+            cache.get(7);
+        }
+        assertTrue(cache.frequency(7) <= 15);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(10_000 + i);
+        }
+        assertTrue(cache.frequency(7) < 15);
+    }
+
+    @Test
+    public void testRejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new FrequencyCache<>(0));
+    }
+}
@@ -0,0 +1,219 @@
+package Storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LsmTreeTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] b) {
+        return b == null ? null : new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPutGetDelete() throws IOException {
+        try (LsmTree tree = new LsmTree(dir, 100)) {
+            assertNull(tree.get("a"));
+            tree.put("a", bytes("1"));
+            tree.put("b", bytes("2"));
+            assertEquals("1", string(tree.get("a")));
+            tree.put("a", bytes("3"));
+            assertEquals("3", string(tree.get("a")));
+            tree.delete("a");
+            assertNull(tree.get("a"));
+            assertEquals("2", string(tree.get("b")));
+        }
+    }
+
+    @Test
+    public void testReadsAcrossFlushedSegments() throws IOException {
+        try (LsmTree tree = new LsmTree(dir, 4)) {
+            for (int i = 0; i < 20; i++) {
+                tree.put("key" + i, bytes("v" + i));
+            }
+            tree.delete("key3");
+            tree.put("key5", bytes("new"));
+            tree.flush();
+            assertTrue(tree.getSegmentCount() >= 1);
+            assertNull(tree.get("key3"));
+            assertEquals("new", string(tree.get("key5")));
+            assertEquals("v19", string(tree.get("key19")));
+            assertNull(tree.get("missing"));
+        }
+    }
+
+    @Test
+    public void testCompactionBoundsSegmentCount() throws IOException {
+        try (LsmTree tree = new LsmTree(dir, 2)) {
+            for (int i = 0; i < 200; i++) {
+                tree.put("key" + (i % 50), bytes("v" + i));
+            }
+            assertTrue(tree.getSegmentCount() <= 9);
+            for (int i = 150; i < 200; i++) {
+                assertEquals("v" + i, string(tree.get("key" + (i % 50))));
+            }
+        }
+    }
+
+    @Test
+    public void testReopenKeepsData() throws IOException {
+        try (LsmTree tree = new LsmTree(dir, 8)) {
+            for (int i = 0; i < 30; i++) {
+                tree.put("key" + i, bytes("v" + i));
+            }
+            tree.delete("key7");
+        }
+        try (LsmTree tree = new LsmTree(dir, 8)) {
+            assertNull(tree.get("key7"));
+            assertEquals("v29", string(tree.get("key29")));
+            assertEquals("v0", string(tree.get("key0")));
+        }
+    }
+
+    @Test
+    public void testReopenAfterInterruptedCompaction_deletedKeysStayDeleted() throws IOException {
+        Path saved = Files.createDirectory(dir.resolve("saved"));
+        Path data = dir.resolve("data");
+        try (LsmTree tree = new LsmTree(data, 1)) {
+            tree.put("gone", bytes("old"));
+            for (int i = 0; i < 6; i++) {
+                tree.put("key" + i, bytes("v" + i));
+            }
+            tree.delete("gone"); // eighth segment; the next flush starts a merge
+            assertEquals(8, tree.getSegmentCount());
+            try (Stream<Path> files = Files.list(data)) {
+                for (Path file : files.toList()) {
+                    Files.copy(file, saved.resolve(file.getFileName()));
+                }
+            }
+            tree.put("key6", bytes("v6"));
+            assertEquals(1, tree.getSegmentCount());
+        }
+
+        // A crash after the merged segment was renamed into place but before every old segment
+        // was deleted: put back the oldest one, which holds the value but not its deletion
+        List<Path> old;
+        try (Stream<Path> files = Files.list(saved)) {
+            old = files.sorted().toList();
+        }
+        Files.copy(old.get(0), data.resolve(old.get(0).getFileName()));
+        Files.copy(old.get(1), data.resolve(old.get(1).getFileName()));
+
+        try (LsmTree tree = new LsmTree(data, 1)) {
+            assertNull(tree.get("gone"));
+            assertEquals("v0", string(tree.get("key0")));
+            assertEquals("v6", string(tree.get("key6")));
+            assertEquals(1, tree.getSegmentCount());
+            assertFalse(Files.exists(data.resolve(old.get(0).getFileName())));
+        }
+    }
+
+    @Test
+    public void testIteratorIsSortedAndSkipsDeletions() throws IOException {
+        try (LsmTree tree = new LsmTree(dir, 3)) {
+            tree.put("c", bytes("3"));
+            tree.put("a", bytes("1"));
+            tree.put("d", bytes("4"));
+            tree.put("b", bytes("2"));
+            tree.delete("c");
+            tree.put("a", bytes("5"));
+            List<String> seen = new ArrayList<>();
+            for (Iterator<Map.Entry<String, byte[]>> it = tree.iterator(); it.hasNext(); ) {
+                Map.Entry<String, byte[]> entry = it.next();
+                seen.add(entry.getKey() + "=" + string(entry.getValue()));
+            }
+            assertEquals(List.of("a=5", "b=2", "d=4"), seen);
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchTreeMap() throws IOException {
+        Random random = new Random(42);
+        TreeMap<String, String> expected = new TreeMap<>();
+        try (LsmTree tree = new LsmTree(dir, 16)) {
+            for (int i = 0; i < 5_000; i++) {
+                String key = "k" + random.nextInt(500);
+                if (random.nextInt(4) == 0) {
+                    tree.delete(key);
+                    expected.remove(key);
+                } else {
+                    String value = "v" + i;
+                    tree.put(key, bytes(value));
+                    expected.put(key, value);
+                }
+            }
+            for (int i = 0; i < 500; i++) {
+                assertEquals(expected.get("k" + i), string(tree.get("k" + i)));
+            }
+            TreeMap<String, String> iterated = new TreeMap<>();
+            tree.iterator().forEachRemaining(e -> iterated.put(e.getKey(), string(e.getValue())));
+            assertEquals(expected, iterated);
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersDuringCompactionAndReopen() throws Exception {
+        int threads = 4;
+        int keysPerThread = 2_000;
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        try (LsmTree tree = new LsmTree(dir, 8)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                writers.add(new Thread(() -> {
+                    for (int i = 0; i < keysPerThread; i++) {
+                        tree.put("t" + id + "-" + i, bytes("v" + i));
+                        // A writer's own values stay visible while merges run
+                        if (!("v" + i).equals(string(tree.get("t" + id + "-" + i)))) {
+                            failures.add("t" + id + "-" + i);
+                        }
+                        if (i % 3 == 0) {
+                            tree.delete("t" + id + "-" + (i / 2));
+                        }
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+        TreeMap<String, String> expected = new TreeMap<>();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < keysPerThread; i++) {
+                expected.put("t" + t + "-" + i, "v" + i);
+                if (i % 3 == 0) {
+                    expected.remove("t" + t + "-" + (i / 2));
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), failures::toString);
+        try (LsmTree tree = new LsmTree(dir, 8)) {
+            TreeMap<String, String> iterated = new TreeMap<>();
+            tree.iterator().forEachRemaining(e -> iterated.put(e.getKey(), string(e.getValue())));
+            assertEquals(expected, iterated);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package Storage;
+
+import Model.Book;
+import Model.User;
+import Service.CirculationStatus;
+import Service.Library;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapStoreTest {
+
+    private OffHeapStore store;
+    private Book mockingbird;
+    private Book gatsby;
+    private User mike;
+
+    @BeforeEach
+    public void setUp() {
+        store = new OffHeapStore();
+        mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+        gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+        mike = new User("Mike", "Myers", "mm@gmail.com");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void testViewsReadColumns() {
+        assertTrue(store.availableBooks().add(mockingbird));
+        assertFalse(store.availableBooks().add(mockingbird));
+
+        Book view = store.findBook("978-0-06-112008-4").orElseThrow();
+        assertNotSame(mockingbird, view);
+        assertEquals(mockingbird, view);
+        assertEquals(view, mockingbird);
+        assertEquals(mockingbird.hashCode(), view.hashCode());
+        assertEquals("978-0-06-112008-4", view.getIsbn());
+        assertEquals("To Kill a Mockingbird", view.getTitle());
+        assertEquals("Harper Lee", view.getAuthor());
+        assertEquals(1960, view.getPublishYear());
+        assertEquals(mockingbird.toString(), view.toString());
+
+        // The same ISBN without hyphens is the same book
+        assertEquals(view, store.findBook("9780061120084").orElseThrow());
+        assertTrue(store.findBook("978-0-7432-7356-5").isEmpty());
+        assertTrue(store.findBook("not an isbn").isEmpty());
+    }
+
+    @Test
+    public void testTextEdgeCases() {
+        Book unicode = new Book("978-0-8044-2957-3", "Ficciones — «cuentos» 日本", null, -50);
+        Book empty = new Book(isbn(1), "", "", 0);
+        store.availableBooks().add(unicode);
+        store.availableBooks().add(empty);
+        Book view = store.findBook(unicode.getIsbn()).orElseThrow();
+        assertEquals("Ficciones — «cuentos» 日本", view.getTitle());
+        assertNull(view.getAuthor());
+        assertEquals(-50, view.getPublishYear());
+        Book emptyView = store.findBook(empty.getIsbn()).orElseThrow();
+        assertEquals("", emptyView.getTitle());
+        assertEquals("", emptyView.getAuthor());
+    }
+
+    @Test
+    public void testRejectsInvalidIsbn() {
+        Book invalid = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+        assertThrows(IllegalArgumentException.class, () -> store.availableBooks().add(invalid));
+        assertFalse(store.availableBooks().contains(invalid));
+        assertNull(store.loans().get(invalid));
+    }
+
+    @Test
+    public void testLibraryCirculation() {
+        Library lib = new Library("Fairfax County Public Library", store);
+        lib.addMember(mike);
+        assertTrue(lib.addBook(mockingbird));
+        assertTrue(lib.addBook(gatsby));
+        assertEquals(2, lib.getBooks().size());
+
+        assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(mockingbird, mike));
+        assertSame(mike, lib.getCurrentBorrower(mockingbird).orElseThrow());
+        assertFalse(lib.getBooks().contains(mockingbird));
+        assertFalse(lib.addBook(mockingbird));
+        assertEquals(1, lib.getCheckedOutBooks().size());
+        Map.Entry<Book, User> loan = lib.getCheckedOutBooks().entrySet().iterator().next();
+        assertEquals(mockingbird, loan.getKey());
+        assertSame(mike, loan.getValue());
+
+        assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(mockingbird, mike));
+        assertTrue(lib.getCurrentBorrower(mockingbird).isEmpty());
+        assertEquals(Set.of(mockingbird, gatsby), new HashSet<>(lib.getBooks()));
+        assertEquals("The Great Gatsby", lib.findBook(gatsby.getIsbn()).orElseThrow().getTitle());
+        assertThrows(UnsupportedOperationException.class, () -> lib.search("gatsby", 10));
+    }
+
+    @Test
+    public void testManyBooksAcrossChunks() {
+        int count = 200_000;
+        for (int i = 0; i < count; i++) {
+            store.availableBooks().add(new Book(isbn(i), "Title " + i, "Author " + i % 100, 1900 + i % 100));
+        }
+        assertEquals(count, store.getBookCount());
+        assertEquals(count, store.availableBooks().size());
+        for (int i = 0; i < count; i += 997) {
+            Book view = store.findBook(isbn(i)).orElseThrow();
+            assertEquals("Title " + i, view.getTitle());
+            assertEquals("Author " + i % 100, view.getAuthor());
+            assertEquals(1900 + i % 100, view.getPublishYear());
+        }
+        int iterated = 0;
+        for (Book ignored : store.availableBooks()) {
+            iterated++;
+        }
+        assertEquals(count, iterated);
+        assertTrue(store.getOffHeapBytes() > 0);
+    }
+
+    @Test
+    public void testViewsReadableWhileStoreGrows() throws InterruptedException {
+        store.availableBooks().add(mockingbird);
+        Book view = store.findBook(mockingbird.getIsbn()).orElseThrow();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 150_000; i++) { // grows the row and text chunk arrays
+                store.availableBooks().add(new Book(isbn(i + 10), "Title " + i, "Author " + i % 100, 2000));
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            assertEquals(mockingbird.hashCode(), view.hashCode());
+            assertEquals("To Kill a Mockingbird", view.getTitle());
+        }
+        writer.join();
+        assertEquals(150_001, store.getBookCount());
+    }
+
+    @Test
+    public void testViewsUnreadableAfterClose() {
+        store.availableBooks().add(mockingbird);
+        Book view = store.findBook(mockingbird.getIsbn()).orElseThrow();
+        store.close();
+        assertThrows(IllegalStateException.class, view::getTitle);
+        store.close();
+    }
+
+    @Test
+    public void testViewsInSetsAfterClose() {
+        Library lib = new Library("Fairfax County Public Library", store);
+        lib.addMember(mike);
+        lib.addBook(mockingbird);
+        Book view = lib.findBook(mockingbird.getIsbn()).orElseThrow();
+        assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(view, mike));
+        assertEquals(view, store.findBook("9780061120084").orElseThrow());
+
+        store.close();
+        // the view was hashed when the user took it, so it is still found both ways
+        assertTrue(mike.getBooks().contains(view));
+        assertTrue(mike.getBooks().contains(mockingbird));
+        assertEquals(mockingbird.hashCode(), view.hashCode());
+        assertEquals(view, mockingbird);
+    }
+
+    @Test
+    public void testOnlyOneThreadTakesABook() throws Exception {
+        int threads = 8;
+        store.availableBooks().add(mockingbird);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger taken = new AtomicInteger();
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        if (store.availableBooks().remove(mockingbird)) {
+                            taken.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) {
+                    result.get();
+                }
+                assertEquals(1, taken.get());
+                assertTrue(store.availableBooks().add(mockingbird));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentCirculation() throws Exception {
+        int threads = 8;
+        int books = 64;
+        Library lib = new Library("Fairfax County Public Library", store);
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            catalog.add(new Book(isbn(i), "Title " + i, "Author", 2000));
+        }
+        lib.addBooks(catalog);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                User reader = new User("Reader", "" + t, null);
+                lib.addMember(reader);
+                results.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        Book book = catalog.get(random.nextInt(books));
+                        if (lib.tryCheckout(book, reader) != CirculationStatus.SUCCESS) {
+                            lib.tryReturn(book, reader);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // every book is either on the shelf or held by exactly the member the store says has it
+        assertEquals(books, lib.getBooks().size() + lib.getCheckedOutBooks().size());
+        int held = 0;
+        for (User member : lib.getMembers()) {
+            for (Book book : member.getBooks()) {
+                assertSame(member, lib.getCurrentBorrower(book).orElseThrow());
+                held++;
+            }
+        }
+        assertEquals(lib.getCheckedOutBooks().size(), held);
+        assertEquals(lib.getCheckedOutBooks().size(), new ArrayList<>(lib.getCheckedOutBooks().entrySet()).size());
+    }
+
+    /**
+     * Builds a valid ISBN-13 with a 978 prefix from a sequence number.
+     */
+    private static String isbn(long index) {
+        long body = 978_000_000_000L + index;
+        int sum = 0;
+        long digits = body;
+        for (int i = 0; i < 12; i++) {
+            int digit = (int) (digits % 10);
+            sum += (i % 2 == 0) ? digit * 3 : digit;
+            digits /= 10;
+        }
+        return Long.toString(body * 10 + (10 - sum % 10) % 10);
+    }
+}
@@ -0,0 +1,130 @@
+package Storage;
+
+import Model.Book;
+import Model.User;
+import Persistence.CatalogSnapshot;
+import Service.CirculationStatus;
+import Service.Library;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private final User mike = new User("Mike", "Myers", "mm@gmail.com");
+    private final User john = new User("John", "Cena", "ucantcme@gmail.com");
+    private final User guest = new User("Guest", "Reader", null);
+    private final Book lotr = new Book("978-0-09-556397-5", "The Lord of the Rings", "J.R.R. Tolkien", 1954);
+    private final Book mockingbird = new Book("978-0-06-112008-4", "To Kill a Mockingbird", "Harper Lee", 1960);
+    private final Book gatsby = new Book("978-0-7432-7356-5", "The Great Gatsby", "F. Scott Fitzgerald", 1925);
+    private final Book dune = new Book("978-0-441-17271-9", "Dune", "Frank Herbert", 1965);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Library lib = new Library("Fairfax County Public Library");
+        lib.addMember(mike);
+        lib.addMember(john);
+        lib.addBook(lotr);
+        lib.addBook(mockingbird);
+        lib.addBook(gatsby);
+        lib.tryCheckout(mockingbird, mike);
+        lib.tryCheckout(lotr, guest);
+        file = dir.resolve("catalog.snap");
+        CatalogSnapshot.write(lib, file);
+    }
+
+    @Test
+    public void testLibraryStartsFromSnapshot() throws IOException {
+        Library lib = new Library("Fairfax County Public Library", SnapshotStore.open(file));
+
+        assertEquals(new HashSet<>(List.of(gatsby)), new HashSet<>(lib.getBooks()));
+        assertEquals(new HashSet<>(List.of(mike, john)), new HashSet<>(lib.getMembers()));
+        assertEquals(2, lib.getCheckedOutBooks().size());
+        assertEquals(Optional.of(mike), lib.getCurrentBorrower(mockingbird));
+        assertEquals(Optional.of(guest), lib.getCurrentBorrower(lotr));
+
+        // the borrower read from the snapshot is the registered member and holds the book
+        User member = lib.findMember(mike.getId()).orElseThrow();
+        assertSame(member, lib.getCurrentBorrower(mockingbird).orElseThrow());
+        assertTrue(member.getBooks().contains(mockingbird));
+        assertTrue(lib.isActiveBorrower(member));
+    }
+
+    @Test
+    public void testCheckoutAndReturn_keptInOverlay() throws IOException {
+        byte[] before = Files.readAllBytes(file);
+        SnapshotStore store = SnapshotStore.open(file);
+        Library lib = new Library("Fairfax County Public Library", store);
+        User member = lib.findMember(mike.getId()).orElseThrow();
+        User other = lib.findMember(john.getId()).orElseThrow();
+
+        // return a loan that came from the snapshot, then lend the book to someone else
+        assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(mockingbird, member));
+        assertTrue(lib.getBooks().contains(mockingbird));
+        assertFalse(member.getBooks().contains(mockingbird));
+        assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(mockingbird, other));
+        assertSame(other, lib.getCurrentBorrower(mockingbird).orElseThrow());
+
+        assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(gatsby, member));
+        assertTrue(lib.getBooks().isEmpty());
+        assertEquals(3, lib.getCheckedOutBooks().size());
+        assertEquals(2, store.getChangedBookCount());
+
+        HashMap<Book, User> loans = new HashMap<>(lib.getCheckedOutBooks());
+        assertEquals(other, loans.get(mockingbird));
+        assertEquals(member, loans.get(gatsby));
+        assertEquals(guest, loans.get(lotr));
+
+        // the snapshot file is never written
+        assertArrayEquals(before, Files.readAllBytes(file));
+        Library reopened = new Library("Fairfax County Public Library", SnapshotStore.open(file));
+        assertEquals(Optional.of(mike), reopened.getCurrentBorrower(mockingbird));
+        assertTrue(reopened.getBooks().contains(gatsby));
+    }
+
+    @Test
+    public void testAddBooksAndMembers() throws IOException {
+        Library lib = new Library("Fairfax County Public Library", SnapshotStore.open(file));
+        User reader = new User("New", "Reader", "new@example.com");
+
+        assertTrue(lib.addMember(reader));
+        assertFalse(lib.addMember(mike));
+        assertTrue(lib.addBook(dune));
+        assertFalse(lib.addBook(gatsby));
+        assertEquals(2, lib.getBooks().size());
+        assertTrue(lib.getBooks().contains(dune));
+
+        assertEquals(CirculationStatus.SUCCESS, lib.tryCheckout(dune, reader));
+        assertEquals(Optional.of(reader), lib.getCurrentBorrower(dune));
+        assertEquals(3, lib.getCheckedOutBooks().size());
+        assertTrue(lib.getCheckedOutBooks().containsKey(dune));
+        assertEquals(CirculationStatus.SUCCESS, lib.tryReturn(dune, reader));
+        assertTrue(lib.getBooks().contains(dune));
+    }
+
+    @Test
+    public void testFindBook() throws IOException {
+        Library lib = new Library("Fairfax County Public Library", SnapshotStore.open(file));
+
+        assertEquals(Optional.of(gatsby), lib.findBook("978-0-7432-7356-5"));
+        assertEquals(Optional.of(lotr), lib.findBook("978-0-09-556397-5"));
+        assertTrue(lib.findBook("978-0-441-17271-9").isEmpty());
+        lib.addBook(dune);
+        assertEquals(Optional.of(dune), lib.findBook("978-0-441-17271-9"));
+        assertSame(lib.findBook("978-0-7432-7356-5").orElseThrow(), lib.findBook("978-0-7432-7356-5").orElseThrow());
+    }
+}
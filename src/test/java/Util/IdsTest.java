@@ -0,0 +1,36 @@
+package Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdsTest {
+
+    @Test
+    public void testVersionAndVariant() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = Ids.randomUuid();
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+        }
+    }
+
+    @Test
+    public void testRandomIdRoundTrips() {
+        String id = Ids.randomId();
+        assertEquals(36, id.length());
+        assertEquals(id, UUID.fromString(id).toString());
+    }
+
+    @Test
+    public void testUnique() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(ids.add(Ids.randomId()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongIntHashMap map = new LongIntHashMap(4, -1);
+
+        assertEquals(-1, map.put(9780061120084L, 7));
+        assertEquals(7, map.get(9780061120084L));
+        assertEquals(7, map.put(9780061120084L, 8));
+        assertEquals(1, map.size());
+
+        assertEquals(8, map.remove(9780061120084L));
+        assertEquals(-1, map.get(9780061120084L));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongIntHashMap map = new LongIntHashMap(4, -1);
+        assertFalse(map.containsKey(0L));
+
+        map.put(0L, 3);
+        assertTrue(map.containsKey(0L));
+        assertEquals(3, map.get(0L));
+        assertEquals(1, map.size());
+
+        assertEquals(3, map.remove(0L));
+        assertFalse(map.containsKey(0L));
+    }
+
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        // Small key range forces long probe runs, growth and backward-shift deletions
+        LongIntHashMap map = new LongIntHashMap(0, -1);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) * 1_000_003L;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key));
+            } else {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? -1 : previous, map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            Integer value = expected.get(key * 1_000_003L);
+            assertEquals(value == null ? -1 : value, map.get(key * 1_000_003L));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        LongIntHashMap map = new LongIntHashMap(16, -1);
+        map.put(1L, 1);
+        map.put(0L, 0);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1L));
+        assertFalse(map.containsKey(0L));
+    }
+}
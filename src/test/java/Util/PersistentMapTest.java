@@ -0,0 +1,107 @@
+package Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentMapTest {
+
+    /**
+     * A key with a chosen hash code, to force collisions.
+     */
+    private record Key(int id, int hash) {
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    @Test
+    public void testPlusMinusGet() {
+        PersistentMap<String, Integer> empty = PersistentMap.empty();
+        PersistentMap<String, Integer> one = empty.plus("a", 1);
+        PersistentMap<String, Integer> two = one.plus("b", 2);
+
+        assertEquals(0, empty.size());
+        assertEquals(1, one.size());
+        assertEquals(2, two.size());
+        assertEquals(2, two.get("b"));
+        assertNull(one.get("b"));
+        assertTrue(two.containsKey("a"));
+        assertFalse(two.containsKey(null));
+
+        assertSame(two, two.plus("a", 1));
+        assertSame(two, two.minus("missing"));
+        assertEquals(Map.of("a", 3, "b", 2), two.plus("a", 3));
+        assertEquals(Map.of("b", 2), two.minus("a"));
+        assertTrue(one.minus("a").isEmpty());
+        assertThrows(NullPointerException.class, () -> one.plus(null, 1));
+        assertThrows(UnsupportedOperationException.class, () -> one.put("c", 3));
+    }
+
+    @Test
+    public void testOldVersionsUnchanged() {
+        PersistentMap<Integer, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 1_000; i++) {
+            map = map.plus(i, i);
+        }
+        PersistentMap<Integer, Integer> before = map;
+        for (int i = 0; i < 1_000; i += 2) {
+            map = map.minus(i).plus(i + 10_000, i);
+        }
+
+        assertEquals(1_000, before.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, before.get(i));
+            assertEquals(i % 2 == 0 ? null : i, map.get(i));
+        }
+        assertEquals(1_000, map.size());
+    }
+
+    @Test
+    public void testHashCollisions() {
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 10; i++) {
+            map = map.plus(new Key(i, 42), i);
+        }
+        map = map.plus(new Key(100, 42 + (1 << 20)), 100); // same low bits, different hash
+
+        assertEquals(11, map.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, map.get(new Key(i, 42)));
+        }
+        assertEquals(100, map.get(new Key(100, 42 + (1 << 20))));
+        for (int i = 0; i < 10; i++) {
+            map = map.minus(new Key(i, 42));
+        }
+        assertEquals(Map.of(new Key(100, 42 + (1 << 20)), 100), map);
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(7);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 50_000; i++) {
+            // Narrow hashes so every depth and collision path is exercised
+            int id = random.nextInt(5_000);
+            int hash = (random.nextBoolean() ? id * 0x9E3779B9 : id) & 0xFFF0_0F0F;
+            Key key = new Key(id, hash);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+}
@@ -0,0 +1,42 @@
+package Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentSetTest {
+
+    @Test
+    public void testPlusMinusContains() {
+        PersistentSet<String> empty = PersistentSet.empty();
+        PersistentSet<String> set = empty.plus("a").plus("b");
+
+        assertEquals(Set.of("a", "b"), set);
+        assertTrue(empty.isEmpty());
+        assertSame(set, set.plus("a"));
+        assertSame(set, set.minus("c"));
+        assertEquals(Set.of("b"), set.minus("a"));
+        assertTrue(set.contains("a"));
+        assertThrows(UnsupportedOperationException.class, () -> set.add("c"));
+    }
+
+    @Test
+    public void testIteration() {
+        PersistentSet<Integer> set = PersistentSet.empty();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i += 3) {
+            set = set.plus(i);
+            expected.add(i);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        for (int element : set) {
+            assertTrue(seen.add(element));
+        }
+        assertEquals(expected, seen);
+        assertEquals(expected.size(), set.size());
+    }
+}
@@ -0,0 +1,179 @@
+package Util;
+
+import Model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringDictionaryTest {
+
+    @Test
+    public void testEncodeDecode() {
+        StringDictionary dictionary = new StringDictionary();
+
+        int tolkien = dictionary.encode("J.R.R. Tolkien");
+        int lee = dictionary.encode("Harper Lee");
+        assertNotEquals(tolkien, lee);
+        assertEquals(tolkien, dictionary.encode(new String("J.R.R. Tolkien")));
+        assertEquals("J.R.R. Tolkien", dictionary.decode(tolkien));
+        assertEquals("Harper Lee", dictionary.decode(lee));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    public void testNullAndEmpty() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertEquals(StringDictionary.NONE, dictionary.encode(null));
+        assertNull(dictionary.decode(StringDictionary.NONE));
+        int empty = dictionary.encode("");
+        assertEquals("", dictionary.decode(empty));
+        assertEquals(empty, dictionary.find(""));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.decode(5));
+    }
+
+    @Test
+    public void testNonAscii() {
+        StringDictionary dictionary = new StringDictionary();
+        int accented = dictionary.encode("Gabriel García Márquez");
+        int plain = dictionary.encode("Gabriel Garcia Marquez");
+        int emoji = dictionary.encode("📚");
+
+        assertNotEquals(accented, plain);
+        assertEquals("Gabriel García Márquez", dictionary.decode(accented));
+        assertEquals("📚", dictionary.decode(emoji));
+        assertEquals(accented, dictionary.find("Gabriel García Márquez"));
+        assertEquals(emoji, dictionary.find("📚"));
+    }
+
+    @Test
+    public void testFindDoesNotInsert() {
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.encode("Dune");
+
+        assertEquals(StringDictionary.NONE, dictionary.find("Emma"));
+        assertEquals(StringDictionary.NONE, dictionary.find(null));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    public void testManyValuesAcrossPages() {
+        StringDictionary dictionary = new StringDictionary();
+        int[] codes = new int[50_000];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = dictionary.encode("Author number " + i);
+        }
+
+        assertEquals(codes.length, dictionary.size());
+        for (int i = 0; i < codes.length; i++) {
+            assertEquals(i, codes[i]);
+            assertEquals("Author number " + i, dictionary.decode(codes[i]));
+            assertEquals(codes[i], dictionary.find("Author number " + i));
+        }
+    }
+
+    @Test
+    public void testValueLargerThanPage() {
+        StringDictionary dictionary = new StringDictionary();
+        int before = dictionary.encode("short");
+        String large = "x".repeat(100_000);
+        int code = dictionary.encode(large);
+        int after = dictionary.encode("after");
+
+        assertEquals(large, dictionary.decode(code));
+        assertEquals("short", dictionary.decode(before));
+        assertEquals("after", dictionary.decode(after));
+        assertEquals(code, dictionary.find(large));
+
+        StringDictionary largeFirst = new StringDictionary();
+        int first = largeFirst.encode(large);
+        int next = largeFirst.encode("next");
+        assertEquals(large, largeFirst.decode(first));
+        assertEquals("next", largeFirst.decode(next));
+    }
+
+    @Test
+    public void testEmptyValueAfterFullPage() {
+        StringDictionary dictionary = new StringDictionary();
+        int full = dictionary.encode("y".repeat(65_536)); // exactly one page
+        int empty = dictionary.encode("");
+        int next = dictionary.encode("next");
+
+        assertEquals("", dictionary.decode(empty));
+        assertEquals(empty, dictionary.find(""));
+        assertEquals(65_536, dictionary.decode(full).length());
+        assertEquals("next", dictionary.decode(next));
+    }
+
+    @Test
+    public void testDecodeKeepsString() {
+        StringDictionary dictionary = new StringDictionary();
+        int code = dictionary.encode(new String("Harper Lee"));
+
+        assertSame(dictionary.decode(code), dictionary.decode(code));
+    }
+
+    @Test
+    public void testConcurrentEncodingAgrees() throws Exception {
+        StringDictionary dictionary = new StringDictionary();
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int start = t;
+                results.add(pool.submit(() -> {
+                    int[] codes = new int[10_000];
+                    for (int n = 0; n < codes.length; n++) {
+                        int i = (n + start * 1_250) % codes.length; // threads start at different values
+                        codes[i] = dictionary.encode("Title " + i);
+                    }
+                    return codes;
+                }));
+            }
+            int[] first = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(first, result.get());
+            }
+            assertEquals(10_000, dictionary.size());
+            for (int i = 0; i < first.length; i++) {
+                assertEquals("Title " + i, dictionary.decode(first[i]));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIntern() {
+        StringDictionary dictionary = new StringDictionary();
+        String first = dictionary.intern(new String("Harper Lee"));
+
+        assertSame(first, dictionary.intern(new String("Harper Lee")));
+        assertEquals(dictionary.find("Harper Lee"), dictionary.encode(first));
+        assertNull(dictionary.intern(null));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    public void testBooksShareAuthorsOfTheirDictionary() {
+        StringDictionary authors = new StringDictionary();
+        Book first = new Book("978-0-06-112008-4", "To Kill a Mockingbird", new String("Harper Lee"), 1960, authors);
+        Book second = new Book("978-0-06-093546-7", "Go Set a Watchman", new String("Harper Lee"), 2015, authors);
+
+        assertSame(first.getAuthor(), second.getAuthor());
+        assertEquals("Harper Lee", second.getAuthor());
+        assertEquals("Go Set a Watchman", second.getTitle());
+        assertNull(new Book("978-0-7432-7356-5", "Anonymous", null, 1900, authors).getAuthor());
+        assertEquals(1, authors.size());
+
+        // Another library's dictionary doesn't see these authors
+        assertEquals(StringDictionary.NONE, new StringDictionary().find("Harper Lee"));
+    }
+}
@@ -0,0 +1,104 @@
+package Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testFiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 1_000);
+        wheel.schedule("a", 1_025);
+        wheel.schedule("b", 1_100);
+        List<String> fired = new ArrayList<>();
+
+        assertEquals(0, wheel.advanceTo(1_020, fired::add));
+        assertEquals(1, wheel.advanceTo(1_030, fired::add)); // rounded up to the next tick, never early
+        assertEquals(List.of("a"), fired);
+        assertEquals(1, wheel.size());
+
+        assertEquals(1, wheel.advanceTo(5_000, fired::add));
+        assertEquals(List.of("a", "b"), fired);
+        assertEquals(0, wheel.size());
+        assertEquals(5_000, wheel.getTimeMillis());
+    }
+
+    @Test
+    public void testPastDeadlineFiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 500);
+        TimingWheel.Timer<String> timer = wheel.schedule("late", 100);
+        assertTrue(timer.isPending());
+
+        List<String> fired = new ArrayList<>();
+        assertEquals(1, wheel.advanceTo(500, fired::add));
+        assertEquals(List.of("late"), fired);
+        assertFalse(timer.isPending());
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> near = wheel.schedule("near", 5);
+        TimingWheel.Timer<String> far = wheel.schedule("far", 1L << 40);
+
+        assertTrue(wheel.cancel(near));
+        assertFalse(wheel.cancel(near));
+        assertTrue(wheel.cancel(far));
+        assertEquals(0, wheel.size());
+        assertEquals(0, wheel.advanceTo(Long.MAX_VALUE / 2, timer -> fail("cancelled timer fired")));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        Map<Long, TimingWheel.Timer<Long>> pending = new HashMap<>();
+        long now = 0;
+        long nextId = 0;
+
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                // Deadlines from the near past to ~2^30 ticks ahead exercise every level in use
+                long deadline = now - 5 + (random.nextLong() & ((1L << random.nextInt(31)) - 1));
+                long id = nextId++;
+                pending.put(id, wheel.schedule(id, deadline));
+            }
+            for (int i = random.nextInt(5); i > 0 && !pending.isEmpty(); i--) {
+                Long id = pending.keySet().iterator().next();
+                assertTrue(wheel.cancel(pending.remove(id)));
+            }
+
+            long before = now;
+            now += random.nextBoolean() ? random.nextInt(64) : random.nextLong() & ((1L << random.nextInt(28)) - 1);
+            long time = now;
+            List<Long> expected = new ArrayList<>();
+            for (TimingWheel.Timer<Long> timer : pending.values()) {
+                if (timer.getDeadline() <= time) {
+                    expected.add(timer.getPayload());
+                }
+            }
+
+            List<Long> fired = new ArrayList<>();
+            long[] last = {Long.MIN_VALUE};
+            wheel.advanceTo(time, id -> {
+                long deadline = pending.get(id).getDeadline();
+                assertTrue(deadline <= time, "fired early");
+                assertTrue(deadline <= before || deadline >= last[0], "fired out of order");
+                last[0] = Math.max(last[0], deadline);
+                fired.add(id);
+            });
+            fired.forEach(pending::remove);
+
+            assertEquals(expected.size(), fired.size());
+            assertTrue(fired.containsAll(expected));
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+}